@@ -34,9 +34,33 @@ public class CircularString extends LineString {
 	 */
 	public CircularString(CircularString circularString) {
 		this(circularString.hasZ(), circularString.hasM());
-		for (Point point : circularString.getPoints()) {
-			addPoint((Point) point.copy());
-		}
+		copyPoints(circularString);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coordinates
+	 *            packed coordinates, used as the points
+	 * @since 1.0.7
+	 */
+	public CircularString(CoordinateSequence coordinates) {
+		super(GeometryType.CIRCULARSTRING, coordinates);
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPoints
+	 *            frozen points
+	 */
+	private CircularString(boolean hasZ, boolean hasM,
+			CoordinateSequence frozenPoints) {
+		super(GeometryType.CIRCULARSTRING, hasZ, hasM, frozenPoints);
 	}
 
 	/**
@@ -47,4 +71,13 @@ public class CircularString extends LineString {
 		return new CircularString(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new CircularString(hasZ(), hasM(),
+				freezePoints());
+	}
+
 }
@@ -13,7 +13,12 @@ public class CompoundCurve extends Curve {
 	/**
 	 * List of line strings
 	 */
-	private List<LineString> lineStrings = new ArrayList<LineString>();
+	private List<LineString> lineStrings;
+
+	/**
+	 * Frozen line strings, null when not frozen
+	 */
+	private final List<LineString> frozenLineStrings;
 
 	/**
 	 * Constructor
@@ -32,6 +37,8 @@ public class CompoundCurve extends Curve {
 	 */
 	public CompoundCurve(boolean hasZ, boolean hasM) {
 		super(GeometryType.COMPOUNDCURVE, hasZ, hasM);
+		lineStrings = new ArrayList<LineString>();
+		frozenLineStrings = null;
 	}
 
 	/**
@@ -47,13 +54,31 @@ public class CompoundCurve extends Curve {
 		}
 	}
 
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenLineStrings
+	 *            unmodifiable list of frozen line strings
+	 */
+	private CompoundCurve(boolean hasZ, boolean hasM,
+			List<LineString> frozenLineStrings) {
+		super(GeometryType.COMPOUNDCURVE, hasZ, hasM);
+		this.frozenLineStrings = frozenLineStrings;
+	}
+
 	/**
 	 * Get the line strings
 	 * 
 	 * @return line strings
 	 */
 	public List<LineString> getLineStrings() {
-		return lineStrings;
+		return frozenLineStrings != null ? frozenLineStrings
+				: lineStrings;
 	}
 
 	/**
@@ -63,6 +88,7 @@ public class CompoundCurve extends Curve {
 	 *            line strings
 	 */
 	public void setLineStrings(List<LineString> lineStrings) {
+		verifyNotFrozen();
 		this.lineStrings = lineStrings;
 	}
 
@@ -73,7 +99,7 @@ public class CompoundCurve extends Curve {
 	 *            line string
 	 */
 	public void addLineString(LineString lineString) {
-		lineStrings.add(lineString);
+		getLineStrings().add(lineString);
 	}
 
 	/**
@@ -82,7 +108,7 @@ public class CompoundCurve extends Curve {
 	 * @return number of line strings
 	 */
 	public int numLineStrings() {
-		return lineStrings.size();
+		return getLineStrings().size();
 	}
 
 	/**
@@ -93,4 +119,58 @@ public class CompoundCurve extends Curve {
 		return new CompoundCurve(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new CompoundCurve(hasZ(), hasM(),
+				freezeGeometries(getLineStrings()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return frozenLineStrings != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return hashGeometries(super.computeHashCode(), getLineStrings());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof CompoundCurve)) {
+			return false;
+		}
+		CompoundCurve other = (CompoundCurve) obj;
+		return equalGeometries(getLineStrings(), other.getLineStrings());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof CompoundCurve)) {
+			return false;
+		}
+		CompoundCurve other = (CompoundCurve) geometry;
+		return equalGeometries(getLineStrings(), other.getLineStrings(),
+				tolerance);
+	}
+
 }
@@ -0,0 +1,483 @@
+package mil.nga.wkb.geom;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Packed sequence of point coordinates. Coordinates are stored without a
+ * {@link Point} object per vertex and read and written by index. The
+ * sequence is also a compatibility {@link java.util.List} of points, usable
+ * as the points of a {@link LineString} or {@link MultiPoint}. Points
+ * returned by {@link #get(int)} are new copies of the coordinates, changes
+ * to them are stored with {@link #set(int, Point)}. Absent z and m values
+ * are NaN.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public abstract class CoordinateSequence extends AbstractList<Point>
+		implements RandomAccess {
+
+	/**
+	 * Has z coordinates
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has m values
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	protected CoordinateSequence(boolean hasZ, boolean hasM) {
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+	}
+
+	/**
+	 * Does the sequence have z coordinates
+	 * 
+	 * @return true if has z
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Does the sequence have m values
+	 * 
+	 * @return true if has m
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Get the number of values per coordinate (2 to 4)
+	 * 
+	 * @return coordinate dimension
+	 */
+	public int getDimension() {
+		return 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+	}
+
+	/**
+	 * Get the x coordinate
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return x
+	 */
+	public abstract double getX(int index);
+
+	/**
+	 * Get the y coordinate
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return y
+	 */
+	public abstract double getY(int index);
+
+	/**
+	 * Get the z coordinate
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return z, NaN when the sequence has no z
+	 */
+	public abstract double getZ(int index);
+
+	/**
+	 * Get the m value
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return m, NaN when the sequence has no m
+	 */
+	public abstract double getM(int index);
+
+	/**
+	 * Set the coordinate values. Z and m values are ignored when the sequence
+	 * has no z or m.
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 */
+	public abstract void setCoordinate(int index, double x, double y,
+			double z, double m);
+
+	/**
+	 * Insert a coordinate, shifting the following coordinates. Z and m values
+	 * are ignored when the sequence has no z or m.
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 */
+	protected abstract void insertCoordinate(int index, double x, double y,
+			double z, double m);
+
+	/**
+	 * Remove the coordinates in the index range, shifting the following
+	 * coordinates
+	 * 
+	 * @param fromIndex
+	 *            first coordinate index to remove
+	 * @param toIndex
+	 *            coordinate index following the last removed coordinate
+	 */
+	protected abstract void removeCoordinates(int fromIndex, int toIndex);
+
+	/**
+	 * Copy the sequence
+	 * 
+	 * @return sequence copy
+	 */
+	public abstract CoordinateSequence copy();
+
+	/**
+	 * Freeze the sequence into an unmodifiable copy, or return the sequence
+	 * when already frozen. {@link #copy()} creates a modifiable copy.
+	 * 
+	 * @return frozen sequence
+	 */
+	public CoordinateSequence freeze() {
+		return new UnmodifiableCoordinateSequence(copy());
+	}
+
+	/**
+	 * Is the sequence frozen and unmodifiable
+	 * 
+	 * @return true if frozen
+	 */
+	public boolean isFrozen() {
+		return false;
+	}
+
+	/**
+	 * Add the raw bits of the point coordinates to the hash code, reading
+	 * packed coordinates without creating points
+	 * 
+	 * @param result
+	 *            hash code
+	 * @param points
+	 *            points
+	 * @return hash code
+	 */
+	static int hashPoints(int result, List<Point> points) {
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			Point point = PointView.getPoint(points, i, view);
+			result = Point.hashCoordinates(result, point.getX(),
+					point.getY(), point.getZValue(), point.getMValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Check if the raw bits of the point coordinates are equal, reading
+	 * packed coordinates without creating points
+	 * 
+	 * @param points1
+	 *            first points
+	 * @param points2
+	 *            second points
+	 * @return true if equal
+	 */
+	static boolean equalPoints(List<Point> points1, List<Point> points2) {
+		boolean equal = points1.size() == points2.size();
+		PointView view1 = PointView.createView(points1);
+		PointView view2 = PointView.createView(points2);
+		for (int i = 0; equal && i < points1.size(); i++) {
+			Point point1 = PointView.getPoint(points1, i, view1);
+			Point point2 = PointView.getPoint(points2, i, view2);
+			equal = Point.equalCoordinates(point1.getX(), point1.getY(),
+					point1.getZValue(), point1.getMValue(), point2.getX(),
+					point2.getY(), point2.getZValue(), point2.getMValue());
+		}
+		return equal;
+	}
+
+	/**
+	 * Check if the point coordinate values differ by no more than the
+	 * tolerance, reading packed coordinates without creating points
+	 * 
+	 * @param points1
+	 *            first points
+	 * @param points2
+	 *            second points
+	 * @param tolerance
+	 *            maximum difference of each x, y, z and m value
+	 * @return true if equal within the tolerance
+	 */
+	static boolean equalPoints(List<Point> points1, List<Point> points2,
+			double tolerance) {
+		boolean equal = points1.size() == points2.size();
+		PointView view1 = PointView.createView(points1);
+		PointView view2 = PointView.createView(points2);
+		for (int i = 0; equal && i < points1.size(); i++) {
+			Point point1 = PointView.getPoint(points1, i, view1);
+			Point point2 = PointView.getPoint(points2, i, view2);
+			equal = Point.equalValues(point1.getX(), point2.getX(), tolerance)
+					&& Point.equalValues(point1.getY(), point2.getY(),
+							tolerance)
+					&& Point.equalValues(point1.getZValue(),
+							point2.getZValue(), tolerance)
+					&& Point.equalValues(point1.getMValue(),
+							point2.getMValue(), tolerance);
+		}
+		return equal;
+	}
+
+	/**
+	 * Freeze the points into an unmodifiable coordinate sequence, packing
+	 * them into a double coordinate sequence when not already packed
+	 * 
+	 * @param points
+	 *            points
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @return frozen sequence
+	 */
+	static CoordinateSequence freeze(List<Point> points, boolean hasZ,
+			boolean hasM) {
+		CoordinateSequence frozen;
+		if (points instanceof CoordinateSequence) {
+			frozen = ((CoordinateSequence) points).freeze();
+		} else {
+			CoordinateSequence coordinates = DoubleCoordinateSequence.FACTORY
+					.create(hasZ, hasM, points.size());
+			coordinates.addAll(points);
+			frozen = new UnmodifiableCoordinateSequence(coordinates);
+		}
+		return frozen;
+	}
+
+	/**
+	 * Add a coordinate to the end of the sequence
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 */
+	public void addCoordinate(double x, double y) {
+		addCoordinate(x, y, Double.NaN, Double.NaN);
+	}
+
+	/**
+	 * Add a coordinate to the end of the sequence. Z and m values are ignored
+	 * when the sequence has no z or m.
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 */
+	public void addCoordinate(double x, double y, double z, double m) {
+		insertCoordinate(size(), x, y, z, m);
+		modCount++;
+	}
+
+	/**
+	 * Get a new point with the coordinate values
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return point
+	 */
+	@Override
+	public Point get(int index) {
+		Point point = new Point(hasZ, hasM, getX(index), getY(index));
+		if (hasZ) {
+			point.setZValue(getZ(index));
+		}
+		if (hasM) {
+			point.setMValue(getM(index));
+		}
+		return point;
+	}
+
+	/**
+	 * Set the coordinate values from the point
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @param point
+	 *            point
+	 * @return point of the previous coordinate values
+	 */
+	@Override
+	public Point set(int index, Point point) {
+		Point previous = get(index);
+		setCoordinate(index, point.getX(), point.getY(), point.getZValue(),
+				point.getMValue());
+		return previous;
+	}
+
+	/**
+	 * Insert the point coordinate values
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @param point
+	 *            point
+	 */
+	@Override
+	public void add(int index, Point point) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index
+					+ ", Size: " + size());
+		}
+		insertCoordinate(index, point.getX(), point.getY(),
+				point.getZValue(), point.getMValue());
+		modCount++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Point remove(int index) {
+		Point previous = get(index);
+		removeCoordinates(index, index + 1);
+		modCount++;
+		return previous;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		removeCoordinates(fromIndex, toIndex);
+		modCount++;
+	}
+
+	/**
+	 * Open a coordinate of packed values at the index, shifting the following
+	 * coordinates and growing the array when full
+	 * 
+	 * @param values
+	 *            packed values array
+	 * @param size
+	 *            number of coordinates
+	 * @param stride
+	 *            number of values per coordinate
+	 * @param index
+	 *            coordinate index
+	 * @return packed values array, a new array when grown
+	 */
+	protected static <A> A insertValues(A values, int size, int stride,
+			int index) {
+		int length = size * stride;
+		int capacity = Array.getLength(values);
+		if (length + stride > capacity) {
+			@SuppressWarnings("unchecked")
+			A expanded = (A) Array.newInstance(values.getClass()
+					.getComponentType(),
+					Math.max(length + stride, capacity * 3 / 2));
+			System.arraycopy(values, 0, expanded, 0, length);
+			values = expanded;
+		}
+		int offset = index * stride;
+		System.arraycopy(values, offset, values, offset + stride, length
+				- offset);
+		return values;
+	}
+
+	/**
+	 * Remove the coordinates of packed values in the index range, shifting
+	 * the following coordinates
+	 * 
+	 * @param values
+	 *            packed values array
+	 * @param size
+	 *            number of coordinates
+	 * @param stride
+	 *            number of values per coordinate
+	 * @param fromIndex
+	 *            first coordinate index to remove
+	 * @param toIndex
+	 *            coordinate index following the last removed coordinate
+	 */
+	protected static void removeValues(Object values, int size, int stride,
+			int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+			throw new IndexOutOfBoundsException("From Index: " + fromIndex
+					+ ", To Index: " + toIndex + ", Size: " + size);
+		}
+		System.arraycopy(values, toIndex * stride, values, fromIndex * stride,
+				(size - toIndex) * stride);
+	}
+
+	/**
+	 * Set the values of an inserted coordinate, removing the coordinate again
+	 * when the values are rejected
+	 * 
+	 * @param index
+	 *            inserted coordinate index
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 */
+	protected void setInsertedCoordinate(int index, double x, double y,
+			double z, double m) {
+		try {
+			setCoordinate(index, x, y, z, m);
+		} catch (IllegalArgumentException e) {
+			removeCoordinates(index, index + 1);
+			throw e;
+		}
+	}
+
+	/**
+	 * Verify the coordinate index is within the sequence
+	 * 
+	 * @param index
+	 *            coordinate index
+	 */
+	protected void verifyIndex(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index
+					+ ", Size: " + size());
+		}
+	}
+
+}
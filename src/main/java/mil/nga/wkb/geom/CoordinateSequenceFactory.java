@@ -0,0 +1,24 @@
+package mil.nga.wkb.geom;
+
+/**
+ * Factory of empty coordinate sequences of a storage type
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public interface CoordinateSequenceFactory {
+
+	/**
+	 * Create an empty coordinate sequence
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param capacity
+	 *            initial number of coordinates to allocate
+	 * @return coordinate sequence
+	 */
+	public CoordinateSequence create(boolean hasZ, boolean hasM, int capacity);
+
+}
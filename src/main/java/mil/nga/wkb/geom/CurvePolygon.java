@@ -14,7 +14,12 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	/**
 	 * List of rings
 	 */
-	private List<T> rings = new ArrayList<T>();
+	private List<T> rings;
+
+	/**
+	 * Frozen rings, null when not frozen
+	 */
+	private final List<T> frozenRings;
 
 	/**
 	 * Constructor
@@ -32,7 +37,7 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 *            has m
 	 */
 	public CurvePolygon(boolean hasZ, boolean hasM) {
-		super(GeometryType.CURVEPOLYGON, hasZ, hasM);
+		this(GeometryType.CURVEPOLYGON, hasZ, hasM);
 	}
 
 	/**
@@ -62,6 +67,27 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 */
 	protected CurvePolygon(GeometryType type, boolean hasZ, boolean hasM) {
 		super(type, hasZ, hasM);
+		rings = new ArrayList<T>();
+		frozenRings = null;
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenRings
+	 *            unmodifiable list of frozen rings
+	 * @since 1.0.7
+	 */
+	protected CurvePolygon(GeometryType type, boolean hasZ, boolean hasM,
+			List<T> frozenRings) {
+		super(type, hasZ, hasM);
+		this.frozenRings = frozenRings;
 	}
 
 	/**
@@ -70,7 +96,7 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 * @return rings
 	 */
 	public List<T> getRings() {
-		return rings;
+		return frozenRings != null ? frozenRings : rings;
 	}
 
 	/**
@@ -80,6 +106,7 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 *            rings
 	 */
 	public void setRings(List<T> rings) {
+		verifyNotFrozen();
 		this.rings = rings;
 	}
 
@@ -90,7 +117,7 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 *            ring
 	 */
 	public void addRing(T ring) {
-		rings.add(ring);
+		getRings().add(ring);
 	}
 
 	/**
@@ -99,7 +126,7 @@ public class CurvePolygon<T extends Curve> extends Surface {
 	 * @return number of rings
 	 */
 	public int numRings() {
-		return rings.size();
+		return getRings().size();
 	}
 
 	/**
@@ -110,4 +137,57 @@ public class CurvePolygon<T extends Curve> extends Surface {
 		return new CurvePolygon<T>(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new CurvePolygon<T>(GeometryType.CURVEPOLYGON,
+				hasZ(), hasM(), freezeGeometries(getRings()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return frozenRings != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return hashGeometries(super.computeHashCode(), getRings());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof CurvePolygon)) {
+			return false;
+		}
+		CurvePolygon<?> other = (CurvePolygon<?>) obj;
+		return equalGeometries(getRings(), other.getRings());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof CurvePolygon)) {
+			return false;
+		}
+		CurvePolygon<?> other = (CurvePolygon<?>) geometry;
+		return equalGeometries(getRings(), other.getRings(), tolerance);
+	}
+
 }
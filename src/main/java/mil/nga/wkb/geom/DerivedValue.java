@@ -0,0 +1,26 @@
+package mil.nga.wkb.geom;
+
+/**
+ * Value derived from a geometry, computed once and cached on frozen
+ * geometries by {@link Geometry#getDerivedValue(DerivedValue)}. Cached values
+ * are keyed by the derived value instance, so only the holder of an instance
+ * can compute the values cached for it.
+ * 
+ * @param <T>
+ *            derived value type
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public interface DerivedValue<T> {
+
+	/**
+	 * Compute the value of the geometry
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return derived value, may be null
+	 */
+	public T compute(Geometry geometry);
+
+}
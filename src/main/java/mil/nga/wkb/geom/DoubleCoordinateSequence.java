@@ -0,0 +1,226 @@
+package mil.nga.wkb.geom;
+
+import java.util.Arrays;
+
+/**
+ * Coordinate sequence packed in a single double array of x, y, z and m
+ * values, with a stride of 2 to 4 values per coordinate
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class DoubleCoordinateSequence extends CoordinateSequence {
+
+	/**
+	 * Factory of double coordinate sequences
+	 */
+	public static final CoordinateSequenceFactory FACTORY =
+			new CoordinateSequenceFactory() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CoordinateSequence create(boolean hasZ, boolean hasM,
+				int capacity) {
+			return new DoubleCoordinateSequence(hasZ, hasM, capacity);
+		}
+
+	};
+
+	/**
+	 * Default initial number of coordinates
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * Number of values per coordinate
+	 */
+	private final int stride;
+
+	/**
+	 * Index offset of the z value within a coordinate, -1 for none
+	 */
+	private final int zOffset;
+
+	/**
+	 * Index offset of the m value within a coordinate, -1 for none
+	 */
+	private final int mOffset;
+
+	/**
+	 * Packed coordinate values
+	 */
+	private double[] coordinates;
+
+	/**
+	 * Number of coordinates
+	 */
+	private int size;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	public DoubleCoordinateSequence(boolean hasZ, boolean hasM) {
+		this(hasZ, hasM, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param capacity
+	 *            initial number of coordinates to allocate
+	 */
+	public DoubleCoordinateSequence(boolean hasZ, boolean hasM, int capacity) {
+		super(hasZ, hasM);
+		stride = getDimension();
+		zOffset = hasZ ? 2 : -1;
+		mOffset = hasM ? stride - 1 : -1;
+		coordinates = new double[Math.max(capacity, 0) * stride];
+	}
+
+	/**
+	 * Constructor wrapping packed coordinate values
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param coordinates
+	 *            packed x, y, z and m values, not copied
+	 */
+	public DoubleCoordinateSequence(boolean hasZ, boolean hasM,
+			double[] coordinates) {
+		this(hasZ, hasM, 0);
+		if (coordinates.length % stride != 0) {
+			throw new IllegalArgumentException("Coordinate values length "
+					+ coordinates.length + " is not a multiple of the "
+					+ stride + " values per coordinate");
+		}
+		this.coordinates = coordinates;
+		this.size = coordinates.length / stride;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sequence
+	 *            sequence to copy
+	 */
+	public DoubleCoordinateSequence(DoubleCoordinateSequence sequence) {
+		this(sequence.hasZ(), sequence.hasM(), Arrays.copyOf(
+				sequence.coordinates, sequence.size * sequence.stride));
+	}
+
+	/**
+	 * Get the packed coordinate values. The array is not copied and may be
+	 * longer than the {@link #size()} coordinates.
+	 * 
+	 * @return packed x, y, z and m values
+	 */
+	public double[] getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX(int index) {
+		verifyIndex(index);
+		return coordinates[index * stride];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY(int index) {
+		verifyIndex(index);
+		return coordinates[index * stride + 1];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZ(int index) {
+		verifyIndex(index);
+		return zOffset < 0 ? Double.NaN : coordinates[index * stride
+				+ zOffset];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getM(int index) {
+		verifyIndex(index);
+		return mOffset < 0 ? Double.NaN : coordinates[index * stride
+				+ mOffset];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setCoordinate(int index, double x, double y, double z,
+			double m) {
+		verifyIndex(index);
+		int offset = index * stride;
+		coordinates[offset] = x;
+		coordinates[offset + 1] = y;
+		if (zOffset >= 0) {
+			coordinates[offset + zOffset] = z;
+		}
+		if (mOffset >= 0) {
+			coordinates[offset + mOffset] = m;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void insertCoordinate(int index, double x, double y, double z,
+			double m) {
+		coordinates = insertValues(coordinates, size, stride, index);
+		size++;
+		setInsertedCoordinate(index, x, y, z, m);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeCoordinates(int fromIndex, int toIndex) {
+		removeValues(coordinates, size, stride, fromIndex, toIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CoordinateSequence copy() {
+		return new DoubleCoordinateSequence(this);
+	}
+
+}
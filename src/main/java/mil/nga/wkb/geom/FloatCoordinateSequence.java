@@ -0,0 +1,254 @@
+package mil.nga.wkb.geom;
+
+import java.util.Arrays;
+
+/**
+ * Coordinate sequence packed in a single float array of x, y, z and m
+ * values, with a stride of 2 to 4 values per coordinate. Values are rounded
+ * to single precision when stored, using half the memory of a
+ * {@link DoubleCoordinateSequence}. Stored values are read as the exact
+ * doubles of the floats, so they round trip through Well-Known Binary
+ * doubles without further loss. Finite values beyond the float range are
+ * rejected rather than stored as infinity.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class FloatCoordinateSequence extends CoordinateSequence {
+
+	/**
+	 * Factory of float coordinate sequences
+	 */
+	public static final CoordinateSequenceFactory FACTORY =
+			new CoordinateSequenceFactory() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CoordinateSequence create(boolean hasZ, boolean hasM,
+				int capacity) {
+			return new FloatCoordinateSequence(hasZ, hasM, capacity);
+		}
+
+	};
+
+	/**
+	 * Default initial number of coordinates
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * Number of values per coordinate
+	 */
+	private final int stride;
+
+	/**
+	 * Index offset of the z value within a coordinate, -1 for none
+	 */
+	private final int zOffset;
+
+	/**
+	 * Index offset of the m value within a coordinate, -1 for none
+	 */
+	private final int mOffset;
+
+	/**
+	 * Packed coordinate values
+	 */
+	private float[] coordinates;
+
+	/**
+	 * Number of coordinates
+	 */
+	private int size;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	public FloatCoordinateSequence(boolean hasZ, boolean hasM) {
+		this(hasZ, hasM, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param capacity
+	 *            initial number of coordinates to allocate
+	 */
+	public FloatCoordinateSequence(boolean hasZ, boolean hasM, int capacity) {
+		super(hasZ, hasM);
+		stride = getDimension();
+		zOffset = hasZ ? 2 : -1;
+		mOffset = hasM ? stride - 1 : -1;
+		coordinates = new float[Math.max(capacity, 0) * stride];
+	}
+
+	/**
+	 * Constructor wrapping packed coordinate values
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param coordinates
+	 *            packed x, y, z and m values, not copied
+	 */
+	public FloatCoordinateSequence(boolean hasZ, boolean hasM,
+			float[] coordinates) {
+		this(hasZ, hasM, 0);
+		if (coordinates.length % stride != 0) {
+			throw new IllegalArgumentException("Coordinate values length "
+					+ coordinates.length + " is not a multiple of the "
+					+ stride + " values per coordinate");
+		}
+		this.coordinates = coordinates;
+		this.size = coordinates.length / stride;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sequence
+	 *            sequence to copy
+	 */
+	public FloatCoordinateSequence(FloatCoordinateSequence sequence) {
+		this(sequence.hasZ(), sequence.hasM(), Arrays.copyOf(
+				sequence.coordinates, sequence.size * sequence.stride));
+	}
+
+	/**
+	 * Get the packed coordinate values. The array is not copied and may be
+	 * longer than the {@link #size()} coordinates.
+	 * 
+	 * @return packed x, y, z and m values
+	 */
+	public float[] getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX(int index) {
+		verifyIndex(index);
+		return coordinates[index * stride];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY(int index) {
+		verifyIndex(index);
+		return coordinates[index * stride + 1];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZ(int index) {
+		verifyIndex(index);
+		return zOffset < 0 ? Double.NaN : coordinates[index * stride
+				+ zOffset];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getM(int index) {
+		verifyIndex(index);
+		return mOffset < 0 ? Double.NaN : coordinates[index * stride
+				+ mOffset];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException
+	 *             when a finite value is outside of the float range
+	 */
+	@Override
+	public void setCoordinate(int index, double x, double y, double z,
+			double m) {
+		verifyIndex(index);
+		float floatX = toFloat(x);
+		float floatY = toFloat(y);
+		float floatZ = zOffset >= 0 ? toFloat(z) : Float.NaN;
+		float floatM = mOffset >= 0 ? toFloat(m) : Float.NaN;
+		int offset = index * stride;
+		coordinates[offset] = floatX;
+		coordinates[offset + 1] = floatY;
+		if (zOffset >= 0) {
+			coordinates[offset + zOffset] = floatZ;
+		}
+		if (mOffset >= 0) {
+			coordinates[offset + mOffset] = floatM;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void insertCoordinate(int index, double x, double y, double z,
+			double m) {
+		coordinates = insertValues(coordinates, size, stride, index);
+		size++;
+		setInsertedCoordinate(index, x, y, z, m);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeCoordinates(int fromIndex, int toIndex) {
+		removeValues(coordinates, size, stride, fromIndex, toIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CoordinateSequence copy() {
+		return new FloatCoordinateSequence(this);
+	}
+
+	/**
+	 * Round a value to single precision
+	 * 
+	 * @param value
+	 *            value
+	 * @return float value
+	 */
+	private static float toFloat(double value) {
+		float floatValue = (float) value;
+		if (Float.isInfinite(floatValue) && !Double.isInfinite(value)) {
+			throw new IllegalArgumentException("Value " + value
+					+ " is outside of the float range");
+		}
+		return floatValue;
+	}
+
+}
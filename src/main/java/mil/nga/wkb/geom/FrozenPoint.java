@@ -0,0 +1,158 @@
+package mil.nga.wkb.geom;
+
+/**
+ * Frozen point, holding the coordinates in final fields and rejecting all
+ * modifications
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+class FrozenPoint extends Point {
+
+	/**
+	 * X coordinate
+	 */
+	private final double x;
+
+	/**
+	 * Y coordinate
+	 */
+	private final double y;
+
+	/**
+	 * Z coordinate, NaN when not set
+	 */
+	private final double z;
+
+	/**
+	 * M value, NaN when not set
+	 */
+	private final double m;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param point
+	 *            point to freeze
+	 */
+	FrozenPoint(Point point) {
+		super(point.hasZ(), point.hasM(), point.getX(), point.getY());
+		x = point.getX();
+		y = point.getY();
+		z = point.getZValue();
+		m = point.getMValue();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setX(double x) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setY(double y) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getZ() {
+		return Double.isNaN(z) ? null : z;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setZ(Double z) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZValue() {
+		return z;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setZValue(double z) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getM() {
+		return Double.isNaN(m) ? null : m;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setM(Double m) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMValue() {
+		return m;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setMValue(double m) {
+		verifyNotFrozen();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return true;
+	}
+
+}
@@ -1,5 +1,9 @@
 package mil.nga.wkb.geom;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The root of the geometry type hierarchy
  * 
@@ -22,6 +26,30 @@ public abstract class Geometry {
 	 */
 	private final boolean hasM;
 
+	/**
+	 * Hash code derived value
+	 */
+	private static final DerivedValue<Integer> HASH_CODE = new DerivedValue<Integer>() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Integer compute(Geometry geometry) {
+			return geometry.computeHashCode();
+		}
+
+	};
+
+	/**
+	 * Alternating derived value keys and values cached on a frozen geometry,
+	 * null until the first value is cached. The array is never changed once
+	 * published, a copy with the new value replaces it. Values cached
+	 * concurrently by different threads may be lost and are then computed
+	 * again.
+	 */
+	private volatile Object[] derivedValues;
+
 	/**
 	 * Constructor
 	 * 
@@ -88,4 +116,280 @@ public abstract class Geometry {
 	 */
 	public abstract Geometry copy();
 
+	/**
+	 * Freeze the geometry into an immutable deep copy, or return the geometry
+	 * when already frozen. The state of a frozen geometry is held in final
+	 * fields, so it can be shared between threads without synchronization,
+	 * even when published through a data race. Modifying a frozen geometry
+	 * throws an {@link UnsupportedOperationException}, {@link #copy()}
+	 * creates a modifiable copy.
+	 * 
+	 * @return frozen geometry
+	 * @since 1.0.7
+	 */
+	public abstract Geometry freeze();
+
+	/**
+	 * Is the geometry frozen and immutable
+	 * 
+	 * @return true if frozen
+	 * @since 1.0.7
+	 */
+	public boolean isFrozen() {
+		return false;
+	}
+
+	/**
+	 * Get the value derived from the geometry. The value of a frozen geometry
+	 * is computed once and cached on the geometry, the value of a modifiable
+	 * geometry is computed on every call. Cached values are shared, so
+	 * modifiable values must be copied before being returned to callers.
+	 * 
+	 * @param derivedValue
+	 *            derived value computation, the cache key
+	 * @return derived value
+	 * @since 1.0.7
+	 */
+	public <T> T getDerivedValue(DerivedValue<T> derivedValue) {
+		T value;
+		if (isFrozen()) {
+			Object[] values = derivedValues;
+			int index = indexOf(values, derivedValue);
+			if (index >= 0) {
+				@SuppressWarnings("unchecked")
+				T cached = (T) values[index + 1];
+				value = cached;
+			} else {
+				value = derivedValue.compute(this);
+				// Read again to keep values cached while computing
+				values = derivedValues;
+				if (indexOf(values, derivedValue) < 0) {
+					int length = values != null ? values.length : 0;
+					Object[] expanded = new Object[length + 2];
+					if (values != null) {
+						System.arraycopy(values, 0, expanded, 0, length);
+					}
+					expanded[length] = derivedValue;
+					expanded[length + 1] = value;
+					derivedValues = expanded;
+				}
+			}
+		} else {
+			value = derivedValue.compute(this);
+		}
+		return value;
+	}
+
+	/**
+	 * Get the derived value when cached, without computing it
+	 * 
+	 * @param derivedValue
+	 *            derived value key
+	 * @return cached value, null when not cached
+	 */
+	private <T> T getCachedValue(DerivedValue<T> derivedValue) {
+		T value = null;
+		Object[] values = derivedValues;
+		int index = indexOf(values, derivedValue);
+		if (index >= 0) {
+			@SuppressWarnings("unchecked")
+			T cached = (T) values[index + 1];
+			value = cached;
+		}
+		return value;
+	}
+
+	/**
+	 * Get the index of the derived value key within the cached values
+	 * 
+	 * @param values
+	 *            cached keys and values, may be null
+	 * @param derivedValue
+	 *            derived value key
+	 * @return key index, -1 when not cached
+	 */
+	private static int indexOf(Object[] values, DerivedValue<?> derivedValue) {
+		int index = -1;
+		if (values != null) {
+			for (int i = 0; i < values.length; i += 2) {
+				if (values[i] == derivedValue) {
+					index = i;
+					break;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Get the hash code of the geometry values, computed over the raw
+	 * coordinate bits. The hash code of a frozen geometry is computed once and
+	 * cached on the geometry.
+	 * 
+	 * @return hash code
+	 */
+	@Override
+	public int hashCode() {
+		return isFrozen() ? getDerivedValue(HASH_CODE) : computeHashCode();
+	}
+
+	/**
+	 * Compute the hash code of the geometry values, including the values of
+	 * the contained geometries
+	 * 
+	 * @return hash code
+	 * @since 1.0.7
+	 */
+	protected int computeHashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + geometryType.getCode();
+		result = prime * result + (hasZ ? 1231 : 1237);
+		result = prime * result + (hasM ? 1231 : 1237);
+		return result;
+	}
+
+	/**
+	 * Value equality of the geometry type, z and m flags and the coordinates
+	 * of the geometry and all contained geometries. Coordinates are equal when
+	 * their raw bits are equal. Frozen, packed and modifiable geometries with
+	 * the same values are equal.
+	 * 
+	 * @param obj
+	 *            object
+	 * @return true if equal
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Geometry)) {
+			return false;
+		}
+		Geometry other = (Geometry) obj;
+		if (geometryType != other.geometryType || hasZ != other.hasZ
+				|| hasM != other.hasM) {
+			return false;
+		}
+		Integer hashCode = getCachedValue(HASH_CODE);
+		Integer otherHashCode = other.getCachedValue(HASH_CODE);
+		if (hashCode != null && otherHashCode != null
+				&& !hashCode.equals(otherHashCode)) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Equality of the geometry type, z and m flags and structure, with each
+	 * coordinate value differing by no more than the tolerance
+	 * 
+	 * @param geometry
+	 *            geometry to compare
+	 * @param tolerance
+	 *            maximum difference of each x, y, z and m value
+	 * @return true if equal within the tolerance
+	 * @since 1.0.7
+	 */
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		return geometry != null && geometryType == geometry.geometryType
+				&& hasZ == geometry.hasZ && hasM == geometry.hasM;
+	}
+
+	/**
+	 * Verify the geometry is not frozen before modifying it
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             when frozen
+	 * @since 1.0.7
+	 */
+	protected void verifyNotFrozen() {
+		if (isFrozen()) {
+			throw new UnsupportedOperationException("Frozen "
+					+ geometryType.getName() + " geometry can not be modified");
+		}
+	}
+
+	/**
+	 * Freeze the geometries into an unmodifiable list
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return unmodifiable list of frozen geometries
+	 * @since 1.0.7
+	 */
+	protected static <T extends Geometry> List<T> freezeGeometries(
+			List<T> geometries) {
+		List<T> frozen = new ArrayList<T>(geometries.size());
+		for (T geometry : geometries) {
+			@SuppressWarnings("unchecked")
+			T frozenGeometry = (T) geometry.freeze();
+			frozen.add(frozenGeometry);
+		}
+		return Collections.unmodifiableList(frozen);
+	}
+
+	/**
+	 * Add the value hash codes of the geometries to the hash code
+	 * 
+	 * @param result
+	 *            hash code
+	 * @param geometries
+	 *            geometries
+	 * @return hash code
+	 * @since 1.0.7
+	 */
+	protected static int hashGeometries(int result,
+			List<? extends Geometry> geometries) {
+		final int prime = 31;
+		for (Geometry geometry : geometries) {
+			result = prime * result + geometry.computeHashCode();
+		}
+		return result;
+	}
+
+	/**
+	 * Check if the geometries are equal in order
+	 * 
+	 * @param geometries1
+	 *            first geometries
+	 * @param geometries2
+	 *            second geometries
+	 * @return true if equal
+	 * @since 1.0.7
+	 */
+	protected static boolean equalGeometries(
+			List<? extends Geometry> geometries1,
+			List<? extends Geometry> geometries2) {
+		boolean equal = geometries1.size() == geometries2.size();
+		for (int i = 0; equal && i < geometries1.size(); i++) {
+			equal = geometries1.get(i).equals(geometries2.get(i));
+		}
+		return equal;
+	}
+
+	/**
+	 * Check if the geometries are equal in order within the tolerance
+	 * 
+	 * @param geometries1
+	 *            first geometries
+	 * @param geometries2
+	 *            second geometries
+	 * @param tolerance
+	 *            maximum difference of each x, y, z and m value
+	 * @return true if equal within the tolerance
+	 * @since 1.0.7
+	 */
+	protected static boolean equalGeometries(
+			List<? extends Geometry> geometries1,
+			List<? extends Geometry> geometries2, double tolerance) {
+		boolean equal = geometries1.size() == geometries2.size();
+		for (int i = 0; equal && i < geometries1.size(); i++) {
+			equal = geometries1.get(i).equalsExact(geometries2.get(i),
+					tolerance);
+		}
+		return equal;
+	}
+
 }
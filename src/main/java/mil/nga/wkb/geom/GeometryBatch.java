@@ -0,0 +1,750 @@
+package mil.nga.wkb.geom;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar batch of many geometries, stored as primitive arrays instead of a
+ * geometry object per feature. Each geometry has a type code and a range of
+ * parts, each part a range of rings and each ring a range of coordinates,
+ * with the x, y, z and m values of all coordinates in separate columns. The
+ * layout follows the GeoArrow separated coordinate encoding, with the same
+ * three offset levels used by every supported type:
+ * <ul>
+ * <li>Point, Line String and Circular String: one part of one ring</li>
+ * <li>Polygon and Triangle: one part of one ring per polygon ring</li>
+ * <li>Multi Point and Multi Line String: one part of one ring per member</li>
+ * <li>Multi Polygon, Polyhedral Surface and TIN: one part per polygon</li>
+ * </ul>
+ * Kernels can read the columns in tight primitive loops over a whole batch.
+ * The column arrays are not copied and may be longer than the stored values.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeometryBatch {
+
+	/**
+	 * Default initial number of geometries
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Has z coordinates
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has m values
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Geometry type codes
+	 */
+	private byte[] types;
+
+	/**
+	 * Part offsets of each geometry, one more than the number of geometries
+	 */
+	private int[] geometryOffsets;
+
+	/**
+	 * Ring offsets of each part, one more than the number of parts
+	 */
+	private int[] partOffsets;
+
+	/**
+	 * Coordinate offsets of each ring, one more than the number of rings
+	 */
+	private int[] ringOffsets;
+
+	/**
+	 * X coordinates
+	 */
+	private double[] x;
+
+	/**
+	 * Y coordinates
+	 */
+	private double[] y;
+
+	/**
+	 * Z coordinates, null when no z
+	 */
+	private double[] z;
+
+	/**
+	 * M values, null when no m
+	 */
+	private double[] m;
+
+	/**
+	 * Number of geometries
+	 */
+	private int size;
+
+	/**
+	 * Number of parts
+	 */
+	private int numParts;
+
+	/**
+	 * Number of rings
+	 */
+	private int numRings;
+
+	/**
+	 * Number of coordinates
+	 */
+	private int numCoordinates;
+
+	/**
+	 * Determine if the geometry type can be stored in a batch
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if supported
+	 */
+	public static boolean isSupported(GeometryType geometryType) {
+		boolean supported;
+		switch (geometryType) {
+		case POINT:
+		case LINESTRING:
+		case CIRCULARSTRING:
+		case POLYGON:
+		case TRIANGLE:
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			supported = true;
+			break;
+		default:
+			supported = false;
+		}
+		return supported;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	public GeometryBatch(boolean hasZ, boolean hasM) {
+		this(hasZ, hasM, DEFAULT_CAPACITY, DEFAULT_CAPACITY * 8);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param geometryCapacity
+	 *            initial number of geometries to allocate
+	 * @param coordinateCapacity
+	 *            initial number of coordinates to allocate
+	 */
+	public GeometryBatch(boolean hasZ, boolean hasM, int geometryCapacity,
+			int coordinateCapacity) {
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+		geometryCapacity = Math.max(geometryCapacity, 1);
+		coordinateCapacity = Math.max(coordinateCapacity, 1);
+		types = new byte[geometryCapacity];
+		geometryOffsets = new int[geometryCapacity + 1];
+		partOffsets = new int[geometryCapacity + 1];
+		ringOffsets = new int[geometryCapacity + 1];
+		x = new double[coordinateCapacity];
+		y = new double[coordinateCapacity];
+		if (hasZ) {
+			z = new double[coordinateCapacity];
+		}
+		if (hasM) {
+			m = new double[coordinateCapacity];
+		}
+	}
+
+	/**
+	 * Does the batch have z coordinates
+	 * 
+	 * @return true if has z
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Does the batch have m values
+	 * 
+	 * @return true if has m
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Get the number of geometries
+	 * 
+	 * @return number of geometries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the number of parts of all geometries
+	 * 
+	 * @return number of parts
+	 */
+	public int numParts() {
+		return numParts;
+	}
+
+	/**
+	 * Get the number of rings of all parts
+	 * 
+	 * @return number of rings
+	 */
+	public int numRings() {
+		return numRings;
+	}
+
+	/**
+	 * Get the number of coordinates of all rings
+	 * 
+	 * @return number of coordinates
+	 */
+	public int numCoordinates() {
+		return numCoordinates;
+	}
+
+	/**
+	 * Get the geometry type of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry type
+	 */
+	public GeometryType getGeometryType(int index) {
+		verifyIndex(index);
+		return GeometryType.fromCode(types[index]);
+	}
+
+	/**
+	 * Get the geometry type code column
+	 * 
+	 * @return geometry type codes
+	 */
+	public byte[] getTypes() {
+		return types;
+	}
+
+	/**
+	 * Get the geometry part offsets column. The parts of geometry i are
+	 * offsets[i] up to offsets[i + 1].
+	 * 
+	 * @return geometry part offsets
+	 */
+	public int[] getGeometryOffsets() {
+		return geometryOffsets;
+	}
+
+	/**
+	 * Get the part ring offsets column. The rings of part i are offsets[i] up
+	 * to offsets[i + 1].
+	 * 
+	 * @return part ring offsets
+	 */
+	public int[] getPartOffsets() {
+		return partOffsets;
+	}
+
+	/**
+	 * Get the ring coordinate offsets column. The coordinates of ring i are
+	 * offsets[i] up to offsets[i + 1].
+	 * 
+	 * @return ring coordinate offsets
+	 */
+	public int[] getRingOffsets() {
+		return ringOffsets;
+	}
+
+	/**
+	 * Get the x coordinate column
+	 * 
+	 * @return x coordinates
+	 */
+	public double[] getX() {
+		return x;
+	}
+
+	/**
+	 * Get the y coordinate column
+	 * 
+	 * @return y coordinates
+	 */
+	public double[] getY() {
+		return y;
+	}
+
+	/**
+	 * Get the z coordinate column
+	 * 
+	 * @return z coordinates, null when no z
+	 */
+	public double[] getZ() {
+		return z;
+	}
+
+	/**
+	 * Get the m value column
+	 * 
+	 * @return m values, null when no m
+	 */
+	public double[] getM() {
+		return m;
+	}
+
+	/**
+	 * Get the first coordinate index of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return coordinate index
+	 */
+	public int getCoordinateStart(int index) {
+		verifyIndex(index);
+		return ringOffsets[partOffsets[geometryOffsets[index]]];
+	}
+
+	/**
+	 * Get the coordinate index following the last coordinate of a geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return coordinate index
+	 */
+	public int getCoordinateEnd(int index) {
+		verifyIndex(index);
+		return ringOffsets[partOffsets[geometryOffsets[index + 1]]];
+	}
+
+	/**
+	 * Begin a new geometry, followed by its parts
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return geometry index
+	 */
+	public int beginGeometry(GeometryType geometryType) {
+		if (!isSupported(geometryType)) {
+			throw new IllegalArgumentException("Unsupported "
+					+ getClass().getSimpleName() + " Geometry Type: "
+					+ geometryType);
+		}
+		if (size == types.length) {
+			int capacity = grow(size);
+			types = Arrays.copyOf(types, capacity);
+			geometryOffsets = Arrays.copyOf(geometryOffsets, capacity + 1);
+		}
+		types[size++] = (byte) geometryType.getCode();
+		geometryOffsets[size] = numParts;
+		return size - 1;
+	}
+
+	/**
+	 * Begin a new part of the current geometry, followed by its rings
+	 */
+	public void beginPart() {
+		if (size == 0) {
+			throw new IllegalStateException("No geometry has been begun");
+		}
+		if (numParts + 1 == partOffsets.length) {
+			partOffsets = Arrays.copyOf(partOffsets, grow(numParts) + 1);
+		}
+		partOffsets[++numParts] = numRings;
+		geometryOffsets[size] = numParts;
+	}
+
+	/**
+	 * Begin a new ring of the current part, followed by its coordinates
+	 */
+	public void beginRing() {
+		if (size == 0 || geometryOffsets[size - 1] == numParts) {
+			throw new IllegalStateException(
+					"No part of the current geometry has been begun");
+		}
+		if (numRings + 1 == ringOffsets.length) {
+			ringOffsets = Arrays.copyOf(ringOffsets, grow(numRings) + 1);
+		}
+		ringOffsets[++numRings] = numCoordinates;
+		partOffsets[numParts] = numRings;
+	}
+
+	/**
+	 * Add a coordinate to the current ring
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 */
+	public void addCoordinate(double x, double y) {
+		addCoordinate(x, y, Double.NaN, Double.NaN);
+	}
+
+	/**
+	 * Add a coordinate to the current ring. Z and m values are ignored when
+	 * the batch has no z or m.
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 */
+	public void addCoordinate(double x, double y, double z, double m) {
+		if (size == 0 || geometryOffsets[size - 1] == numParts
+				|| partOffsets[numParts - 1] == numRings) {
+			throw new IllegalStateException(
+					"No ring of the current part has been begun");
+		}
+		if (numCoordinates == this.x.length) {
+			int capacity = grow(numCoordinates);
+			this.x = Arrays.copyOf(this.x, capacity);
+			this.y = Arrays.copyOf(this.y, capacity);
+			if (hasZ) {
+				this.z = Arrays.copyOf(this.z, capacity);
+			}
+			if (hasM) {
+				this.m = Arrays.copyOf(this.m, capacity);
+			}
+		}
+		this.x[numCoordinates] = x;
+		this.y[numCoordinates] = y;
+		if (hasZ) {
+			this.z[numCoordinates] = z;
+		}
+		if (hasM) {
+			this.m[numCoordinates] = m;
+		}
+		ringOffsets[numRings] = ++numCoordinates;
+	}
+
+	/**
+	 * Truncate the batch to the number of geometries, removing the later
+	 * geometries with their parts, rings and coordinates
+	 * 
+	 * @param size
+	 *            number of geometries to keep
+	 */
+	public void truncate(int size) {
+		if (size < 0 || size > this.size) {
+			throw new IndexOutOfBoundsException("Truncated size: " + size
+					+ ", Size: " + this.size);
+		}
+		this.size = size;
+		numParts = geometryOffsets[size];
+		numRings = partOffsets[numParts];
+		numCoordinates = ringOffsets[numRings];
+	}
+
+	/**
+	 * Add a geometry to the batch. Absent z and m values of the geometry are
+	 * stored as NaN. Geometries with z or m values the batch has no column
+	 * for are rejected.
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return geometry index
+	 */
+	public int add(Geometry geometry) {
+		GeometryType geometryType = geometry.getGeometryType();
+		verifyDimensions(geometry.hasZ(), geometry.hasM());
+		int index = beginGeometry(geometryType);
+		switch (geometryType) {
+		case POINT:
+			beginPart();
+			beginRing();
+			addCoordinate((Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			beginPart();
+			addRing(((LineString) geometry).getPoints());
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			addPolygon((Polygon) geometry);
+			break;
+		case MULTIPOINT:
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				beginPart();
+				beginRing();
+				addCoordinate(PointView.getPoint(points, i, view));
+			}
+			break;
+		case MULTILINESTRING:
+			for (LineString lineString : ((MultiLineString) geometry)
+					.getLineStrings()) {
+				beginPart();
+				addRing(lineString.getPoints());
+			}
+			break;
+		case MULTIPOLYGON:
+			for (Polygon polygon : ((MultiPolygon) geometry).getPolygons()) {
+				addPolygon(polygon);
+			}
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			for (Polygon polygon : ((PolyhedralSurface) geometry)
+					.getPolygons()) {
+				addPolygon(polygon);
+			}
+			break;
+		default:
+		}
+		return index;
+	}
+
+	/**
+	 * Verify the batch has a column for the z and m values of a geometry
+	 * 
+	 * @param hasZ
+	 *            geometry has z
+	 * @param hasM
+	 *            geometry has m
+	 */
+	public void verifyDimensions(boolean hasZ, boolean hasM) {
+		if ((hasZ && !this.hasZ) || (hasM && !this.hasM)) {
+			throw new IllegalArgumentException("Geometry with z: " + hasZ
+					+ ", m: " + hasM + " does not fit a "
+					+ getClass().getSimpleName() + " with z: " + this.hasZ
+					+ ", m: " + this.hasM);
+		}
+	}
+
+	/**
+	 * Add a polygon as a part of the current geometry
+	 * 
+	 * @param polygon
+	 *            polygon
+	 */
+	private void addPolygon(Polygon polygon) {
+		beginPart();
+		for (LineString ring : polygon.getRings()) {
+			addRing(ring.getPoints());
+		}
+	}
+
+	/**
+	 * Add the points as a ring of the current part
+	 * 
+	 * @param points
+	 *            points
+	 */
+	private void addRing(List<Point> points) {
+		beginRing();
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			addCoordinate(PointView.getPoint(points, i, view));
+		}
+	}
+
+	/**
+	 * Add the point as a coordinate of the current ring
+	 * 
+	 * @param point
+	 *            point
+	 */
+	private void addCoordinate(Point point) {
+		addCoordinate(point.getX(), point.getY(), point.getZValue(),
+				point.getMValue());
+	}
+
+	/**
+	 * Get a geometry from the batch, with points packed in double coordinate
+	 * sequences
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry
+	 */
+	public Geometry getGeometry(int index) {
+
+		GeometryType geometryType = getGeometryType(index);
+		int part = geometryOffsets[index];
+		int partEnd = geometryOffsets[index + 1];
+
+		Geometry geometry = null;
+
+		switch (geometryType) {
+		case POINT:
+			geometry = getPoint(ringOffsets[partOffsets[part]]);
+			break;
+		case LINESTRING:
+			geometry = new LineString(getCoordinates(partOffsets[part]));
+			break;
+		case CIRCULARSTRING:
+			geometry = new CircularString(getCoordinates(partOffsets[part]));
+			break;
+		case POLYGON:
+			geometry = getPolygon(new Polygon(hasZ, hasM), part);
+			break;
+		case TRIANGLE:
+			geometry = getPolygon(new Triangle(hasZ, hasM), part);
+			break;
+		case MULTIPOINT:
+			CoordinateSequence points = getCoordinates(
+					ringOffsets[partOffsets[part]],
+					ringOffsets[partOffsets[partEnd]]);
+			geometry = new MultiPoint(points);
+			break;
+		case MULTILINESTRING:
+			MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
+			for (; part < partEnd; part++) {
+				multiLineString.addLineString(new LineString(
+						getCoordinates(partOffsets[part])));
+			}
+			geometry = multiLineString;
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			for (; part < partEnd; part++) {
+				multiPolygon.addPolygon(getPolygon(new Polygon(hasZ, hasM),
+						part));
+			}
+			geometry = multiPolygon;
+			break;
+		case POLYHEDRALSURFACE:
+			PolyhedralSurface polyhedralSurface = new PolyhedralSurface(hasZ,
+					hasM);
+			for (; part < partEnd; part++) {
+				polyhedralSurface.addPolygon(getPolygon(new Polygon(hasZ,
+						hasM), part));
+			}
+			geometry = polyhedralSurface;
+			break;
+		case TIN:
+			TIN tin = new TIN(hasZ, hasM);
+			for (; part < partEnd; part++) {
+				tin.addPolygon(getPolygon(new Triangle(hasZ, hasM), part));
+			}
+			geometry = tin;
+			break;
+		default:
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Add the rings of a part to a polygon
+	 * 
+	 * @param polygon
+	 *            polygon
+	 * @param part
+	 *            part index
+	 * @return polygon
+	 */
+	private Polygon getPolygon(Polygon polygon, int part) {
+		int ringEnd = partOffsets[part + 1];
+		for (int ring = partOffsets[part]; ring < ringEnd; ring++) {
+			polygon.addRing(new LineString(getCoordinates(ring)));
+		}
+		return polygon;
+	}
+
+	/**
+	 * Get a point from the coordinate columns
+	 * 
+	 * @param coordinate
+	 *            coordinate index
+	 * @return point
+	 */
+	private Point getPoint(int coordinate) {
+		Point point = new Point(hasZ, hasM, x[coordinate], y[coordinate]);
+		if (hasZ) {
+			point.setZValue(z[coordinate]);
+		}
+		if (hasM) {
+			point.setMValue(m[coordinate]);
+		}
+		return point;
+	}
+
+	/**
+	 * Get the coordinates of a ring
+	 * 
+	 * @param ring
+	 *            ring index
+	 * @return packed coordinates
+	 */
+	private CoordinateSequence getCoordinates(int ring) {
+		return getCoordinates(ringOffsets[ring], ringOffsets[ring + 1]);
+	}
+
+	/**
+	 * Get the coordinates in an index range, interleaving the columns into a
+	 * double coordinate sequence
+	 * 
+	 * @param from
+	 *            first coordinate index
+	 * @param to
+	 *            coordinate index following the last coordinate
+	 * @return packed coordinates
+	 */
+	private CoordinateSequence getCoordinates(int from, int to) {
+		int stride = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+		double[] coordinates = new double[(to - from) * stride];
+		for (int i = from, offset = 0; i < to; i++, offset += stride) {
+			coordinates[offset] = x[i];
+			coordinates[offset + 1] = y[i];
+			if (hasZ) {
+				coordinates[offset + 2] = z[i];
+			}
+			if (hasM) {
+				coordinates[offset + stride - 1] = m[i];
+			}
+		}
+		return new DoubleCoordinateSequence(hasZ, hasM, coordinates);
+	}
+
+	/**
+	 * Grow an array capacity
+	 * 
+	 * @param length
+	 *            current length
+	 * @return new capacity
+	 */
+	private static int grow(int length) {
+		return Math.max(length + 1, length * 3 / 2);
+	}
+
+	/**
+	 * Verify the geometry index is within the batch
+	 * 
+	 * @param index
+	 *            geometry index
+	 */
+	private void verifyIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ size);
+		}
+	}
+
+}
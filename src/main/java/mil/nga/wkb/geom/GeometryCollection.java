@@ -13,7 +13,12 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	/**
 	 * List of geometries
 	 */
-	private List<T> geometries = new ArrayList<T>();
+	private List<T> geometries;
+
+	/**
+	 * Frozen geometries, null when not frozen
+	 */
+	private final List<T> frozenGeometries;
 
 	/**
 	 * Constructor
@@ -31,7 +36,7 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 *            has m
 	 */
 	public GeometryCollection(boolean hasZ, boolean hasM) {
-		super(GeometryType.GEOMETRYCOLLECTION, hasZ, hasM);
+		this(GeometryType.GEOMETRYCOLLECTION, hasZ, hasM);
 	}
 
 	/**
@@ -61,6 +66,27 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 */
 	protected GeometryCollection(GeometryType type, boolean hasZ, boolean hasM) {
 		super(type, hasZ, hasM);
+		geometries = new ArrayList<T>();
+		frozenGeometries = null;
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenGeometries
+	 *            unmodifiable list of frozen geometries
+	 * @since 1.0.7
+	 */
+	protected GeometryCollection(GeometryType type, boolean hasZ,
+			boolean hasM, List<T> frozenGeometries) {
+		super(type, hasZ, hasM);
+		this.frozenGeometries = frozenGeometries;
 	}
 
 	/**
@@ -69,7 +95,7 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 * @return geometries
 	 */
 	public List<T> getGeometries() {
-		return geometries;
+		return frozenGeometries != null ? frozenGeometries : geometries;
 	}
 
 	/**
@@ -79,6 +105,7 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 *            geometries
 	 */
 	public void setGeometries(List<T> geometries) {
+		verifyNotFrozen();
 		this.geometries = geometries;
 	}
 
@@ -89,7 +116,7 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 *            geometry
 	 */
 	public void addGeometry(T geometry) {
-		geometries.add(geometry);
+		getGeometries().add(geometry);
 	}
 
 	/**
@@ -98,7 +125,7 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 	 * @return number of geometries
 	 */
 	public int numGeometries() {
-		return geometries.size();
+		return getGeometries().size();
 	}
 
 	/**
@@ -109,4 +136,59 @@ public class GeometryCollection<T extends Geometry> extends Geometry {
 		return new GeometryCollection<T>(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new GeometryCollection<T>(
+				GeometryType.GEOMETRYCOLLECTION, hasZ(), hasM(),
+				freezeGeometries(getGeometries()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return frozenGeometries != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return hashGeometries(super.computeHashCode(), getGeometries());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof GeometryCollection)) {
+			return false;
+		}
+		GeometryCollection<?> other = (GeometryCollection<?>) obj;
+		return equalGeometries(getGeometries(), other.getGeometries());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof GeometryCollection)) {
+			return false;
+		}
+		GeometryCollection<?> other = (GeometryCollection<?>) geometry;
+		return equalGeometries(getGeometries(), other.getGeometries(),
+				tolerance);
+	}
+
 }
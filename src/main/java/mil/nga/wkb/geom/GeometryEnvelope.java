@@ -77,6 +77,25 @@ public class GeometryEnvelope {
 		this.hasM = hasM;
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param envelope
+	 *            envelope to copy
+	 * @since 1.0.7
+	 */
+	public GeometryEnvelope(GeometryEnvelope envelope) {
+		this(envelope.hasZ(), envelope.hasM());
+		minX = envelope.getMinX();
+		maxX = envelope.getMaxX();
+		minY = envelope.getMinY();
+		maxY = envelope.getMaxY();
+		minZ = envelope.getMinZ();
+		maxZ = envelope.getMaxZ();
+		minM = envelope.getMinM();
+		maxM = envelope.getMaxM();
+	}
+
 	/**
 	 * True if has Z coordinates
 	 * 
@@ -285,4 +304,14 @@ public class GeometryEnvelope {
 		this.maxM = maxM;
 	}
 
+	/**
+	 * Copy the envelope
+	 * 
+	 * @return envelope copy
+	 * @since 1.0.7
+	 */
+	public GeometryEnvelope copy() {
+		return new GeometryEnvelope(this);
+	}
+
 }
@@ -0,0 +1,544 @@
+package mil.nga.wkb.geom;
+
+import java.util.Arrays;
+
+/**
+ * Coordinate sequence quantized to a fixed grid, packed in a single int
+ * array of grid cell offsets with a stride of 2 to 4 values per coordinate.
+ * A value is stored as the nearest whole number of resolution sized cells
+ * from the grid origin, using half the memory of a
+ * {@link DoubleCoordinateSequence}. X and y share a grid resolution and are
+ * offset from the x and y origin. Z and m values have their own origin and
+ * resolution, by default offset from zero with the x and y resolution. Values
+ * already on the grid, including values read back from Well-Known Binary
+ * written from the sequence, are stored without loss. NaN values are stored
+ * as {@link Integer#MIN_VALUE}.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GridCoordinateSequence extends CoordinateSequence {
+
+	/**
+	 * Stored grid offset of a NaN value
+	 */
+	public static final int NAN_OFFSET = Integer.MIN_VALUE;
+
+	/**
+	 * Default initial number of coordinates
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * Create a factory of grid coordinate sequences
+	 * 
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            grid cell size
+	 * @return coordinate sequence factory
+	 */
+	public static CoordinateSequenceFactory factory(double originX,
+			double originY, double resolution) {
+		return factory(originX, originY, resolution, 0, resolution, 0,
+				resolution);
+	}
+
+	/**
+	 * Create a factory of grid coordinate sequences with z and m grids
+	 * 
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            x and y grid cell size
+	 * @param originZ
+	 *            grid origin z
+	 * @param zResolution
+	 *            z grid cell size
+	 * @param originM
+	 *            grid origin m
+	 * @param mResolution
+	 *            m grid cell size
+	 * @return coordinate sequence factory
+	 */
+	public static CoordinateSequenceFactory factory(final double originX,
+			final double originY, final double resolution,
+			final double originZ, final double zResolution,
+			final double originM, final double mResolution) {
+		verifyResolution(resolution);
+		verifyResolution(zResolution);
+		verifyResolution(mResolution);
+		return new CoordinateSequenceFactory() {
+
+			/**
+			 * {@inheritDoc}
+			 */
+			@Override
+			public CoordinateSequence create(boolean hasZ, boolean hasM,
+					int capacity) {
+				return new GridCoordinateSequence(hasZ, hasM, originX,
+						originY, resolution, originZ, zResolution, originM,
+						mResolution, capacity);
+			}
+
+		};
+	}
+
+	/**
+	 * Grid origin x
+	 */
+	private final double originX;
+
+	/**
+	 * Grid origin y
+	 */
+	private final double originY;
+
+	/**
+	 * X and y grid cell size
+	 */
+	private final double resolution;
+
+	/**
+	 * Grid origin z
+	 */
+	private final double originZ;
+
+	/**
+	 * Z grid cell size
+	 */
+	private final double zResolution;
+
+	/**
+	 * Grid origin m
+	 */
+	private final double originM;
+
+	/**
+	 * M grid cell size
+	 */
+	private final double mResolution;
+
+	/**
+	 * Number of values per coordinate
+	 */
+	private final int stride;
+
+	/**
+	 * Index offset of the z value within a coordinate, -1 for none
+	 */
+	private final int zOffset;
+
+	/**
+	 * Index offset of the m value within a coordinate, -1 for none
+	 */
+	private final int mOffset;
+
+	/**
+	 * Packed coordinate grid offsets
+	 */
+	private int[] coordinates;
+
+	/**
+	 * Number of coordinates
+	 */
+	private int size;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            grid cell size
+	 */
+	public GridCoordinateSequence(boolean hasZ, boolean hasM, double originX,
+			double originY, double resolution) {
+		this(hasZ, hasM, originX, originY, resolution, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            grid cell size
+	 * @param capacity
+	 *            initial number of coordinates to allocate
+	 */
+	public GridCoordinateSequence(boolean hasZ, boolean hasM, double originX,
+			double originY, double resolution, int capacity) {
+		this(hasZ, hasM, originX, originY, resolution, 0, resolution, 0,
+				resolution, capacity);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            x and y grid cell size
+	 * @param originZ
+	 *            grid origin z
+	 * @param zResolution
+	 *            z grid cell size
+	 * @param originM
+	 *            grid origin m
+	 * @param mResolution
+	 *            m grid cell size
+	 * @param capacity
+	 *            initial number of coordinates to allocate
+	 */
+	public GridCoordinateSequence(boolean hasZ, boolean hasM, double originX,
+			double originY, double resolution, double originZ,
+			double zResolution, double originM, double mResolution,
+			int capacity) {
+		super(hasZ, hasM);
+		verifyResolution(resolution);
+		verifyResolution(zResolution);
+		verifyResolution(mResolution);
+		this.originX = originX;
+		this.originY = originY;
+		this.resolution = resolution;
+		this.originZ = originZ;
+		this.zResolution = zResolution;
+		this.originM = originM;
+		this.mResolution = mResolution;
+		stride = getDimension();
+		zOffset = hasZ ? 2 : -1;
+		mOffset = hasM ? stride - 1 : -1;
+		coordinates = new int[Math.max(capacity, 0) * stride];
+	}
+
+	/**
+	 * Constructor wrapping packed coordinate grid offsets
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            grid cell size
+	 * @param coordinates
+	 *            packed x, y, z and m grid offsets, not copied
+	 */
+	public GridCoordinateSequence(boolean hasZ, boolean hasM, double originX,
+			double originY, double resolution, int[] coordinates) {
+		this(hasZ, hasM, originX, originY, resolution, 0, resolution, 0,
+				resolution, coordinates);
+	}
+
+	/**
+	 * Constructor wrapping packed coordinate grid offsets
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param originX
+	 *            grid origin x
+	 * @param originY
+	 *            grid origin y
+	 * @param resolution
+	 *            x and y grid cell size
+	 * @param originZ
+	 *            grid origin z
+	 * @param zResolution
+	 *            z grid cell size
+	 * @param originM
+	 *            grid origin m
+	 * @param mResolution
+	 *            m grid cell size
+	 * @param coordinates
+	 *            packed x, y, z and m grid offsets, not copied
+	 */
+	public GridCoordinateSequence(boolean hasZ, boolean hasM, double originX,
+			double originY, double resolution, double originZ,
+			double zResolution, double originM, double mResolution,
+			int[] coordinates) {
+		this(hasZ, hasM, originX, originY, resolution, originZ, zResolution,
+				originM, mResolution, 0);
+		if (coordinates.length % stride != 0) {
+			throw new IllegalArgumentException("Coordinate values length "
+					+ coordinates.length + " is not a multiple of the "
+					+ stride + " values per coordinate");
+		}
+		this.coordinates = coordinates;
+		this.size = coordinates.length / stride;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sequence
+	 *            sequence to copy
+	 */
+	public GridCoordinateSequence(GridCoordinateSequence sequence) {
+		this(sequence.hasZ(), sequence.hasM(), sequence.originX,
+				sequence.originY, sequence.resolution, sequence.originZ,
+				sequence.zResolution, sequence.originM, sequence.mResolution,
+				Arrays.copyOf(sequence.coordinates, sequence.size
+						* sequence.stride));
+	}
+
+	/**
+	 * Get the grid origin x
+	 * 
+	 * @return origin x
+	 */
+	public double getOriginX() {
+		return originX;
+	}
+
+	/**
+	 * Get the grid origin y
+	 * 
+	 * @return origin y
+	 */
+	public double getOriginY() {
+		return originY;
+	}
+
+	/**
+	 * Get the x and y grid cell size
+	 * 
+	 * @return resolution
+	 */
+	public double getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Get the grid origin z
+	 * 
+	 * @return origin z
+	 */
+	public double getOriginZ() {
+		return originZ;
+	}
+
+	/**
+	 * Get the z grid cell size
+	 * 
+	 * @return z resolution
+	 */
+	public double getZResolution() {
+		return zResolution;
+	}
+
+	/**
+	 * Get the grid origin m
+	 * 
+	 * @return origin m
+	 */
+	public double getOriginM() {
+		return originM;
+	}
+
+	/**
+	 * Get the m grid cell size
+	 * 
+	 * @return m resolution
+	 */
+	public double getMResolution() {
+		return mResolution;
+	}
+
+	/**
+	 * Get the packed coordinate grid offsets. The array is not copied and may
+	 * be longer than the {@link #size()} coordinates.
+	 * 
+	 * @return packed x, y, z and m grid offsets
+	 */
+	public int[] getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX(int index) {
+		verifyIndex(index);
+		return toValue(coordinates[index * stride], originX, resolution);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY(int index) {
+		verifyIndex(index);
+		return toValue(coordinates[index * stride + 1], originY,
+				resolution);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZ(int index) {
+		verifyIndex(index);
+		return zOffset < 0 ? Double.NaN : toValue(coordinates[index * stride
+				+ zOffset], originZ, zResolution);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getM(int index) {
+		verifyIndex(index);
+		return mOffset < 0 ? Double.NaN : toValue(coordinates[index * stride
+				+ mOffset], originM, mResolution);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException
+	 *             when a value is outside of the int grid range
+	 */
+	@Override
+	public void setCoordinate(int index, double x, double y, double z,
+			double m) {
+		verifyIndex(index);
+		int gridX = toOffset(x, originX, resolution);
+		int gridY = toOffset(y, originY, resolution);
+		int gridZ = zOffset >= 0 ? toOffset(z, originZ, zResolution)
+				: NAN_OFFSET;
+		int gridM = mOffset >= 0 ? toOffset(m, originM, mResolution)
+				: NAN_OFFSET;
+		int offset = index * stride;
+		coordinates[offset] = gridX;
+		coordinates[offset + 1] = gridY;
+		if (zOffset >= 0) {
+			coordinates[offset + zOffset] = gridZ;
+		}
+		if (mOffset >= 0) {
+			coordinates[offset + mOffset] = gridM;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void insertCoordinate(int index, double x, double y, double z,
+			double m) {
+		coordinates = insertValues(coordinates, size, stride, index);
+		size++;
+		setInsertedCoordinate(index, x, y, z, m);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeCoordinates(int fromIndex, int toIndex) {
+		removeValues(coordinates, size, stride, fromIndex, toIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CoordinateSequence copy() {
+		return new GridCoordinateSequence(this);
+	}
+
+	/**
+	 * Quantize a value to the nearest grid offset
+	 * 
+	 * @param value
+	 *            value
+	 * @param origin
+	 *            grid origin
+	 * @param resolution
+	 *            grid cell size
+	 * @return grid offset
+	 */
+	private static int toOffset(double value, double origin,
+			double resolution) {
+		int offset = NAN_OFFSET;
+		if (!Double.isNaN(value)) {
+			double cells = Math.rint((value - origin) / resolution);
+			if (cells <= NAN_OFFSET || cells > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Value " + value
+						+ " is outside of the grid with origin " + origin
+						+ " and resolution " + resolution);
+			}
+			offset = (int) cells;
+		}
+		return offset;
+	}
+
+	/**
+	 * Get the value of a grid offset
+	 * 
+	 * @param offset
+	 *            grid offset
+	 * @param origin
+	 *            grid origin
+	 * @param resolution
+	 *            grid cell size
+	 * @return value
+	 */
+	private static double toValue(int offset, double origin,
+			double resolution) {
+		return offset == NAN_OFFSET ? Double.NaN : origin + offset
+				* resolution;
+	}
+
+	/**
+	 * Verify the grid resolution is a positive finite cell size
+	 * 
+	 * @param resolution
+	 *            grid cell size
+	 */
+	private static void verifyResolution(double resolution) {
+		if (!(resolution > 0) || Double.isInfinite(resolution)) {
+			throw new IllegalArgumentException(
+					"Grid resolution must be a positive finite value: "
+							+ resolution);
+		}
+	}
+
+}
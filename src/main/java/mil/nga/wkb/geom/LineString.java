@@ -13,7 +13,12 @@ public class LineString extends Curve {
 	/**
 	 * List of points
 	 */
-	private List<Point> points = new ArrayList<Point>();
+	private List<Point> points;
+
+	/**
+	 * Frozen points, null when not frozen
+	 */
+	private final CoordinateSequence frozenPoints;
 
 	/**
 	 * Constructor
@@ -31,7 +36,7 @@ public class LineString extends Curve {
 	 *            has m
 	 */
 	public LineString(boolean hasZ, boolean hasM) {
-		super(GeometryType.LINESTRING, hasZ, hasM);
+		this(GeometryType.LINESTRING, hasZ, hasM);
 	}
 
 	/**
@@ -42,9 +47,18 @@ public class LineString extends Curve {
 	 */
 	public LineString(LineString lineString) {
 		this(lineString.hasZ(), lineString.hasM());
-		for (Point point : lineString.getPoints()) {
-			addPoint((Point) point.copy());
-		}
+		copyPoints(lineString);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coordinates
+	 *            packed coordinates, used as the points
+	 * @since 1.0.7
+	 */
+	public LineString(CoordinateSequence coordinates) {
+		this(GeometryType.LINESTRING, coordinates);
 	}
 
 	/**
@@ -59,6 +73,71 @@ public class LineString extends Curve {
 	 */
 	protected LineString(GeometryType type, boolean hasZ, boolean hasM) {
 		super(type, hasZ, hasM);
+		points = new ArrayList<Point>();
+		frozenPoints = null;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param coordinates
+	 *            packed coordinates, used as the points
+	 * @since 1.0.7
+	 */
+	protected LineString(GeometryType type, CoordinateSequence coordinates) {
+		super(type, coordinates.hasZ(), coordinates.hasM());
+		points = coordinates;
+		frozenPoints = null;
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPoints
+	 *            frozen points
+	 * @since 1.0.7
+	 */
+	protected LineString(GeometryType type, boolean hasZ, boolean hasM,
+			CoordinateSequence frozenPoints) {
+		super(type, hasZ, hasM);
+		this.frozenPoints = frozenPoints;
+	}
+
+	/**
+	 * Freeze the points of the line string
+	 * 
+	 * @return frozen points
+	 * @since 1.0.7
+	 */
+	protected CoordinateSequence freezePoints() {
+		return CoordinateSequence.freeze(getPoints(), hasZ(), hasM());
+	}
+
+	/**
+	 * Copy the points of the line string, as an array copy when the points
+	 * are packed coordinates
+	 * 
+	 * @param lineString
+	 *            line string to copy points from
+	 * @since 1.0.7
+	 */
+	protected void copyPoints(LineString lineString) {
+		List<Point> points = lineString.getPoints();
+		if (points instanceof CoordinateSequence) {
+			setPoints(((CoordinateSequence) points).copy());
+		} else {
+			for (Point point : points) {
+				addPoint((Point) point.copy());
+			}
+		}
 	}
 
 	/**
@@ -67,7 +146,7 @@ public class LineString extends Curve {
 	 * @return points
 	 */
 	public List<Point> getPoints() {
-		return points;
+		return frozenPoints != null ? frozenPoints : points;
 	}
 
 	/**
@@ -77,6 +156,7 @@ public class LineString extends Curve {
 	 *            points
 	 */
 	public void setPoints(List<Point> points) {
+		verifyNotFrozen();
 		this.points = points;
 	}
 
@@ -87,7 +167,7 @@ public class LineString extends Curve {
 	 *            point
 	 */
 	public void addPoint(Point point) {
-		points.add(point);
+		getPoints().add(point);
 	}
 
 	/**
@@ -96,7 +176,45 @@ public class LineString extends Curve {
 	 * @return number of points
 	 */
 	public int numPoints() {
-		return points.size();
+		return getPoints().size();
+	}
+
+	/**
+	 * Get the packed coordinates when the points are stored as a coordinate
+	 * sequence
+	 * 
+	 * @return coordinate sequence, null when not packed
+	 * @since 1.0.7
+	 */
+	public CoordinateSequence getCoordinateSequence() {
+		List<Point> points = getPoints();
+		return points instanceof CoordinateSequence
+				? (CoordinateSequence) points : null;
+	}
+
+	/**
+	 * Pack the points into a double coordinate sequence
+	 * 
+	 * @since 1.0.7
+	 */
+	public void pack() {
+		pack(DoubleCoordinateSequence.FACTORY);
+	}
+
+	/**
+	 * Pack the points into a coordinate sequence created by the factory.
+	 * Points previously retrieved are no longer part of the line string.
+	 * 
+	 * @param factory
+	 *            coordinate sequence factory
+	 * @since 1.0.7
+	 */
+	public void pack(CoordinateSequenceFactory factory) {
+		verifyNotFrozen();
+		CoordinateSequence coordinates = factory.create(hasZ(), hasM(),
+				points.size());
+		coordinates.addAll(points);
+		points = coordinates;
 	}
 
 	/**
@@ -107,4 +225,59 @@ public class LineString extends Curve {
 		return new LineString(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new LineString(GeometryType.LINESTRING,
+				hasZ(), hasM(), freezePoints());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return frozenPoints != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return CoordinateSequence.hashPoints(super.computeHashCode(),
+				getPoints());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof LineString)) {
+			return false;
+		}
+		LineString other = (LineString) obj;
+		return CoordinateSequence.equalPoints(getPoints(), other.getPoints());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof LineString)) {
+			return false;
+		}
+		LineString other = (LineString) geometry;
+		return CoordinateSequence.equalPoints(getPoints(), other.getPoints(),
+				tolerance);
+	}
+
 }
@@ -1,5 +1,7 @@
 package mil.nga.wkb.geom;
 
+import java.util.List;
+
 /**
  * A restricted form of GeometryCollection where each Geometry in the collection
  * must be of type Curve.
@@ -22,4 +24,22 @@ public abstract class MultiCurve<T extends Curve> extends GeometryCollection<T>
 		super(type, hasZ, hasM);
 	}
 
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenGeometries
+	 *            unmodifiable list of frozen geometries
+	 * @since 1.0.7
+	 */
+	protected MultiCurve(GeometryType type, boolean hasZ, boolean hasM,
+			List<T> frozenGeometries) {
+		super(type, hasZ, hasM, frozenGeometries);
+	}
+
 }
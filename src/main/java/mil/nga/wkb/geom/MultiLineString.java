@@ -42,6 +42,22 @@ public class MultiLineString extends MultiCurve<LineString> {
 		}
 	}
 
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenLineStrings
+	 *            unmodifiable list of frozen line strings
+	 */
+	private MultiLineString(boolean hasZ, boolean hasM,
+			List<LineString> frozenLineStrings) {
+		super(GeometryType.MULTILINESTRING, hasZ, hasM,
+				frozenLineStrings);
+	}
+
 	/**
 	 * Get the line strings
 	 * 
@@ -88,4 +104,13 @@ public class MultiLineString extends MultiCurve<LineString> {
 		return new MultiLineString(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new MultiLineString(hasZ(), hasM(),
+				freezeGeometries(getLineStrings()));
+	}
+
 }
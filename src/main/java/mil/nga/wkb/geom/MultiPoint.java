@@ -37,11 +37,42 @@ public class MultiPoint extends GeometryCollection<Point> {
 	 */
 	public MultiPoint(MultiPoint multiPoint) {
 		this(multiPoint.hasZ(), multiPoint.hasM());
-		for (Point point : multiPoint.getPoints()) {
-			addPoint((Point) point.copy());
+		List<Point> points = multiPoint.getPoints();
+		if (points instanceof CoordinateSequence) {
+			setPoints(((CoordinateSequence) points).copy());
+		} else {
+			for (Point point : points) {
+				addPoint((Point) point.copy());
+			}
 		}
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param coordinates
+	 *            packed coordinates, used as the points
+	 * @since 1.0.7
+	 */
+	public MultiPoint(CoordinateSequence coordinates) {
+		this(coordinates.hasZ(), coordinates.hasM());
+		setPoints(coordinates);
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPoints
+	 *            frozen points
+	 */
+	private MultiPoint(boolean hasZ, boolean hasM, List<Point> frozenPoints) {
+		super(GeometryType.MULTIPOINT, hasZ, hasM, frozenPoints);
+	}
+
 	/**
 	 * Get the points
 	 * 
@@ -80,6 +111,44 @@ public class MultiPoint extends GeometryCollection<Point> {
 		return numGeometries();
 	}
 
+	/**
+	 * Get the packed coordinates when the points are stored as a coordinate
+	 * sequence
+	 * 
+	 * @return coordinate sequence, null when not packed
+	 * @since 1.0.7
+	 */
+	public CoordinateSequence getCoordinateSequence() {
+		List<Point> points = getPoints();
+		return points instanceof CoordinateSequence
+				? (CoordinateSequence) points : null;
+	}
+
+	/**
+	 * Pack the points into a double coordinate sequence
+	 * 
+	 * @since 1.0.7
+	 */
+	public void pack() {
+		pack(DoubleCoordinateSequence.FACTORY);
+	}
+
+	/**
+	 * Pack the points into a coordinate sequence created by the factory.
+	 * Points previously retrieved are no longer part of the multi point.
+	 * 
+	 * @param factory
+	 *            coordinate sequence factory
+	 * @since 1.0.7
+	 */
+	public void pack(CoordinateSequenceFactory factory) {
+		List<Point> points = getPoints();
+		CoordinateSequence coordinates = factory.create(hasZ(), hasM(),
+				points.size());
+		coordinates.addAll(points);
+		setPoints(coordinates);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -88,4 +157,13 @@ public class MultiPoint extends GeometryCollection<Point> {
 		return new MultiPoint(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new MultiPoint(hasZ(), hasM(),
+				CoordinateSequence.freeze(getPoints(), hasZ(), hasM()));
+	}
+
 }
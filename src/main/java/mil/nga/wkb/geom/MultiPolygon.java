@@ -42,6 +42,21 @@ public class MultiPolygon extends MultiSurface<Polygon> {
 		}
 	}
 
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPolygons
+	 *            unmodifiable list of frozen polygons
+	 */
+	private MultiPolygon(boolean hasZ, boolean hasM,
+			List<Polygon> frozenPolygons) {
+		super(GeometryType.MULTIPOLYGON, hasZ, hasM, frozenPolygons);
+	}
+
 	/**
 	 * Get the polygons
 	 * 
@@ -88,4 +103,13 @@ public class MultiPolygon extends MultiSurface<Polygon> {
 		return new MultiPolygon(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new MultiPolygon(hasZ(), hasM(),
+				freezeGeometries(getPolygons()));
+	}
+
 }
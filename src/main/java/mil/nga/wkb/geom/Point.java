@@ -19,14 +19,14 @@ public class Point extends Geometry {
 	private double y;
 
 	/**
-	 * Z coordinate
+	 * Z coordinate, NaN when not set
 	 */
-	private Double z;
+	private double z = Double.NaN;
 
 	/**
-	 * M value
+	 * M value, NaN when not set
 	 */
-	private Double m;
+	private double m = Double.NaN;
 
 	/**
 	 * Constructor
@@ -73,8 +73,8 @@ public class Point extends Geometry {
 	 */
 	public Point(Point point) {
 		this(point.hasZ(), point.hasM(), point.getX(), point.getY());
-		setZ(point.getZ());
-		setM(point.getM());
+		setZValue(point.getZValue());
+		setMValue(point.getMValue());
 	}
 
 	/**
@@ -118,38 +118,80 @@ public class Point extends Geometry {
 	/**
 	 * Get z
 	 * 
-	 * @return z
+	 * @return z, null when not set
 	 */
 	public Double getZ() {
-		return z;
+		return Double.isNaN(z) ? null : z;
 	}
 
 	/**
 	 * Set z
 	 * 
 	 * @param z
-	 *            z coordinate
+	 *            z coordinate, null to unset
 	 */
 	public void setZ(Double z) {
+		this.z = z != null ? z : Double.NaN;
+	}
+
+	/**
+	 * Get the z value without boxing
+	 * 
+	 * @return z, NaN when not set
+	 * @since 1.0.7
+	 */
+	public double getZValue() {
+		return z;
+	}
+
+	/**
+	 * Set the z value without boxing
+	 * 
+	 * @param z
+	 *            z coordinate, NaN to unset
+	 * @since 1.0.7
+	 */
+	public void setZValue(double z) {
 		this.z = z;
 	}
 
 	/**
 	 * Get m
 	 * 
-	 * @return m
+	 * @return m, null when not set
 	 */
 	public Double getM() {
-		return m;
+		return Double.isNaN(m) ? null : m;
 	}
 
 	/**
 	 * Set m
 	 * 
 	 * @param m
-	 *            m coordinate
+	 *            m coordinate, null to unset
 	 */
 	public void setM(Double m) {
+		this.m = m != null ? m : Double.NaN;
+	}
+
+	/**
+	 * Get the m value without boxing
+	 * 
+	 * @return m, NaN when not set
+	 * @since 1.0.7
+	 */
+	public double getMValue() {
+		return m;
+	}
+
+	/**
+	 * Set the m value without boxing
+	 * 
+	 * @param m
+	 *            m coordinate, NaN to unset
+	 * @since 1.0.7
+	 */
+	public void setMValue(double m) {
 		this.m = m;
 	}
 
@@ -161,4 +203,130 @@ public class Point extends Geometry {
 		return new Point(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return new FrozenPoint(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return hashCoordinates(super.computeHashCode(), getX(), getY(),
+				getZValue(), getMValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof Point)) {
+			return false;
+		}
+		Point other = (Point) obj;
+		return equalCoordinates(getX(), getY(), getZValue(), getMValue(),
+				other.getX(), other.getY(), other.getZValue(),
+				other.getMValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof Point)) {
+			return false;
+		}
+		Point other = (Point) geometry;
+		return equalValues(getX(), other.getX(), tolerance)
+				&& equalValues(getY(), other.getY(), tolerance)
+				&& equalValues(getZValue(), other.getZValue(), tolerance)
+				&& equalValues(getMValue(), other.getMValue(), tolerance);
+	}
+
+	/**
+	 * Add the raw bits of the coordinate values to the hash code
+	 * 
+	 * @param result
+	 *            hash code
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @param m
+	 *            m value
+	 * @return hash code
+	 */
+	static int hashCoordinates(int result, double x, double y, double z,
+			double m) {
+		final int prime = 31;
+		long temp;
+		temp = Double.doubleToLongBits(x);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(y);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(z);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(m);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	/**
+	 * Check if the raw bits of the coordinate values are equal
+	 * 
+	 * @param x1
+	 *            first x coordinate
+	 * @param y1
+	 *            first y coordinate
+	 * @param z1
+	 *            first z coordinate
+	 * @param m1
+	 *            first m value
+	 * @param x2
+	 *            second x coordinate
+	 * @param y2
+	 *            second y coordinate
+	 * @param z2
+	 *            second z coordinate
+	 * @param m2
+	 *            second m value
+	 * @return true if equal
+	 */
+	static boolean equalCoordinates(double x1, double y1, double z1,
+			double m1, double x2, double y2, double z2, double m2) {
+		return Double.doubleToLongBits(x1) == Double.doubleToLongBits(x2)
+				&& Double.doubleToLongBits(y1) == Double.doubleToLongBits(y2)
+				&& Double.doubleToLongBits(z1) == Double.doubleToLongBits(z2)
+				&& Double.doubleToLongBits(m1) == Double.doubleToLongBits(m2);
+	}
+
+	/**
+	 * Check if the values differ by no more than the tolerance, or are both
+	 * NaN
+	 * 
+	 * @param value1
+	 *            first value
+	 * @param value2
+	 *            second value
+	 * @param tolerance
+	 *            tolerance
+	 * @return true if equal within the tolerance
+	 */
+	static boolean equalValues(double value1, double value2, double tolerance) {
+		return Math.abs(value1 - value2) <= tolerance
+				|| (Double.isNaN(value1) && Double.isNaN(value2));
+	}
+
 }
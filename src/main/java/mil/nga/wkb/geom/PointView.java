@@ -0,0 +1,220 @@
+package mil.nga.wkb.geom;
+
+import java.util.List;
+
+/**
+ * Reusable flyweight point view of a coordinate in a
+ * {@link CoordinateSequence}. Reads and writes go directly to the packed
+ * coordinates at the current index, which can be moved to view other
+ * coordinates without creating points. A view is only valid while it points
+ * at an existing coordinate, {@link #copy()} creates a detached point.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class PointView extends Point {
+
+	/**
+	 * Viewed coordinates
+	 */
+	private final CoordinateSequence coordinates;
+
+	/**
+	 * Current coordinate index
+	 */
+	private int index;
+
+	/**
+	 * Create a view of the points when they are a coordinate sequence
+	 * 
+	 * @param points
+	 *            points
+	 * @return point view, null when the points are not packed
+	 */
+	public static PointView createView(List<Point> points) {
+		PointView view = null;
+		if (points instanceof CoordinateSequence) {
+			view = new PointView((CoordinateSequence) points);
+		}
+		return view;
+	}
+
+	/**
+	 * Get the point at the index, moving the view to the index when not null
+	 * 
+	 * @param points
+	 *            points
+	 * @param index
+	 *            point index
+	 * @param view
+	 *            view created by {@link #createView(List)} for the points
+	 * @return point or view
+	 */
+	public static Point getPoint(List<Point> points, int index,
+			PointView view) {
+		return view != null ? view.setIndex(index) : points.get(index);
+	}
+
+	/**
+	 * Constructor, viewing the first coordinate
+	 * 
+	 * @param coordinates
+	 *            coordinates
+	 */
+	public PointView(CoordinateSequence coordinates) {
+		this(coordinates, 0);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coordinates
+	 *            coordinates
+	 * @param index
+	 *            coordinate index
+	 */
+	public PointView(CoordinateSequence coordinates, int index) {
+		super(coordinates.hasZ(), coordinates.hasM(), 0, 0);
+		this.coordinates = coordinates;
+		this.index = index;
+	}
+
+	/**
+	 * Get the viewed coordinates
+	 * 
+	 * @return coordinates
+	 */
+	public CoordinateSequence getCoordinates() {
+		return coordinates;
+	}
+
+	/**
+	 * Get the current coordinate index
+	 * 
+	 * @return index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Move the view to the coordinate index
+	 * 
+	 * @param index
+	 *            coordinate index
+	 * @return this view
+	 */
+	public PointView setIndex(int index) {
+		this.index = index;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX() {
+		return coordinates.getX(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setX(double x) {
+		coordinates.setCoordinate(index, x, getY(), getZValue(), getMValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY() {
+		return coordinates.getY(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setY(double y) {
+		coordinates.setCoordinate(index, getX(), y, getZValue(), getMValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getZ() {
+		double z = getZValue();
+		return Double.isNaN(z) ? null : z;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setZ(Double z) {
+		setZValue(z != null ? z : Double.NaN);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZValue() {
+		return coordinates.getZ(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setZValue(double z) {
+		coordinates.setCoordinate(index, getX(), getY(), z, getMValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getM() {
+		double m = getMValue();
+		return Double.isNaN(m) ? null : m;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setM(Double m) {
+		setMValue(m != null ? m : Double.NaN);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMValue() {
+		return coordinates.getM(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setMValue(double m) {
+		coordinates.setCoordinate(index, getX(), getY(), getZValue(), m);
+	}
+
+	/**
+	 * Copy the viewed coordinate to a detached point
+	 * 
+	 * @return point
+	 */
+	@Override
+	public Geometry copy() {
+		return new Point(this);
+	}
+
+}
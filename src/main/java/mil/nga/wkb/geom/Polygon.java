@@ -1,5 +1,7 @@
 package mil.nga.wkb.geom;
 
+import java.util.List;
+
 /**
  * A restricted form of CurvePolygon where each ring is defined as a simple,
  * closed LineString.
@@ -54,6 +56,24 @@ public class Polygon extends CurvePolygon<LineString> {
 		super(type, hasZ, hasM);
 	}
 
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenRings
+	 *            unmodifiable list of frozen rings
+	 * @since 1.0.7
+	 */
+	protected Polygon(GeometryType type, boolean hasZ, boolean hasM,
+			List<LineString> frozenRings) {
+		super(type, hasZ, hasM, frozenRings);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -62,4 +82,13 @@ public class Polygon extends CurvePolygon<LineString> {
 		return new Polygon(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new Polygon(GeometryType.POLYGON, hasZ(),
+				hasM(), freezeGeometries(getRings()));
+	}
+
 }
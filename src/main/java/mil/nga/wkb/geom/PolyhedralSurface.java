@@ -13,7 +13,12 @@ public class PolyhedralSurface extends Surface {
 	/**
 	 * List of polygons
 	 */
-	private List<Polygon> polygons = new ArrayList<Polygon>();
+	private List<Polygon> polygons;
+
+	/**
+	 * Frozen polygons, null when not frozen
+	 */
+	private final List<Polygon> frozenPolygons;
 
 	/**
 	 * Constructor
@@ -31,7 +36,7 @@ public class PolyhedralSurface extends Surface {
 	 *            has m
 	 */
 	public PolyhedralSurface(boolean hasZ, boolean hasM) {
-		super(GeometryType.POLYHEDRALSURFACE, hasZ, hasM);
+		this(GeometryType.POLYHEDRALSURFACE, hasZ, hasM);
 	}
 
 	/**
@@ -59,6 +64,27 @@ public class PolyhedralSurface extends Surface {
 	 */
 	protected PolyhedralSurface(GeometryType type, boolean hasZ, boolean hasM) {
 		super(type, hasZ, hasM);
+		polygons = new ArrayList<Polygon>();
+		frozenPolygons = null;
+	}
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param type
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPolygons
+	 *            unmodifiable list of frozen polygons
+	 * @since 1.0.7
+	 */
+	protected PolyhedralSurface(GeometryType type, boolean hasZ, boolean hasM,
+			List<Polygon> frozenPolygons) {
+		super(type, hasZ, hasM);
+		this.frozenPolygons = frozenPolygons;
 	}
 
 	/**
@@ -67,7 +93,7 @@ public class PolyhedralSurface extends Surface {
 	 * @return polygons
 	 */
 	public List<Polygon> getPolygons() {
-		return polygons;
+		return frozenPolygons != null ? frozenPolygons : polygons;
 	}
 
 	/**
@@ -77,6 +103,7 @@ public class PolyhedralSurface extends Surface {
 	 *            polygons
 	 */
 	public void setPolygons(List<Polygon> polygons) {
+		verifyNotFrozen();
 		this.polygons = polygons;
 	}
 
@@ -87,7 +114,7 @@ public class PolyhedralSurface extends Surface {
 	 *            polygon
 	 */
 	public void addPolygon(Polygon polygon) {
-		polygons.add(polygon);
+		getPolygons().add(polygon);
 	}
 
 	/**
@@ -96,7 +123,7 @@ public class PolyhedralSurface extends Surface {
 	 * @return number of polygons
 	 */
 	public int numPolygons() {
-		return polygons.size();
+		return getPolygons().size();
 	}
 
 	/**
@@ -107,4 +134,58 @@ public class PolyhedralSurface extends Surface {
 		return new PolyhedralSurface(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new PolyhedralSurface(
+				GeometryType.POLYHEDRALSURFACE, hasZ(), hasM(),
+				freezeGeometries(getPolygons()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return frozenPolygons != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int computeHashCode() {
+		return hashGeometries(super.computeHashCode(), getPolygons());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj) || !(obj instanceof PolyhedralSurface)) {
+			return false;
+		}
+		PolyhedralSurface other = (PolyhedralSurface) obj;
+		return equalGeometries(getPolygons(), other.getPolygons());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equalsExact(Geometry geometry, double tolerance) {
+		if (!super.equalsExact(geometry, tolerance)
+				|| !(geometry instanceof PolyhedralSurface)) {
+			return false;
+		}
+		PolyhedralSurface other = (PolyhedralSurface) geometry;
+		return equalGeometries(getPolygons(), other.getPolygons(), tolerance);
+	}
+
 }
@@ -1,5 +1,7 @@
 package mil.nga.wkb.geom;
 
+import java.util.List;
+
 /**
  * A tetrahedron (4 triangular faces), corner at the origin and each unit
  * coordinate digit.
@@ -40,6 +42,21 @@ public class TIN extends PolyhedralSurface {
 		}
 	}
 
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenPolygons
+	 *            unmodifiable list of frozen polygons
+	 */
+	private TIN(boolean hasZ, boolean hasM, List<Polygon> frozenPolygons) {
+		super(GeometryType.TIN, hasZ, hasM, frozenPolygons);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -48,4 +65,13 @@ public class TIN extends PolyhedralSurface {
 		return new TIN(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new TIN(hasZ(), hasM(),
+				freezeGeometries(getPolygons()));
+	}
+
 }
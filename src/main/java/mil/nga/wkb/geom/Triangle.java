@@ -1,5 +1,7 @@
 package mil.nga.wkb.geom;
 
+import java.util.List;
+
 /**
  * Triangle
  * 
@@ -39,6 +41,21 @@ public class Triangle extends Polygon {
 		}
 	}
 
+
+	/**
+	 * Frozen constructor
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param frozenRings
+	 *            unmodifiable list of frozen rings
+	 */
+	private Triangle(boolean hasZ, boolean hasM, List<LineString> frozenRings) {
+		super(GeometryType.TRIANGLE, hasZ, hasM, frozenRings);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -47,4 +64,13 @@ public class Triangle extends Polygon {
 		return new Triangle(this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry freeze() {
+		return isFrozen() ? this : new Triangle(hasZ(), hasM(),
+				freezeGeometries(getRings()));
+	}
+
 }
@@ -0,0 +1,125 @@
+package mil.nga.wkb.geom;
+
+/**
+ * Frozen coordinate sequence, reading the coordinates of a sequence no
+ * longer referenced elsewhere and rejecting all modifications. The wrapped
+ * sequence is held in a final field so the coordinates are visible to all
+ * threads once the frozen sequence is constructed.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+class UnmodifiableCoordinateSequence extends CoordinateSequence {
+
+	/**
+	 * Wrapped coordinates
+	 */
+	private final CoordinateSequence coordinates;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coordinates
+	 *            coordinates, not copied
+	 */
+	UnmodifiableCoordinateSequence(CoordinateSequence coordinates) {
+		super(coordinates.hasZ(), coordinates.hasM());
+		this.coordinates = coordinates;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return coordinates.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getX(int index) {
+		return coordinates.getX(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getY(int index) {
+		return coordinates.getY(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getZ(int index) {
+		return coordinates.getZ(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getM(int index) {
+		return coordinates.getM(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setCoordinate(int index, double x, double y, double z,
+			double m) {
+		throw new UnsupportedOperationException(
+				"Frozen coordinate sequence can not be modified");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void insertCoordinate(int index, double x, double y, double z,
+			double m) {
+		throw new UnsupportedOperationException(
+				"Frozen coordinate sequence can not be modified");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeCoordinates(int fromIndex, int toIndex) {
+		throw new UnsupportedOperationException(
+				"Frozen coordinate sequence can not be modified");
+	}
+
+	/**
+	 * Copy the coordinates into a modifiable sequence
+	 * 
+	 * @return sequence copy
+	 */
+	@Override
+	public CoordinateSequence copy() {
+		return coordinates.copy();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CoordinateSequence freeze() {
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isFrozen() {
+		return true;
+	}
+
+}
@@ -7,7 +7,7 @@ import java.nio.ByteOrder;
 import mil.nga.wkb.util.WkbException;
 
 /**
- * Read through a byte array
+ * Read through a byte array or buffer
  * 
  * @author osbornb
  */
@@ -19,14 +19,9 @@ public class ByteReader {
 	private static final String CHAR_SET = "UTF-8";
 
 	/**
-	 * Next byte index to read
+	 * Buffer of bytes to read, the position is the next byte to read
 	 */
-	private int nextByte = 0;
-
-	/**
-	 * Bytes to read
-	 */
-	private final byte[] bytes;
+	private final ByteBuffer buffer;
 
 	/**
 	 * Byte order
@@ -40,7 +35,34 @@ public class ByteReader {
 	 *            bytes
 	 */
 	public ByteReader(byte[] bytes) {
-		this.bytes = bytes;
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Constructor, read a range of the bytes
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            offset of the first byte to read
+	 * @param length
+	 *            number of bytes to read
+	 * @since 1.0.7
+	 */
+	public ByteReader(byte[] bytes, int offset, int length) {
+		this(ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	/**
+	 * Constructor, read the remaining bytes of the buffer without copying them.
+	 * The buffer position is not modified.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @since 1.0.7
+	 */
+	public ByteReader(ByteBuffer buffer) {
+		this.buffer = buffer.slice().order(byteOrder);
 	}
 
 	/**
@@ -49,7 +71,40 @@ public class ByteReader {
 	 * @return next byte to be read
 	 */
 	public int getNextByte() {
-		return nextByte;
+		return buffer.position();
+	}
+
+	/**
+	 * Get the number of remaining bytes to read
+	 * 
+	 * @return remaining bytes
+	 * @since 1.0.7
+	 */
+	public int remaining() {
+		return buffer.remaining();
+	}
+
+	/**
+	 * Skip over the number of bytes
+	 * 
+	 * @param num
+	 *            number of bytes
+	 * @since 1.0.7
+	 */
+	public void skip(int num) {
+		verifyRemainingBytes(num);
+		buffer.position(buffer.position() + num);
+	}
+
+	/**
+	 * Get the remaining bytes to read as a buffer without copying them, the
+	 * reader is not advanced
+	 * 
+	 * @return byte buffer of the remaining bytes
+	 * @since 1.0.7
+	 */
+	public ByteBuffer slice() {
+		return buffer.slice();
 	}
 
 	/**
@@ -69,6 +124,7 @@ public class ByteReader {
 	 */
 	public void setByteOrder(ByteOrder byteOrder) {
 		this.byteOrder = byteOrder;
+		buffer.order(byteOrder);
 	}
 
 	/**
@@ -81,8 +137,9 @@ public class ByteReader {
 	 */
 	public String readString(int num) throws UnsupportedEncodingException {
 		verifyRemainingBytes(num);
-		String value = new String(bytes, nextByte, num, CHAR_SET);
-		nextByte += num;
+		byte[] stringBytes = new byte[num];
+		buffer.get(stringBytes);
+		String value = new String(stringBytes, CHAR_SET);
 		return value;
 	}
 
@@ -93,8 +150,7 @@ public class ByteReader {
 	 */
 	public byte readByte() {
 		verifyRemainingBytes(1);
-		byte value = bytes[nextByte];
-		nextByte++;
+		byte value = buffer.get();
 		return value;
 	}
 
@@ -105,9 +161,7 @@ public class ByteReader {
 	 */
 	public int readInt() {
 		verifyRemainingBytes(4);
-		int value = ByteBuffer.wrap(bytes, nextByte, 4).order(byteOrder)
-				.getInt();
-		nextByte += 4;
+		int value = buffer.getInt();
 		return value;
 	}
 
@@ -118,9 +172,7 @@ public class ByteReader {
 	 */
 	public double readDouble() {
 		verifyRemainingBytes(8);
-		double value = ByteBuffer.wrap(bytes, nextByte, 8).order(byteOrder)
-				.getDouble();
-		nextByte += 8;
+		double value = buffer.getDouble();
 		return value;
 	}
 
@@ -132,11 +184,12 @@ public class ByteReader {
 	 *            number of bytes to read
 	 */
 	private void verifyRemainingBytes(int bytesToRead) {
-		if (nextByte + bytesToRead > bytes.length) {
+		if (bytesToRead > buffer.remaining()) {
 			throw new WkbException(
 					"No more remaining bytes to read. Total Bytes: "
-							+ bytes.length + ", Bytes already read: "
-							+ nextByte + ", Attempted to read: " + bytesToRead);
+							+ buffer.limit() + ", Bytes already read: "
+							+ buffer.position() + ", Attempted to read: "
+							+ bytesToRead);
 		}
 	}
 
@@ -1,10 +1,11 @@
 package mil.nga.wkb.io;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import mil.nga.wkb.util.WkbException;
+
 /**
  * Write a byte array
  * 
@@ -13,9 +14,19 @@ import java.nio.ByteOrder;
 public class ByteWriter {
 
 	/**
-	 * Output stream to write bytes to
+	 * Default initial capacity in bytes
+	 */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * Buffer to write bytes to
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * True if the buffer can be expanded when full
 	 */
-	private final ByteArrayOutputStream os = new ByteArrayOutputStream();
+	private final boolean expandable;
 
 	/**
 	 * Byte order
@@ -26,16 +37,39 @@ public class ByteWriter {
 	 * Constructor
 	 */
 	public ByteWriter() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity
+	 *            initial capacity in bytes
+	 * @since 1.0.7
+	 */
+	public ByteWriter(int capacity) {
+		this.buffer = ByteBuffer.allocate(capacity).order(byteOrder);
+		this.expandable = true;
+	}
+
+	/**
+	 * Constructor, write into the remaining bytes of the provided buffer. The
+	 * buffer is not expanded, writing past its limit results in a
+	 * {@link WkbException}.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @since 1.0.7
+	 */
+	public ByteWriter(ByteBuffer buffer) {
+		this.buffer = buffer.slice().order(byteOrder);
+		this.expandable = false;
 	}
 
 	/**
 	 * Close the byte writer
 	 */
 	public void close() {
-		try {
-			os.close();
-		} catch (IOException e) {
-		}
 	}
 
 	/**
@@ -55,6 +89,7 @@ public class ByteWriter {
 	 */
 	public void setByteOrder(ByteOrder byteOrder) {
 		this.byteOrder = byteOrder;
+		buffer.order(byteOrder);
 	}
 
 	/**
@@ -63,7 +98,11 @@ public class ByteWriter {
 	 * @return written bytes
 	 */
 	public byte[] getBytes() {
-		return os.toByteArray();
+		byte[] bytes = new byte[buffer.position()];
+		ByteBuffer written = buffer.duplicate();
+		written.flip();
+		written.get(bytes);
+		return bytes;
 	}
 
 	/**
@@ -72,7 +111,17 @@ public class ByteWriter {
 	 * @return bytes written
 	 */
 	public int size() {
-		return os.size();
+		return buffer.position();
+	}
+
+	/**
+	 * Get the total number of bytes written
+	 * 
+	 * @return bytes written
+	 * @since 1.0.7
+	 */
+	public long length() {
+		return buffer.position();
 	}
 
 	/**
@@ -84,7 +133,8 @@ public class ByteWriter {
 	 */
 	public void writeString(String value) throws IOException {
 		byte[] valueBytes = value.getBytes();
-		os.write(valueBytes);
+		ensureCapacity(valueBytes.length);
+		buffer.put(valueBytes);
 	}
 
 	/**
@@ -94,7 +144,8 @@ public class ByteWriter {
 	 *            byte
 	 */
 	public void writeByte(byte value) {
-		os.write(value);
+		ensureCapacity(1);
+		buffer.put(value);
 	}
 
 	/**
@@ -105,12 +156,8 @@ public class ByteWriter {
 	 * @throws IOException
 	 */
 	public void writeInt(int value) throws IOException {
-		byte[] valueBytes = new byte[4];
-		ByteBuffer byteBuffer = ByteBuffer.allocate(4).order(byteOrder)
-				.putInt(value);
-		byteBuffer.flip();
-		byteBuffer.get(valueBytes);
-		os.write(valueBytes);
+		ensureCapacity(4);
+		buffer.putInt(value);
 	}
 
 	/**
@@ -121,12 +168,152 @@ public class ByteWriter {
 	 * @throws IOException
 	 */
 	public void writeDouble(double value) throws IOException {
-		byte[] valueBytes = new byte[8];
-		ByteBuffer byteBuffer = ByteBuffer.allocate(8).order(byteOrder)
-				.putDouble(value);
-		byteBuffer.flip();
-		byteBuffer.get(valueBytes);
-		os.write(valueBytes);
+		ensureCapacity(8);
+		buffer.putDouble(value);
+	}
+
+	/**
+	 * Write an integer over the previously written bytes at the position
+	 * 
+	 * @param position
+	 *            byte position of the integer
+	 * @param value
+	 *            int
+	 * @since 1.0.7
+	 */
+	public void writeInt(long position, int value) {
+		getWrittenBytes(position, 4).putInt(0, value);
+	}
+
+	/**
+	 * Write a byte over the previously written bytes at the position
+	 * 
+	 * @param position
+	 *            byte position of the byte
+	 * @param value
+	 *            byte
+	 * @since 1.0.7
+	 */
+	public void writeByte(long position, byte value) {
+		getWrittenBytes(position, 1).put(0, value);
+	}
+
+	/**
+	 * Write a double over the previously written bytes at the position
+	 * 
+	 * @param position
+	 *            byte position of the double
+	 * @param value
+	 *            double
+	 * @since 1.0.7
+	 */
+	public void writeDouble(long position, double value) {
+		getWrittenBytes(position, 8).putDouble(0, value);
+	}
+
+	/**
+	 * Reserve the next number of bytes to be written directly into the
+	 * returned buffer region, advancing the writer past them
+	 * 
+	 * @param length
+	 *            number of bytes
+	 * @return reserved buffer region
+	 */
+	ByteBuffer reserve(int length) {
+		ensureCapacity(length);
+		ByteBuffer region = buffer.slice();
+		region.limit(length);
+		buffer.position(buffer.position() + length);
+		return region;
+	}
+
+	/**
+	 * Get the buffer currently being written to
+	 * 
+	 * @return byte buffer
+	 */
+	protected ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Set the buffer to continue writing to
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	protected void setBuffer(ByteBuffer buffer) {
+		this.buffer = buffer;
+		buffer.order(byteOrder);
+	}
+
+	/**
+	 * Get a buffer starting at the previously written bytes at the position,
+	 * in the writer byte order
+	 * 
+	 * @param position
+	 *            byte position
+	 * @param bytes
+	 *            number of bytes
+	 * @return byte buffer of the bytes with the position at index 0
+	 */
+	protected ByteBuffer getWrittenBytes(long position, int bytes) {
+		verifyWrittenBytes(position, bytes);
+		ByteBuffer written = buffer.duplicate();
+		written.position((int) position);
+		written.limit((int) position + bytes);
+		return written.slice().order(byteOrder);
+	}
+
+	/**
+	 * Verify the bytes at the position have already been written
+	 * 
+	 * @param position
+	 *            byte position
+	 * @param bytes
+	 *            number of bytes
+	 */
+	protected void verifyWrittenBytes(long position, int bytes) {
+		long length = length();
+		if (position < 0 || position + bytes > length) {
+			throw new WkbException(
+					"Bytes have not been written at the position. Bytes written: "
+							+ length + ", Position: " + position
+							+ ", Attempted to write: " + bytes);
+		}
+	}
+
+	/**
+	 * Ensure the buffer has the capacity to write the number of bytes,
+	 * expanding it when needed
+	 * 
+	 * @param bytes
+	 *            number of bytes to be written
+	 */
+	protected void ensureCapacity(int bytes) {
+		if (buffer.remaining() < bytes) {
+			if (!expandable) {
+				throw new WkbException(
+						"Not enough remaining bytes to write. Capacity: "
+								+ buffer.limit() + ", Bytes already written: "
+								+ buffer.position() + ", Attempted to write: "
+								+ bytes);
+			}
+			long required = (long) buffer.position() + bytes;
+			if (required > Integer.MAX_VALUE) {
+				throw new WkbException(
+						"Byte writer size limit exceeded. Bytes already written: "
+								+ buffer.position() + ", Attempted to write: "
+								+ bytes);
+			}
+			int capacity = (int) Math.min(
+					Math.max(2L * buffer.capacity(), required),
+					Integer.MAX_VALUE);
+			ByteBuffer expanded = ByteBuffer.allocate(capacity);
+			buffer.flip();
+			expanded.put(buffer);
+			setBuffer(expanded);
+		}
 	}
 
 }
@@ -0,0 +1,382 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Allocation free formatter of doubles as the shortest decimal digits that
+ * read back to the same double, choosing the closest of equally short
+ * digits, using the Schubfach algorithm of Raffaello Giulietti. Integral
+ * values are written without a fraction, negative zero as -0 and exponents
+ * only for magnitudes below 1e-7 or from 1e21. A formatter instance reuses
+ * its digit buffer and is not thread safe.
+ *
+ * @author osbornb
+ * @since 1.0.7
+ */
+final class DoubleFormatter {
+
+	/**
+	 * Smallest decimal exponent of a number written without an exponent
+	 */
+	private static final int MIN_PLAIN_EXPONENT = -7;
+
+	/**
+	 * Largest decimal exponent of a number written without an exponent
+	 */
+	private static final int MAX_PLAIN_EXPONENT = 20;
+
+	/**
+	 * Number of significand bits, including the hidden bit
+	 */
+	private static final int PRECISION = 53;
+
+	/**
+	 * Smallest binary exponent of the significand
+	 */
+	private static final int MIN_EXPONENT = -1074;
+
+	/**
+	 * Smallest normal significand
+	 */
+	private static final long MIN_NORMAL_SIGNIFICAND = 1L << (PRECISION - 1);
+
+	/**
+	 * Subnormal significands below this are scaled by 10 to generate at least
+	 * two digits
+	 */
+	private static final long TINY_SIGNIFICAND = 3;
+
+	/**
+	 * Smallest decimal exponent of the scaled powers of 10
+	 */
+	private static final int MIN_POWER = -324;
+
+	/**
+	 * Largest decimal exponent of the scaled powers of 10
+	 */
+	private static final int MAX_POWER = 292;
+
+	/**
+	 * Mask of the low 63 bits
+	 */
+	private static final long LOW_63_BITS = Long.MAX_VALUE;
+
+	/**
+	 * Mask of the low 32 bits
+	 */
+	private static final long LOW_32_BITS = 0xFFFFFFFFL;
+
+	/**
+	 * High 64 bits of the 128 bit scaled powers of 10, g = g1 2^63 + g0 where
+	 * 10^-k = beta 2^r, 2^125 &lt;= beta &lt; 2^126 and g = floor(beta) + 1
+	 */
+	private static final long[] G1 = new long[MAX_POWER - MIN_POWER + 1];
+
+	/**
+	 * Low 63 bits of the 128 bit scaled powers of 10
+	 */
+	private static final long[] G0 = new long[MAX_POWER - MIN_POWER + 1];
+
+	static {
+		BigInteger mask63 = BigInteger.valueOf(LOW_63_BITS);
+		for (int k = MIN_POWER; k <= MAX_POWER; k++) {
+			BigInteger g;
+			if (k <= 0) {
+				BigInteger power = BigInteger.TEN.pow(-k);
+				int shift = power.bitLength() - 126;
+				g = shift >= 0 ? power.shiftRight(shift) : power
+						.shiftLeft(-shift);
+			} else {
+				BigInteger power = BigInteger.TEN.pow(k);
+				g = BigInteger.ONE.shiftLeft(125 + power.bitLength()).divide(
+						power);
+			}
+			g = g.add(BigInteger.ONE);
+			G1[k - MIN_POWER] = g.shiftRight(63).longValue();
+			G0[k - MIN_POWER] = g.and(mask63).longValue();
+		}
+	}
+
+	/**
+	 * Digits of the last formatted value
+	 */
+	private final char[] digits = new char[20];
+
+	/**
+	 * Number of digits of the last formatted value
+	 */
+	private int length;
+
+	/**
+	 * Decimal exponent of the last digit of the last formatted value
+	 */
+	private int exponent;
+
+	/**
+	 * Write the shortest decimal digits of the finite value
+	 *
+	 * @param appendable
+	 *            appendable
+	 * @param value
+	 *            finite value
+	 * @throws IOException
+	 */
+	void write(Appendable appendable, double value) throws IOException {
+		if (value < 0 || (value == 0 && 1 / value < 0)) {
+			appendable.append('-');
+			value = -value;
+		}
+		if (value == 0) {
+			appendable.append('0');
+		} else {
+			generate(value);
+			int point = length + exponent;
+			int scientific = point - 1;
+			if (scientific < MIN_PLAIN_EXPONENT
+					|| scientific > MAX_PLAIN_EXPONENT) {
+				appendable.append(digits[0]);
+				if (length > 1) {
+					appendable.append('.');
+					append(appendable, 1, length);
+				}
+				appendable.append('E');
+				if (scientific < 0) {
+					appendable.append('-');
+					scientific = -scientific;
+				}
+				if (scientific >= 100) {
+					appendable.append((char) ('0' + scientific / 100));
+				}
+				if (scientific >= 10) {
+					appendable.append((char) ('0' + scientific / 10 % 10));
+				}
+				appendable.append((char) ('0' + scientific % 10));
+			} else if (exponent >= 0) {
+				append(appendable, 0, length);
+				for (int i = 0; i < exponent; i++) {
+					appendable.append('0');
+				}
+			} else if (point > 0) {
+				append(appendable, 0, point);
+				appendable.append('.');
+				append(appendable, point, length);
+			} else {
+				appendable.append("0.");
+				for (int i = point; i < 0; i++) {
+					appendable.append('0');
+				}
+				append(appendable, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Append the digits in the index range
+	 *
+	 * @param appendable
+	 *            appendable
+	 * @param start
+	 *            first digit index
+	 * @param end
+	 *            digit index following the last digit
+	 * @throws IOException
+	 */
+	private void append(Appendable appendable, int start, int end)
+			throws IOException {
+		for (int i = start; i < end; i++) {
+			appendable.append(digits[i]);
+		}
+	}
+
+	/**
+	 * Generate the shortest digits and decimal exponent of the positive
+	 * finite value
+	 *
+	 * @param value
+	 *            positive finite value
+	 */
+	private void generate(double value) {
+
+		long bits = Double.doubleToRawLongBits(value);
+		long fraction = bits & (MIN_NORMAL_SIGNIFICAND - 1);
+		int biasedExponent = (int) (bits >>> (PRECISION - 1));
+
+		if (biasedExponent != 0) {
+			long significand = MIN_NORMAL_SIGNIFICAND | fraction;
+			int shift = MIN_EXPONENT - 1 + biasedExponent;
+
+			// Integral values below 2^53
+			if (shift < 0 && shift > -PRECISION) {
+				long integral = significand >> -shift;
+				if (integral << -shift == significand) {
+					setDigits(integral, 0);
+					return;
+				}
+			}
+			generate(shift, significand, 0);
+		} else if (fraction < TINY_SIGNIFICAND) {
+			generate(MIN_EXPONENT, 10 * fraction, -1);
+		} else {
+			generate(MIN_EXPONENT, fraction, 0);
+		}
+	}
+
+	/**
+	 * Generate the shortest digits and decimal exponent of the value c 2^q
+	 *
+	 * @param q
+	 *            binary exponent
+	 * @param c
+	 *            significand
+	 * @param dk
+	 *            decimal exponent adjustment of a scaled significand
+	 */
+	private void generate(int q, long c, int dk) {
+
+		int out = (int) c & 1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if (c != MIN_NORMAL_SIGNIFICAND || q == MIN_EXPONENT) {
+			// Regular spacing
+			cbl = cb - 2;
+			k = floorLog10Pow2(q);
+		} else {
+			// Irregular spacing below a power of 2
+			cbl = cb - 1;
+			k = floorLog10ThreeQuartersPow2(q);
+		}
+		int h = q + floorLog2Pow10(-k) + 2;
+
+		long g1 = G1[k - MIN_POWER];
+		long g0 = G0[k - MIN_POWER];
+
+		long vb = roundToOdd(g1, g0, cb << h);
+		long vbl = roundToOdd(g1, g0, cbl << h);
+		long vbr = roundToOdd(g1, g0, cbr << h);
+
+		// One digit fewer, when either neighbor lies in the rounding interval
+		long s = vb >> 2;
+		long sp10 = 10 * (s / 10);
+		long tp10 = sp10 + 10;
+		boolean upin = vbl + out <= sp10 << 2;
+		boolean wpin = (tp10 << 2) + out <= vbr;
+		if (upin != wpin) {
+			setDigits(upin ? sp10 : tp10, k + dk);
+			return;
+		}
+
+		// The neighbor in the rounding interval, or else the closest
+		long t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			setDigits(uin ? s : t, k + dk);
+		} else {
+			long cmp = vb - ((s + t) << 1);
+			setDigits(cmp < 0 || (cmp == 0 && (s & 1) == 0) ? s : t, k
+					+ dk);
+		}
+	}
+
+	/**
+	 * Set the digits of the value f 10^e, without trailing zeros
+	 *
+	 * @param f
+	 *            positive decimal significand
+	 * @param e
+	 *            decimal exponent
+	 */
+	private void setDigits(long f, int e) {
+		while (f % 10 == 0) {
+			f /= 10;
+			e++;
+		}
+		int index = digits.length;
+		do {
+			digits[--index] = (char) ('0' + f % 10);
+			f /= 10;
+		} while (f != 0);
+		length = digits.length - index;
+		System.arraycopy(digits, index, digits, 0, length);
+		exponent = e;
+	}
+
+	/**
+	 * Round to odd of cp g 2^-127, where g = g1 2^63 + g0
+	 *
+	 * @param g1
+	 *            high 64 bits of g
+	 * @param g0
+	 *            low 63 bits of g
+	 * @param cp
+	 *            scaled significand
+	 * @return rounded product
+	 */
+	private static long roundToOdd(long g1, long g0, long cp) {
+		long x1 = multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (((z & LOW_63_BITS) + LOW_63_BITS) >>> 63);
+	}
+
+	/**
+	 * Multiply two non negative values, returning the upper 64 bits of the
+	 * 128 bit product
+	 *
+	 * @param x
+	 *            non negative value
+	 * @param y
+	 *            non negative value
+	 * @return upper 64 bits
+	 */
+	private static long multiplyHigh(long x, long y) {
+		long a = x >>> 32;
+		long b = x & LOW_32_BITS;
+		long c = y >>> 32;
+		long d = y & LOW_32_BITS;
+		long ad = a * d;
+		long bc = b * c;
+		long middle = ((b * d) >>> 32) + (ad & LOW_32_BITS)
+				+ (bc & LOW_32_BITS);
+		return a * c + (ad >>> 32) + (bc >>> 32) + (middle >>> 32);
+	}
+
+	/**
+	 * Get floor(log10(2^e))
+	 *
+	 * @param e
+	 *            exponent
+	 * @return floored logarithm
+	 */
+	private static int floorLog10Pow2(int e) {
+		return (int) (e * 661971961083L >> 41);
+	}
+
+	/**
+	 * Get floor(log10(3/4 2^e))
+	 *
+	 * @param e
+	 *            exponent
+	 * @return floored logarithm
+	 */
+	private static int floorLog10ThreeQuartersPow2(int e) {
+		return (int) (e * 661971961083L - 274743187321L >> 41);
+	}
+
+	/**
+	 * Get floor(log2(10^e))
+	 *
+	 * @param e
+	 *            exponent
+	 * @return floored logarithm
+	 */
+	private static int floorLog2Pow10(int e) {
+		return (int) (e * 913124641741L >> 38);
+	}
+
+}
@@ -0,0 +1,64 @@
+package mil.nga.wkb.io;
+
+import mil.nga.wkb.geom.Geometry;
+
+/**
+ * Geometry read from Extended Well-Known Binary (PostGIS EWKB) with its
+ * optional SRID
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class EwkbGeometry {
+
+	/**
+	 * Geometry
+	 */
+	private final Geometry geometry;
+
+	/**
+	 * SRID
+	 */
+	private final Integer srid;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID, null if none
+	 */
+	public EwkbGeometry(Geometry geometry, Integer srid) {
+		this.geometry = geometry;
+		this.srid = srid;
+	}
+
+	/**
+	 * Get the geometry
+	 * 
+	 * @return geometry
+	 */
+	public Geometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * Get the SRID
+	 * 
+	 * @return SRID, null if none
+	 */
+	public Integer getSrid() {
+		return srid;
+	}
+
+	/**
+	 * Determine if the geometry has a SRID
+	 * 
+	 * @return true if has a SRID
+	 */
+	public boolean hasSrid() {
+		return srid != null;
+	}
+
+}
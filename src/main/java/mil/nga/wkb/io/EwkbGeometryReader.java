@@ -0,0 +1,52 @@
+package mil.nga.wkb.io;
+
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.Geometry;
+
+/**
+ * Extended Well-Known Binary (PostGIS EWKB) reader. The z, m and SRID type
+ * flags are decoded by {@link WkbGeometryReader}, which also reads Extended
+ * Well-Known Binary geometries directly when the SRID is not needed.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class EwkbGeometryReader {
+
+	/**
+	 * Read a geometry and its SRID from the byte reader
+	 * 
+	 * @param reader
+	 * @return geometry and SRID
+	 */
+	public static EwkbGeometry readGeometry(ByteReader reader) {
+		return readGeometry(reader, Geometry.class);
+	}
+
+	/**
+	 * Read a geometry and its SRID from the byte reader
+	 * 
+	 * @param reader
+	 * @param expectedType
+	 * @return geometry and SRID
+	 */
+	public static EwkbGeometry readGeometry(ByteReader reader,
+			Class<? extends Geometry> expectedType) {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		// Read the byte order, geometry type and SRID
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.readGeometryHeader(reader);
+
+		Geometry geometry = WkbGeometryReader.readGeometry(reader,
+				geometryTypeInfo, expectedType);
+
+		// Restore the byte order
+		reader.setByteOrder(originalByteOrder);
+
+		return new EwkbGeometry(geometry, geometryTypeInfo.getSrid());
+	}
+
+}
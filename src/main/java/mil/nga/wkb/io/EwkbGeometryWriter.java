@@ -0,0 +1,129 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.PolyhedralSurface;
+import mil.nga.wkb.geom.Triangle;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Extended Well-Known Binary (PostGIS EWKB) writer. Geometry types are written
+ * with the z, m and SRID flags, with the optional SRID written only for the
+ * top level geometry. Coordinates are written by {@link WkbGeometryWriter}.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class EwkbGeometryWriter {
+
+	/**
+	 * Write a geometry without a SRID to the byte writer
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry)
+			throws IOException {
+		writeGeometry(writer, geometry, null);
+	}
+
+	/**
+	 * Write a geometry with a SRID to the byte writer
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param srid
+	 *            SRID, null to not write a SRID
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			Integer srid) throws IOException {
+
+		// Write the single byte order byte
+		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN ? (byte) 0
+				: (byte) 1;
+		writer.writeByte(byteOrder);
+
+		// Write the geometry type integer and SRID
+		GeometryType geometryType = geometry.getGeometryType();
+		GeometryTypeInfo geometryTypeInfo = new GeometryTypeInfo(geometryType,
+				geometry.hasZ(), geometry.hasM(), true, srid != null);
+		writer.writeInt(geometryTypeInfo.getEwkbCode());
+		if (srid != null) {
+			writer.writeInt(srid);
+		}
+
+		switch (geometryType) {
+
+		case POINT:
+			WkbGeometryWriter.writePoint(writer, (Point) geometry);
+			break;
+		case LINESTRING:
+			WkbGeometryWriter.writeLineString(writer, (LineString) geometry);
+			break;
+		case POLYGON:
+			WkbGeometryWriter.writePolygon(writer, (Polygon) geometry);
+			break;
+		case CIRCULARSTRING:
+			WkbGeometryWriter.writeCircularString(writer,
+					(CircularString) geometry);
+			break;
+		case TRIANGLE:
+			WkbGeometryWriter.writeTriangle(writer, (Triangle) geometry);
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			writeGeometries(writer,
+					((GeometryCollection<?>) geometry).getGeometries());
+			break;
+		case COMPOUNDCURVE:
+			writeGeometries(writer,
+					((CompoundCurve) geometry).getLineStrings());
+			break;
+		case CURVEPOLYGON:
+			writeGeometries(writer, ((CurvePolygon<?>) geometry).getRings());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			writeGeometries(writer,
+					((PolyhedralSurface) geometry).getPolygons());
+			break;
+		default:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+	}
+
+	/**
+	 * Write the geometry count and geometries without SRIDs
+	 * 
+	 * @param writer
+	 * @param geometries
+	 * @throws IOException
+	 */
+	private static void writeGeometries(ByteWriter writer,
+			List<? extends Geometry> geometries) throws IOException {
+
+		writer.writeInt(geometries.size());
+
+		for (Geometry geometry : geometries) {
+			writeGeometry(writer, geometry, null);
+		}
+	}
+
+}
@@ -0,0 +1,938 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Streaming GeoJSON geometry reader. GeoJSON text is tokenized directly from
+ * a {@link Reader} or UTF-8 bytes into the {@link Geometry} model, without a
+ * generic JSON object tree. Coordinates are parsed into reusable flat arrays
+ * before the geometry is built, so object members may appear in any order.
+ * Members other than "type", "coordinates" and "geometries" are skipped.
+ * Positions with three or more values have z values, further values are
+ * ignored. Two value positions of a geometry with z values have unset (NaN)
+ * z values. An empty Point is read with NaN x and y values. Numbers outside
+ * of the double range and arrays or objects nested deeper than 128 levels
+ * are rejected. A reader instance is not thread safe.
+ * <p>
+ * String and byte input must be a single geometry object document. A
+ * {@link Reader} is read in buffered blocks. When the reader supports
+ * {@link Reader#mark(int)}, such as a {@link java.io.BufferedReader}, it is
+ * repositioned after the closing brace of the geometry object so consecutive
+ * objects can be read from the same reader. Other readers may have
+ * characters past the geometry object consumed.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeoJsonGeometryReader {
+
+	/**
+	 * Character buffer size when reading from a {@link Reader}
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Maximum nesting depth of arrays and objects
+	 */
+	private static final int MAX_DEPTH = 128;
+
+	/**
+	 * Maximum number of significant digits parsed exactly into a long
+	 */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	/**
+	 * Exact powers of 10 for fast number parsing
+	 */
+	private static final double[] POWERS_OF_10 = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * UTF-8 bytes, null when reading characters
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Character reader, null when reading bytes
+	 */
+	private Reader reader;
+
+	/**
+	 * Character reader supports mark and reset
+	 */
+	private boolean markable;
+
+	/**
+	 * Character buffer of the reader
+	 */
+	private char[] buffer;
+
+	/**
+	 * Next index to read
+	 */
+	private int index;
+
+	/**
+	 * Number of bytes or buffered characters
+	 */
+	private int count;
+
+	/**
+	 * Number of characters before the buffer, for error positions
+	 */
+	private long offset;
+
+	/**
+	 * Current nesting depth of arrays and objects
+	 */
+	private int depth;
+
+	/**
+	 * Parsed coordinate values
+	 */
+	private double[] values = new double[64];
+
+	/**
+	 * Number of parsed coordinate values
+	 */
+	private int numValues;
+
+	/**
+	 * Parsed coordinate array structure in pre-order, the number of child
+	 * arrays of an array of arrays or the negative number of values of a
+	 * position
+	 */
+	private int[] nodes = new int[32];
+
+	/**
+	 * Number of parsed coordinate array nodes
+	 */
+	private int numNodes;
+
+	/**
+	 * Next value index when building geometries
+	 */
+	private int valueIndex;
+
+	/**
+	 * Next node index when building geometries
+	 */
+	private int nodeIndex;
+
+	/**
+	 * Parsed coordinates contain z values
+	 */
+	private boolean hasZ;
+
+	/**
+	 * Reusable characters of numbers not parsed exactly
+	 */
+	private final StringBuilder number = new StringBuilder();
+
+	/**
+	 * Read a geometry from the GeoJSON string
+	 * 
+	 * @param json
+	 *            GeoJSON geometry
+	 * @return geometry
+	 */
+	public static Geometry readGeometry(String json) {
+		return readGeometry(json, null);
+	}
+
+	/**
+	 * Read a geometry from the GeoJSON string
+	 * 
+	 * @param json
+	 *            GeoJSON geometry
+	 * @param expectedType
+	 * @return geometry
+	 */
+	public static <T extends Geometry> T readGeometry(String json,
+			Class<T> expectedType) {
+		GeoJsonGeometryReader geoJsonReader = new GeoJsonGeometryReader();
+		geoJsonReader.reset(new StringReader(json));
+		Geometry geometry = geoJsonReader.readDocument();
+
+		// If there is an expected type, verify the geometry if of that type
+		if (expectedType != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new WkbException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+
+		return result;
+	}
+
+	/**
+	 * Read a geometry from the GeoJSON UTF-8 bytes
+	 * 
+	 * @param bytes
+	 *            GeoJSON geometry bytes
+	 * @return geometry
+	 */
+	public static Geometry readGeometry(byte[] bytes) {
+		return new GeoJsonGeometryReader().read(bytes);
+	}
+
+	/**
+	 * Read a geometry from the GeoJSON reader. A reader supporting mark is
+	 * left after the closing brace of the geometry object.
+	 * 
+	 * @param reader
+	 *            character reader
+	 * @return geometry
+	 * @throws IOException
+	 */
+	public static Geometry readGeometry(Reader reader) throws IOException {
+		return new GeoJsonGeometryReader().read(reader);
+	}
+
+	/**
+	 * Constructor, for reusing the parsing buffers across geometries
+	 */
+	public GeoJsonGeometryReader() {
+	}
+
+	/**
+	 * Read a geometry from the GeoJSON UTF-8 bytes, reusing the parsing
+	 * buffers of this reader
+	 * 
+	 * @param bytes
+	 *            GeoJSON geometry bytes
+	 * @return geometry
+	 */
+	public Geometry read(byte[] bytes) {
+		this.bytes = bytes;
+		this.reader = null;
+		this.index = 0;
+		this.count = bytes.length;
+		this.offset = 0;
+		this.depth = 0;
+		return readDocument();
+	}
+
+	/**
+	 * Read a geometry from the GeoJSON reader, reusing the parsing buffers of
+	 * this reader. A reader supporting mark is left after the closing brace
+	 * of the geometry object, other readers may have following characters
+	 * consumed.
+	 * 
+	 * @param reader
+	 *            character reader
+	 * @return geometry
+	 * @throws IOException
+	 */
+	public Geometry read(Reader reader) throws IOException {
+		reset(reader);
+		Geometry geometry;
+		try {
+			geometry = readGeometryObject();
+		} catch (ReadException e) {
+			throw e.getCause();
+		}
+		if (markable && index < count) {
+			reader.reset();
+			long skip = index;
+			while (skip > 0) {
+				long skipped = reader.skip(skip);
+				if (skipped <= 0) {
+					throw new IOException(
+							"Failed to reposition the GeoJSON reader");
+				}
+				skip -= skipped;
+			}
+		}
+		return geometry;
+	}
+
+	/**
+	 * Reset to read from the character reader
+	 * 
+	 * @param reader
+	 *            character reader
+	 */
+	private void reset(Reader reader) {
+		this.bytes = null;
+		this.reader = reader;
+		this.markable = reader.markSupported();
+		if (buffer == null) {
+			buffer = new char[BUFFER_SIZE];
+		}
+		this.index = 0;
+		this.count = 0;
+		this.offset = 0;
+		this.depth = 0;
+	}
+
+	/**
+	 * Read a complete document of a single geometry object
+	 * 
+	 * @return geometry
+	 */
+	private Geometry readDocument() {
+		Geometry geometry;
+		try {
+			geometry = readGeometryObject();
+			if (peekToken() != -1) {
+				throw error("Unexpected content after the geometry");
+			}
+		} catch (ReadException e) {
+			throw new WkbException("Failed to read GeoJSON", e.getCause());
+		}
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry object
+	 * 
+	 * @return geometry
+	 */
+	private Geometry readGeometryObject() {
+
+		expect('{');
+		enter();
+
+		String type = null;
+		boolean coordinates = false;
+		GeometryCollection<Geometry> geometries = null;
+
+		if (peekToken() == '}') {
+			next();
+		} else {
+			do {
+				String name = readString();
+				expect(':');
+				if (name.equals("type")) {
+					type = readString();
+				} else if (name.equals("coordinates")) {
+					numValues = 0;
+					numNodes = 0;
+					hasZ = false;
+					readCoordinates();
+					coordinates = true;
+				} else if (name.equals("geometries")) {
+					geometries = readGeometries();
+				} else {
+					skipValue();
+				}
+			} while (nextSeparator('}'));
+		}
+
+		if (type == null) {
+			throw error("GeoJSON geometry has no type");
+		}
+
+		Geometry geometry;
+		if (type.equals("GeometryCollection")) {
+			if (geometries == null) {
+				throw error("GeometryCollection has no geometries");
+			}
+			geometry = geometries;
+		} else {
+			if (!coordinates) {
+				throw error(type + " has no coordinates");
+			}
+			nodeIndex = 0;
+			valueIndex = 0;
+			geometry = buildGeometry(type);
+		}
+
+		depth--;
+		return geometry;
+	}
+
+	/**
+	 * Read the geometries of a geometry collection
+	 * 
+	 * @return geometry collection
+	 */
+	private GeometryCollection<Geometry> readGeometries() {
+		List<Geometry> geometries = new ArrayList<Geometry>();
+		boolean collectionHasZ = false;
+		expect('[');
+		if (peekToken() == ']') {
+			next();
+		} else {
+			do {
+				Geometry geometry = readGeometryObject();
+				collectionHasZ |= geometry.hasZ();
+				geometries.add(geometry);
+			} while (nextSeparator(']'));
+		}
+		GeometryCollection<Geometry> collection =
+				new GeometryCollection<Geometry>(collectionHasZ, false);
+		collection.setGeometries(geometries);
+		return collection;
+	}
+
+	/**
+	 * Build the geometry from the parsed coordinates
+	 * 
+	 * @param type
+	 *            GeoJSON type
+	 * @return geometry
+	 */
+	private Geometry buildGeometry(String type) {
+
+		Geometry geometry;
+
+		switch (type) {
+		case "Point":
+			geometry = buildPoint(true);
+			break;
+		case "LineString":
+			geometry = buildLineString();
+			break;
+		case "Polygon":
+			geometry = buildPolygon();
+			break;
+		case "MultiPoint":
+			MultiPoint multiPoint = new MultiPoint(hasZ, false);
+			int numPoints = nextArray();
+			for (int i = 0; i < numPoints; i++) {
+				multiPoint.addPoint(buildPoint(false));
+			}
+			geometry = multiPoint;
+			break;
+		case "MultiLineString":
+			MultiLineString multiLineString = new MultiLineString(hasZ, false);
+			int numLineStrings = nextArray();
+			for (int i = 0; i < numLineStrings; i++) {
+				multiLineString.addLineString(buildLineString());
+			}
+			geometry = multiLineString;
+			break;
+		case "MultiPolygon":
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, false);
+			int numPolygons = nextArray();
+			for (int i = 0; i < numPolygons; i++) {
+				multiPolygon.addPolygon(buildPolygon());
+			}
+			geometry = multiPolygon;
+			break;
+		default:
+			throw error("GeoJSON geometry type not supported: " + type);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Build a point from the next position
+	 * 
+	 * @param allowEmpty
+	 *            true to build an empty position as a NaN point
+	 * @return point
+	 */
+	private Point buildPoint(boolean allowEmpty) {
+		if (nodeIndex >= numNodes) {
+			throw error("Missing GeoJSON position");
+		}
+		int node = nodes[nodeIndex++];
+		Point point;
+		if (node == 0 && allowEmpty) {
+			point = new Point(hasZ, false, Double.NaN, Double.NaN);
+		} else {
+			if (node > -2) {
+				throw error("GeoJSON position must have at least two values");
+			}
+			int dimension = -node;
+			point = new Point(hasZ, false, values[valueIndex],
+					values[valueIndex + 1]);
+			if (hasZ) {
+				point.setZValue(dimension > 2 ? values[valueIndex + 2]
+						: Double.NaN);
+			}
+			valueIndex += dimension;
+		}
+		return point;
+	}
+
+	/**
+	 * Build a line string from the next array of positions
+	 * 
+	 * @return line string
+	 */
+	private LineString buildLineString() {
+		LineString lineString = new LineString(hasZ, false);
+		int numPoints = nextArray();
+		for (int i = 0; i < numPoints; i++) {
+			lineString.addPoint(buildPoint(false));
+		}
+		return lineString;
+	}
+
+	/**
+	 * Build a polygon from the next array of rings
+	 * 
+	 * @return polygon
+	 */
+	private Polygon buildPolygon() {
+		Polygon polygon = new Polygon(hasZ, false);
+		int numRings = nextArray();
+		for (int i = 0; i < numRings; i++) {
+			polygon.addRing(buildLineString());
+		}
+		return polygon;
+	}
+
+	/**
+	 * Get the number of children of the next array of arrays
+	 * 
+	 * @return number of child arrays
+	 */
+	private int nextArray() {
+		if (nodeIndex >= numNodes || nodes[nodeIndex] < 0) {
+			throw error("Unexpected GeoJSON coordinates structure");
+		}
+		return nodes[nodeIndex++];
+	}
+
+	/**
+	 * Read a coordinates array into the flat values and nodes
+	 */
+	private void readCoordinates() {
+		expect('[');
+		enter();
+		int node = addNode();
+		int token = peekToken();
+		if (token == ']') {
+			next();
+			nodes[node] = 0;
+		} else if (token == '[') {
+			int children = 0;
+			do {
+				readCoordinates();
+				children++;
+			} while (nextSeparator(']'));
+			nodes[node] = children;
+		} else {
+			int dimension = 0;
+			do {
+				double value = readNumber();
+				if (numValues == values.length) {
+					values = Arrays.copyOf(values, values.length * 2);
+				}
+				values[numValues++] = value;
+				dimension++;
+			} while (nextSeparator(']'));
+			if (dimension > 2) {
+				hasZ = true;
+			}
+			nodes[node] = -dimension;
+		}
+		depth--;
+	}
+
+	/**
+	 * Enter a nested array or object
+	 */
+	private void enter() {
+		if (++depth > MAX_DEPTH) {
+			throw error("GeoJSON nesting exceeds the maximum depth of "
+					+ MAX_DEPTH);
+		}
+	}
+
+	/**
+	 * Add a coordinates node
+	 * 
+	 * @return node index
+	 */
+	private int addNode() {
+		if (numNodes == nodes.length) {
+			nodes = Arrays.copyOf(nodes, nodes.length * 2);
+		}
+		return numNodes++;
+	}
+
+	/**
+	 * Read a comma or the closing character of an object or array
+	 * 
+	 * @param close
+	 *            closing character
+	 * @return true if a comma was read and another value follows
+	 */
+	private boolean nextSeparator(char close) {
+		int token = nextToken();
+		if (token == ',') {
+			return true;
+		}
+		if (token != close) {
+			throw error("Expected ',' or '" + close + "'");
+		}
+		return false;
+	}
+
+	/**
+	 * Read the expected token character
+	 * 
+	 * @param expected
+	 *            expected character
+	 */
+	private void expect(char expected) {
+		if (nextToken() != expected) {
+			throw error("Expected '" + expected + "'");
+		}
+	}
+
+	/**
+	 * Read a string value
+	 * 
+	 * @return string
+	 */
+	private String readString() {
+		expect('"');
+		StringBuilder string = new StringBuilder();
+		int c;
+		while ((c = next()) != '"') {
+			if (c == -1) {
+				throw error("Unterminated string");
+			}
+			if (c == '\\') {
+				c = next();
+				switch (c) {
+				case 'b':
+					c = '\b';
+					break;
+				case 'f':
+					c = '\f';
+					break;
+				case 'n':
+					c = '\n';
+					break;
+				case 'r':
+					c = '\r';
+					break;
+				case 't':
+					c = '\t';
+					break;
+				case 'u':
+					int code = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(next(), 16);
+						if (digit < 0) {
+							throw error("Invalid unicode escape");
+						}
+						code = (code << 4) | digit;
+					}
+					c = code;
+					break;
+				default:
+					break;
+				}
+			}
+			string.append((char) c);
+		}
+		return string.toString();
+	}
+
+	/**
+	 * Skip a value of any type
+	 */
+	private void skipValue() {
+		int token = peekToken();
+		switch (token) {
+		case '"':
+			next();
+			int c;
+			while ((c = next()) != '"') {
+				if (c == -1) {
+					throw error("Unterminated string");
+				}
+				if (c == '\\') {
+					next();
+				}
+			}
+			break;
+		case '{':
+			next();
+			enter();
+			if (peekToken() == '}') {
+				next();
+			} else {
+				do {
+					skipValue();
+					expect(':');
+					skipValue();
+				} while (nextSeparator('}'));
+			}
+			depth--;
+			break;
+		case '[':
+			next();
+			enter();
+			if (peekToken() == ']') {
+				next();
+			} else {
+				do {
+					skipValue();
+				} while (nextSeparator(']'));
+			}
+			depth--;
+			break;
+		default:
+			if (token == '-' || (token >= '0' && token <= '9')) {
+				readNumber();
+			} else if (token == 't') {
+				expectLiteral("true");
+			} else if (token == 'f') {
+				expectLiteral("false");
+			} else if (token == 'n') {
+				expectLiteral("null");
+			} else {
+				throw error("Unexpected character");
+			}
+		}
+	}
+
+	/**
+	 * Read the expected literal value
+	 * 
+	 * @param literal
+	 *            true, false or null literal
+	 */
+	private void expectLiteral(String literal) {
+		for (int i = 0; i < literal.length(); i++) {
+			if (next() != literal.charAt(i)) {
+				throw error("Expected '" + literal + "'");
+			}
+		}
+	}
+
+	/**
+	 * Read a finite number, exactly from a long of up to 15 significant digits
+	 * and a power of 10 when possible
+	 * 
+	 * @return number
+	 */
+	private double readNumber() {
+
+		peekToken();
+		number.setLength(0);
+
+		boolean negative = false;
+		if (peek() == '-') {
+			negative = true;
+			number.append((char) next());
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean exact = true;
+
+		int c = peek();
+		if (c < '0' || c > '9') {
+			throw error("Expected a number");
+		}
+		while (c >= '0' && c <= '9') {
+			number.append((char) next());
+			if (digits < MAX_FAST_DIGITS) {
+				mantissa = mantissa * 10 + (c - '0');
+				if (mantissa != 0) {
+					digits++;
+				}
+			} else {
+				exact = false;
+			}
+			c = peek();
+		}
+		if (c == '.') {
+			number.append((char) next());
+			c = peek();
+			while (c >= '0' && c <= '9') {
+				number.append((char) next());
+				if (digits < MAX_FAST_DIGITS) {
+					mantissa = mantissa * 10 + (c - '0');
+					exponent--;
+					if (mantissa != 0) {
+						digits++;
+					}
+				} else if (c != '0') {
+					exact = false;
+				}
+				c = peek();
+			}
+		}
+		if (c == 'e' || c == 'E') {
+			number.append((char) next());
+			c = peek();
+			boolean negativeExponent = false;
+			if (c == '+' || c == '-') {
+				negativeExponent = c == '-';
+				number.append((char) next());
+				c = peek();
+			}
+			int explicitExponent = 0;
+			while (c >= '0' && c <= '9') {
+				number.append((char) next());
+				if (explicitExponent < 10000) {
+					explicitExponent = explicitExponent * 10 + (c - '0');
+				}
+				c = peek();
+			}
+			exponent += negativeExponent ? -explicitExponent
+					: explicitExponent;
+		}
+
+		double value;
+		if (exact && exponent >= -22 && exponent <= 22) {
+			value = exponent < 0 ? mantissa / POWERS_OF_10[-exponent]
+					: mantissa * POWERS_OF_10[exponent];
+			if (negative) {
+				value = -value;
+			}
+		} else {
+			try {
+				value = Double.parseDouble(number.toString());
+			} catch (NumberFormatException e) {
+				throw error("Invalid number: " + number);
+			}
+			if (Double.isInfinite(value)) {
+				throw error("Number out of range: " + number);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Peek the next non whitespace character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int peekToken() {
+		int c = peek();
+		while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+			next();
+			c = peek();
+		}
+		return c;
+	}
+
+	/**
+	 * Read the next non whitespace character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int nextToken() {
+		peekToken();
+		return next();
+	}
+
+	/**
+	 * Peek the next character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int peek() {
+		int c;
+		if (bytes != null) {
+			c = index < count ? bytes[index] & 0xFF : -1;
+		} else {
+			c = fill() ? buffer[index] : -1;
+		}
+		return c;
+	}
+
+	/**
+	 * Read the next character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int next() {
+		int c = peek();
+		if (c != -1) {
+			index++;
+		}
+		return c;
+	}
+
+	/**
+	 * Fill the character buffer when all characters have been read
+	 * 
+	 * @return true if characters remain
+	 */
+	private boolean fill() {
+		if (index >= count) {
+			offset += count;
+			index = 0;
+			try {
+				if (markable) {
+					reader.mark(buffer.length);
+				}
+				count = reader.read(buffer, 0, buffer.length);
+			} catch (IOException e) {
+				throw new ReadException(e);
+			}
+			if (count < 0) {
+				count = 0;
+			}
+		}
+		return index < count;
+	}
+
+	/**
+	 * Create a parse error at the current position
+	 * 
+	 * @param message
+	 *            error message
+	 * @return exception
+	 */
+	private WkbException error(String message) {
+		return new WkbException(message + " at GeoJSON position "
+				+ (offset + index));
+	}
+
+	/**
+	 * Unchecked wrapper of a reader exception
+	 */
+	private static class ReadException extends RuntimeException {
+
+		/**
+		 * Serial version id
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param cause
+		 *            reader exception
+		 */
+		private ReadException(IOException cause) {
+			super(cause);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+
+	}
+
+}
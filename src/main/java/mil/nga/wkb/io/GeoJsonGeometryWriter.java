@@ -0,0 +1,440 @@
+package mil.nga.wkb.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.PolyhedralSurface;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Streaming GeoJSON geometry writer. Geometries are written as GeoJSON text
+ * directly to an {@link Appendable}, without building an intermediate object
+ * tree as {@link mil.nga.wkb.util.GeometryJSONCompatible} does. Coordinates
+ * are formatted without creating strings, with the shortest digits that
+ * read back to the same double or rounded to a number of decimal places.
+ * Integral values have no fraction and exponents are only written for
+ * magnitudes below 1e-7 or from 1e21. GeoJSON positions have no m
+ * value, so m values are not written. Polyhedral surfaces and TINs are
+ * written as MultiPolygons and Triangles as Polygons. Curve geometries have
+ * no GeoJSON type and are not supported.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeoJsonGeometryWriter {
+
+	/**
+	 * Full double precision, written as the shortest round trip digits
+	 */
+	public static final int FULL_PRECISION = -1;
+
+	/**
+	 * Maximum number of decimal places
+	 */
+	public static final int MAX_DECIMALS = 15;
+
+	/**
+	 * Powers of 10 for each number of decimal places
+	 */
+	private static final long[] POWERS_OF_10 = new long[MAX_DECIMALS + 1];
+
+	static {
+		POWERS_OF_10[0] = 1;
+		for (int i = 1; i < POWERS_OF_10.length; i++) {
+			POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+		}
+	}
+
+	/**
+	 * Largest scaled value formatted from a long, beyond which doubles no
+	 * longer represent every integer
+	 */
+	private static final double MAX_SCALED_VALUE = 9007199254740992.0;
+
+	/**
+	 * Appendable to write to
+	 */
+	private final Appendable appendable;
+
+	/**
+	 * Number of decimal places, or {@link #FULL_PRECISION}
+	 */
+	private final int decimals;
+
+	/**
+	 * Reusable digit characters
+	 */
+	private final char[] digits = new char[20];
+
+	/**
+	 * Shortest round trip formatter of full precision values
+	 */
+	private final DoubleFormatter formatter = new DoubleFormatter();
+
+	/**
+	 * Write the geometry as a GeoJSON string with full precision
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return GeoJSON geometry
+	 */
+	public static String writeGeometry(Geometry geometry) {
+		return writeGeometry(geometry, FULL_PRECISION);
+	}
+
+	/**
+	 * Write the geometry as a GeoJSON string
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param decimals
+	 *            number of decimal places (0 to 15), or
+	 *            {@link #FULL_PRECISION}
+	 * @return GeoJSON geometry
+	 */
+	public static String writeGeometry(Geometry geometry, int decimals) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeGeometry(builder, geometry, decimals);
+		} catch (IOException e) {
+			throw new WkbException("Failed to write GeoJSON geometry", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Write the geometry as GeoJSON to the appendable with full precision
+	 * 
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link Writer}
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 */
+	public static void writeGeometry(Appendable appendable, Geometry geometry)
+			throws IOException {
+		writeGeometry(appendable, geometry, FULL_PRECISION);
+	}
+
+	/**
+	 * Write the geometry as GeoJSON to the appendable
+	 * 
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link Writer}
+	 * @param geometry
+	 *            geometry
+	 * @param decimals
+	 *            number of decimal places (0 to 15), or
+	 *            {@link #FULL_PRECISION}
+	 * @throws IOException
+	 */
+	public static void writeGeometry(Appendable appendable, Geometry geometry,
+			int decimals) throws IOException {
+		new GeoJsonGeometryWriter(appendable, decimals).write(geometry);
+	}
+
+	/**
+	 * Write the geometry as UTF-8 GeoJSON to the output stream. The stream
+	 * is flushed but not closed.
+	 * 
+	 * @param outputStream
+	 *            output stream
+	 * @param geometry
+	 *            geometry
+	 * @param decimals
+	 *            number of decimal places (0 to 15), or
+	 *            {@link #FULL_PRECISION}
+	 * @throws IOException
+	 */
+	public static void writeGeometry(OutputStream outputStream,
+			Geometry geometry, int decimals) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(
+				outputStream, StandardCharsets.UTF_8));
+		writeGeometry(writer, geometry, decimals);
+		writer.flush();
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param appendable
+	 *            appendable to write to
+	 * @param decimals
+	 *            number of decimal places, or {@link #FULL_PRECISION}
+	 */
+	GeoJsonGeometryWriter(Appendable appendable, int decimals) {
+		if (decimals != FULL_PRECISION
+				&& (decimals < 0 || decimals > MAX_DECIMALS)) {
+			throw new WkbException("Invalid number of decimal places: "
+					+ decimals);
+		}
+		this.appendable = appendable;
+		this.decimals = decimals;
+	}
+
+	/**
+	 * Write a geometry object
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 */
+	private void write(Geometry geometry) throws IOException {
+
+		GeometryType geometryType = geometry.getGeometryType();
+
+		switch (geometryType) {
+
+		case POINT:
+			writeType("Point");
+			writePosition((Point) geometry, true);
+			break;
+		case LINESTRING:
+			writeType("LineString");
+			writeLineString((LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			writeType("Polygon");
+			writePolygon((Polygon) geometry);
+			break;
+		case MULTIPOINT:
+			writeType("MultiPoint");
+			appendable.append('[');
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				if (i > 0) {
+					appendable.append(',');
+				}
+				writePosition(PointView.getPoint(points, i, view), false);
+			}
+			appendable.append(']');
+			break;
+		case MULTILINESTRING:
+			writeType("MultiLineString");
+			appendable.append('[');
+			List<LineString> lineStrings = ((MultiLineString) geometry)
+					.getLineStrings();
+			for (int i = 0; i < lineStrings.size(); i++) {
+				if (i > 0) {
+					appendable.append(',');
+				}
+				writeLineString(lineStrings.get(i));
+			}
+			appendable.append(']');
+			break;
+		case MULTIPOLYGON:
+			writeType("MultiPolygon");
+			writePolygons(((MultiPolygon) geometry).getPolygons());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			writeType("MultiPolygon");
+			writePolygons(((PolyhedralSurface) geometry).getPolygons());
+			break;
+		case GEOMETRYCOLLECTION:
+			appendable.append("{\"type\":\"GeometryCollection\"");
+			appendable.append(",\"geometries\":[");
+			List<? extends Geometry> geometries =
+					((GeometryCollection<?>) geometry).getGeometries();
+			for (int i = 0; i < geometries.size(); i++) {
+				if (i > 0) {
+					appendable.append(',');
+				}
+				write(geometries.get(i));
+			}
+			appendable.append(']');
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported by GeoJSON: "
+					+ geometryType);
+		}
+
+		appendable.append('}');
+	}
+
+	/**
+	 * Write the geometry object start through the coordinates member name
+	 * 
+	 * @param type
+	 *            GeoJSON type
+	 * @throws IOException
+	 */
+	void writeType(String type) throws IOException {
+		appendable.append("{\"type\":\"");
+		appendable.append(type);
+		appendable.append("\",\"coordinates\":");
+	}
+
+	/**
+	 * Write the line string positions
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @throws IOException
+	 */
+	private void writeLineString(LineString lineString) throws IOException {
+		appendable.append('[');
+		List<Point> points = lineString.getPoints();
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			if (i > 0) {
+				appendable.append(',');
+			}
+			writePosition(PointView.getPoint(points, i, view), false);
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Write the polygon ring positions
+	 * 
+	 * @param polygon
+	 *            polygon
+	 * @throws IOException
+	 */
+	private void writePolygon(Polygon polygon) throws IOException {
+		appendable.append('[');
+		List<LineString> rings = polygon.getRings();
+		for (int i = 0; i < rings.size(); i++) {
+			if (i > 0) {
+				appendable.append(',');
+			}
+			writeLineString(rings.get(i));
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Write the polygons
+	 * 
+	 * @param polygons
+	 *            polygons
+	 * @throws IOException
+	 */
+	private void writePolygons(List<? extends Polygon> polygons)
+			throws IOException {
+		appendable.append('[');
+		for (int i = 0; i < polygons.size(); i++) {
+			if (i > 0) {
+				appendable.append(',');
+			}
+			writePolygon(polygons.get(i));
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Write the point position
+	 * 
+	 * @param point
+	 *            point
+	 * @param allowEmpty
+	 *            true to write a point with NaN x and y values as an empty
+	 *            position
+	 * @throws IOException
+	 */
+	private void writePosition(Point point, boolean allowEmpty)
+			throws IOException {
+		appendable.append('[');
+		if (!allowEmpty || !Double.isNaN(point.getX())
+				|| !Double.isNaN(point.getY())) {
+			writeNumber(point.getX());
+			appendable.append(',');
+			writeNumber(point.getY());
+			if (point.hasZ()) {
+				double z = point.getZValue();
+				if (!Double.isNaN(z)) {
+					appendable.append(',');
+					writeNumber(z);
+				}
+			}
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Write a coordinate number
+	 * 
+	 * @param value
+	 *            coordinate value
+	 * @throws IOException
+	 */
+	void writeNumber(double value) throws IOException {
+
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new WkbException(
+					"GeoJSON coordinates must be finite numbers: " + value);
+		}
+
+		double scaled = decimals == FULL_PRECISION ? MAX_SCALED_VALUE
+				: Math.abs(value) * POWERS_OF_10[decimals];
+
+		if (scaled >= MAX_SCALED_VALUE) {
+			formatter.write(appendable, value);
+		} else {
+
+			long rounded = Math.round(scaled);
+			if (value < 0 && rounded != 0) {
+				appendable.append('-');
+			}
+
+			long power = POWERS_OF_10[decimals];
+			writeDigits(rounded / power, 1);
+
+			// Write the fraction without trailing zeros
+			long fraction = rounded % power;
+			if (fraction != 0) {
+				int places = decimals;
+				while (fraction % 10 == 0) {
+					fraction /= 10;
+					places--;
+				}
+				appendable.append('.');
+				writeDigits(fraction, places);
+			}
+		}
+	}
+
+	/**
+	 * Write the digits of a non negative value
+	 * 
+	 * @param value
+	 *            non negative value
+	 * @param minDigits
+	 *            minimum number of digits, padded with leading zeros
+	 * @throws IOException
+	 */
+	private void writeDigits(long value, int minDigits) throws IOException {
+		int index = digits.length;
+		do {
+			digits[--index] = (char) ('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+		while (digits.length - index < minDigits) {
+			digits[--index] = '0';
+		}
+		for (; index < digits.length; index++) {
+			appendable.append(digits[index]);
+		}
+	}
+
+}
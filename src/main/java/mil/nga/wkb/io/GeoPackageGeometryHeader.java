@@ -0,0 +1,593 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryEnvelope;
+import mil.nga.wkb.util.GeometryEnvelopeBuilder;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * GeoPackage geometry blob header, preceding the Well-Known Binary geometry:
+ * the "GP" magic, version, flags, SRS id and optional envelope. The header can
+ * be read on its own so rows are rejected by their stored envelope before the
+ * Well-Known Binary geometry is read.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeoPackageGeometryHeader {
+
+	/**
+	 * Header magic
+	 */
+	public static final String MAGIC = "GP";
+
+	/**
+	 * Version 1 value
+	 */
+	public static final byte VERSION_1 = 0;
+
+	/**
+	 * Number of bytes before the envelope
+	 */
+	private static final int HEADER_BYTES = 8;
+
+	/**
+	 * Version
+	 */
+	private byte version = VERSION_1;
+
+	/**
+	 * Byte order of the header values
+	 */
+	private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+	/**
+	 * Envelope contents indicator, 0 for no envelope through 4 for an x, y, z
+	 * and m envelope
+	 */
+	private int envelopeIndicator = 0;
+
+	/**
+	 * Empty geometry flag
+	 */
+	private boolean empty = false;
+
+	/**
+	 * Extended GeoPackage binary flag
+	 */
+	private boolean extended = false;
+
+	/**
+	 * SRS id
+	 */
+	private int srsId;
+
+	/**
+	 * Envelope, null if no envelope
+	 */
+	private GeometryEnvelope envelope;
+
+	/**
+	 * Constructor
+	 */
+	public GeoPackageGeometryHeader() {
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param srsId
+	 *            SRS id
+	 * @param envelope
+	 *            envelope, null for no envelope
+	 */
+	public GeoPackageGeometryHeader(int srsId, GeometryEnvelope envelope) {
+		this.srsId = srsId;
+		setEnvelope(envelope);
+	}
+
+	/**
+	 * Get the version
+	 * 
+	 * @return version
+	 */
+	public byte getVersion() {
+		return version;
+	}
+
+	/**
+	 * Set the version
+	 * 
+	 * @param version
+	 *            version
+	 */
+	public void setVersion(byte version) {
+		this.version = version;
+	}
+
+	/**
+	 * Get the byte order of the header values
+	 * 
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	/**
+	 * Get the envelope contents indicator
+	 * 
+	 * @return 0 for no envelope, 1 for x and y, 2 for x, y and z, 3 for x, y
+	 *         and m, 4 for x, y, z and m
+	 */
+	public int getEnvelopeIndicator() {
+		return envelopeIndicator;
+	}
+
+	/**
+	 * Is the geometry empty
+	 * 
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * Set the empty geometry flag
+	 * 
+	 * @param empty
+	 *            true if empty
+	 */
+	public void setEmpty(boolean empty) {
+		this.empty = empty;
+	}
+
+	/**
+	 * Is the geometry an extended GeoPackage binary geometry, not standard
+	 * Well-Known Binary
+	 * 
+	 * @return true if extended
+	 */
+	public boolean isExtended() {
+		return extended;
+	}
+
+	/**
+	 * Set the extended GeoPackage binary flag
+	 * 
+	 * @param extended
+	 *            true if extended
+	 */
+	public void setExtended(boolean extended) {
+		this.extended = extended;
+	}
+
+	/**
+	 * Get the SRS id
+	 * 
+	 * @return SRS id
+	 */
+	public int getSrsId() {
+		return srsId;
+	}
+
+	/**
+	 * Set the SRS id
+	 * 
+	 * @param srsId
+	 *            SRS id
+	 */
+	public void setSrsId(int srsId) {
+		this.srsId = srsId;
+	}
+
+	/**
+	 * Get the envelope
+	 * 
+	 * @return envelope, null if no envelope
+	 */
+	public GeometryEnvelope getEnvelope() {
+		return envelope;
+	}
+
+	/**
+	 * Set the envelope, determining the envelope indicator from its z and m
+	 * values
+	 * 
+	 * @param envelope
+	 *            envelope, null for no envelope
+	 */
+	public void setEnvelope(GeometryEnvelope envelope) {
+		this.envelope = envelope;
+		envelopeIndicator = envelope == null ? 0 : getEnvelopeIndicator(
+				envelope.hasZ(), envelope.hasM());
+	}
+
+	/**
+	 * Get the number of header bytes, including the envelope
+	 * 
+	 * @return number of bytes
+	 */
+	public int size() {
+		return HEADER_BYTES + getEnvelopeBytes(envelopeIndicator);
+	}
+
+	/**
+	 * Determine if the stored envelope may intersect the x and y bounds of the
+	 * envelope. Empty geometries never intersect and geometries without a
+	 * stored envelope can not be rejected.
+	 * 
+	 * @param bounds
+	 *            bounding envelope
+	 * @return false if the geometry is outside of the bounds
+	 */
+	public boolean intersects(GeometryEnvelope bounds) {
+		return intersects(bounds.getMinX(), bounds.getMinY(),
+				bounds.getMaxX(), bounds.getMaxY());
+	}
+
+	/**
+	 * Determine if the stored envelope may intersect the x and y bounds. Empty
+	 * geometries never intersect and geometries without a stored envelope can
+	 * not be rejected.
+	 * 
+	 * @param minX
+	 *            min x
+	 * @param minY
+	 *            min y
+	 * @param maxX
+	 *            max x
+	 * @param maxY
+	 *            max y
+	 * @return false if the geometry is outside of the bounds
+	 */
+	public boolean intersects(double minX, double minY, double maxX,
+			double maxY) {
+		boolean intersects = true;
+		if (empty) {
+			intersects = false;
+		} else if (envelope != null) {
+			intersects = envelope.getMinX() <= maxX
+					&& envelope.getMaxX() >= minX
+					&& envelope.getMinY() <= maxY
+					&& envelope.getMaxY() >= minY;
+		}
+		return intersects;
+	}
+
+	/**
+	 * Write the header to the byte writer in the writer byte order
+	 * 
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void write(ByteWriter writer) throws IOException {
+
+		byteOrder = writer.getByteOrder();
+
+		writer.writeString(MAGIC);
+		writer.writeByte(version);
+		writer.writeByte(getFlags());
+		writer.writeInt(srsId);
+
+		for (double value : getEnvelopeValues()) {
+			writer.writeDouble(value);
+		}
+	}
+
+	/**
+	 * Read the header from the byte reader, leaving the reader at the
+	 * Well-Known Binary geometry
+	 * 
+	 * @param reader
+	 * @return header
+	 */
+	public static GeoPackageGeometryHeader readHeader(ByteReader reader) {
+
+		GeoPackageGeometryHeader header = new GeoPackageGeometryHeader();
+
+		String magic = null;
+		try {
+			magic = reader.readString(2);
+		} catch (UnsupportedEncodingException e) {
+			throw new WkbException("Unexpected GeoPackage geometry header", e);
+		}
+		if (!MAGIC.equals(magic)) {
+			throw new WkbException(
+					"Unexpected GeoPackage geometry header magic. Expected: "
+							+ MAGIC + ", Actual: " + magic);
+		}
+
+		header.version = reader.readByte();
+		if (header.version != VERSION_1) {
+			throw new WkbException(
+					"Unexpected GeoPackage geometry header version. Expected: "
+							+ VERSION_1 + ", Actual: " + header.version);
+		}
+
+		// Flags: byte order (bit 0), envelope (bits 1-3), empty (bit 4) and
+		// extended binary type (bit 5)
+		int flags = reader.readByte();
+		header.byteOrder = (flags & 0x01) == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		header.envelopeIndicator = (flags >> 1) & 0x07;
+		if (header.envelopeIndicator > 4) {
+			throw new WkbException(
+					"Unexpected GeoPackage geometry header envelope indicator: "
+							+ header.envelopeIndicator);
+		}
+		header.empty = (flags & 0x10) != 0;
+		header.extended = (flags & 0x20) != 0;
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+		reader.setByteOrder(header.byteOrder);
+
+		header.srsId = reader.readInt();
+
+		if (header.envelopeIndicator > 0) {
+			boolean hasZ = header.envelopeIndicator == 2
+					|| header.envelopeIndicator == 4;
+			boolean hasM = header.envelopeIndicator == 3
+					|| header.envelopeIndicator == 4;
+			GeometryEnvelope envelope = new GeometryEnvelope(hasZ, hasM);
+			envelope.setMinX(reader.readDouble());
+			envelope.setMaxX(reader.readDouble());
+			envelope.setMinY(reader.readDouble());
+			envelope.setMaxY(reader.readDouble());
+			if (hasZ) {
+				envelope.setMinZ(reader.readDouble());
+				envelope.setMaxZ(reader.readDouble());
+			}
+			if (hasM) {
+				envelope.setMinM(reader.readDouble());
+				envelope.setMaxM(reader.readDouble());
+			}
+			header.envelope = envelope;
+		}
+
+		reader.setByteOrder(originalByteOrder);
+
+		return header;
+	}
+
+	/**
+	 * Read the header from the GeoPackage geometry bytes
+	 * 
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @return header
+	 */
+	public static GeoPackageGeometryHeader readHeader(byte[] bytes) {
+		return readHeader(new ByteReader(bytes));
+	}
+
+	/**
+	 * Read the geometry from the GeoPackage geometry bytes
+	 * 
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @return geometry
+	 */
+	public static Geometry readGeometry(byte[] bytes) {
+		ByteReader reader = new ByteReader(bytes);
+		GeoPackageGeometryHeader header = readHeader(reader);
+		return header.readGeometry(reader);
+	}
+
+	/**
+	 * Read the geometry from the GeoPackage geometry bytes when the stored
+	 * envelope may intersect the bounds, rejecting the geometry by its header
+	 * before reading the Well-Known Binary
+	 * 
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @param bounds
+	 *            bounding envelope
+	 * @return geometry, null if rejected
+	 */
+	public static Geometry readGeometry(byte[] bytes, GeometryEnvelope bounds) {
+		Geometry geometry = null;
+		ByteReader reader = new ByteReader(bytes);
+		GeoPackageGeometryHeader header = readHeader(reader);
+		if (header.intersects(bounds)) {
+			geometry = header.readGeometry(reader);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Read the Well-Known Binary geometry following this header
+	 * 
+	 * @param reader
+	 *            byte reader positioned after the header
+	 * @return geometry
+	 */
+	public Geometry readGeometry(ByteReader reader) {
+		if (extended) {
+			throw new WkbException(
+					"Extended GeoPackage binary geometries are not supported");
+		}
+		return WkbGeometryReader.readGeometry(reader);
+	}
+
+	/**
+	 * Write the header and Well-Known Binary geometry to the byte writer. The
+	 * envelope is built while the geometry is written and the header values
+	 * are updated once it is complete.
+	 * 
+	 * @param writer
+	 * @param srsId
+	 *            SRS id
+	 * @param geometry
+	 *            geometry
+	 * @param includeEnvelope
+	 *            true to write the envelope
+	 * @return written header
+	 * @throws IOException
+	 */
+	public static GeoPackageGeometryHeader writeGeometry(ByteWriter writer,
+			int srsId, Geometry geometry, boolean includeEnvelope)
+			throws IOException {
+
+		GeoPackageGeometryHeader header = new GeoPackageGeometryHeader();
+		header.srsId = srsId;
+		if (includeEnvelope) {
+			GeometryEnvelope envelope = GeometryEnvelopeBuilder
+					.createEnvelope();
+			envelope.setHasZ(geometry.hasZ());
+			envelope.setHasM(geometry.hasM());
+			header.setEnvelope(envelope);
+		}
+
+		// Write the header with placeholder envelope values
+		long position = writer.length();
+		header.write(writer);
+
+		// Write the geometry, building the envelope
+		GeometryEnvelope envelope = GeometryEnvelopeBuilder.createEnvelope();
+		WkbGeometryWriter.writeGeometry(writer, geometry, envelope);
+
+		// Update the empty flag, written with NaN envelope values
+		if (envelope.getMinX() > envelope.getMaxX()) {
+			header.empty = true;
+			writer.writeByte(position + 3, header.getFlags());
+			envelope.setMinX(Double.NaN);
+			envelope.setMaxX(Double.NaN);
+			envelope.setMinY(Double.NaN);
+			envelope.setMaxY(Double.NaN);
+		}
+
+		// Update the envelope values
+		if (includeEnvelope) {
+			GeometryEnvelope headerEnvelope = header.envelope;
+			headerEnvelope.setMinX(envelope.getMinX());
+			headerEnvelope.setMaxX(envelope.getMaxX());
+			headerEnvelope.setMinY(envelope.getMinY());
+			headerEnvelope.setMaxY(envelope.getMaxY());
+			if (headerEnvelope.hasZ()) {
+				headerEnvelope.setMinZ(getValue(envelope.getMinZ()));
+				headerEnvelope.setMaxZ(getValue(envelope.getMaxZ()));
+			}
+			if (headerEnvelope.hasM()) {
+				headerEnvelope.setMinM(getValue(envelope.getMinM()));
+				headerEnvelope.setMaxM(getValue(envelope.getMaxM()));
+			}
+			long envelopePosition = position + HEADER_BYTES;
+			for (double value : header.getEnvelopeValues()) {
+				writer.writeDouble(envelopePosition, value);
+				envelopePosition += 8;
+			}
+		}
+
+		return header;
+	}
+
+	/**
+	 * Get the envelope values in header order, min and max x, y, z and then m
+	 * as indicated
+	 * 
+	 * @return envelope values
+	 */
+	private double[] getEnvelopeValues() {
+		double[] values = new double[getEnvelopeBytes(envelopeIndicator) / 8];
+		if (values.length > 0) {
+			int index = 0;
+			values[index++] = envelope.getMinX();
+			values[index++] = envelope.getMaxX();
+			values[index++] = envelope.getMinY();
+			values[index++] = envelope.getMaxY();
+			if (envelopeIndicator == 2 || envelopeIndicator == 4) {
+				values[index++] = getValue(envelope.getMinZ());
+				values[index++] = getValue(envelope.getMaxZ());
+			}
+			if (envelopeIndicator == 3 || envelopeIndicator == 4) {
+				values[index++] = getValue(envelope.getMinM());
+				values[index++] = getValue(envelope.getMaxM());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Get the flags byte
+	 * 
+	 * @return flags
+	 */
+	private byte getFlags() {
+		int flags = 0;
+		if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+			flags |= 0x01;
+		}
+		flags |= envelopeIndicator << 1;
+		if (empty) {
+			flags |= 0x10;
+		}
+		if (extended) {
+			flags |= 0x20;
+		}
+		return (byte) flags;
+	}
+
+	/**
+	 * Get the envelope indicator for the z and m values
+	 * 
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return envelope indicator
+	 */
+	private static int getEnvelopeIndicator(boolean hasZ, boolean hasM) {
+		int indicator = 1;
+		if (hasZ && hasM) {
+			indicator = 4;
+		} else if (hasZ) {
+			indicator = 2;
+		} else if (hasM) {
+			indicator = 3;
+		}
+		return indicator;
+	}
+
+	/**
+	 * Get the number of envelope bytes for the envelope indicator
+	 * 
+	 * @param envelopeIndicator
+	 *            envelope indicator
+	 * @return number of bytes
+	 */
+	private static int getEnvelopeBytes(int envelopeIndicator) {
+		int bytes = 0;
+		switch (envelopeIndicator) {
+		case 1:
+			bytes = 32;
+			break;
+		case 2:
+		case 3:
+			bytes = 48;
+			break;
+		case 4:
+			bytes = 64;
+			break;
+		default:
+		}
+		return bytes;
+	}
+
+	/**
+	 * Get the envelope value, NaN when not set
+	 * 
+	 * @param value
+	 *            envelope value
+	 * @return value
+	 */
+	private static double getValue(Double value) {
+		return value != null ? value : Double.NaN;
+	}
+
+}
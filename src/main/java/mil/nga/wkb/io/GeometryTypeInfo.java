@@ -0,0 +1,228 @@
+package mil.nga.wkb.io;
+
+import mil.nga.wkb.geom.GeometryType;
+
+/**
+ * Geometry type information decoded from a Well-Known Binary or Extended
+ * Well-Known Binary (PostGIS EWKB) geometry type integer
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeometryTypeInfo {
+
+	/**
+	 * Extended Well-Known Binary z values flag
+	 */
+	public static final int EWKB_Z = 0x80000000;
+
+	/**
+	 * Extended Well-Known Binary m values flag
+	 */
+	public static final int EWKB_M = 0x40000000;
+
+	/**
+	 * Extended Well-Known Binary SRID flag
+	 */
+	public static final int EWKB_SRID = 0x20000000;
+
+	/**
+	 * All Extended Well-Known Binary flags
+	 */
+	public static final int EWKB_FLAGS = EWKB_Z | EWKB_M | EWKB_SRID;
+
+	/**
+	 * Geometry type
+	 */
+	private final GeometryType geometryType;
+
+	/**
+	 * Has z values
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has m values
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Extended Well-Known Binary type integer
+	 */
+	private final boolean extended;
+
+	/**
+	 * Extended Well-Known Binary SRID follows the type integer
+	 */
+	private final boolean hasSrid;
+
+	/**
+	 * Extended Well-Known Binary SRID
+	 */
+	private Integer srid;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 */
+	public GeometryTypeInfo(GeometryType geometryType, boolean hasZ,
+			boolean hasM) {
+		this(geometryType, hasZ, hasM, false, false);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @param extended
+	 *            Extended Well-Known Binary type integer
+	 * @param hasSrid
+	 *            Extended Well-Known Binary SRID follows the type integer
+	 */
+	public GeometryTypeInfo(GeometryType geometryType, boolean hasZ,
+			boolean hasM, boolean extended, boolean hasSrid) {
+		this.geometryType = geometryType;
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+		this.extended = extended || hasSrid;
+		this.hasSrid = hasSrid;
+	}
+
+	/**
+	 * Get the geometry type
+	 * 
+	 * @return geometry type
+	 */
+	public GeometryType getGeometryType() {
+		return geometryType;
+	}
+
+	/**
+	 * Does the geometry have z values
+	 * 
+	 * @return true if has z values
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Does the geometry have m values
+	 * 
+	 * @return true if has m values
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Is the type integer an Extended Well-Known Binary type with flags
+	 * 
+	 * @return true if extended
+	 */
+	public boolean isExtended() {
+		return extended;
+	}
+
+	/**
+	 * Does an Extended Well-Known Binary SRID follow the type integer
+	 * 
+	 * @return true if has a SRID
+	 */
+	public boolean hasSrid() {
+		return hasSrid;
+	}
+
+	/**
+	 * Get the Extended Well-Known Binary SRID
+	 * 
+	 * @return SRID, null if not read
+	 */
+	public Integer getSrid() {
+		return srid;
+	}
+
+	/**
+	 * Set the Extended Well-Known Binary SRID
+	 * 
+	 * @param srid
+	 *            SRID
+	 */
+	public void setSrid(Integer srid) {
+		this.srid = srid;
+	}
+
+	/**
+	 * Get the number of double values in each coordinate
+	 * 
+	 * @return coordinate dimension, from 2 to 4
+	 */
+	public int getCoordinateDimension() {
+		int dimension = 2;
+		if (hasZ) {
+			dimension++;
+		}
+		if (hasM) {
+			dimension++;
+		}
+		return dimension;
+	}
+
+	/**
+	 * Get the Well-Known Binary geometry type integer
+	 * 
+	 * @return Well-Known Binary code
+	 */
+	public int getWkbCode() {
+		int code = geometryType.getCode();
+		if (hasZ) {
+			code += 1000;
+		}
+		if (hasM) {
+			code += 2000;
+		}
+		return code;
+	}
+
+	/**
+	 * Get the Extended Well-Known Binary geometry type integer, with the z, m
+	 * and SRID flags
+	 * 
+	 * @return Extended Well-Known Binary code
+	 */
+	public int getEwkbCode() {
+		int code = geometryType.getCode();
+		if (hasZ) {
+			code |= EWKB_Z;
+		}
+		if (hasM) {
+			code |= EWKB_M;
+		}
+		if (hasSrid) {
+			code |= EWKB_SRID;
+		}
+		return code;
+	}
+
+	/**
+	 * Get the geometry type integer in the encoding it was read as, Extended
+	 * Well-Known Binary or Well-Known Binary
+	 * 
+	 * @return geometry type integer
+	 */
+	public int getCode() {
+		return extended ? getEwkbCode() : getWkbCode();
+	}
+
+}
@@ -0,0 +1,292 @@
+package mil.nga.wkb.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Write bytes to a file through memory mapped regions. The file is mapped one
+ * region at a time, mapping the next region of the file when the current one
+ * is full, and is truncated to the exact number of bytes written when closed.
+ * Each region is forced to the file when the next region is mapped and on
+ * close. Writes follow the same semantics as the {@link ByteWriter}, so
+ * geometries are written with {@link WkbGeometryWriter} as usual.
+ * 
+ * Java releases mapped regions only when they are garbage collected, so the
+ * file is truncated while regions may still be mapped. Platforms that do not
+ * allow truncating a mapped file, such as Windows, fail the close with the
+ * file left at a whole number of regions.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class MappedByteWriter extends ByteWriter {
+
+	/**
+	 * Default mapped region size in bytes
+	 */
+	public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * File being written to
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * File channel
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Mapped region size in bytes
+	 */
+	private final int regionSize;
+
+	/**
+	 * Currently mapped file region
+	 */
+	private MappedByteBuffer region;
+
+	/**
+	 * File position of the currently mapped region
+	 */
+	private long regionPosition = 0;
+
+	/**
+	 * Last temporary mapping of written bytes before the current region,
+	 * forced when replaced and on close
+	 */
+	private MappedByteBuffer writtenRegion;
+
+	/**
+	 * Closed flag
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Constructor, any existing file contents are replaced
+	 * 
+	 * @param file
+	 *            file to write to
+	 * @throws IOException
+	 */
+	public MappedByteWriter(File file) throws IOException {
+		this(file, DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * Constructor, any existing file contents are replaced
+	 * 
+	 * @param file
+	 *            file to write to
+	 * @param regionSize
+	 *            mapped region size in bytes
+	 * @throws IOException
+	 */
+	public MappedByteWriter(File file, int regionSize) throws IOException {
+		this(new RandomAccessFile(file, "rw"), regionSize);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            random access file
+	 * @param regionSize
+	 *            mapped region size in bytes
+	 * @throws IOException
+	 */
+	private MappedByteWriter(RandomAccessFile file, int regionSize)
+			throws IOException {
+		this(file, mapFirstRegion(file, regionSize), regionSize);
+	}
+
+	/**
+	 * Map the first region of the file, closing the file when mapping fails
+	 * 
+	 * @param file
+	 *            random access file
+	 * @param regionSize
+	 *            mapped region size in bytes
+	 * @return first mapped region
+	 * @throws IOException
+	 */
+	private static MappedByteBuffer mapFirstRegion(RandomAccessFile file,
+			int regionSize) throws IOException {
+		MappedByteBuffer region = null;
+		try {
+			region = file.getChannel().map(MapMode.READ_WRITE, 0, regionSize);
+		} finally {
+			if (region == null) {
+				file.close();
+			}
+		}
+		return region;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            random access file
+	 * @param region
+	 *            first mapped region
+	 * @param regionSize
+	 *            mapped region size in bytes
+	 */
+	private MappedByteWriter(RandomAccessFile file, MappedByteBuffer region,
+			int regionSize) {
+		super(region);
+		this.file = file;
+		this.channel = file.getChannel();
+		this.region = region;
+		this.regionSize = regionSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long length() {
+		return regionPosition + getBuffer().position();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws WkbException
+	 *             when the number of bytes written exceeds an integer
+	 */
+	@Override
+	public int size() {
+		long length = length();
+		if (length > Integer.MAX_VALUE) {
+			throw new WkbException("Mapped byte writer size of " + length
+					+ " bytes exceeds an integer, use length()");
+		}
+		return (int) length;
+	}
+
+	/**
+	 * Not supported, the written bytes are in the file
+	 * 
+	 * @throws WkbException
+	 *             always
+	 */
+	@Override
+	public byte[] getBytes() {
+		throw new WkbException(
+				"Mapped byte writer bytes are written to the file, not retained in memory");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Positions before the currently mapped region are written through a
+	 * temporary mapping of the bytes
+	 */
+	@Override
+	protected ByteBuffer getWrittenBytes(long position, int bytes) {
+		verifyOpen();
+		verifyWrittenBytes(position, bytes);
+		ByteBuffer written = null;
+		if (position >= regionPosition) {
+			written = getBuffer().duplicate();
+			int index = (int) (position - regionPosition);
+			written.position(index);
+			written.limit(index + bytes);
+			written = written.slice();
+		} else {
+			try {
+				forceWrittenRegion();
+				writtenRegion = channel.map(MapMode.READ_WRITE, position,
+						bytes);
+				written = writtenRegion;
+			} catch (IOException e) {
+				throw new WkbException(
+						"Failed to map file region at position " + position, e);
+			}
+		}
+		return written.order(getByteOrder());
+	}
+
+	/**
+	 * Close the writer, flushing the mapped regions and truncating the file to
+	 * the number of bytes written. The file is closed even when truncating
+	 * fails.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			long length = length();
+			region.force();
+			region = null;
+			forceWrittenRegion();
+			regionPosition = length;
+			setBuffer(ByteBuffer.allocate(0));
+			try {
+				try {
+					channel.truncate(length);
+				} finally {
+					file.close();
+				}
+			} catch (IOException e) {
+				throw new WkbException("Failed to close mapped byte writer",
+						e);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Forces the current region and maps the next file region, starting at
+	 * the current file position, when the current region does not have the
+	 * capacity
+	 */
+	@Override
+	protected void ensureCapacity(int bytes) {
+		verifyOpen();
+		ByteBuffer buffer = getBuffer();
+		if (buffer.remaining() < bytes) {
+			long position = regionPosition + buffer.position();
+			region.force();
+			try {
+				region = channel.map(MapMode.READ_WRITE, position,
+						Math.max(regionSize, bytes));
+			} catch (IOException e) {
+				throw new WkbException(
+						"Failed to map file region at position " + position, e);
+			}
+			regionPosition = position;
+			setBuffer(region);
+		}
+	}
+
+	/**
+	 * Force and release the last temporary mapping of written bytes
+	 */
+	private void forceWrittenRegion() {
+		if (writtenRegion != null) {
+			writtenRegion.force();
+			writtenRegion = null;
+		}
+	}
+
+	/**
+	 * Verify the writer has not been closed
+	 */
+	private void verifyOpen() {
+		if (closed) {
+			throw new WkbException("Mapped byte writer is closed");
+		}
+	}
+
+}
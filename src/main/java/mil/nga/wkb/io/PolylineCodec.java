@@ -0,0 +1,297 @@
+package mil.nga.wkb.io;
+
+import java.util.Arrays;
+import java.util.List;
+
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Encoded polyline codec (Google polyline algorithm format). Points are
+ * encoded as latitude (y) and longitude (x) deltas of precision scaled
+ * integers, directly into a reusable {@link StringBuilder}. Coordinates can
+ * be encoded from and decoded to packed x and y double arrays without
+ * creating points.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class PolylineCodec {
+
+	/**
+	 * Default decimal precision of encoded polylines
+	 */
+	public static final int DEFAULT_PRECISION = 5;
+
+	/**
+	 * Maximum decimal precision
+	 */
+	public static final int MAX_PRECISION = 10;
+
+	/**
+	 * Encode the line string with the default precision
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @return encoded polyline
+	 */
+	public static String encode(LineString lineString) {
+		return encode(lineString, DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Encode the line string
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return encoded polyline
+	 */
+	public static String encode(LineString lineString, int precision) {
+		StringBuilder builder = new StringBuilder();
+		encode(lineString.getPoints(), precision, builder);
+		return builder.toString();
+	}
+
+	/**
+	 * Encode the multi point
+	 * 
+	 * @param multiPoint
+	 *            multi point
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return encoded polyline
+	 */
+	public static String encode(MultiPoint multiPoint, int precision) {
+		StringBuilder builder = new StringBuilder();
+		encode(multiPoint.getPoints(), precision, builder);
+		return builder.toString();
+	}
+
+	/**
+	 * Encode the points, appending the characters to the builder
+	 * 
+	 * @param points
+	 *            points
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @param builder
+	 *            string builder
+	 */
+	public static void encode(List<Point> points, int precision,
+			StringBuilder builder) {
+		double factor = getFactor(precision);
+		builder.ensureCapacity(builder.length() + points.size() * 8);
+		long previousX = 0;
+		long previousY = 0;
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			Point point = PointView.getPoint(points, i, view);
+			long x = Math.round(point.getX() * factor);
+			long y = Math.round(point.getY() * factor);
+			encodeValue(y - previousY, builder);
+			encodeValue(x - previousX, builder);
+			previousX = x;
+			previousY = y;
+		}
+	}
+
+	/**
+	 * Encode packed x and y coordinates, appending the characters to the
+	 * builder
+	 * 
+	 * @param coordinates
+	 *            x and y coordinate pairs
+	 * @param offset
+	 *            index of the first x coordinate
+	 * @param numPoints
+	 *            number of points
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @param builder
+	 *            string builder
+	 */
+	public static void encode(double[] coordinates, int offset, int numPoints,
+			int precision, StringBuilder builder) {
+		double factor = getFactor(precision);
+		builder.ensureCapacity(builder.length() + numPoints * 8);
+		long previousX = 0;
+		long previousY = 0;
+		int end = offset + numPoints * 2;
+		for (int i = offset; i < end; i += 2) {
+			long x = Math.round(coordinates[i] * factor);
+			long y = Math.round(coordinates[i + 1] * factor);
+			encodeValue(y - previousY, builder);
+			encodeValue(x - previousX, builder);
+			previousX = x;
+			previousY = y;
+		}
+	}
+
+	/**
+	 * Decode a line string with the default precision
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @return line string
+	 */
+	public static LineString decodeLineString(CharSequence encoded) {
+		return decodeLineString(encoded, DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Decode a line string
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return line string
+	 */
+	public static LineString decodeLineString(CharSequence encoded,
+			int precision) {
+		LineString lineString = new LineString();
+		decodePoints(encoded, precision, lineString.getPoints());
+		return lineString;
+	}
+
+	/**
+	 * Decode a multi point
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return multi point
+	 */
+	public static MultiPoint decodeMultiPoint(CharSequence encoded,
+			int precision) {
+		MultiPoint multiPoint = new MultiPoint();
+		decodePoints(encoded, precision, multiPoint.getPoints());
+		return multiPoint;
+	}
+
+	/**
+	 * Decode to packed x and y coordinates
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return x and y coordinate pairs
+	 */
+	public static double[] decodeCoordinates(CharSequence encoded,
+			int precision) {
+		double factor = getFactor(precision);
+		int length = encoded.length();
+		// Each value is encoded in at least one character
+		double[] coordinates = new double[length & ~1];
+		int count = 0;
+		long[] value = new long[2];
+		int index = 0;
+		while (index < length) {
+			index = decodeValue(encoded, index, value, 0);
+			index = decodeValue(encoded, index, value, 1);
+			coordinates[count++] = value[1] / factor;
+			coordinates[count++] = value[0] / factor;
+		}
+		return count == coordinates.length ? coordinates : Arrays.copyOf(
+				coordinates, count);
+	}
+
+	/**
+	 * Decode points, adding them to the list
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @param points
+	 *            list to add points to
+	 */
+	private static void decodePoints(CharSequence encoded, int precision,
+			List<Point> points) {
+		double factor = getFactor(precision);
+		int length = encoded.length();
+		long[] value = new long[2];
+		int index = 0;
+		while (index < length) {
+			index = decodeValue(encoded, index, value, 0);
+			index = decodeValue(encoded, index, value, 1);
+			points.add(new Point(value[1] / factor, value[0] / factor));
+		}
+	}
+
+	/**
+	 * Get the scale factor of the precision
+	 * 
+	 * @param precision
+	 *            decimal precision (0 to 10)
+	 * @return scale factor
+	 */
+	private static double getFactor(int precision) {
+		if (precision < 0 || precision > MAX_PRECISION) {
+			throw new WkbException("Invalid polyline precision: " + precision);
+		}
+		return Math.pow(10, precision);
+	}
+
+	/**
+	 * Encode a signed delta value
+	 * 
+	 * @param value
+	 *            scaled delta value
+	 * @param builder
+	 *            string builder
+	 */
+	private static void encodeValue(long value, StringBuilder builder) {
+		long encoded = value < 0 ? ~(value << 1) : value << 1;
+		while (encoded >= 0x20) {
+			builder.append((char) ((0x20 | (encoded & 0x1F)) + 63));
+			encoded >>= 5;
+		}
+		builder.append((char) (encoded + 63));
+	}
+
+	/**
+	 * Decode a signed delta value and add it to the running value
+	 * 
+	 * @param encoded
+	 *            encoded polyline
+	 * @param index
+	 *            index of the first value character
+	 * @param values
+	 *            running scaled y and x values
+	 * @param valueIndex
+	 *            index of the running value to add the delta to
+	 * @return index following the value characters
+	 */
+	private static int decodeValue(CharSequence encoded, int index,
+			long[] values, int valueIndex) {
+		int length = encoded.length();
+		long result = 0;
+		int shift = 0;
+		int chunk;
+		do {
+			if (index >= length) {
+				throw new WkbException(
+						"Incomplete encoded polyline value at index " + index);
+			}
+			chunk = encoded.charAt(index++) - 63;
+			if (chunk < 0 || chunk > 0x3F || shift > 60) {
+				throw new WkbException("Invalid encoded polyline character '"
+						+ encoded.charAt(index - 1) + "' at index "
+						+ (index - 1));
+			}
+			result |= (long) (chunk & 0x1F) << shift;
+			shift += 5;
+		} while (chunk >= 0x20);
+		values[valueIndex] += (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+		return index;
+	}
+
+}
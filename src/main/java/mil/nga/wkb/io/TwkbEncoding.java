@@ -0,0 +1,275 @@
+package mil.nga.wkb.io;
+
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Tiny Well-Known Binary (TWKB) constants and variable length integer
+ * encoding shared by the reader and writer
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+final class TwkbEncoding {
+
+	/**
+	 * Metadata header bounding box flag
+	 */
+	static final int BBOX = 0x01;
+
+	/**
+	 * Metadata header size flag
+	 */
+	static final int SIZE = 0x02;
+
+	/**
+	 * Metadata header id list flag
+	 */
+	static final int ID_LIST = 0x04;
+
+	/**
+	 * Metadata header extended dimensions flag
+	 */
+	static final int EXTENDED_DIMENSIONS = 0x08;
+
+	/**
+	 * Metadata header empty geometry flag
+	 */
+	static final int EMPTY = 0x10;
+
+	/**
+	 * Extended dimensions z flag
+	 */
+	static final int Z = 0x01;
+
+	/**
+	 * Extended dimensions m flag
+	 */
+	static final int M = 0x02;
+
+	/**
+	 * Minimum x and y precision, limited by the 4 bit zig zag encoding
+	 */
+	static final int MIN_PRECISION = -8;
+
+	/**
+	 * Maximum x and y precision
+	 */
+	static final int MAX_PRECISION = 7;
+
+	/**
+	 * Maximum z and m precision, limited by the 3 bit encoding
+	 */
+	static final int MAX_EXTENDED_PRECISION = 7;
+
+	/**
+	 * Maximum number of bytes in a variable length 64 bit integer
+	 */
+	private static final int MAX_VAR_INT_BYTES = 10;
+
+	/**
+	 * Exact powers of 10 for each precision magnitude
+	 */
+	private static final double[] POWERS_OF_10 = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8 };
+
+	/**
+	 * Scaled values are limited to below 2^62 in magnitude so that deltas
+	 * between them fit in a long
+	 */
+	private static final double MAX_SCALED_VALUE = (double) (1L << 62);
+
+	/**
+	 * Constructor
+	 */
+	private TwkbEncoding() {
+	}
+
+	/**
+	 * Get the TWKB type code of the geometry type
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return type code (1 - 7)
+	 */
+	static int getTypeCode(GeometryType geometryType) {
+		int code;
+		switch (geometryType) {
+		case POINT:
+			code = 1;
+			break;
+		case LINESTRING:
+			code = 2;
+			break;
+		case POLYGON:
+			code = 3;
+			break;
+		case MULTIPOINT:
+			code = 4;
+			break;
+		case MULTILINESTRING:
+			code = 5;
+			break;
+		case MULTIPOLYGON:
+			code = 6;
+			break;
+		case GEOMETRYCOLLECTION:
+			code = 7;
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported by TWKB: "
+					+ geometryType);
+		}
+		return code;
+	}
+
+	/**
+	 * Get the geometry type of the TWKB type code
+	 * 
+	 * @param code
+	 *            type code (1 - 7)
+	 * @return geometry type
+	 */
+	static GeometryType getGeometryType(int code) {
+		if (code < 1 || code > 7) {
+			throw new WkbException("TWKB Geometry Type not supported: "
+					+ code);
+		}
+		// TWKB type codes match the Well-Known Binary codes
+		return GeometryType.fromCode(code);
+	}
+
+	/**
+	 * Scale a coordinate value to an integer of the decimal precision
+	 * 
+	 * @param value
+	 *            coordinate value
+	 * @param precision
+	 *            number of decimal digits, negative to round to powers of 10
+	 * @return scaled integer value
+	 * @throws WkbException
+	 *             when the value is NaN, infinite or too large to scale
+	 */
+	static long scale(double value, int precision) {
+		double scaled = precision >= 0 ? value * POWERS_OF_10[precision]
+				: value / POWERS_OF_10[-precision];
+		if (!(Math.abs(scaled) < MAX_SCALED_VALUE)) {
+			throw new WkbException("TWKB coordinate value " + value
+					+ " is not finite or is too large for precision "
+					+ precision);
+		}
+		return Math.round(scaled);
+	}
+
+	/**
+	 * Restore a coordinate value from an integer of the decimal precision
+	 * 
+	 * @param value
+	 *            scaled integer value
+	 * @param precision
+	 *            number of decimal digits, negative to round to powers of 10
+	 * @return coordinate value
+	 */
+	static double unscale(long value, int precision) {
+		return precision >= 0 ? value / POWERS_OF_10[precision] : value
+				* POWERS_OF_10[-precision];
+	}
+
+	/**
+	 * Zig zag encode a signed value so small magnitudes encode to few bytes
+	 * 
+	 * @param value
+	 *            signed value
+	 * @return zig zag encoded value
+	 */
+	static long zigZagEncode(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Decode a zig zag encoded value
+	 * 
+	 * @param value
+	 *            zig zag encoded value
+	 * @return signed value
+	 */
+	static long zigZagDecode(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Write an unsigned variable length integer
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param value
+	 *            unsigned value
+	 */
+	static void writeUnsignedVarInt(ByteWriter writer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			writer.writeByte((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		writer.writeByte((byte) value);
+	}
+
+	/**
+	 * Write a signed zig zag variable length integer
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param value
+	 *            signed value
+	 */
+	static void writeVarInt(ByteWriter writer, long value) {
+		writeUnsignedVarInt(writer, zigZagEncode(value));
+	}
+
+	/**
+	 * Read an unsigned variable length integer
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return unsigned value
+	 */
+	static long readUnsignedVarInt(ByteReader reader) {
+		long value = 0;
+		for (int i = 0; i < MAX_VAR_INT_BYTES; i++) {
+			byte b = reader.readByte();
+			value |= (long) (b & 0x7F) << (7 * i);
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new WkbException("Variable length integer exceeds "
+				+ MAX_VAR_INT_BYTES + " bytes");
+	}
+
+	/**
+	 * Read an unsigned variable length integer count
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return count
+	 */
+	static int readCount(ByteReader reader) {
+		long count = readUnsignedVarInt(reader);
+		if (count < 0 || count > reader.remaining()) {
+			throw new WkbException("Invalid count: " + count
+					+ ", Remaining bytes: " + reader.remaining());
+		}
+		return (int) count;
+	}
+
+	/**
+	 * Read a signed zig zag variable length integer
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return signed value
+	 */
+	static long readVarInt(ByteReader reader) {
+		return zigZagDecode(readUnsignedVarInt(reader));
+	}
+
+}
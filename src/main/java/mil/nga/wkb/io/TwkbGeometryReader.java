@@ -0,0 +1,310 @@
+package mil.nga.wkb.io;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Tiny Well-Known Binary (TWKB) reader. Coordinates are variable length zig
+ * zag encoded deltas of precision scaled integers, decoded into the
+ * {@link Geometry} hierarchy. Bounding box, size and id list headers are
+ * read past. Empty points are read with NaN x and y values.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class TwkbGeometryReader {
+
+	/**
+	 * Read a geometry from the byte reader
+	 * 
+	 * @param reader
+	 * @return geometry
+	 */
+	public static Geometry readGeometry(ByteReader reader) {
+		Geometry geometry = readGeometry(reader, null);
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry from the byte reader
+	 * 
+	 * @param reader
+	 * @param expectedType
+	 * @return geometry
+	 */
+	public static <T extends Geometry> T readGeometry(ByteReader reader,
+			Class<T> expectedType) {
+
+		// Read the type and precision byte
+		int typeAndPrecision = reader.readByte() & 0xFF;
+		GeometryType geometryType = TwkbEncoding
+				.getGeometryType(typeAndPrecision & 0x0F);
+		int precision = (int) TwkbEncoding
+				.zigZagDecode(typeAndPrecision >> 4);
+
+		// Read the metadata header byte
+		int metadata = reader.readByte() & 0xFF;
+
+		// Read the extended dimensions
+		boolean hasZ = false;
+		boolean hasM = false;
+		int zPrecision = 0;
+		int mPrecision = 0;
+		if ((metadata & TwkbEncoding.EXTENDED_DIMENSIONS) != 0) {
+			int dimensions = reader.readByte() & 0xFF;
+			hasZ = (dimensions & TwkbEncoding.Z) != 0;
+			hasM = (dimensions & TwkbEncoding.M) != 0;
+			zPrecision = (dimensions >> 2) & 0x07;
+			mPrecision = (dimensions >> 5) & 0x07;
+		}
+
+		// Skip the size and bounding box
+		if ((metadata & TwkbEncoding.SIZE) != 0) {
+			TwkbEncoding.readUnsignedVarInt(reader);
+		}
+		if ((metadata & TwkbEncoding.BBOX) != 0) {
+			int values = 4 + (hasZ ? 2 : 0) + (hasM ? 2 : 0);
+			for (int i = 0; i < values; i++) {
+				TwkbEncoding.readVarInt(reader);
+			}
+		}
+
+		boolean empty = (metadata & TwkbEncoding.EMPTY) != 0;
+		boolean idList = (metadata & TwkbEncoding.ID_LIST) != 0;
+
+		Coordinates coordinates = new Coordinates(hasZ, hasM, precision,
+				zPrecision, mPrecision);
+
+		Geometry geometry = null;
+
+		switch (geometryType) {
+
+		case POINT:
+			if (empty) {
+				geometry = new Point(hasZ, hasM, Double.NaN, Double.NaN);
+			} else {
+				geometry = coordinates.readPoint(reader);
+			}
+			break;
+		case LINESTRING:
+			geometry = empty ? new LineString(hasZ, hasM) : readLineString(
+					reader, coordinates);
+			break;
+		case POLYGON:
+			geometry = empty ? new Polygon(hasZ, hasM) : readPolygon(reader,
+					coordinates);
+			break;
+		case MULTIPOINT:
+			MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
+			if (!empty) {
+				int numPoints = readCountAndIds(reader, idList);
+				for (int i = 0; i < numPoints; i++) {
+					multiPoint.addPoint(coordinates.readPoint(reader));
+				}
+			}
+			geometry = multiPoint;
+			break;
+		case MULTILINESTRING:
+			MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
+			if (!empty) {
+				int numLineStrings = readCountAndIds(reader, idList);
+				for (int i = 0; i < numLineStrings; i++) {
+					multiLineString.addLineString(readLineString(reader,
+							coordinates));
+				}
+			}
+			geometry = multiLineString;
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			if (!empty) {
+				int numPolygons = readCountAndIds(reader, idList);
+				for (int i = 0; i < numPolygons; i++) {
+					multiPolygon.addPolygon(readPolygon(reader, coordinates));
+				}
+			}
+			geometry = multiPolygon;
+			break;
+		case GEOMETRYCOLLECTION:
+			GeometryCollection<Geometry> geometryCollection = new GeometryCollection<Geometry>(
+					hasZ, hasM);
+			if (!empty) {
+				int numGeometries = readCountAndIds(reader, idList);
+				for (int i = 0; i < numGeometries; i++) {
+					geometryCollection.addGeometry(readGeometry(reader));
+				}
+			}
+			geometry = geometryCollection;
+			break;
+		default:
+			throw new WkbException("TWKB Geometry Type not supported: "
+					+ geometryType);
+		}
+
+		// If there is an expected type, verify the geometry if of that type
+		if (expectedType != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new WkbException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+
+		return result;
+	}
+
+	/**
+	 * Read a multiple geometry part count followed by the optional id list
+	 * 
+	 * @param reader
+	 * @param idList
+	 *            true if an id list follows the count
+	 * @return part count
+	 */
+	private static int readCountAndIds(ByteReader reader, boolean idList) {
+		int count = TwkbEncoding.readCount(reader);
+		if (idList) {
+			for (int i = 0; i < count; i++) {
+				TwkbEncoding.readVarInt(reader);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Read a Line String
+	 * 
+	 * @param reader
+	 * @param coordinates
+	 *            coordinate decoder
+	 * @return line string
+	 */
+	private static LineString readLineString(ByteReader reader,
+			Coordinates coordinates) {
+
+		LineString lineString = new LineString(coordinates.hasZ,
+				coordinates.hasM);
+
+		int numPoints = TwkbEncoding.readCount(reader);
+
+		for (int i = 0; i < numPoints; i++) {
+			lineString.addPoint(coordinates.readPoint(reader));
+		}
+
+		return lineString;
+	}
+
+	/**
+	 * Read a Polygon
+	 * 
+	 * @param reader
+	 * @param coordinates
+	 *            coordinate decoder
+	 * @return polygon
+	 */
+	private static Polygon readPolygon(ByteReader reader,
+			Coordinates coordinates) {
+
+		Polygon polygon = new Polygon(coordinates.hasZ, coordinates.hasM);
+
+		int numRings = TwkbEncoding.readCount(reader);
+
+		for (int i = 0; i < numRings; i++) {
+			polygon.addRing(readLineString(reader, coordinates));
+		}
+
+		return polygon;
+	}
+
+	/**
+	 * Coordinate decoder of a single TWKB geometry, keeping the previous
+	 * scaled values the next coordinate deltas are relative to
+	 */
+	private static class Coordinates {
+
+		/**
+		 * Has z values
+		 */
+		private final boolean hasZ;
+
+		/**
+		 * Has m values
+		 */
+		private final boolean hasM;
+
+		/**
+		 * X and y precision
+		 */
+		private final int precision;
+
+		/**
+		 * Z precision
+		 */
+		private final int zPrecision;
+
+		/**
+		 * M precision
+		 */
+		private final int mPrecision;
+
+		/**
+		 * Previous scaled x, y, z and m values
+		 */
+		private long x, y, z, m;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param hasZ
+		 * @param hasM
+		 * @param precision
+		 *            x and y precision
+		 * @param zPrecision
+		 *            z precision
+		 * @param mPrecision
+		 *            m precision
+		 */
+		private Coordinates(boolean hasZ, boolean hasM, int precision,
+				int zPrecision, int mPrecision) {
+			this.hasZ = hasZ;
+			this.hasM = hasM;
+			this.precision = precision;
+			this.zPrecision = zPrecision;
+			this.mPrecision = mPrecision;
+		}
+
+		/**
+		 * Read the next point deltas
+		 * 
+		 * @param reader
+		 * @return point
+		 */
+		private Point readPoint(ByteReader reader) {
+			x += TwkbEncoding.readVarInt(reader);
+			y += TwkbEncoding.readVarInt(reader);
+			Point point = new Point(hasZ, hasM, TwkbEncoding.unscale(x,
+					precision), TwkbEncoding.unscale(y, precision));
+			if (hasZ) {
+				z += TwkbEncoding.readVarInt(reader);
+				point.setZValue(TwkbEncoding.unscale(z, zPrecision));
+			}
+			if (hasM) {
+				m += TwkbEncoding.readVarInt(reader);
+				point.setMValue(TwkbEncoding.unscale(m, mPrecision));
+			}
+			return point;
+		}
+
+	}
+
+}
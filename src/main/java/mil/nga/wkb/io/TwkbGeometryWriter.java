@@ -0,0 +1,500 @@
+package mil.nga.wkb.io;
+
+import java.util.List;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Tiny Well-Known Binary (TWKB) writer. Coordinates are scaled to integers of
+ * a decimal precision and written as variable length zig zag encoded deltas
+ * from the previous coordinate, with an optional bounding box and size
+ * header. Supports points, line strings, polygons, their multiple geometry
+ * types and geometry collections. Empty points are points with NaN x and y
+ * values, other NaN and infinite x and y values are rejected and NaN z and m
+ * values are written as 0.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class TwkbGeometryWriter {
+
+	/**
+	 * Write a geometry to the byte writer without size and bounding box
+	 * headers
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param precision
+	 *            x and y decimal precision (-8 to 7), also used for z and m
+	 *            values when not negative
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			int precision) {
+		int extendedPrecision = Math.max(0,
+				Math.min(precision, TwkbEncoding.MAX_EXTENDED_PRECISION));
+		writeGeometry(writer, geometry, precision, extendedPrecision,
+				extendedPrecision, false, false);
+	}
+
+	/**
+	 * Write a geometry to the byte writer
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param precision
+	 *            x and y decimal precision (-8 to 7)
+	 * @param zPrecision
+	 *            z decimal precision (0 to 7)
+	 * @param mPrecision
+	 *            m decimal precision (0 to 7)
+	 * @param includeSize
+	 *            true to write the size header
+	 * @param includeBbox
+	 *            true to write the bounding box header
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			int precision, int zPrecision, int mPrecision,
+			boolean includeSize, boolean includeBbox) {
+
+		if (precision < TwkbEncoding.MIN_PRECISION
+				|| precision > TwkbEncoding.MAX_PRECISION) {
+			throw new WkbException("Invalid TWKB precision: " + precision);
+		}
+		if (zPrecision < 0 || zPrecision > TwkbEncoding.MAX_EXTENDED_PRECISION
+				|| mPrecision < 0
+				|| mPrecision > TwkbEncoding.MAX_EXTENDED_PRECISION) {
+			throw new WkbException("Invalid TWKB z or m precision. Z: "
+					+ zPrecision + ", M: " + mPrecision);
+		}
+
+		write(writer, geometry, precision, zPrecision, mPrecision,
+				includeSize, includeBbox);
+	}
+
+	/**
+	 * Write a geometry to the byte writer
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param precision
+	 *            x and y decimal precision
+	 * @param zPrecision
+	 *            z decimal precision
+	 * @param mPrecision
+	 *            m decimal precision
+	 * @param includeSize
+	 *            true to write the size header
+	 * @param includeBbox
+	 *            true to write the bounding box header
+	 * @return coordinate encoder with the scaled bounds when included, null
+	 *         for an empty geometry
+	 */
+	private static Coordinates write(ByteWriter writer, Geometry geometry,
+			int precision, int zPrecision, int mPrecision,
+			boolean includeSize, boolean includeBbox) {
+
+		GeometryType geometryType = geometry.getGeometryType();
+		boolean hasZ = geometry.hasZ();
+		boolean hasM = geometry.hasM();
+		boolean empty = isEmpty(geometry);
+
+		// Write the type and precision byte
+		int typeCode = TwkbEncoding.getTypeCode(geometryType);
+		long encodedPrecision = TwkbEncoding.zigZagEncode(precision);
+		writer.writeByte((byte) (typeCode | (encodedPrecision << 4)));
+
+		// Write the metadata header byte, empty geometries have no size or
+		// bounding box
+		int metadata = 0;
+		if (empty) {
+			metadata |= TwkbEncoding.EMPTY;
+		} else {
+			if (includeBbox) {
+				metadata |= TwkbEncoding.BBOX;
+			}
+			if (includeSize) {
+				metadata |= TwkbEncoding.SIZE;
+			}
+		}
+		if (hasZ || hasM) {
+			metadata |= TwkbEncoding.EXTENDED_DIMENSIONS;
+		}
+		writer.writeByte((byte) metadata);
+
+		// Write the extended dimensions
+		if (hasZ || hasM) {
+			int dimensions = (zPrecision << 2) | (mPrecision << 5);
+			if (hasZ) {
+				dimensions |= TwkbEncoding.Z;
+			}
+			if (hasM) {
+				dimensions |= TwkbEncoding.M;
+			}
+			writer.writeByte((byte) dimensions);
+		}
+
+		Coordinates coordinates = null;
+
+		if (!empty) {
+
+			coordinates = new Coordinates(hasZ, hasM, precision,
+					zPrecision, mPrecision, includeBbox);
+
+			if (!includeSize && !includeBbox) {
+				writeBody(writer, geometry, coordinates, includeSize);
+			} else {
+
+				// Write the body first to determine the bounding box and size
+				ByteWriter body = new ByteWriter();
+				writeBody(body, geometry, coordinates, includeSize);
+
+				ByteWriter header = includeSize ? new ByteWriter() : writer;
+				if (includeBbox) {
+					coordinates.writeBbox(header);
+				}
+				if (includeSize) {
+					TwkbEncoding.writeUnsignedVarInt(writer, header.size()
+							+ body.size());
+					copy(writer, header);
+					header.close();
+				}
+				copy(writer, body);
+				body.close();
+			}
+		}
+
+		return coordinates;
+	}
+
+	/**
+	 * Write the geometry body following the headers
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param coordinates
+	 *            coordinate encoder
+	 * @param includeSize
+	 *            true to write collection geometry size headers
+	 */
+	private static void writeBody(ByteWriter writer, Geometry geometry,
+			Coordinates coordinates, boolean includeSize) {
+
+		GeometryType geometryType = geometry.getGeometryType();
+
+		switch (geometryType) {
+
+		case POINT:
+			coordinates.writePoint(writer, (Point) geometry);
+			break;
+		case LINESTRING:
+			writeLineString(writer, (LineString) geometry, coordinates);
+			break;
+		case POLYGON:
+			writePolygon(writer, (Polygon) geometry, coordinates);
+			break;
+		case MULTIPOINT:
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			TwkbEncoding.writeUnsignedVarInt(writer, points.size());
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				coordinates.writePoint(writer,
+						PointView.getPoint(points, i, view));
+			}
+			break;
+		case MULTILINESTRING:
+			List<LineString> lineStrings = ((MultiLineString) geometry)
+					.getLineStrings();
+			TwkbEncoding.writeUnsignedVarInt(writer, lineStrings.size());
+			for (LineString lineString : lineStrings) {
+				writeLineString(writer, lineString, coordinates);
+			}
+			break;
+		case MULTIPOLYGON:
+			List<Polygon> polygons = ((MultiPolygon) geometry).getPolygons();
+			TwkbEncoding.writeUnsignedVarInt(writer, polygons.size());
+			for (Polygon polygon : polygons) {
+				writePolygon(writer, polygon, coordinates);
+			}
+			break;
+		case GEOMETRYCOLLECTION:
+			List<? extends Geometry> geometries =
+					((GeometryCollection<?>) geometry).getGeometries();
+			TwkbEncoding.writeUnsignedVarInt(writer, geometries.size());
+			for (Geometry child : geometries) {
+				Coordinates childCoordinates = write(writer,
+						child, coordinates.precision,
+						coordinates.zPrecision, coordinates.mPrecision,
+						includeSize, coordinates.bounds != null);
+				if (coordinates.bounds != null && childCoordinates != null) {
+					coordinates.expand(childCoordinates);
+				}
+			}
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported by TWKB: "
+					+ geometryType);
+		}
+	}
+
+	/**
+	 * Write a Line String
+	 * 
+	 * @param writer
+	 * @param lineString
+	 * @param coordinates
+	 *            coordinate encoder
+	 */
+	private static void writeLineString(ByteWriter writer,
+			LineString lineString, Coordinates coordinates) {
+		List<Point> points = lineString.getPoints();
+		TwkbEncoding.writeUnsignedVarInt(writer, points.size());
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			coordinates.writePoint(writer, PointView.getPoint(points, i, view));
+		}
+	}
+
+	/**
+	 * Write a Polygon
+	 * 
+	 * @param writer
+	 * @param polygon
+	 * @param coordinates
+	 *            coordinate encoder
+	 */
+	private static void writePolygon(ByteWriter writer, Polygon polygon,
+			Coordinates coordinates) {
+		List<LineString> rings = polygon.getRings();
+		TwkbEncoding.writeUnsignedVarInt(writer, rings.size());
+		for (LineString ring : rings) {
+			writeLineString(writer, ring, coordinates);
+		}
+	}
+
+	/**
+	 * Determine if the geometry is written as an empty TWKB geometry
+	 * 
+	 * @param geometry
+	 * @return true if empty
+	 */
+	private static boolean isEmpty(Geometry geometry) {
+		boolean empty;
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			Point point = (Point) geometry;
+			empty = Double.isNaN(point.getX()) && Double.isNaN(point.getY());
+			break;
+		case LINESTRING:
+			empty = ((LineString) geometry).numPoints() == 0;
+			break;
+		case POLYGON:
+			empty = ((Polygon) geometry).numRings() == 0;
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			empty = ((GeometryCollection<?>) geometry).numGeometries() == 0;
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported by TWKB: "
+					+ geometry.getGeometryType());
+		}
+		return empty;
+	}
+
+	/**
+	 * Copy the bytes written to the source writer
+	 * 
+	 * @param writer
+	 *            target writer
+	 * @param source
+	 *            source writer
+	 */
+	private static void copy(ByteWriter writer, ByteWriter source) {
+		int size = source.size();
+		if (size > 0) {
+			writer.reserve(size).put(source.getWrittenBytes(0, size));
+		}
+	}
+
+	/**
+	 * Coordinate encoder of a single TWKB geometry, keeping the previous
+	 * scaled values the next coordinate deltas are relative to and the
+	 * optional scaled bounds
+	 */
+	private static class Coordinates {
+
+		/**
+		 * Has z values
+		 */
+		private final boolean hasZ;
+
+		/**
+		 * Has m values
+		 */
+		private final boolean hasM;
+
+		/**
+		 * X and y precision
+		 */
+		private final int precision;
+
+		/**
+		 * Z precision
+		 */
+		private final int zPrecision;
+
+		/**
+		 * M precision
+		 */
+		private final int mPrecision;
+
+		/**
+		 * Scaled minimum and maximum x, y, z and m values, null when not
+		 * building a bounding box
+		 */
+		private final long[] bounds;
+
+		/**
+		 * Previous scaled x, y, z and m values
+		 */
+		private long x, y, z, m;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param hasZ
+		 * @param hasM
+		 * @param precision
+		 *            x and y precision
+		 * @param zPrecision
+		 *            z precision
+		 * @param mPrecision
+		 *            m precision
+		 * @param buildBounds
+		 *            true to build the bounding box
+		 */
+		private Coordinates(boolean hasZ, boolean hasM, int precision,
+				int zPrecision, int mPrecision, boolean buildBounds) {
+			this.hasZ = hasZ;
+			this.hasM = hasM;
+			this.precision = precision;
+			this.zPrecision = zPrecision;
+			this.mPrecision = mPrecision;
+			if (buildBounds) {
+				bounds = new long[8];
+				for (int i = 0; i < bounds.length; i += 2) {
+					bounds[i] = Long.MAX_VALUE;
+					bounds[i + 1] = Long.MIN_VALUE;
+				}
+			} else {
+				bounds = null;
+			}
+		}
+
+		/**
+		 * Write the point as deltas from the previous point
+		 * 
+		 * @param writer
+		 * @param point
+		 */
+		private void writePoint(ByteWriter writer, Point point) {
+			long scaledX = TwkbEncoding.scale(point.getX(), precision);
+			long scaledY = TwkbEncoding.scale(point.getY(), precision);
+			TwkbEncoding.writeVarInt(writer, scaledX - x);
+			TwkbEncoding.writeVarInt(writer, scaledY - y);
+			x = scaledX;
+			y = scaledY;
+			if (hasZ) {
+				double value = point.getZValue();
+				long scaledZ = TwkbEncoding.scale(Double.isNaN(value) ? 0
+						: value, zPrecision);
+				TwkbEncoding.writeVarInt(writer, scaledZ - z);
+				z = scaledZ;
+			}
+			if (hasM) {
+				double value = point.getMValue();
+				long scaledM = TwkbEncoding.scale(Double.isNaN(value) ? 0
+						: value, mPrecision);
+				TwkbEncoding.writeVarInt(writer, scaledM - m);
+				m = scaledM;
+			}
+			if (bounds != null) {
+				expand(0, x);
+				expand(2, y);
+				expand(4, z);
+				expand(6, m);
+			}
+		}
+
+		/**
+		 * Expand the bounds by the scaled bounds of a collection child
+		 * geometry, which is written relative to its own origin
+		 * 
+		 * @param child
+		 *            child geometry coordinate encoder
+		 */
+		private void expand(Coordinates child) {
+			for (int i = 0; i < bounds.length; i += 2) {
+				if (child.bounds[i] <= child.bounds[i + 1]) {
+					expand(i, child.bounds[i]);
+					expand(i, child.bounds[i + 1]);
+				}
+			}
+		}
+
+		/**
+		 * Expand a minimum and maximum bounds pair by the value
+		 * 
+		 * @param index
+		 *            minimum bound index
+		 * @param value
+		 *            scaled value
+		 */
+		private void expand(int index, long value) {
+			if (value < bounds[index]) {
+				bounds[index] = value;
+			}
+			if (value > bounds[index + 1]) {
+				bounds[index + 1] = value;
+			}
+		}
+
+		/**
+		 * Write the bounding box as each dimension minimum and its delta to
+		 * the maximum
+		 * 
+		 * @param writer
+		 */
+		private void writeBbox(ByteWriter writer) {
+			int dimensions = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+			for (int i = 0; i < dimensions; i++) {
+				int index = i * 2;
+				if (i == 2 && !hasZ) {
+					index += 2;
+				}
+				long min = bounds[index];
+				long max = bounds[index + 1];
+				if (min > max) {
+					min = 0;
+					max = 0;
+				}
+				TwkbEncoding.writeVarInt(writer, min);
+				TwkbEncoding.writeVarInt(writer, max - min);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,353 @@
+package mil.nga.wkb.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary byte order transcoder. Rewrites Well-Known Binary
+ * geometries to a byte order by walking the geometry structure and swapping
+ * the byte order bytes, integers and doubles, without reading the geometries
+ * into {@link mil.nga.wkb.geom.Geometry} objects. Geometries can be
+ * transcoded in place or into a target buffer, and nested geometries written
+ * in mixed byte orders are all rewritten to the single byte order.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbByteOrderTranscoder {
+
+	/**
+	 * Transcode the Well-Known Binary geometries to the byte order into new
+	 * bytes
+	 * 
+	 * @param bytes
+	 *            one or more consecutive Well-Known Binary geometries
+	 * @param byteOrder
+	 *            byte order to transcode to
+	 * @return transcoded bytes
+	 */
+	public static byte[] transcode(byte[] bytes, ByteOrder byteOrder) {
+		byte[] transcoded = new byte[bytes.length];
+		ByteBuffer source = ByteBuffer.wrap(bytes);
+		ByteBuffer target = ByteBuffer.wrap(transcoded);
+		while (source.hasRemaining()) {
+			transcode(source, target, byteOrder);
+		}
+		return transcoded;
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometries to the byte order in place
+	 * 
+	 * @param bytes
+	 *            one or more consecutive Well-Known Binary geometries
+	 * @param byteOrder
+	 *            byte order to transcode to
+	 */
+	public static void transcodeInPlace(byte[] bytes, ByteOrder byteOrder) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			transcodeInPlace(buffer, byteOrder);
+		}
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry starting at the source position
+	 * to the byte order, writing it at the target position. Both buffer
+	 * positions are advanced past the geometry.
+	 * 
+	 * @param source
+	 *            source buffer
+	 * @param target
+	 *            target buffer
+	 * @param byteOrder
+	 *            byte order to transcode to
+	 * @return number of geometry bytes
+	 */
+	public static int transcode(ByteBuffer source, ByteBuffer target,
+			ByteOrder byteOrder) {
+		int sourcePosition = source.position();
+		int targetPosition = target.position();
+		int length = geometryLength(source, sourcePosition);
+		if (target.remaining() < length) {
+			throw new WkbException(
+					"Not enough remaining target bytes to transcode. Remaining: "
+							+ target.remaining() + ", Geometry bytes: "
+							+ length);
+		}
+		transcodeGeometry(source.duplicate().order(ByteOrder.BIG_ENDIAN),
+				sourcePosition,
+				target.duplicate().order(ByteOrder.BIG_ENDIAN),
+				targetPosition - sourcePosition, true, byteOrder);
+		source.position(sourcePosition + length);
+		target.position(targetPosition + length);
+		return length;
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry starting at the buffer position
+	 * to the byte order in place, advancing the position past the geometry
+	 * 
+	 * @param buffer
+	 *            buffer
+	 * @param byteOrder
+	 *            byte order to transcode to
+	 * @return number of geometry bytes
+	 */
+	public static int transcodeInPlace(ByteBuffer buffer, ByteOrder byteOrder) {
+		int position = buffer.position();
+		int length = geometryLength(buffer, position);
+		ByteBuffer bigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		transcodeGeometry(bigEndian, position, bigEndian, 0, false, byteOrder);
+		buffer.position(position + length);
+		return length;
+	}
+
+	/**
+	 * Get the number of bytes of the Well-Known Binary geometry at the index,
+	 * verifying the geometry structure fits within the buffer limit
+	 * 
+	 * @param buffer
+	 *            buffer
+	 * @param index
+	 *            geometry start index
+	 * @return number of geometry bytes
+	 */
+	static int geometryLength(ByteBuffer buffer, int index) {
+		ByteBuffer bigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		return transcodeGeometry(bigEndian, index, null, 0, false, null)
+				- index;
+	}
+
+	/**
+	 * Transcode the geometry at the source index. All multiple byte values are
+	 * read from and written to big endian buffers, reversing the bytes for
+	 * little endian values.
+	 * 
+	 * @param source
+	 *            big endian source buffer
+	 * @param index
+	 *            source geometry start index
+	 * @param target
+	 *            big endian target buffer, null to only walk the geometry
+	 * @param offset
+	 *            target index offset from the source index
+	 * @param copy
+	 *            true if the target is not the source and unchanged values
+	 *            must be copied
+	 * @param byteOrder
+	 *            byte order to transcode to
+	 * @return source index after the geometry
+	 */
+	private static int transcodeGeometry(ByteBuffer source, int index,
+			ByteBuffer target, int offset, boolean copy, ByteOrder byteOrder) {
+
+		// Read the single byte order byte
+		verifyRemainingBytes(source, index, 5);
+		ByteOrder sourceOrder = source.get(index) == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		boolean swap = target != null && sourceOrder != byteOrder;
+		if (target != null) {
+			byte byteOrderValue = byteOrder == ByteOrder.BIG_ENDIAN ? (byte) 0
+					: (byte) 1;
+			target.put(index + offset, byteOrderValue);
+		}
+		index++;
+
+		// Read the geometry type integer
+		int geometryTypeWkbCode = transcodeInt(source, index, sourceOrder,
+				target, offset, copy, swap);
+		index += 4;
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.getGeometryTypeInfo(geometryTypeWkbCode);
+
+		// Read the Extended Well-Known Binary SRID
+		if (geometryTypeInfo.hasSrid()) {
+			verifyRemainingBytes(source, index, 4);
+			transcodeInt(source, index, sourceOrder, target, offset, copy,
+					swap);
+			index += 4;
+		}
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		int dimension = geometryTypeInfo.getCoordinateDimension();
+
+		switch (geometryType) {
+
+		case POINT:
+			index = transcodeDoubles(source, index, dimension, target, offset,
+					copy, swap);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			index = transcodeLineString(source, index, sourceOrder,
+					dimension, target, offset, copy, swap);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			verifyRemainingBytes(source, index, 4);
+			int numRings = transcodeInt(source, index, sourceOrder, target,
+					offset, copy, swap);
+			index += 4;
+			for (int i = 0; i < numRings; i++) {
+				index = transcodeLineString(source, index, sourceOrder,
+						dimension, target, offset, copy, swap);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			verifyRemainingBytes(source, index, 4);
+			int numGeometries = transcodeInt(source, index, sourceOrder,
+					target, offset, copy, swap);
+			index += 4;
+			for (int i = 0; i < numGeometries; i++) {
+				index = transcodeGeometry(source, index, target, offset, copy,
+						byteOrder);
+			}
+			break;
+		default:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+		return index;
+	}
+
+	/**
+	 * Transcode a line string or ring point count and points
+	 * 
+	 * @param source
+	 *            big endian source buffer
+	 * @param index
+	 *            source index
+	 * @param sourceOrder
+	 *            source byte order
+	 * @param dimension
+	 *            coordinate dimension
+	 * @param target
+	 *            big endian target buffer, null to only walk the geometry
+	 * @param offset
+	 *            target index offset from the source index
+	 * @param copy
+	 *            true if unchanged values must be copied
+	 * @param swap
+	 *            true if the byte order is swapped
+	 * @return source index after the line string
+	 */
+	private static int transcodeLineString(ByteBuffer source, int index,
+			ByteOrder sourceOrder, int dimension, ByteBuffer target,
+			int offset, boolean copy, boolean swap) {
+		verifyRemainingBytes(source, index, 4);
+		int numPoints = transcodeInt(source, index, sourceOrder, target,
+				offset, copy, swap);
+		index += 4;
+		if (numPoints < 0) {
+			throw new WkbException("Invalid number of points: " + numPoints);
+		}
+		return transcodeDoubles(source, index, (long) numPoints * dimension,
+				target, offset, copy, swap);
+	}
+
+	/**
+	 * Transcode an integer, returning its value
+	 * 
+	 * @param source
+	 *            big endian source buffer
+	 * @param index
+	 *            source index
+	 * @param sourceOrder
+	 *            source byte order
+	 * @param target
+	 *            big endian target buffer, null to only walk the geometry
+	 * @param offset
+	 *            target index offset from the source index
+	 * @param copy
+	 *            true if unchanged values must be copied
+	 * @param swap
+	 *            true if the byte order is swapped
+	 * @return integer value
+	 */
+	private static int transcodeInt(ByteBuffer source, int index,
+			ByteOrder sourceOrder, ByteBuffer target, int offset,
+			boolean copy, boolean swap) {
+		int raw = source.getInt(index);
+		if (swap) {
+			target.putInt(index + offset, Integer.reverseBytes(raw));
+		} else if (copy) {
+			target.putInt(index + offset, raw);
+		}
+		return sourceOrder == ByteOrder.BIG_ENDIAN ? raw : Integer
+				.reverseBytes(raw);
+	}
+
+	/**
+	 * Transcode consecutive doubles, swapping each as a long without
+	 * interpreting the values
+	 * 
+	 * @param source
+	 *            big endian source buffer
+	 * @param index
+	 *            source index
+	 * @param count
+	 *            number of doubles
+	 * @param target
+	 *            big endian target buffer, null to only walk the geometry
+	 * @param offset
+	 *            target index offset from the source index
+	 * @param copy
+	 *            true if unchanged values must be copied
+	 * @param swap
+	 *            true if the byte order is swapped
+	 * @return source index after the doubles
+	 */
+	private static int transcodeDoubles(ByteBuffer source, int index,
+			long count, ByteBuffer target, int offset, boolean copy,
+			boolean swap) {
+		long bytes = count * 8;
+		verifyRemainingBytes(source, index, bytes);
+		int end = index + (int) bytes;
+		if (swap) {
+			for (int i = index; i < end; i += 8) {
+				target.putLong(i + offset, Long.reverseBytes(source.getLong(i)));
+			}
+		} else if (copy) {
+			ByteBuffer values = source.duplicate();
+			values.limit(end);
+			values.position(index);
+			ByteBuffer targetValues = target.duplicate();
+			targetValues.position(index + offset);
+			targetValues.put(values);
+		}
+		return end;
+	}
+
+	/**
+	 * Verify the buffer has the number of bytes remaining from the index
+	 * 
+	 * @param buffer
+	 *            buffer
+	 * @param index
+	 *            index
+	 * @param bytes
+	 *            number of bytes to read
+	 */
+	private static void verifyRemainingBytes(ByteBuffer buffer, int index,
+			long bytes) {
+		if (index + bytes > buffer.limit()) {
+			throw new WkbException(
+					"No more remaining bytes to read. Total Bytes: "
+							+ buffer.limit() + ", Bytes already read: "
+							+ index + ", Attempted to read: " + bytes);
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+package mil.nga.wkb.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary dimension transcoder. Projects Well-Known Binary
+ * geometries to fewer dimensions by rewriting the geometry type integers and
+ * copying only the kept coordinate values, without reading the geometries
+ * into {@link mil.nga.wkb.geom.Geometry} objects. Z and M values can only be
+ * dropped, a kept dimension not in the source geometry is not added. Each
+ * geometry keeps its source byte order.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbDimensionTranscoder {
+
+	/**
+	 * Transcode the Well-Known Binary geometries to x and y values only
+	 * 
+	 * @param bytes
+	 *            one or more consecutive Well-Known Binary geometries
+	 * @return transcoded bytes
+	 */
+	public static byte[] transcode(byte[] bytes) {
+		return transcode(bytes, false, false);
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometries, dropping z and or m values
+	 * 
+	 * @param bytes
+	 *            one or more consecutive Well-Known Binary geometries
+	 * @param hasZ
+	 *            true to keep z values
+	 * @param hasM
+	 *            true to keep m values
+	 * @return transcoded bytes
+	 */
+	public static byte[] transcode(byte[] bytes, boolean hasZ, boolean hasM) {
+		// Dropping dimensions never increases the number of bytes
+		byte[] transcoded = new byte[bytes.length];
+		ByteBuffer source = ByteBuffer.wrap(bytes);
+		ByteBuffer target = ByteBuffer.wrap(transcoded);
+		while (source.hasRemaining()) {
+			transcode(source, target, hasZ, hasM);
+		}
+		if (target.position() < transcoded.length) {
+			transcoded = Arrays.copyOf(transcoded, target.position());
+		}
+		return transcoded;
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry starting at the source position,
+	 * dropping z and or m values and writing it at the target position. Both
+	 * buffer positions are advanced past the geometry.
+	 * 
+	 * @param source
+	 *            source buffer
+	 * @param target
+	 *            target buffer
+	 * @param hasZ
+	 *            true to keep z values
+	 * @param hasM
+	 *            true to keep m values
+	 * @return number of transcoded geometry bytes
+	 */
+	public static int transcode(ByteBuffer source, ByteBuffer target,
+			boolean hasZ, boolean hasM) {
+		int targetPosition = target.position();
+		ByteBuffer sourceValues = source.duplicate();
+		ByteBuffer targetValues = target.duplicate();
+		try {
+			transcodeGeometry(sourceValues, targetValues, hasZ, hasM);
+		} catch (BufferUnderflowException e) {
+			throw new WkbException(
+					"No more remaining bytes to read. Total Bytes: "
+							+ source.limit() + ", Geometry start: "
+							+ source.position(), e);
+		} catch (BufferOverflowException e) {
+			throw new WkbException(
+					"Not enough remaining target bytes to transcode. Capacity: "
+							+ target.limit() + ", Geometry start: "
+							+ targetPosition, e);
+		}
+		source.position(sourceValues.position());
+		target.position(targetValues.position());
+		return target.position() - targetPosition;
+	}
+
+	/**
+	 * Transcode the geometry at the source position
+	 * 
+	 * @param source
+	 *            source buffer
+	 * @param target
+	 *            target buffer
+	 * @param hasZ
+	 *            true to keep z values
+	 * @param hasM
+	 *            true to keep m values
+	 */
+	private static void transcodeGeometry(ByteBuffer source,
+			ByteBuffer target, boolean hasZ, boolean hasM) {
+
+		// Read the single byte order byte, each geometry keeps its byte order
+		byte byteOrderValue = source.get();
+		ByteOrder byteOrder = byteOrderValue == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		ByteOrder sourceOrder = source.order();
+		ByteOrder targetOrder = target.order();
+		source.order(byteOrder);
+		target.order(byteOrder);
+		target.put(byteOrderValue);
+
+		// Read the geometry type integer and write the projected type
+		int geometryTypeWkbCode = source.getInt();
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.getGeometryTypeInfo(geometryTypeWkbCode);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		GeometryTypeInfo projectedTypeInfo = new GeometryTypeInfo(
+				geometryType, geometryTypeInfo.hasZ() && hasZ,
+				geometryTypeInfo.hasM() && hasM,
+				geometryTypeInfo.isExtended(), geometryTypeInfo.hasSrid());
+		target.putInt(projectedTypeInfo.getCode());
+
+		// Copy the Extended Well-Known Binary SRID
+		if (geometryTypeInfo.hasSrid()) {
+			target.putInt(source.getInt());
+		}
+
+		switch (geometryType) {
+
+		case POINT:
+			transcodePoints(source, target, 1, geometryTypeInfo,
+					projectedTypeInfo);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			transcodeLineString(source, target, geometryTypeInfo,
+					projectedTypeInfo);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = source.getInt();
+			target.putInt(numRings);
+			for (int i = 0; i < numRings; i++) {
+				transcodeLineString(source, target, geometryTypeInfo,
+						projectedTypeInfo);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numGeometries = source.getInt();
+			target.putInt(numGeometries);
+			for (int i = 0; i < numGeometries; i++) {
+				transcodeGeometry(source, target, hasZ, hasM);
+			}
+			break;
+		default:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+		// Restore the byte orders
+		source.order(sourceOrder);
+		target.order(targetOrder);
+	}
+
+	/**
+	 * Transcode a line string or ring point count and points
+	 * 
+	 * @param source
+	 *            source buffer
+	 * @param target
+	 *            target buffer
+	 * @param typeInfo
+	 *            source geometry type info
+	 * @param projectedTypeInfo
+	 *            projected geometry type info
+	 */
+	private static void transcodeLineString(ByteBuffer source,
+			ByteBuffer target, GeometryTypeInfo typeInfo,
+			GeometryTypeInfo projectedTypeInfo) {
+		int numPoints = source.getInt();
+		if (numPoints < 0) {
+			throw new WkbException("Invalid number of points: " + numPoints);
+		}
+		target.putInt(numPoints);
+		transcodePoints(source, target, numPoints, typeInfo, projectedTypeInfo);
+	}
+
+	/**
+	 * Transcode consecutive points, copying the kept coordinate values as raw
+	 * longs
+	 * 
+	 * @param source
+	 *            source buffer
+	 * @param target
+	 *            target buffer
+	 * @param numPoints
+	 *            number of points
+	 * @param typeInfo
+	 *            source geometry type info
+	 * @param projectedTypeInfo
+	 *            projected geometry type info
+	 */
+	private static void transcodePoints(ByteBuffer source, ByteBuffer target,
+			int numPoints, GeometryTypeInfo typeInfo,
+			GeometryTypeInfo projectedTypeInfo) {
+
+		int dimension = typeInfo.getCoordinateDimension();
+
+		if (dimension == projectedTypeInfo.getCoordinateDimension()) {
+
+			// No dropped values, copy all of the points at once
+			long bytes = (long) numPoints * dimension * 8;
+			if (bytes > source.remaining()) {
+				throw new BufferUnderflowException();
+			}
+			ByteBuffer values = source.duplicate();
+			values.limit(values.position() + (int) bytes);
+			target.put(values);
+			source.position(values.limit());
+
+		} else {
+
+			boolean keepZ = projectedTypeInfo.hasZ();
+			boolean keepM = projectedTypeInfo.hasM();
+			for (int i = 0; i < numPoints; i++) {
+				target.putLong(source.getLong());
+				target.putLong(source.getLong());
+				if (typeInfo.hasZ()) {
+					long z = source.getLong();
+					if (keepZ) {
+						target.putLong(z);
+					}
+				}
+				if (typeInfo.hasM()) {
+					long m = source.getLong();
+					if (keepM) {
+						target.putLong(m);
+					}
+				}
+			}
+		}
+	}
+
+}
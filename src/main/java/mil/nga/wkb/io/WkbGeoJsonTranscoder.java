@@ -0,0 +1,265 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well-Known Binary to GeoJSON transcoder. Writes the GeoJSON geometry of a
+ * Well-Known Binary geometry to an {@link Appendable} in a single pass over
+ * the bytes, without reading the geometry into
+ * {@link mil.nga.wkb.geom.Geometry} objects. Types, m values and number
+ * formatting follow {@link GeoJsonGeometryWriter}.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeoJsonTranscoder {
+
+	/**
+	 * Byte reader
+	 */
+	private final ByteReader reader;
+
+	/**
+	 * Appendable to write to
+	 */
+	private final Appendable appendable;
+
+	/**
+	 * GeoJSON writer of types and numbers
+	 */
+	private final GeoJsonGeometryWriter writer;
+
+	/**
+	 * Transcode the Well-Known Binary geometry to a GeoJSON string with full
+	 * precision
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes
+	 * @return GeoJSON geometry
+	 */
+	public static String transcode(byte[] bytes) {
+		return transcode(bytes, GeoJsonGeometryWriter.FULL_PRECISION);
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry to a GeoJSON string
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes
+	 * @param decimals
+	 *            number of decimal places (0 to 15), or
+	 *            {@link GeoJsonGeometryWriter#FULL_PRECISION}
+	 * @return GeoJSON geometry
+	 */
+	public static String transcode(byte[] bytes, int decimals) {
+		StringBuilder builder = new StringBuilder(bytes.length);
+		try {
+			transcode(new ByteReader(bytes), builder, decimals);
+		} catch (IOException e) {
+			throw new WkbException("Failed to write GeoJSON geometry", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry at the reader position,
+	 * writing the GeoJSON to the appendable
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @param decimals
+	 *            number of decimal places (0 to 15), or
+	 *            {@link GeoJsonGeometryWriter#FULL_PRECISION}
+	 * @throws IOException
+	 */
+	public static void transcode(ByteReader reader, Appendable appendable,
+			int decimals) throws IOException {
+		new WkbGeoJsonTranscoder(reader, appendable, decimals)
+				.transcodeGeometry(null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param appendable
+	 *            appendable to write to
+	 * @param decimals
+	 *            number of decimal places, or
+	 *            {@link GeoJsonGeometryWriter#FULL_PRECISION}
+	 */
+	private WkbGeoJsonTranscoder(ByteReader reader, Appendable appendable,
+			int decimals) {
+		this.reader = reader;
+		this.appendable = appendable;
+		this.writer = new GeoJsonGeometryWriter(appendable, decimals);
+	}
+
+	/**
+	 * Transcode a geometry, as a GeoJSON geometry object at the top level or
+	 * in a geometry collection and as coordinates within other geometries
+	 * 
+	 * @param parentType
+	 *            containing geometry type, null at the top level
+	 * @throws IOException
+	 */
+	private void transcodeGeometry(GeometryType parentType)
+			throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.readGeometryHeader(reader);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		WkbWktTranscoder.verifyMemberType(parentType, geometryType);
+
+		boolean object = parentType == null
+				|| parentType == GeometryType.GEOMETRYCOLLECTION;
+		int dimension = geometryTypeInfo.getCoordinateDimension();
+		boolean hasZ = geometryTypeInfo.hasZ();
+
+		switch (geometryType) {
+
+		case POINT:
+			if (object) {
+				writer.writeType("Point");
+			}
+			transcodePosition(dimension, hasZ, object);
+			break;
+		case LINESTRING:
+			if (object) {
+				writer.writeType("LineString");
+			}
+			transcodePositions(dimension, hasZ);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			if (object) {
+				writer.writeType("Polygon");
+			}
+			appendable.append('[');
+			int numRings = reader.readInt();
+			for (int i = 0; i < numRings; i++) {
+				if (i > 0) {
+					appendable.append(',');
+				}
+				transcodePositions(dimension, hasZ);
+			}
+			appendable.append(']');
+			break;
+		case MULTIPOINT:
+			writer.writeType("MultiPoint");
+			transcodeMembers(geometryType);
+			break;
+		case MULTILINESTRING:
+			writer.writeType("MultiLineString");
+			transcodeMembers(geometryType);
+			break;
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			writer.writeType("MultiPolygon");
+			transcodeMembers(geometryType);
+			break;
+		case GEOMETRYCOLLECTION:
+			appendable.append("{\"type\":\"GeometryCollection\"");
+			appendable.append(",\"geometries\":");
+			transcodeMembers(geometryType);
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported by GeoJSON: "
+					+ geometryType);
+		}
+
+		if (object) {
+			appendable.append('}');
+		}
+
+		reader.setByteOrder(originalByteOrder);
+	}
+
+	/**
+	 * Transcode the member geometries of a multi geometry, collection or
+	 * surface as an array
+	 * 
+	 * @param geometryType
+	 *            parent geometry type
+	 * @throws IOException
+	 */
+	private void transcodeMembers(GeometryType geometryType)
+			throws IOException {
+		appendable.append('[');
+		int numGeometries = reader.readInt();
+		for (int i = 0; i < numGeometries; i++) {
+			if (i > 0) {
+				appendable.append(',');
+			}
+			transcodeGeometry(geometryType);
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Transcode line string or ring points as an array of positions
+	 * 
+	 * @param dimension
+	 *            coordinate dimension
+	 * @param hasZ
+	 *            true if coordinates have a z value
+	 * @throws IOException
+	 */
+	private void transcodePositions(int dimension, boolean hasZ)
+			throws IOException {
+		appendable.append('[');
+		int numPoints = reader.readInt();
+		for (int i = 0; i < numPoints; i++) {
+			if (i > 0) {
+				appendable.append(',');
+			}
+			transcodePosition(dimension, hasZ, false);
+		}
+		appendable.append(']');
+	}
+
+	/**
+	 * Transcode point coordinates as a position, without the m value or an
+	 * unset NaN z value
+	 * 
+	 * @param dimension
+	 *            coordinate dimension
+	 * @param hasZ
+	 *            true if coordinates have a z value
+	 * @param allowEmpty
+	 *            true to write NaN x and y values as an empty position
+	 * @throws IOException
+	 */
+	private void transcodePosition(int dimension, boolean hasZ,
+			boolean allowEmpty) throws IOException {
+		double x = reader.readDouble();
+		double y = reader.readDouble();
+		double z = hasZ ? reader.readDouble() : Double.NaN;
+		if (dimension > (hasZ ? 3 : 2)) {
+			reader.readDouble();
+		}
+		appendable.append('[');
+		if (!allowEmpty || !Double.isNaN(x) || !Double.isNaN(y)) {
+			writer.writeNumber(x);
+			appendable.append(',');
+			writer.writeNumber(y);
+			if (hasZ && !Double.isNaN(z)) {
+				appendable.append(',');
+				writer.writeNumber(z);
+			}
+		}
+		appendable.append(']');
+	}
+
+}
@@ -0,0 +1,400 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.GeometryBatch;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary codec of {@link GeometryBatch} geometries. Coordinates
+ * are read directly into the batch columns and written directly from them,
+ * without creating geometry objects. Absent z and m values of a read
+ * geometry are stored as NaN and geometries with z or m values the batch has
+ * no column for are rejected.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryBatchCodec {
+
+	/**
+	 * Read a geometry from the byte reader into the batch. A geometry that
+	 * fails to read is removed from the batch, leaving the reader after the
+	 * bytes read.
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @return geometry index
+	 */
+	public static int readGeometry(ByteReader reader, GeometryBatch batch) {
+
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.readGeometryHeader(reader);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		if (!GeometryBatch.isSupported(geometryType)) {
+			throw new WkbException("Unsupported "
+					+ batch.getClass().getSimpleName() + " Geometry Type: "
+					+ geometryType);
+		}
+		boolean hasZ = geometryTypeInfo.hasZ();
+		boolean hasM = geometryTypeInfo.hasM();
+		verifyDimensions(batch, hasZ, hasM);
+
+		int index = batch.beginGeometry(geometryType);
+		try {
+			readGeometry(reader, batch, geometryType, hasZ, hasM);
+		} catch (RuntimeException e) {
+			batch.truncate(index);
+			throw e;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Read the parts of the begun batch geometry
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	private static void readGeometry(ByteReader reader, GeometryBatch batch,
+			GeometryType geometryType, boolean hasZ, boolean hasM) {
+
+		switch (geometryType) {
+		case POINT:
+			batch.beginPart();
+			batch.beginRing();
+			readCoordinate(reader, batch, hasZ, hasM);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			batch.beginPart();
+			readRing(reader, batch, hasZ, hasM);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			readPolygon(reader, batch, hasZ, hasM);
+			break;
+		case MULTIPOINT:
+			int numPoints = reader.readInt();
+			for (int i = 0; i < numPoints; i++) {
+				GeometryTypeInfo pointInfo = readMemberHeader(reader, batch,
+						GeometryType.POINT, null);
+				batch.beginPart();
+				batch.beginRing();
+				readCoordinate(reader, batch, pointInfo.hasZ(),
+						pointInfo.hasM());
+			}
+			break;
+		case MULTILINESTRING:
+			int numLineStrings = reader.readInt();
+			for (int i = 0; i < numLineStrings; i++) {
+				GeometryTypeInfo lineStringInfo = readMemberHeader(reader,
+						batch, GeometryType.LINESTRING, null);
+				batch.beginPart();
+				readRing(reader, batch, lineStringInfo.hasZ(),
+						lineStringInfo.hasM());
+			}
+			break;
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numPolygons = reader.readInt();
+			for (int i = 0; i < numPolygons; i++) {
+				GeometryTypeInfo polygonInfo = readMemberHeader(reader, batch,
+						GeometryType.POLYGON, GeometryType.TRIANGLE);
+				readPolygon(reader, batch, polygonInfo.hasZ(),
+						polygonInfo.hasM());
+			}
+			break;
+		default:
+		}
+	}
+
+	/**
+	 * Verify the batch has a column for the z and m values of a geometry
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param hasZ
+	 *            geometry has z
+	 * @param hasM
+	 *            geometry has m
+	 */
+	private static void verifyDimensions(GeometryBatch batch, boolean hasZ,
+			boolean hasM) {
+		try {
+			batch.verifyDimensions(hasZ, hasM);
+		} catch (IllegalArgumentException e) {
+			throw new WkbException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Read the header of a collection member, verifying its type and
+	 * dimensions
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @param expectedType
+	 *            expected geometry type
+	 * @param alternateType
+	 *            alternate expected geometry type, may be null
+	 * @return geometry type info
+	 */
+	private static GeometryTypeInfo readMemberHeader(ByteReader reader,
+			GeometryBatch batch, GeometryType expectedType,
+			GeometryType alternateType) {
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.readGeometryHeader(reader);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		if (geometryType != expectedType && geometryType != alternateType) {
+			throw new WkbException("Unexpected Geometry Type. Expected: "
+					+ expectedType + ", Actual: " + geometryType);
+		}
+		verifyDimensions(batch, geometryTypeInfo.hasZ(),
+				geometryTypeInfo.hasM());
+		return geometryTypeInfo;
+	}
+
+	/**
+	 * Read a polygon as a part of the current batch geometry
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	private static void readPolygon(ByteReader reader, GeometryBatch batch,
+			boolean hasZ, boolean hasM) {
+		batch.beginPart();
+		int numRings = reader.readInt();
+		for (int i = 0; i < numRings; i++) {
+			readRing(reader, batch, hasZ, hasM);
+		}
+	}
+
+	/**
+	 * Read a line string or polygon ring as a ring of the current batch part
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	private static void readRing(ByteReader reader, GeometryBatch batch,
+			boolean hasZ, boolean hasM) {
+		batch.beginRing();
+		int numPoints = reader.readInt();
+		for (int i = 0; i < numPoints; i++) {
+			readCoordinate(reader, batch, hasZ, hasM);
+		}
+	}
+
+	/**
+	 * Read a coordinate into the current batch ring
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param batch
+	 *            geometry batch
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 */
+	private static void readCoordinate(ByteReader reader, GeometryBatch batch,
+			boolean hasZ, boolean hasM) {
+		double x = reader.readDouble();
+		double y = reader.readDouble();
+		double z = hasZ ? reader.readDouble() : Double.NaN;
+		double m = hasM ? reader.readDouble() : Double.NaN;
+		batch.addCoordinate(x, y, z, m);
+	}
+
+	/**
+	 * Write a batch geometry to the byte writer
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param batch
+	 *            geometry batch
+	 * @param index
+	 *            geometry index
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, GeometryBatch batch,
+			int index) throws IOException {
+
+		GeometryType geometryType = batch.getGeometryType(index);
+		int[] geometryOffsets = batch.getGeometryOffsets();
+		int[] partOffsets = batch.getPartOffsets();
+		int part = geometryOffsets[index];
+		int partEnd = geometryOffsets[index + 1];
+
+		writeHeader(writer, batch, geometryType);
+
+		switch (geometryType) {
+		case POINT:
+			writeCoordinates(writer, batch, partOffsets[part]);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			writeRing(writer, batch, partOffsets[part]);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			writePolygon(writer, batch, part);
+			break;
+		case MULTIPOINT:
+			writer.writeInt(partEnd - part);
+			for (; part < partEnd; part++) {
+				writeHeader(writer, batch, GeometryType.POINT);
+				writeCoordinates(writer, batch, partOffsets[part]);
+			}
+			break;
+		case MULTILINESTRING:
+			writer.writeInt(partEnd - part);
+			for (; part < partEnd; part++) {
+				writeHeader(writer, batch, GeometryType.LINESTRING);
+				writeRing(writer, batch, partOffsets[part]);
+			}
+			break;
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			GeometryType polygonType = geometryType == GeometryType.TIN
+					? GeometryType.TRIANGLE : GeometryType.POLYGON;
+			writer.writeInt(partEnd - part);
+			for (; part < partEnd; part++) {
+				writeHeader(writer, batch, polygonType);
+				writePolygon(writer, batch, part);
+			}
+			break;
+		default:
+		}
+	}
+
+	/**
+	 * Write the byte order and geometry type of a batch geometry
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param batch
+	 *            geometry batch
+	 * @param geometryType
+	 *            geometry type
+	 * @throws IOException
+	 */
+	private static void writeHeader(ByteWriter writer, GeometryBatch batch,
+			GeometryType geometryType) throws IOException {
+
+		// Write the single byte order byte
+		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN ? (byte) 0
+				: (byte) 1;
+		writer.writeByte(byteOrder);
+
+		// Write the geometry type integer
+		int code = geometryType.getCode();
+		if (batch.hasZ()) {
+			code += 1000;
+		}
+		if (batch.hasM()) {
+			code += 2000;
+		}
+		writer.writeInt(code);
+	}
+
+	/**
+	 * Write the rings of a batch part as a polygon
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param batch
+	 *            geometry batch
+	 * @param part
+	 *            part index
+	 * @throws IOException
+	 */
+	private static void writePolygon(ByteWriter writer, GeometryBatch batch,
+			int part) throws IOException {
+		int[] partOffsets = batch.getPartOffsets();
+		int ring = partOffsets[part];
+		int ringEnd = partOffsets[part + 1];
+		writer.writeInt(ringEnd - ring);
+		for (; ring < ringEnd; ring++) {
+			writeRing(writer, batch, ring);
+		}
+	}
+
+	/**
+	 * Write the number of coordinates and the coordinates of a batch ring
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param batch
+	 *            geometry batch
+	 * @param ring
+	 *            ring index
+	 * @throws IOException
+	 */
+	private static void writeRing(ByteWriter writer, GeometryBatch batch,
+			int ring) throws IOException {
+		int[] ringOffsets = batch.getRingOffsets();
+		writer.writeInt(ringOffsets[ring + 1] - ringOffsets[ring]);
+		writeCoordinates(writer, batch, ring);
+	}
+
+	/**
+	 * Write the coordinates of a batch ring
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param batch
+	 *            geometry batch
+	 * @param ring
+	 *            ring index
+	 * @throws IOException
+	 */
+	private static void writeCoordinates(ByteWriter writer,
+			GeometryBatch batch, int ring) throws IOException {
+		int[] ringOffsets = batch.getRingOffsets();
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+		double[] z = batch.getZ();
+		double[] m = batch.getM();
+		for (int c = ringOffsets[ring]; c < ringOffsets[ring + 1]; c++) {
+			writer.writeDouble(x[c]);
+			writer.writeDouble(y[c]);
+			if (z != null) {
+				writer.writeDouble(z[c]);
+			}
+			if (m != null) {
+				writer.writeDouble(m[c]);
+			}
+		}
+	}
+
+}
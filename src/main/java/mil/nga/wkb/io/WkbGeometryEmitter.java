@@ -0,0 +1,620 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary streaming emitter. Geometries are written incrementally
+ * to the byte writer as they are described, without building a geometry
+ * object tree:
+ * 
+ * <pre>
+ * emitter.beginPolygon();
+ * emitter.beginRing();
+ * emitter.coordinate(0, 0);
+ * ...
+ * emitter.end();
+ * emitter.end();
+ * </pre>
+ * 
+ * Point, ring and part counts are written up front when provided to the begin
+ * methods and verified when ended, otherwise they are back patched when the
+ * geometry or ring is ended. All emitted geometries share the Z and M values
+ * of the emitter.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryEmitter {
+
+	/**
+	 * Unknown count, back patched when ended
+	 */
+	private static final int UNKNOWN_COUNT = -1;
+
+	/**
+	 * Byte writer
+	 */
+	private final ByteWriter writer;
+
+	/**
+	 * Has z values
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has m values
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Open geometries and rings, innermost last
+	 */
+	private final List<Frame> frames = new ArrayList<>();
+
+	/**
+	 * Constructor for geometries with x and y values
+	 * 
+	 * @param writer
+	 *            byte writer
+	 */
+	public WkbGeometryEmitter(ByteWriter writer) {
+		this(writer, false, false);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 */
+	public WkbGeometryEmitter(ByteWriter writer, boolean hasZ, boolean hasM) {
+		this.writer = writer;
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+	}
+
+	/**
+	 * Get the byte writer
+	 * 
+	 * @return byte writer
+	 */
+	public ByteWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Does the emitter write z values
+	 * 
+	 * @return true if has z values
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Does the emitter write m values
+	 * 
+	 * @return true if has m values
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Get the number of open geometries and rings
+	 * 
+	 * @return open depth, 0 when all begun geometries have been ended
+	 */
+	public int getDepth() {
+		return frames.size();
+	}
+
+	/**
+	 * Begin a geometry with an unknown number of points, rings or parts
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @throws IOException
+	 */
+	public void begin(GeometryType geometryType) throws IOException {
+		begin(geometryType, UNKNOWN_COUNT);
+	}
+
+	/**
+	 * Begin a geometry with a known number of points, rings or parts, written
+	 * up front. The count is ignored for points.
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @param count
+	 *            number of points, rings or parts
+	 * @throws IOException
+	 */
+	public void begin(GeometryType geometryType, int count)
+			throws IOException {
+
+		if (geometryType != GeometryType.POINT) {
+			verifyCount(count);
+		}
+
+		switch (geometryType) {
+		case GEOMETRY:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case CURVE:
+		case SURFACE:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		default:
+		}
+
+		addChild(geometryType);
+
+		// Write the single byte order byte
+		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN ? (byte) 0
+				: (byte) 1;
+		writer.writeByte(byteOrder);
+
+		// Write the geometry type integer
+		int wkbCode = geometryType.getCode();
+		if (hasZ) {
+			wkbCode += 1000;
+		}
+		if (hasM) {
+			wkbCode += 2000;
+		}
+		writer.writeInt(wkbCode);
+
+		if (geometryType == GeometryType.POINT) {
+			push(geometryType, false, 1);
+		} else {
+			push(geometryType, false, count);
+		}
+	}
+
+	/**
+	 * Begin a point, followed by a single coordinate
+	 * 
+	 * @throws IOException
+	 */
+	public void beginPoint() throws IOException {
+		begin(GeometryType.POINT);
+	}
+
+	/**
+	 * Begin a line string with an unknown number of points
+	 * 
+	 * @throws IOException
+	 */
+	public void beginLineString() throws IOException {
+		begin(GeometryType.LINESTRING);
+	}
+
+	/**
+	 * Begin a line string with a known number of points
+	 * 
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 */
+	public void beginLineString(int numPoints) throws IOException {
+		begin(GeometryType.LINESTRING, numPoints);
+	}
+
+	/**
+	 * Begin a polygon with an unknown number of rings
+	 * 
+	 * @throws IOException
+	 */
+	public void beginPolygon() throws IOException {
+		begin(GeometryType.POLYGON);
+	}
+
+	/**
+	 * Begin a polygon with a known number of rings
+	 * 
+	 * @param numRings
+	 *            number of rings
+	 * @throws IOException
+	 */
+	public void beginPolygon(int numRings) throws IOException {
+		begin(GeometryType.POLYGON, numRings);
+	}
+
+	/**
+	 * Begin a multi point with an unknown number of points
+	 * 
+	 * @throws IOException
+	 */
+	public void beginMultiPoint() throws IOException {
+		begin(GeometryType.MULTIPOINT);
+	}
+
+	/**
+	 * Begin a multi line string with an unknown number of line strings
+	 * 
+	 * @throws IOException
+	 */
+	public void beginMultiLineString() throws IOException {
+		begin(GeometryType.MULTILINESTRING);
+	}
+
+	/**
+	 * Begin a multi polygon with an unknown number of polygons
+	 * 
+	 * @throws IOException
+	 */
+	public void beginMultiPolygon() throws IOException {
+		begin(GeometryType.MULTIPOLYGON);
+	}
+
+	/**
+	 * Begin a geometry collection with an unknown number of geometries
+	 * 
+	 * @throws IOException
+	 */
+	public void beginGeometryCollection() throws IOException {
+		begin(GeometryType.GEOMETRYCOLLECTION);
+	}
+
+	/**
+	 * Begin a polygon or triangle ring with an unknown number of points
+	 * 
+	 * @throws IOException
+	 */
+	public void beginRing() throws IOException {
+		beginRing(UNKNOWN_COUNT);
+	}
+
+	/**
+	 * Begin a polygon or triangle ring with a known number of points
+	 * 
+	 * @param numPoints
+	 *            number of points
+	 * @throws IOException
+	 */
+	public void beginRing(int numPoints) throws IOException {
+		verifyCount(numPoints);
+		addChild(null);
+		push(null, true, numPoints);
+	}
+
+	/**
+	 * Write a x and y coordinate to the open point, line string or ring
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @throws IOException
+	 */
+	public void coordinate(double x, double y) throws IOException {
+		if (hasZ || hasM) {
+			throw new WkbException("Coordinate requires "
+					+ (hasZ ? "a z" : "an m") + " value");
+		}
+		addCoordinate();
+		writer.writeDouble(x);
+		writer.writeDouble(y);
+	}
+
+	/**
+	 * Write a x, y and either z or m coordinate to the open point, line string
+	 * or ring. The third value is the z value when the emitter has z values,
+	 * otherwise the m value.
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @param zOrM
+	 *            z or m value
+	 * @throws IOException
+	 */
+	public void coordinate(double x, double y, double zOrM)
+			throws IOException {
+		if (hasZ == hasM) {
+			throw new WkbException("Coordinate requires "
+					+ (hasZ ? "z and m values" : "only x and y values"));
+		}
+		addCoordinate();
+		writer.writeDouble(x);
+		writer.writeDouble(y);
+		writer.writeDouble(zOrM);
+	}
+
+	/**
+	 * Write a x, y, z and m coordinate to the open point, line string or ring
+	 * 
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @param z
+	 *            z value
+	 * @param m
+	 *            m value
+	 * @throws IOException
+	 */
+	public void coordinate(double x, double y, double z, double m)
+			throws IOException {
+		if (!hasZ || !hasM) {
+			throw new WkbException(
+					"Coordinate with z and m values requires an emitter with z and m values");
+		}
+		addCoordinate();
+		writer.writeDouble(x);
+		writer.writeDouble(y);
+		writer.writeDouble(z);
+		writer.writeDouble(m);
+	}
+
+	/**
+	 * Write a complete geometry as the next part of the open geometry, or as a
+	 * top level geometry. The geometry must have the z and m values of the
+	 * emitter.
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 */
+	public void geometry(Geometry geometry) throws IOException {
+		if (geometry.hasZ() != hasZ || geometry.hasM() != hasM) {
+			throw new WkbException("Geometry with z: " + geometry.hasZ()
+					+ ", m: " + geometry.hasM()
+					+ " does not match the emitter with z: " + hasZ + ", m: "
+					+ hasM);
+		}
+		addChild(geometry.getGeometryType());
+		WkbGeometryWriter.writeGeometry(writer, geometry);
+	}
+
+	/**
+	 * End the innermost open geometry or ring, back patching or verifying its
+	 * count. A point ended without a coordinate is written as an empty point
+	 * with NaN values.
+	 * 
+	 * @throws IOException
+	 */
+	public void end() throws IOException {
+		if (frames.isEmpty()) {
+			throw new WkbException("No open geometry or ring to end");
+		}
+		Frame frame = frames.remove(frames.size() - 1);
+
+		if (frame.geometryType == GeometryType.POINT) {
+			if (frame.count == 0) {
+				int values = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+				for (int i = 0; i < values; i++) {
+					writer.writeDouble(Double.NaN);
+				}
+			}
+		} else if (frame.expected == UNKNOWN_COUNT) {
+			writer.writeInt(frame.countPosition, frame.count);
+		} else if (frame.count != frame.expected) {
+			throw new WkbException("Expected " + frame.expected
+					+ " children for " + frame.getName() + " but "
+					+ frame.count + " were written");
+		}
+	}
+
+	/**
+	 * Verify a count provided to a begin method
+	 * 
+	 * @param count
+	 *            count or unknown
+	 */
+	private static void verifyCount(int count) {
+		if (count < UNKNOWN_COUNT) {
+			throw new WkbException("Invalid count: " + count);
+		}
+	}
+
+	/**
+	 * Push a new open geometry or ring, writing its count up front or a
+	 * placeholder count to be back patched
+	 * 
+	 * @param geometryType
+	 *            geometry type, null for a ring
+	 * @param ring
+	 *            true if a ring
+	 * @param expected
+	 *            expected count or unknown
+	 * @throws IOException
+	 */
+	private void push(GeometryType geometryType, boolean ring, int expected)
+			throws IOException {
+		Frame frame = new Frame(geometryType, ring, expected);
+		if (geometryType != GeometryType.POINT) {
+			frame.countPosition = writer.length();
+			writer.writeInt(expected == UNKNOWN_COUNT ? 0 : expected);
+		}
+		frames.add(frame);
+	}
+
+	/**
+	 * Count a new child geometry or ring of the innermost open geometry,
+	 * verifying it is allowed
+	 * 
+	 * @param geometryType
+	 *            child geometry type, null for a ring
+	 */
+	private void addChild(GeometryType geometryType) {
+		if (!frames.isEmpty()) {
+			Frame parent = frames.get(frames.size() - 1);
+			if (!parent.allowsChild(geometryType)) {
+				throw new WkbException("A "
+						+ (geometryType == null ? "ring" : geometryType.name())
+						+ " can not be written within a " + parent.getName());
+			}
+			parent.increment();
+		} else if (geometryType == null) {
+			throw new WkbException(
+					"A ring can only be written within a polygon or triangle");
+		}
+	}
+
+	/**
+	 * Count a new coordinate of the innermost open geometry or ring, verifying
+	 * it is allowed
+	 */
+	private void addCoordinate() {
+		if (frames.isEmpty()) {
+			throw new WkbException(
+					"A coordinate can only be written within a point, line string or ring");
+		}
+		Frame frame = frames.get(frames.size() - 1);
+		if (!frame.allowsCoordinate()) {
+			throw new WkbException("A coordinate can not be written within a "
+					+ frame.getName());
+		}
+		frame.increment();
+	}
+
+	/**
+	 * Open geometry or ring
+	 */
+	private static class Frame {
+
+		/**
+		 * Geometry type, null for a ring
+		 */
+		private final GeometryType geometryType;
+
+		/**
+		 * True if a ring
+		 */
+		private final boolean ring;
+
+		/**
+		 * Expected count, or unknown
+		 */
+		private final int expected;
+
+		/**
+		 * Byte position of the count
+		 */
+		private long countPosition;
+
+		/**
+		 * Number of written coordinates, rings or parts
+		 */
+		private int count = 0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geometryType
+		 *            geometry type, null for a ring
+		 * @param ring
+		 *            true if a ring
+		 * @param expected
+		 *            expected count, or unknown
+		 */
+		Frame(GeometryType geometryType, boolean ring, int expected) {
+			this.geometryType = geometryType;
+			this.ring = ring;
+			this.expected = expected;
+		}
+
+		/**
+		 * Get the name for error messages
+		 * 
+		 * @return name
+		 */
+		String getName() {
+			return ring ? "ring" : geometryType.name();
+		}
+
+		/**
+		 * Count a written coordinate, ring or part
+		 */
+		void increment() {
+			if (count == expected) {
+				throw new WkbException("Expected only " + expected
+						+ " children for " + getName());
+			}
+			count++;
+		}
+
+		/**
+		 * Determine if coordinates can be written directly within
+		 * 
+		 * @return true if coordinates are allowed
+		 */
+		boolean allowsCoordinate() {
+			if (ring) {
+				return true;
+			}
+			switch (geometryType) {
+			case POINT:
+			case LINESTRING:
+			case CIRCULARSTRING:
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		/**
+		 * Determine if the child geometry or ring can be written within
+		 * 
+		 * @param childType
+		 *            child geometry type, null for a ring
+		 * @return true if the child is allowed
+		 */
+		boolean allowsChild(GeometryType childType) {
+			if (ring) {
+				return false;
+			}
+			boolean allowed = false;
+			switch (geometryType) {
+			case POLYGON:
+			case TRIANGLE:
+				allowed = childType == null;
+				break;
+			case MULTIPOINT:
+				allowed = childType == GeometryType.POINT;
+				break;
+			case MULTILINESTRING:
+				allowed = childType == GeometryType.LINESTRING;
+				break;
+			case COMPOUNDCURVE:
+				allowed = childType == GeometryType.LINESTRING
+						|| childType == GeometryType.CIRCULARSTRING;
+				break;
+			case MULTIPOLYGON:
+			case POLYHEDRALSURFACE:
+				allowed = childType == GeometryType.POLYGON;
+				break;
+			case TIN:
+				allowed = childType == GeometryType.POLYGON
+						|| childType == GeometryType.TRIANGLE;
+				break;
+			case CURVEPOLYGON:
+				allowed = childType == GeometryType.LINESTRING
+						|| childType == GeometryType.CIRCULARSTRING
+						|| childType == GeometryType.COMPOUNDCURVE;
+				break;
+			case GEOMETRYCOLLECTION:
+				allowed = childType != null;
+				break;
+			default:
+			}
+			return allowed;
+		}
+
+	}
+
+}
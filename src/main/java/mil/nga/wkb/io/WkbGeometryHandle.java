@@ -0,0 +1,128 @@
+package mil.nga.wkb.io;
+
+import java.nio.ByteBuffer;
+
+import mil.nga.wkb.geom.Geometry;
+
+/**
+ * Lightweight handle to a geometry held in a {@link WkbGeometryStore},
+ * viewing the stored Well-Known Binary bytes or decoding the geometry on
+ * demand
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryHandle {
+
+	/**
+	 * Geometry store
+	 */
+	private final WkbGeometryStore store;
+
+	/**
+	 * Geometry index
+	 */
+	private final int index;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param store
+	 *            geometry store
+	 * @param index
+	 *            geometry index
+	 */
+	WkbGeometryHandle(WkbGeometryStore store, int index) {
+		this.store = store;
+		this.index = index;
+	}
+
+	/**
+	 * Get the geometry store
+	 * 
+	 * @return geometry store
+	 */
+	public WkbGeometryStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Get the geometry index
+	 * 
+	 * @return geometry index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Get the number of geometry bytes
+	 * 
+	 * @return number of bytes
+	 */
+	public int getLength() {
+		return store.getLength(index);
+	}
+
+	/**
+	 * Get a read only view of the geometry bytes, without copying them
+	 * 
+	 * @return byte buffer of the geometry bytes
+	 */
+	public ByteBuffer getBytes() {
+		return store.getBytes(index);
+	}
+
+	/**
+	 * Get a byte reader of the geometry bytes, for transcoding them without
+	 * decoding the geometry
+	 * 
+	 * @return byte reader
+	 */
+	public ByteReader getReader() {
+		return new ByteReader(getBytes());
+	}
+
+	/**
+	 * Read the geometry type information from the geometry header, without
+	 * decoding the geometry
+	 * 
+	 * @return geometry type info
+	 */
+	public GeometryTypeInfo getGeometryTypeInfo() {
+		return WkbGeometryReader.readGeometryHeader(getReader());
+	}
+
+	/**
+	 * Decode the geometry
+	 * 
+	 * @return geometry
+	 */
+	public Geometry getGeometry() {
+		return store.getGeometry(index);
+	}
+
+	/**
+	 * Decode the geometry
+	 * 
+	 * @param expectedType
+	 *            expected geometry type
+	 * @return geometry
+	 */
+	public <T extends Geometry> T getGeometry(Class<T> expectedType) {
+		return WkbGeometryReader.readGeometry(getReader(), expectedType);
+	}
+
+	/**
+	 * Read the geometry through the pool, returning the canonical frozen
+	 * geometry of the bytes
+	 * 
+	 * @param pool
+	 *            geometry pool
+	 * @return canonical frozen geometry
+	 */
+	public Geometry internGeometry(WkbGeometryPool pool) {
+		return pool.readGeometry(getReader());
+	}
+
+}
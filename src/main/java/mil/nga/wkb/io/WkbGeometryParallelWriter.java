@@ -0,0 +1,338 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.PolyhedralSurface;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary parallel writer. Geometries made up of many parts (multi
+ * geometries, geometry collections, compound curves, curve polygons,
+ * polyhedral surfaces and TINs) have their part sizes computed, followed by
+ * the parts being written concurrently into disjoint regions of the byte
+ * writer. Other geometries and those with fewer parts than the threshold are
+ * written by {@link WkbGeometryWriter}.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryParallelWriter {
+
+	/**
+	 * Default minimum number of parts for a geometry to be written in parallel
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	/**
+	 * Number of parts sized or written sequentially by a single task
+	 */
+	private static final int PARTS_PER_TASK = 128;
+
+	/**
+	 * Shared fork join pool, lazily created
+	 */
+	private static ForkJoinPool sharedPool;
+
+	/**
+	 * Write a geometry to the byte writer, writing the parts in parallel when
+	 * the number of parts meets the default threshold
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry)
+			throws IOException {
+		writeGeometry(writer, geometry, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Write a geometry to the byte writer, writing the parts in parallel when
+	 * the number of parts meets the threshold
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param threshold
+	 *            minimum number of parts to write in parallel
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			int threshold) throws IOException {
+		writeGeometry(writer, geometry, threshold, getSharedPool());
+	}
+
+	/**
+	 * Write a geometry to the byte writer using the fork join pool, writing the
+	 * parts in parallel when the number of parts meets the threshold
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param threshold
+	 *            minimum number of parts to write in parallel
+	 * @param pool
+	 *            fork join pool
+	 * @throws IOException
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			int threshold, ForkJoinPool pool) throws IOException {
+
+		List<? extends Geometry> parts = getParts(geometry);
+
+		if (parts == null || parts.size() < threshold) {
+			WkbGeometryWriter.writeGeometry(writer, geometry);
+			return;
+		}
+
+		int numParts = parts.size();
+
+		// Size each part and determine the part offsets
+		int[] offsets = new int[numParts + 1];
+		pool.invoke(new SizeTask(parts, offsets, 0, numParts));
+		long length = 0;
+		for (int i = 1; i <= numParts; i++) {
+			length += offsets[i];
+			offsets[i] = (int) length;
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new WkbException("Geometry parts Well-Known Binary size of "
+					+ length + " bytes exceeds the maximum byte array size");
+		}
+
+		// Write the single byte order byte
+		ByteOrder byteOrder = writer.getByteOrder();
+		writer.writeByte(byteOrder == ByteOrder.BIG_ENDIAN ? (byte) 0
+				: (byte) 1);
+
+		// Write the geometry type integer and number of parts
+		writer.writeInt(geometry.getWkbCode());
+		writer.writeInt(numParts);
+
+		// Write the parts into their reserved regions
+		ByteBuffer region = writer.reserve((int) length);
+		pool.invoke(new WriteTask(parts, offsets, region, byteOrder, 0,
+				numParts));
+	}
+
+	/**
+	 * Get the parts of a geometry written as complete Well-Known Binary
+	 * geometries
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return parts, null if not a multiple part geometry
+	 */
+	private static List<? extends Geometry> getParts(Geometry geometry) {
+
+		List<? extends Geometry> parts = null;
+
+		GeometryType geometryType = geometry.getGeometryType();
+		switch (geometryType) {
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			parts = ((GeometryCollection<?>) geometry).getGeometries();
+			break;
+		case COMPOUNDCURVE:
+			parts = ((CompoundCurve) geometry).getLineStrings();
+			break;
+		case CURVEPOLYGON:
+			parts = ((CurvePolygon<?>) geometry).getRings();
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			parts = ((PolyhedralSurface) geometry).getPolygons();
+			break;
+		default:
+		}
+
+		return parts;
+	}
+
+	/**
+	 * Get the shared fork join pool
+	 * 
+	 * @return fork join pool
+	 */
+	private static synchronized ForkJoinPool getSharedPool() {
+		if (sharedPool == null) {
+			sharedPool = new ForkJoinPool();
+		}
+		return sharedPool;
+	}
+
+	/**
+	 * Task sizing a range of parts, storing the size of part i at offset index
+	 * i + 1
+	 */
+	private static class SizeTask extends RecursiveAction {
+
+		/**
+		 * Serial version id
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Geometry parts
+		 */
+		private final List<? extends Geometry> parts;
+
+		/**
+		 * Part sizes
+		 */
+		private final int[] sizes;
+
+		/**
+		 * Start part index, inclusive
+		 */
+		private final int start;
+
+		/**
+		 * End part index, exclusive
+		 */
+		private final int end;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param parts
+		 *            geometry parts
+		 * @param sizes
+		 *            part sizes
+		 * @param start
+		 *            start part index
+		 * @param end
+		 *            end part index
+		 */
+		SizeTask(List<? extends Geometry> parts, int[] sizes, int start,
+				int end) {
+			this.parts = parts;
+			this.sizes = sizes;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+			if (end - start <= PARTS_PER_TASK) {
+				for (int i = start; i < end; i++) {
+					sizes[i + 1] = WkbGeometryWriter.sizeOf(parts.get(i));
+				}
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new SizeTask(parts, sizes, start, middle),
+						new SizeTask(parts, sizes, middle, end));
+			}
+		}
+
+	}
+
+	/**
+	 * Task writing a range of parts into their regions of the buffer
+	 */
+	private static class WriteTask extends RecursiveAction {
+
+		/**
+		 * Serial version id
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Geometry parts
+		 */
+		private final List<? extends Geometry> parts;
+
+		/**
+		 * Part offsets into the region
+		 */
+		private final int[] offsets;
+
+		/**
+		 * Buffer region for all parts
+		 */
+		private final ByteBuffer region;
+
+		/**
+		 * Byte order
+		 */
+		private final ByteOrder byteOrder;
+
+		/**
+		 * Start part index, inclusive
+		 */
+		private final int start;
+
+		/**
+		 * End part index, exclusive
+		 */
+		private final int end;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param parts
+		 *            geometry parts
+		 * @param offsets
+		 *            part offsets into the region
+		 * @param region
+		 *            buffer region for all parts
+		 * @param byteOrder
+		 *            byte order
+		 * @param start
+		 *            start part index
+		 * @param end
+		 *            end part index
+		 */
+		WriteTask(List<? extends Geometry> parts, int[] offsets,
+				ByteBuffer region, ByteOrder byteOrder, int start, int end) {
+			this.parts = parts;
+			this.offsets = offsets;
+			this.region = region;
+			this.byteOrder = byteOrder;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+			if (end - start <= PARTS_PER_TASK) {
+				ByteBuffer partsRegion = region.duplicate();
+				partsRegion.limit(offsets[end]);
+				partsRegion.position(offsets[start]);
+				ByteWriter writer = new ByteWriter(partsRegion);
+				writer.setByteOrder(byteOrder);
+				try {
+					for (int i = start; i < end; i++) {
+						WkbGeometryWriter.writeGeometry(writer, parts.get(i));
+					}
+				} catch (IOException e) {
+					throw new WkbException("Failed to write geometry parts "
+							+ start + " through " + (end - 1), e);
+				}
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new WriteTask(parts, offsets, region, byteOrder,
+						start, middle), new WriteTask(parts, offsets, region,
+						byteOrder, middle, end));
+			}
+		}
+
+	}
+
+}
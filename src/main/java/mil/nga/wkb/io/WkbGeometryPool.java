@@ -0,0 +1,197 @@
+package mil.nga.wkb.io;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Interning pool of frozen geometries keyed by Well-Known Binary content.
+ * Reading through the pool instead of {@link WkbGeometryReader} returns one
+ * canonical frozen geometry for all reads of identical geometry bytes, only
+ * decoding bytes not already pooled. Geometries are weakly referenced and
+ * leave the pool once no longer used elsewhere. The pool is safe for
+ * concurrent use, frozen geometries are safe to share between threads.
+ * Identical geometries written in different byte orders are pooled
+ * separately.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryPool {
+
+	/**
+	 * Pooled geometry references by geometry bytes
+	 */
+	private final ConcurrentMap<ByteBuffer, PooledReference> geometries =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Queue of references to collected geometries
+	 */
+	private final ReferenceQueue<Geometry> collected = new ReferenceQueue<>();
+
+	/**
+	 * Intern the Well-Known Binary geometry
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes
+	 * @return canonical frozen geometry
+	 */
+	public Geometry intern(byte[] bytes) {
+		return readGeometry(new ByteReader(bytes));
+	}
+
+	/**
+	 * Read the geometry at the reader position through the pool, advancing
+	 * the reader past the geometry
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return canonical frozen geometry
+	 */
+	public Geometry readGeometry(ByteReader reader) {
+		return readGeometry(reader, null);
+	}
+
+	/**
+	 * Read the geometry at the reader position through the pool, advancing
+	 * the reader past the geometry
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param expectedType
+	 *            expected geometry type, null for any
+	 * @return canonical frozen geometry
+	 */
+	public <T extends Geometry> T readGeometry(ByteReader reader,
+			Class<T> expectedType) {
+
+		expungeCollected();
+
+		ByteBuffer bytes = reader.slice();
+		int length = WkbByteOrderTranscoder.geometryLength(bytes, 0);
+		bytes.limit(length);
+
+		Geometry geometry = null;
+		PooledReference reference = geometries.get(bytes);
+		if (reference != null) {
+			geometry = reference.get();
+		}
+
+		if (geometry != null) {
+			reader.skip(length);
+		} else {
+			geometry = WkbGeometryReader.readGeometry(reader).freeze();
+			geometry = pool(bytes, geometry);
+		}
+
+		// If there is an expected type, verify the geometry is of that type
+		if (expectedType != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new WkbException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+
+		return result;
+	}
+
+	/**
+	 * Get the number of pooled geometries
+	 * 
+	 * @return number of geometries
+	 */
+	public int size() {
+		expungeCollected();
+		return geometries.size();
+	}
+
+	/**
+	 * Remove all pooled geometries
+	 */
+	public void clear() {
+		geometries.clear();
+	}
+
+	/**
+	 * Pool the decoded geometry, unless another thread pooled the same bytes
+	 * first
+	 * 
+	 * @param bytes
+	 *            geometry bytes, copied for the pool key
+	 * @param geometry
+	 *            frozen geometry
+	 * @return canonical frozen geometry
+	 */
+	private Geometry pool(ByteBuffer bytes, Geometry geometry) {
+
+		byte[] keyBytes = new byte[bytes.remaining()];
+		bytes.duplicate().get(keyBytes);
+		ByteBuffer key = ByteBuffer.wrap(keyBytes);
+		PooledReference reference = new PooledReference(geometry, key,
+				collected);
+
+		Geometry pooled = null;
+		while (pooled == null) {
+			PooledReference existing = geometries.putIfAbsent(key, reference);
+			if (existing == null) {
+				pooled = geometry;
+			} else {
+				pooled = existing.get();
+				if (pooled == null
+						&& geometries.replace(key, existing, reference)) {
+					pooled = geometry;
+				}
+			}
+		}
+
+		return pooled;
+	}
+
+	/**
+	 * Remove the references to collected geometries
+	 */
+	private void expungeCollected() {
+		PooledReference reference;
+		while ((reference = (PooledReference) collected.poll()) != null) {
+			geometries.remove(reference.key, reference);
+		}
+	}
+
+	/**
+	 * Weak reference to a pooled geometry with its pool key
+	 */
+	private static class PooledReference extends WeakReference<Geometry> {
+
+		/**
+		 * Pool key
+		 */
+		private final ByteBuffer key;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geometry
+		 *            geometry
+		 * @param key
+		 *            pool key
+		 * @param queue
+		 *            queue of collected references
+		 */
+		private PooledReference(Geometry geometry, ByteBuffer key,
+				ReferenceQueue<Geometry> queue) {
+			super(geometry, queue);
+			this.key = key;
+		}
+
+	}
+
+}
@@ -48,46 +48,56 @@ public class WkbGeometryReader {
 	public static <T extends Geometry> T readGeometry(ByteReader reader,
 			Class<T> expectedType) {
 
-		// Read the single byte order byte
-		byte byteOrderValue = reader.readByte();
-		ByteOrder byteOrder = byteOrderValue == 0 ? ByteOrder.BIG_ENDIAN
-				: ByteOrder.LITTLE_ENDIAN;
 		ByteOrder originalByteOrder = reader.getByteOrder();
-		reader.setByteOrder(byteOrder);
 
-		// Read the geometry type integer
-		int geometryTypeWkbCode = reader.readInt();
+		// Read the byte order and geometry type
+		GeometryTypeInfo geometryTypeInfo = readGeometryHeader(reader);
 
-		// Look at the last 2 digits to find the geometry type code (1 - 14)
-		int geometryTypeCode = geometryTypeWkbCode % 1000;
+		T geometry = readGeometry(reader, geometryTypeInfo, expectedType);
 
-		// Look at the first digit to find the options (z when 1 or 3, m when 2
-		// or 3)
-		int geometryTypeMode = geometryTypeWkbCode / 1000;
+		// Restore the byte order
+		reader.setByteOrder(originalByteOrder);
 
-		// Determine if the geometry has a z (3d) or m (linear referencing
-		// system) value
-		boolean hasZ = false;
-		boolean hasM = false;
-		switch (geometryTypeMode) {
-		case 0:
-			break;
+		return geometry;
+	}
 
-		case 1:
-			hasZ = true;
-			break;
+	/**
+	 * Read the geometry byte order and type from the byte reader, setting the
+	 * reader to the geometry byte order
+	 * 
+	 * @param reader
+	 * @return geometry type info
+	 * @since 1.0.7
+	 */
+	public static GeometryTypeInfo readGeometryHeader(ByteReader reader) {
 
-		case 2:
-			hasM = true;
-			break;
+		// Read the single byte order byte
+		byte byteOrderValue = reader.readByte();
+		ByteOrder byteOrder = byteOrderValue == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		reader.setByteOrder(byteOrder);
 
-		case 3:
-			hasZ = true;
-			hasM = true;
-			break;
-		}
+		// Read the geometry type integer
+		return readGeometryType(reader);
+	}
 
-		GeometryType geometryType = GeometryType.fromCode(geometryTypeCode);
+	/**
+	 * Read a geometry from the byte reader after its byte order and type
+	 * 
+	 * @param reader
+	 * @param geometryTypeInfo
+	 *            geometry type info read by
+	 *            {@link #readGeometryHeader(ByteReader)}
+	 * @param expectedType
+	 * @return geometry
+	 * @since 1.0.7
+	 */
+	public static <T extends Geometry> T readGeometry(ByteReader reader,
+			GeometryTypeInfo geometryTypeInfo, Class<T> expectedType) {
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		boolean hasZ = geometryTypeInfo.hasZ();
+		boolean hasM = geometryTypeInfo.hasM();
 
 		Geometry geometry = null;
 
@@ -160,15 +170,92 @@ public class WkbGeometryReader {
 					+ geometry.getClass().getSimpleName());
 		}
 
-		// Restore the byte order
-		reader.setByteOrder(originalByteOrder);
-
 		@SuppressWarnings("unchecked")
 		T result = (T) geometry;
 		
 		return result;
 	}
 
+	/**
+	 * Read the geometry type integer from the byte reader, followed by the
+	 * SRID when flagged by an Extended Well-Known Binary type
+	 * 
+	 * @param reader
+	 * @return geometry type info
+	 * @since 1.0.7
+	 */
+	public static GeometryTypeInfo readGeometryType(ByteReader reader) {
+		int geometryTypeWkbCode = reader.readInt();
+		GeometryTypeInfo geometryTypeInfo = getGeometryTypeInfo(
+				geometryTypeWkbCode);
+		if (geometryTypeInfo.hasSrid()) {
+			geometryTypeInfo.setSrid(reader.readInt());
+		}
+		return geometryTypeInfo;
+	}
+
+	/**
+	 * Decode the geometry type and z and m values from a Well-Known Binary or
+	 * Extended Well-Known Binary geometry type integer. The SRID value of an
+	 * Extended Well-Known Binary type follows the type integer and is not set.
+	 * 
+	 * @param geometryTypeWkbCode
+	 *            geometry type integer
+	 * @return geometry type info
+	 * @since 1.0.7
+	 */
+	public static GeometryTypeInfo getGeometryTypeInfo(int geometryTypeWkbCode) {
+
+		// Check for Extended Well-Known Binary z, m and SRID flags
+		boolean extended = false;
+		boolean hasZ = false;
+		boolean hasM = false;
+		boolean hasSrid = false;
+		if ((geometryTypeWkbCode & GeometryTypeInfo.EWKB_FLAGS) != 0) {
+			extended = true;
+			hasZ = (geometryTypeWkbCode & GeometryTypeInfo.EWKB_Z) != 0;
+			hasM = (geometryTypeWkbCode & GeometryTypeInfo.EWKB_M) != 0;
+			hasSrid = (geometryTypeWkbCode & GeometryTypeInfo.EWKB_SRID) != 0;
+			geometryTypeWkbCode &= ~GeometryTypeInfo.EWKB_FLAGS;
+		}
+
+		// Look at the last 2 digits to find the geometry type code (1 - 14)
+		int geometryTypeCode = geometryTypeWkbCode % 1000;
+
+		// Look at the first digit to find the options (z when 1 or 3, m when 2
+		// or 3)
+		int geometryTypeMode = geometryTypeWkbCode / 1000;
+
+		// Determine if the geometry has a z (3d) or m (linear referencing
+		// system) value
+		switch (geometryTypeMode) {
+		case 0:
+			break;
+
+		case 1:
+			hasZ = true;
+			break;
+
+		case 2:
+			hasM = true;
+			break;
+
+		case 3:
+			hasZ = true;
+			hasM = true;
+			break;
+		}
+
+		GeometryType geometryType = GeometryType.fromCode(geometryTypeCode);
+		if (geometryType == null) {
+			throw new WkbException("Geometry Type not supported: "
+					+ geometryTypeCode);
+		}
+
+		return new GeometryTypeInfo(geometryType, hasZ, hasM, extended,
+				hasSrid);
+	}
+
 	/**
 	 * Read a Point
 	 * 
@@ -186,12 +273,12 @@ public class WkbGeometryReader {
 
 		if (hasZ) {
 			double z = reader.readDouble();
-			point.setZ(z);
+			point.setZValue(z);
 		}
 
 		if (hasM) {
 			double m = reader.readDouble();
-			point.setM(m);
+			point.setMValue(m);
 		}
 
 		return point;
@@ -0,0 +1,287 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Store of Well-Known Binary geometries held outside of the Java heap. The
+ * geometry bytes are written consecutively into direct byte buffer segments
+ * and located by an index table of segment, offset and length entries, also
+ * held in a direct buffer. Stored geometries are accessed through
+ * lightweight {@link WkbGeometryHandle} objects that view the bytes or
+ * decode the geometry on demand. Adding geometries is not thread safe, once
+ * added and the store safely published, geometries can be read by
+ * concurrent threads.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbGeometryStore {
+
+	/**
+	 * Default segment size in bytes
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Bytes per index table entry of segment, offset and length integers
+	 */
+	private static final int INDEX_ENTRY_SIZE = 12;
+
+	/**
+	 * Initial number of index table entries
+	 */
+	private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+	/**
+	 * Segment size in bytes, larger geometries are stored in their own
+	 * segment
+	 */
+	private final int segmentSize;
+
+	/**
+	 * Direct byte buffer segments of geometry bytes
+	 */
+	private final List<ByteBuffer> segments = new ArrayList<>();
+
+	/**
+	 * Segment being written to, null before the first geometry
+	 */
+	private ByteBuffer segment;
+
+	/**
+	 * Direct byte buffer index table
+	 */
+	private ByteBuffer index;
+
+	/**
+	 * Number of stored geometries
+	 */
+	private int size = 0;
+
+	/**
+	 * Number of stored geometry bytes
+	 */
+	private long byteSize = 0;
+
+	/**
+	 * Constructor
+	 */
+	public WkbGeometryStore() {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param segmentSize
+	 *            segment size in bytes
+	 */
+	public WkbGeometryStore(int segmentSize) {
+		if (segmentSize <= 0) {
+			throw new WkbException("Segment size must be positive: "
+					+ segmentSize);
+		}
+		this.segmentSize = segmentSize;
+		index = ByteBuffer.allocateDirect(INITIAL_INDEX_CAPACITY
+				* INDEX_ENTRY_SIZE);
+	}
+
+	/**
+	 * Get the segment size
+	 * 
+	 * @return segment size in bytes
+	 */
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	/**
+	 * Get the number of stored geometries
+	 * 
+	 * @return number of geometries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the number of stored geometry bytes
+	 * 
+	 * @return number of bytes
+	 */
+	public long getByteSize() {
+		return byteSize;
+	}
+
+	/**
+	 * Add the geometry, written as big endian Well-Known Binary
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return geometry index
+	 */
+	public int add(Geometry geometry) {
+		int length = WkbGeometryWriter.sizeOf(geometry);
+		ByteBuffer bytes = allocate(length);
+		ByteWriter writer = new ByteWriter(bytes);
+		try {
+			WkbGeometryWriter.writeGeometry(writer, geometry);
+		} catch (IOException e) {
+			throw new WkbException("Failed to store geometry", e);
+		} finally {
+			writer.close();
+		}
+		return addEntry(length);
+	}
+
+	/**
+	 * Add the Well-Known Binary geometry
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes of a single geometry
+	 * @return geometry index
+	 */
+	public int add(byte[] bytes) {
+		return add(new ByteReader(bytes));
+	}
+
+	/**
+	 * Add the Well-Known Binary geometry at the reader position, advancing
+	 * the reader past the geometry
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @return geometry index
+	 */
+	public int add(ByteReader reader) {
+		ByteBuffer source = reader.slice();
+		int length = WkbByteOrderTranscoder.geometryLength(source, 0);
+		source.limit(length);
+		allocate(length).put(source);
+		reader.skip(length);
+		return addEntry(length);
+	}
+
+	/**
+	 * Get a handle to the stored geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry handle
+	 */
+	public WkbGeometryHandle getHandle(int index) {
+		verifyIndex(index);
+		return new WkbGeometryHandle(this, index);
+	}
+
+	/**
+	 * Decode the stored geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return geometry
+	 */
+	public Geometry getGeometry(int index) {
+		return WkbGeometryReader.readGeometry(new ByteReader(getBytes(index)));
+	}
+
+	/**
+	 * Get a read only view of the stored geometry bytes, without copying them
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return byte buffer of the geometry bytes
+	 */
+	public ByteBuffer getBytes(int index) {
+		verifyIndex(index);
+		int entry = index * INDEX_ENTRY_SIZE;
+		ByteBuffer bytes = segments.get(this.index.getInt(entry))
+				.duplicate();
+		int offset = this.index.getInt(entry + 4);
+		bytes.limit(offset + this.index.getInt(entry + 8));
+		bytes.position(offset);
+		return bytes.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get the number of bytes of the stored geometry
+	 * 
+	 * @param index
+	 *            geometry index
+	 * @return number of bytes
+	 */
+	public int getLength(int index) {
+		verifyIndex(index);
+		return this.index.getInt(index * INDEX_ENTRY_SIZE + 8);
+	}
+
+	/**
+	 * Allocate the bytes of a geometry in the current segment, or a new
+	 * segment when they do not fit
+	 * 
+	 * @param length
+	 *            number of bytes
+	 * @return buffer of the allocated bytes
+	 */
+	private ByteBuffer allocate(int length) {
+		if (segment == null || segment.remaining() < length) {
+			segment = ByteBuffer.allocateDirect(Math.max(segmentSize, length));
+			segments.add(segment);
+		}
+		ByteBuffer bytes = segment.duplicate();
+		bytes.limit(bytes.position() + length);
+		return bytes.slice();
+	}
+
+	/**
+	 * Add the index table entry of the geometry allocated at the current
+	 * segment position
+	 * 
+	 * @param length
+	 *            number of bytes
+	 * @return geometry index
+	 */
+	private int addEntry(int length) {
+		if (index.capacity() - size * INDEX_ENTRY_SIZE < INDEX_ENTRY_SIZE) {
+			long capacity = 2L * index.capacity();
+			if (capacity > Integer.MAX_VALUE) {
+				throw new WkbException(
+						"Geometry store index size limit exceeded. Geometries: "
+								+ size);
+			}
+			ByteBuffer expanded = ByteBuffer.allocateDirect((int) capacity);
+			ByteBuffer entries = index.duplicate();
+			entries.clear();
+			entries.limit(size * INDEX_ENTRY_SIZE);
+			expanded.put(entries);
+			index = expanded;
+		}
+		int entry = size * INDEX_ENTRY_SIZE;
+		index.putInt(entry, segments.size() - 1);
+		index.putInt(entry + 4, segment.position());
+		index.putInt(entry + 8, length);
+		segment.position(segment.position() + length);
+		byteSize += length;
+		return size++;
+	}
+
+	/**
+	 * Verify the geometry index is within the store
+	 * 
+	 * @param index
+	 *            geometry index
+	 */
+	private void verifyIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index
+					+ ", Size: " + size);
+		}
+	}
+
+}
@@ -2,23 +2,28 @@ package mil.nga.wkb.io;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.List;
 
 import mil.nga.wkb.geom.CircularString;
 import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.CoordinateSequence;
 import mil.nga.wkb.geom.Curve;
 import mil.nga.wkb.geom.CurvePolygon;
 import mil.nga.wkb.geom.Geometry;
 import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryEnvelope;
 import mil.nga.wkb.geom.GeometryType;
 import mil.nga.wkb.geom.LineString;
 import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.geom.Polygon;
 import mil.nga.wkb.geom.PolyhedralSurface;
 import mil.nga.wkb.geom.TIN;
 import mil.nga.wkb.geom.Triangle;
+import mil.nga.wkb.util.GeometryEnvelopeBuilder;
 import mil.nga.wkb.util.WkbException;
 
 /**
@@ -37,6 +42,44 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeGeometry(ByteWriter writer, Geometry geometry)
 			throws IOException {
+		writeGeometry(writer, geometry, null);
+	}
+
+	/**
+	 * Write a geometry to the byte writer and build its envelope as the
+	 * coordinates are written, avoiding a separate traversal with
+	 * {@link GeometryEnvelopeBuilder#buildEnvelope(Geometry)}
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @return geometry envelope
+	 * @throws IOException
+	 * @since 1.0.7
+	 */
+	public static GeometryEnvelope writeGeometryAndBuildEnvelope(
+			ByteWriter writer, Geometry geometry) throws IOException {
+		GeometryEnvelope envelope = GeometryEnvelopeBuilder.createEnvelope();
+		writeGeometry(writer, geometry, envelope);
+		return envelope;
+	}
+
+	/**
+	 * Write a geometry to the byte writer, expanding the envelope as the
+	 * coordinates are written
+	 * 
+	 * @param writer
+	 * @param geometry
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 * @since 1.0.7
+	 */
+	public static void writeGeometry(ByteWriter writer, Geometry geometry,
+			GeometryEnvelope envelope) throws IOException {
+
+		if (envelope != null) {
+			GeometryEnvelopeBuilder.updateHasZandM(envelope, geometry);
+		}
 
 		// Write the single byte order byte
 		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN ? (byte) 0
@@ -54,34 +97,35 @@ public class WkbGeometryWriter {
 			throw new WkbException("Unexpected Geometry Type of "
 					+ geometryType.name() + " which is abstract");
 		case POINT:
-			writePoint(writer, (Point) geometry);
+			writePoint(writer, (Point) geometry, envelope);
 			break;
 		case LINESTRING:
-			writeLineString(writer, (LineString) geometry);
+			writeLineString(writer, (LineString) geometry, envelope);
 			break;
 		case POLYGON:
-			writePolygon(writer, (Polygon) geometry);
+			writePolygon(writer, (Polygon) geometry, envelope);
 			break;
 		case MULTIPOINT:
-			writeMultiPoint(writer, (MultiPoint) geometry);
+			writeMultiPoint(writer, (MultiPoint) geometry, envelope);
 			break;
 		case MULTILINESTRING:
-			writeMultiLineString(writer, (MultiLineString) geometry);
+			writeMultiLineString(writer, (MultiLineString) geometry, envelope);
 			break;
 		case MULTIPOLYGON:
-			writeMultiPolygon(writer, (MultiPolygon) geometry);
+			writeMultiPolygon(writer, (MultiPolygon) geometry, envelope);
 			break;
 		case GEOMETRYCOLLECTION:
-			writeGeometryCollection(writer, (GeometryCollection<?>) geometry);
+			writeGeometryCollection(writer, (GeometryCollection<?>) geometry,
+					envelope);
 			break;
 		case CIRCULARSTRING:
-			writeCircularString(writer, (CircularString) geometry);
+			writeCircularString(writer, (CircularString) geometry, envelope);
 			break;
 		case COMPOUNDCURVE:
-			writeCompoundCurve(writer, (CompoundCurve) geometry);
+			writeCompoundCurve(writer, (CompoundCurve) geometry, envelope);
 			break;
 		case CURVEPOLYGON:
-			writeCurvePolygon(writer, (CurvePolygon<?>) geometry);
+			writeCurvePolygon(writer, (CurvePolygon<?>) geometry, envelope);
 			break;
 		case MULTICURVE:
 			throw new WkbException("Unexpected Geometry Type of "
@@ -96,19 +140,164 @@ public class WkbGeometryWriter {
 			throw new WkbException("Unexpected Geometry Type of "
 					+ geometryType.name() + " which is abstract");
 		case POLYHEDRALSURFACE:
-			writePolyhedralSurface(writer, (PolyhedralSurface) geometry);
+			writePolyhedralSurface(writer, (PolyhedralSurface) geometry,
+					envelope);
 			break;
 		case TIN:
-			writeTIN(writer, (TIN) geometry);
+			writeTIN(writer, (TIN) geometry, envelope);
 			break;
 		case TRIANGLE:
-			writeTriangle(writer, (Triangle) geometry);
+			writeTriangle(writer, (Triangle) geometry, envelope);
+			break;
+		default:
+			throw new WkbException("Geometry Type not supported: "
+					+ geometryType);
+		}
+
+	}
+
+	/**
+	 * Get the number of bytes the geometry occupies when written as Well-Known
+	 * Binary
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return number of bytes
+	 * @since 1.0.7
+	 */
+	public static int sizeOf(Geometry geometry) {
+		long size = sizeOfGeometry(geometry);
+		if (size > Integer.MAX_VALUE) {
+			throw new WkbException("Geometry Well-Known Binary size of " + size
+					+ " bytes exceeds the maximum byte array size");
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Get the number of bytes of the geometry, including the byte order and
+	 * geometry type header
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return number of bytes
+	 */
+	private static long sizeOfGeometry(Geometry geometry) {
+
+		long size = 5;
+
+		GeometryType geometryType = geometry.getGeometryType();
+
+		switch (geometryType) {
+
+		case POINT:
+			size += sizeOfPoint((Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			size += sizeOfLineString((LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			size += sizeOfPolygon((Polygon) geometry);
+			break;
+		case MULTIPOINT:
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			PointView view = PointView.createView(points);
+			size += 4;
+			for (int i = 0; i < points.size(); i++) {
+				size += sizeOfGeometry(PointView.getPoint(points, i, view));
+			}
+			break;
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			size += sizeOfGeometries(((GeometryCollection<?>) geometry)
+					.getGeometries());
+			break;
+		case COMPOUNDCURVE:
+			size += sizeOfGeometries(((CompoundCurve) geometry)
+					.getLineStrings());
+			break;
+		case CURVEPOLYGON:
+			size += sizeOfGeometries(((CurvePolygon<?>) geometry).getRings());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			size += sizeOfGeometries(((PolyhedralSurface) geometry)
+					.getPolygons());
 			break;
 		default:
 			throw new WkbException("Geometry Type not supported: "
 					+ geometryType);
 		}
 
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes of the point coordinates
+	 * 
+	 * @param point
+	 *            point
+	 * @return number of bytes
+	 */
+	private static long sizeOfPoint(Point point) {
+		long size = 16;
+		if (point.hasZ()) {
+			size += 8;
+		}
+		if (point.hasM()) {
+			size += 8;
+		}
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes of the line string point count and points
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @return number of bytes
+	 */
+	private static long sizeOfLineString(LineString lineString) {
+		long size = 4;
+		List<Point> points = lineString.getPoints();
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			size += sizeOfPoint(PointView.getPoint(points, i, view));
+		}
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes of the polygon ring count and rings
+	 * 
+	 * @param polygon
+	 *            polygon
+	 * @return number of bytes
+	 */
+	private static long sizeOfPolygon(Polygon polygon) {
+		long size = 4;
+		for (LineString ring : polygon.getRings()) {
+			size += sizeOfLineString(ring);
+		}
+		return size;
+	}
+
+	/**
+	 * Get the number of bytes of the geometry count and geometries
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return number of bytes
+	 */
+	private static long sizeOfGeometries(List<? extends Geometry> geometries) {
+		long size = 4;
+		for (Geometry geometry : geometries) {
+			size += sizeOfGeometry(geometry);
+		}
+		return size;
 	}
 
 	/**
@@ -120,16 +309,34 @@ public class WkbGeometryWriter {
 	 */
 	public static void writePoint(ByteWriter writer, Point point)
 			throws IOException {
+		writePoint(writer, point, null);
+	}
+
+	/**
+	 * Write a Point, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param point
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writePoint(ByteWriter writer, Point point,
+			GeometryEnvelope envelope) throws IOException {
 
 		writer.writeDouble(point.getX());
 		writer.writeDouble(point.getY());
 
 		if (point.hasZ()) {
-			writer.writeDouble(point.getZ());
+			writer.writeDouble(point.getZValue());
 		}
 
 		if (point.hasM()) {
-			writer.writeDouble(point.getM());
+			writer.writeDouble(point.getMValue());
+		}
+
+		if (envelope != null) {
+			GeometryEnvelopeBuilder.addPoint(envelope, point);
 		}
 	}
 
@@ -142,11 +349,63 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeLineString(ByteWriter writer, LineString lineString)
 			throws IOException {
+		writeLineString(writer, lineString, null);
+	}
+
+	/**
+	 * Write a Line String, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param lineString
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeLineString(ByteWriter writer,
+			LineString lineString, GeometryEnvelope envelope)
+			throws IOException {
+
+		if (envelope != null) {
+			GeometryEnvelopeBuilder.updateHasZandM(envelope, lineString);
+		}
 
 		writer.writeInt(lineString.numPoints());
 
-		for (Point point : lineString.getPoints()) {
-			writePoint(writer, point);
+		CoordinateSequence coordinates = lineString.getCoordinateSequence();
+		if (coordinates != null && envelope == null) {
+			writeCoordinates(writer, coordinates);
+		} else {
+			List<Point> points = lineString.getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				writePoint(writer, PointView.getPoint(points, i, view),
+						envelope);
+			}
+		}
+	}
+
+	/**
+	 * Write packed coordinates without creating points
+	 * 
+	 * @param writer
+	 * @param coordinates
+	 * @throws IOException
+	 */
+	private static void writeCoordinates(ByteWriter writer,
+			CoordinateSequence coordinates) throws IOException {
+
+		boolean hasZ = coordinates.hasZ();
+		boolean hasM = coordinates.hasM();
+		int size = coordinates.size();
+		for (int i = 0; i < size; i++) {
+			writer.writeDouble(coordinates.getX(i));
+			writer.writeDouble(coordinates.getY(i));
+			if (hasZ) {
+				writer.writeDouble(coordinates.getZ(i));
+			}
+			if (hasM) {
+				writer.writeDouble(coordinates.getM(i));
+			}
 		}
 	}
 
@@ -159,11 +418,25 @@ public class WkbGeometryWriter {
 	 */
 	public static void writePolygon(ByteWriter writer, Polygon polygon)
 			throws IOException {
+		writePolygon(writer, polygon, null);
+	}
+
+	/**
+	 * Write a Polygon, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param polygon
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writePolygon(ByteWriter writer, Polygon polygon,
+			GeometryEnvelope envelope) throws IOException {
 
 		writer.writeInt(polygon.numRings());
 
 		for (LineString ring : polygon.getRings()) {
-			writeLineString(writer, ring);
+			writeLineString(writer, ring, envelope);
 		}
 	}
 
@@ -176,11 +449,29 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeMultiPoint(ByteWriter writer, MultiPoint multiPoint)
 			throws IOException {
+		writeMultiPoint(writer, multiPoint, null);
+	}
+
+	/**
+	 * Write a Multi Point, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param multiPoint
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeMultiPoint(ByteWriter writer,
+			MultiPoint multiPoint, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(multiPoint.numPoints());
 
-		for (Point point : multiPoint.getPoints()) {
-			writeGeometry(writer, point);
+		List<Point> points = multiPoint.getPoints();
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			writeGeometry(writer, PointView.getPoint(points, i, view),
+					envelope);
 		}
 	}
 
@@ -193,11 +484,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeMultiLineString(ByteWriter writer,
 			MultiLineString multiLineString) throws IOException {
+		writeMultiLineString(writer, multiLineString, null);
+	}
+
+	/**
+	 * Write a Multi Line String, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param multiLineString
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeMultiLineString(ByteWriter writer,
+			MultiLineString multiLineString, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(multiLineString.numLineStrings());
 
 		for (LineString lineString : multiLineString.getLineStrings()) {
-			writeGeometry(writer, lineString);
+			writeGeometry(writer, lineString, envelope);
 		}
 	}
 
@@ -210,11 +516,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeMultiPolygon(ByteWriter writer,
 			MultiPolygon multiPolygon) throws IOException {
+		writeMultiPolygon(writer, multiPolygon, null);
+	}
+
+	/**
+	 * Write a Multi Polygon, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param multiPolygon
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeMultiPolygon(ByteWriter writer,
+			MultiPolygon multiPolygon, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(multiPolygon.numPolygons());
 
 		for (Polygon polygon : multiPolygon.getPolygons()) {
-			writeGeometry(writer, polygon);
+			writeGeometry(writer, polygon, envelope);
 		}
 	}
 
@@ -227,11 +548,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeGeometryCollection(ByteWriter writer,
 			GeometryCollection<?> geometryCollection) throws IOException {
+		writeGeometryCollection(writer, geometryCollection, null);
+	}
+
+	/**
+	 * Write a Geometry Collection, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param geometryCollection
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeGeometryCollection(ByteWriter writer,
+			GeometryCollection<?> geometryCollection, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(geometryCollection.numGeometries());
 
 		for (Geometry geometry : geometryCollection.getGeometries()) {
-			writeGeometry(writer, geometry);
+			writeGeometry(writer, geometry, envelope);
 		}
 	}
 
@@ -244,11 +580,35 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeCircularString(ByteWriter writer,
 			CircularString circularString) throws IOException {
+		writeCircularString(writer, circularString, null);
+	}
+
+	/**
+	 * Write a Circular String, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param circularString
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeCircularString(ByteWriter writer,
+			CircularString circularString, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(circularString.numPoints());
 
-		for (Point point : circularString.getPoints()) {
-			writePoint(writer, point);
+		CoordinateSequence coordinates = circularString
+				.getCoordinateSequence();
+		if (coordinates != null && envelope == null) {
+			writeCoordinates(writer, coordinates);
+		} else {
+			List<Point> points = circularString.getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				writePoint(writer, PointView.getPoint(points, i, view),
+						envelope);
+			}
 		}
 	}
 
@@ -261,11 +621,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeCompoundCurve(ByteWriter writer,
 			CompoundCurve compoundCurve) throws IOException {
+		writeCompoundCurve(writer, compoundCurve, null);
+	}
+
+	/**
+	 * Write a Compound Curve, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param compoundCurve
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeCompoundCurve(ByteWriter writer,
+			CompoundCurve compoundCurve, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(compoundCurve.numLineStrings());
 
 		for (LineString lineString : compoundCurve.getLineStrings()) {
-			writeGeometry(writer, lineString);
+			writeGeometry(writer, lineString, envelope);
 		}
 	}
 
@@ -278,11 +653,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeCurvePolygon(ByteWriter writer,
 			CurvePolygon<?> curvePolygon) throws IOException {
+		writeCurvePolygon(writer, curvePolygon, null);
+	}
+
+	/**
+	 * Write a Curve Polygon, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param curvePolygon
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeCurvePolygon(ByteWriter writer,
+			CurvePolygon<?> curvePolygon, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(curvePolygon.numRings());
 
 		for (Curve ring : curvePolygon.getRings()) {
-			writeGeometry(writer, ring);
+			writeGeometry(writer, ring, envelope);
 		}
 	}
 
@@ -295,11 +685,26 @@ public class WkbGeometryWriter {
 	 */
 	public static void writePolyhedralSurface(ByteWriter writer,
 			PolyhedralSurface polyhedralSurface) throws IOException {
+		writePolyhedralSurface(writer, polyhedralSurface, null);
+	}
+
+	/**
+	 * Write a Polyhedral Surface, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param polyhedralSurface
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writePolyhedralSurface(ByteWriter writer,
+			PolyhedralSurface polyhedralSurface, GeometryEnvelope envelope)
+			throws IOException {
 
 		writer.writeInt(polyhedralSurface.numPolygons());
 
 		for (Polygon polygon : polyhedralSurface.getPolygons()) {
-			writeGeometry(writer, polygon);
+			writeGeometry(writer, polygon, envelope);
 		}
 	}
 
@@ -311,11 +716,25 @@ public class WkbGeometryWriter {
 	 * @throws IOException
 	 */
 	public static void writeTIN(ByteWriter writer, TIN tin) throws IOException {
+		writeTIN(writer, tin, null);
+	}
+
+	/**
+	 * Write a TIN, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param tin
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeTIN(ByteWriter writer, TIN tin,
+			GeometryEnvelope envelope) throws IOException {
 
 		writer.writeInt(tin.numPolygons());
 
 		for (Polygon polygon : tin.getPolygons()) {
-			writeGeometry(writer, polygon);
+			writeGeometry(writer, polygon, envelope);
 		}
 	}
 
@@ -328,11 +747,25 @@ public class WkbGeometryWriter {
 	 */
 	public static void writeTriangle(ByteWriter writer, Triangle triangle)
 			throws IOException {
+		writeTriangle(writer, triangle, null);
+	}
+
+	/**
+	 * Write a Triangle, expanding the envelope
+	 * 
+	 * @param writer
+	 * @param triangle
+	 * @param envelope
+	 *            envelope to expand, null when not building an envelope
+	 * @throws IOException
+	 */
+	private static void writeTriangle(ByteWriter writer, Triangle triangle,
+			GeometryEnvelope envelope) throws IOException {
 
 		writer.writeInt(triangle.numRings());
 
 		for (LineString ring : triangle.getRings()) {
-			writeLineString(writer, ring);
+			writeLineString(writer, ring, envelope);
 		}
 	}
 
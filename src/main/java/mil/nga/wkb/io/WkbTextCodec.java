@@ -0,0 +1,389 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well Known Binary hex and Base64 text codec. Characters are decoded through
+ * a lookup table directly into a reusable byte array read by the returned
+ * {@link ByteReader}, so decoding many records allocates no intermediate
+ * strings or byte arrays. A codec instance is not thread safe and the bytes
+ * of a returned reader are only valid until the next decode. Encoding reads
+ * the bytes of a {@link ByteWriter} without copying them.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbTextCodec {
+
+	/**
+	 * Text encodings
+	 */
+	public enum Encoding {
+
+		/**
+		 * Hexadecimal, two characters per byte
+		 */
+		HEX,
+
+		/**
+		 * Base64, four characters per three bytes
+		 */
+		BASE64;
+
+	}
+
+	/**
+	 * Upper case hex characters
+	 */
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Base64 characters
+	 */
+	private static final char[] BASE64_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.toCharArray();
+
+	/**
+	 * Base64 padding character
+	 */
+	private static final char BASE64_PAD = '=';
+
+	/**
+	 * Hex character values, -1 for non hex characters
+	 */
+	private static final byte[] HEX_VALUES = new byte[128];
+
+	/**
+	 * Base64 character values, including the URL safe alphabet, -1 for non
+	 * Base64 characters
+	 */
+	private static final byte[] BASE64_VALUES = new byte[128];
+
+	static {
+		Arrays.fill(HEX_VALUES, (byte) -1);
+		for (int i = 0; i < HEX_CHARS.length; i++) {
+			HEX_VALUES[HEX_CHARS[i]] = (byte) i;
+			HEX_VALUES[Character.toLowerCase(HEX_CHARS[i])] = (byte) i;
+		}
+		Arrays.fill(BASE64_VALUES, (byte) -1);
+		for (int i = 0; i < BASE64_CHARS.length; i++) {
+			BASE64_VALUES[BASE64_CHARS[i]] = (byte) i;
+		}
+		BASE64_VALUES['-'] = 62;
+		BASE64_VALUES['_'] = 63;
+	}
+
+	/**
+	 * Encoding
+	 */
+	private final Encoding encoding;
+
+	/**
+	 * Reusable decoded bytes
+	 */
+	private byte[] bytes = new byte[64];
+
+	/**
+	 * Number of decoded bytes
+	 */
+	private int length = 0;
+
+	/**
+	 * Bits of characters not yet decoded into a byte
+	 */
+	private int pendingBits = 0;
+
+	/**
+	 * Number of characters not yet decoded into a byte
+	 */
+	private int pendingChars = 0;
+
+	/**
+	 * Padding character read
+	 */
+	private boolean padded = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param encoding
+	 *            text encoding
+	 */
+	public WkbTextCodec(Encoding encoding) {
+		this.encoding = encoding;
+	}
+
+	/**
+	 * Get the text encoding
+	 * 
+	 * @return encoding
+	 */
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * Decode the characters
+	 * 
+	 * @param chars
+	 *            encoded characters
+	 * @return byte reader of the decoded bytes, valid until the next decode
+	 */
+	public ByteReader decode(CharSequence chars) {
+		return decode(chars, 0, chars.length());
+	}
+
+	/**
+	 * Decode the range of characters
+	 * 
+	 * @param chars
+	 *            encoded characters
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 * @return byte reader of the decoded bytes, valid until the next decode
+	 */
+	public ByteReader decode(CharSequence chars, int start, int end) {
+		reset();
+		for (int i = start; i < end; i++) {
+			char c = chars.charAt(i);
+			if (!isEncodingChar(c)) {
+				throw new WkbException("Invalid " + encoding.name()
+						+ " character '" + c + "' at index " + i);
+			}
+			append(c);
+		}
+		return finish();
+	}
+
+	/**
+	 * Reset the decoder for the next encoded value
+	 */
+	void reset() {
+		length = 0;
+		pendingBits = 0;
+		pendingChars = 0;
+		padded = false;
+	}
+
+	/**
+	 * Determine if the character is a character of the encoding
+	 * 
+	 * @param c
+	 *            character
+	 * @return true if an encoding character
+	 */
+	boolean isEncodingChar(char c) {
+		boolean encodingChar = false;
+		if (c < 128) {
+			switch (encoding) {
+			case HEX:
+				encodingChar = HEX_VALUES[c] >= 0;
+				break;
+			case BASE64:
+				encodingChar = BASE64_VALUES[c] >= 0 || c == BASE64_PAD;
+				break;
+			default:
+				throw new WkbException("Unsupported encoding: " + encoding);
+			}
+		}
+		return encodingChar;
+	}
+
+	/**
+	 * Decode the next encoding character
+	 * 
+	 * @param c
+	 *            encoding character
+	 */
+	void append(char c) {
+		switch (encoding) {
+		case HEX:
+			pendingBits = (pendingBits << 4) | HEX_VALUES[c];
+			if (++pendingChars == 2) {
+				write(pendingBits);
+				pendingBits = 0;
+				pendingChars = 0;
+			}
+			break;
+		case BASE64:
+			if (c == BASE64_PAD) {
+				padded = true;
+			} else {
+				if (padded) {
+					throw new WkbException(
+							"Invalid BASE64 character after padding: " + c);
+				}
+				pendingBits = (pendingBits << 6) | BASE64_VALUES[c];
+				if (++pendingChars == 4) {
+					write(pendingBits >> 16);
+					write(pendingBits >> 8);
+					write(pendingBits);
+					pendingBits = 0;
+					pendingChars = 0;
+				}
+			}
+			break;
+		default:
+			throw new WkbException("Unsupported encoding: " + encoding);
+		}
+	}
+
+	/**
+	 * Finish decoding the encoded value
+	 * 
+	 * @return byte reader of the decoded bytes, valid until the next decode
+	 */
+	ByteReader finish() {
+		switch (encoding) {
+		case HEX:
+			if (pendingChars != 0) {
+				throw new WkbException(
+						"Invalid HEX value with an odd number of characters");
+			}
+			break;
+		case BASE64:
+			if (pendingChars == 1) {
+				throw new WkbException(
+						"Invalid BASE64 value with an incomplete final byte");
+			} else if (pendingChars == 2) {
+				write(pendingBits >> 4);
+			} else if (pendingChars == 3) {
+				write(pendingBits >> 10);
+				write(pendingBits >> 2);
+			}
+			break;
+		default:
+			throw new WkbException("Unsupported encoding: " + encoding);
+		}
+		pendingBits = 0;
+		pendingChars = 0;
+		return new ByteReader(bytes, 0, length);
+	}
+
+	/**
+	 * Write a decoded byte, expanding the reusable bytes when needed
+	 * 
+	 * @param value
+	 *            byte value in the low bits
+	 */
+	private void write(int value) {
+		if (length == bytes.length) {
+			bytes = Arrays.copyOf(bytes, bytes.length * 2);
+		}
+		bytes[length++] = (byte) value;
+	}
+
+	/**
+	 * Encode the bytes written to the byte writer
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param encoding
+	 *            text encoding
+	 * @return encoded string
+	 */
+	public static String encode(ByteWriter writer, Encoding encoding) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			encode(writer, encoding, builder);
+		} catch (IOException e) {
+			throw new WkbException("Failed to encode bytes", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Encode the bytes written to the byte writer, appending the characters
+	 * 
+	 * @param writer
+	 *            byte writer
+	 * @param encoding
+	 *            text encoding
+	 * @param appendable
+	 *            appendable to write the characters to
+	 * @throws IOException
+	 */
+	public static void encode(ByteWriter writer, Encoding encoding,
+			Appendable appendable) throws IOException {
+		encode(writer.getWrittenBytes(0, writer.size()), encoding, appendable);
+	}
+
+	/**
+	 * Encode the bytes
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param encoding
+	 *            text encoding
+	 * @return encoded string
+	 */
+	public static String encode(byte[] bytes, Encoding encoding) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			encode(ByteBuffer.wrap(bytes), encoding, builder);
+		} catch (IOException e) {
+			throw new WkbException("Failed to encode bytes", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Encode the remaining bytes of the buffer, appending the characters. The
+	 * buffer position is not modified.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param encoding
+	 *            text encoding
+	 * @param appendable
+	 *            appendable to write the characters to
+	 * @throws IOException
+	 */
+	public static void encode(ByteBuffer buffer, Encoding encoding,
+			Appendable appendable) throws IOException {
+		int start = buffer.position();
+		int end = buffer.limit();
+		switch (encoding) {
+		case HEX:
+			for (int i = start; i < end; i++) {
+				int value = buffer.get(i) & 0xFF;
+				appendable.append(HEX_CHARS[value >> 4]);
+				appendable.append(HEX_CHARS[value & 0x0F]);
+			}
+			break;
+		case BASE64:
+			int i = start;
+			for (; i + 2 < end; i += 3) {
+				int bits = ((buffer.get(i) & 0xFF) << 16)
+						| ((buffer.get(i + 1) & 0xFF) << 8)
+						| (buffer.get(i + 2) & 0xFF);
+				appendable.append(BASE64_CHARS[(bits >> 18) & 0x3F]);
+				appendable.append(BASE64_CHARS[(bits >> 12) & 0x3F]);
+				appendable.append(BASE64_CHARS[(bits >> 6) & 0x3F]);
+				appendable.append(BASE64_CHARS[bits & 0x3F]);
+			}
+			int remaining = end - i;
+			if (remaining > 0) {
+				int bits = (buffer.get(i) & 0xFF) << 16;
+				if (remaining == 2) {
+					bits |= (buffer.get(i + 1) & 0xFF) << 8;
+				}
+				appendable.append(BASE64_CHARS[(bits >> 18) & 0x3F]);
+				appendable.append(BASE64_CHARS[(bits >> 12) & 0x3F]);
+				appendable.append(remaining == 2
+						? BASE64_CHARS[(bits >> 6) & 0x3F] : BASE64_PAD);
+				appendable.append(BASE64_PAD);
+			}
+			break;
+		default:
+			throw new WkbException("Unsupported encoding: " + encoding);
+		}
+	}
+
+}
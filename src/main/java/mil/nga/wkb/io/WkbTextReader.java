@@ -0,0 +1,456 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Streaming reader of hex or Base64 encoded Well-Known Binary values from a
+ * character reader. By default values are separated by whitespace (spaces,
+ * tabs or line breaks), such as a single column export with one value per
+ * line, and any other character that is not of the encoding is rejected. In
+ * CSV mode, such as a PostGIS or SQL Server CSV export, values are read from
+ * one column of delimited records with optionally quoted fields, an optional
+ * header record is skipped, hex values may have a SQL Server 0x or
+ * PostgreSQL \x prefix and records with an empty value column are skipped.
+ * Characters are decoded as they are read through a reusable buffer, without
+ * creating a string per value.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbTextReader {
+
+	/**
+	 * Character buffer size
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Character reader
+	 */
+	private final Reader reader;
+
+	/**
+	 * Text codec
+	 */
+	private final WkbTextCodec codec;
+
+	/**
+	 * Character buffer
+	 */
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	/**
+	 * Next buffer index to read
+	 */
+	private int index = 0;
+
+	/**
+	 * Number of characters in the buffer
+	 */
+	private int count = 0;
+
+	/**
+	 * Number of characters read before the buffer
+	 */
+	private long offset = 0;
+
+	/**
+	 * True when reading CSV records
+	 */
+	private final boolean csv;
+
+	/**
+	 * CSV field delimiter
+	 */
+	private final char delimiter;
+
+	/**
+	 * CSV field quote
+	 */
+	private final char quote;
+
+	/**
+	 * CSV value column index
+	 */
+	private final int column;
+
+	/**
+	 * True while the CSV header record remains to be skipped
+	 */
+	private boolean header;
+
+	/**
+	 * Number of CSV records read
+	 */
+	private long records = 0;
+
+	/**
+	 * Constructor for whitespace separated values
+	 * 
+	 * @param reader
+	 *            character reader
+	 * @param encoding
+	 *            text encoding
+	 */
+	public WkbTextReader(Reader reader, WkbTextCodec.Encoding encoding) {
+		this.reader = reader;
+		this.codec = new WkbTextCodec(encoding);
+		this.csv = false;
+		this.delimiter = 0;
+		this.quote = 0;
+		this.column = 0;
+		this.header = false;
+	}
+
+	/**
+	 * Constructor for values in a column of CSV records
+	 * 
+	 * @param reader
+	 *            character reader
+	 * @param encoding
+	 *            text encoding
+	 * @param delimiter
+	 *            field delimiter, such as ','
+	 * @param quote
+	 *            field quote, such as '"'
+	 * @param column
+	 *            zero based index of the value column
+	 * @param header
+	 *            true to skip the first record as a header
+	 */
+	public WkbTextReader(Reader reader, WkbTextCodec.Encoding encoding,
+			char delimiter, char quote, int column, boolean header) {
+		if (column < 0) {
+			throw new WkbException("Invalid CSV column index: " + column);
+		}
+		if (delimiter == quote || isLineBreak(delimiter)
+				|| isLineBreak(quote)) {
+			throw new WkbException("Invalid CSV delimiter '" + delimiter
+					+ "' and quote '" + quote + "'");
+		}
+		this.reader = reader;
+		this.codec = new WkbTextCodec(encoding);
+		this.csv = true;
+		this.delimiter = delimiter;
+		this.quote = quote;
+		this.column = column;
+		this.header = header;
+	}
+
+	/**
+	 * Read the next encoded value
+	 * 
+	 * @return byte reader of the decoded bytes, valid until the next read, or
+	 *         null when no values remain
+	 * @throws IOException
+	 * @throws WkbException
+	 *             when a character is neither of the encoding nor whitespace,
+	 *             or a CSV record is malformed
+	 */
+	public ByteReader next() throws IOException {
+		return csv ? nextRecord() : nextValue();
+	}
+
+	/**
+	 * Read the next whitespace separated value
+	 * 
+	 * @return byte reader of the decoded bytes, or null when no values remain
+	 * @throws IOException
+	 */
+	private ByteReader nextValue() throws IOException {
+
+		// Skip the whitespace to the start of the next value
+		boolean found = false;
+		while (!found && fill()) {
+			for (; index < count; index++) {
+				char c = buffer[index];
+				if (codec.isEncodingChar(c)) {
+					found = true;
+					break;
+				}
+				verifySeparator(c);
+			}
+		}
+
+		ByteReader value = null;
+
+		if (found) {
+			codec.reset();
+			boolean end = false;
+			while (!end && fill()) {
+				for (; index < count; index++) {
+					char c = buffer[index];
+					if (!codec.isEncodingChar(c)) {
+						verifySeparator(c);
+						end = true;
+						break;
+					}
+					codec.append(c);
+				}
+			}
+			value = codec.finish();
+		}
+
+		return value;
+	}
+
+	/**
+	 * Read the value column of the next CSV record with a value
+	 * 
+	 * @return byte reader of the decoded bytes, or null when no records remain
+	 * @throws IOException
+	 */
+	private ByteReader nextRecord() throws IOException {
+
+		ByteReader value = null;
+
+		while (value == null && fill()) {
+
+			// Skip the header and blank lines
+			if (header) {
+				header = false;
+				skipRecord(skipField());
+				continue;
+			}
+			if (isLineBreak(buffer[index])) {
+				readLineBreak(readChar());
+				continue;
+			}
+
+			records++;
+			for (int field = 0; field < column; field++) {
+				if (skipField() != delimiter) {
+					throw new WkbException("CSV record " + records
+							+ " has no value column " + column);
+				}
+			}
+			value = readValueField();
+		}
+
+		return value;
+	}
+
+	/**
+	 * Read and decode the value field of the current CSV record, skipping the
+	 * rest of the record
+	 * 
+	 * @return byte reader of the decoded bytes, or null for an empty value
+	 * @throws IOException
+	 */
+	private ByteReader readValueField() throws IOException {
+
+		codec.reset();
+		boolean empty = true;
+
+		int c = skipSpaces();
+		boolean quoted = c == quote;
+		if (quoted) {
+			c = skipSpaces();
+		}
+
+		// Optional 0x or \x hex prefix
+		if (codec.getEncoding() == WkbTextCodec.Encoding.HEX
+				&& (c == '0' || c == '\\')) {
+			int next = fill() ? buffer[index] : -1;
+			if (next == 'x' || next == 'X') {
+				index++;
+				c = readChar();
+			} else if (c == '\\') {
+				throw unexpected(c);
+			}
+		}
+
+		while (c >= 0 && codec.isEncodingChar((char) c)) {
+			codec.append((char) c);
+			empty = false;
+			c = readChar();
+		}
+
+		c = skipSpaces(c);
+		if (quoted) {
+			if (c != quote) {
+				throw unexpected(c);
+			}
+			c = skipSpaces();
+		}
+		if (c != delimiter && c >= 0 && !isLineBreak((char) c)) {
+			throw unexpected(c);
+		}
+		skipRecord(c);
+
+		return empty ? null : codec.finish();
+	}
+
+	/**
+	 * Skip a CSV field
+	 * 
+	 * @return field terminator: the delimiter, a line break or -1 at the end
+	 *         of the reader
+	 * @throws IOException
+	 */
+	private int skipField() throws IOException {
+		int c = readChar();
+		boolean quoted = false;
+		while (c >= 0
+				&& (quoted || (c != delimiter && !isLineBreak((char) c)))) {
+			if (c == quote) {
+				quoted = !quoted;
+			}
+			c = readChar();
+		}
+		if (quoted) {
+			throw new WkbException("CSV record " + records
+					+ " has an unterminated quoted field");
+		}
+		return c;
+	}
+
+	/**
+	 * Skip the remaining fields of the current CSV record
+	 * 
+	 * @param terminator
+	 *            terminator of the last read field
+	 * @throws IOException
+	 */
+	private void skipRecord(int terminator) throws IOException {
+		while (terminator == delimiter) {
+			terminator = skipField();
+		}
+		readLineBreak(terminator);
+	}
+
+	/**
+	 * Complete a \r\n line break
+	 * 
+	 * @param c
+	 *            read line break character, or -1
+	 * @throws IOException
+	 */
+	private void readLineBreak(int c) throws IOException {
+		if (c == '\r' && fill() && buffer[index] == '\n') {
+			index++;
+		}
+	}
+
+	/**
+	 * Skip spaces and tabs
+	 * 
+	 * @return next other character, or -1 at the end of the reader
+	 * @throws IOException
+	 */
+	private int skipSpaces() throws IOException {
+		return skipSpaces(readChar());
+	}
+
+	/**
+	 * Skip spaces and tabs
+	 * 
+	 * @param c
+	 *            current character
+	 * @return next other character, or -1 at the end of the reader
+	 * @throws IOException
+	 */
+	private int skipSpaces(int c) throws IOException {
+		while ((c == ' ' || c == '\t') && c != delimiter) {
+			c = readChar();
+		}
+		return c;
+	}
+
+	/**
+	 * Read the next character
+	 * 
+	 * @return character, or -1 at the end of the reader
+	 * @throws IOException
+	 */
+	private int readChar() throws IOException {
+		return fill() ? buffer[index++] : -1;
+	}
+
+	/**
+	 * Create an exception for an unexpected character in the value field of a
+	 * CSV record
+	 * 
+	 * @param c
+	 *            last read character, or -1
+	 * @return exception
+	 */
+	private WkbException unexpected(int c) {
+		return new WkbException("Unexpected "
+				+ (c < 0 ? "end of text" : "character '" + (char) c + "'")
+				+ " at text position " + (offset + index - 1)
+				+ " in the value column of CSV record " + records);
+	}
+
+	/**
+	 * Determine if the character is a line break
+	 * 
+	 * @param c
+	 *            character
+	 * @return true if a line feed or carriage return
+	 */
+	private static boolean isLineBreak(char c) {
+		return c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Read the next encoded geometry
+	 * 
+	 * @return geometry, or null when no values remain
+	 * @throws IOException
+	 */
+	public Geometry nextGeometry() throws IOException {
+		Geometry geometry = null;
+		ByteReader value = next();
+		if (value != null) {
+			geometry = WkbGeometryReader.readGeometry(value);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Close the character reader
+	 * 
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Fill the buffer when all characters have been read
+	 * 
+	 * @return true if characters remain, false at the end of the reader
+	 * @throws IOException
+	 */
+	private boolean fill() throws IOException {
+		if (index >= count) {
+			offset += count;
+			index = 0;
+			count = reader.read(buffer, 0, buffer.length);
+			if (count < 0) {
+				count = 0;
+			}
+		}
+		return index < count;
+	}
+
+	/**
+	 * Verify the character at the current index is a whitespace separator
+	 * 
+	 * @param c
+	 *            character
+	 */
+	private void verifySeparator(char c) {
+		if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+			throw new WkbException("Unexpected character '" + c
+					+ "' at text position " + (offset + index)
+					+ ", values must be separated by whitespace");
+		}
+	}
+
+}
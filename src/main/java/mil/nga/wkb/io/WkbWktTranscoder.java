@@ -0,0 +1,278 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well-Known Binary to Well-Known Text transcoder. Writes the WKT of a
+ * Well-Known Binary geometry to an {@link Appendable} in a single pass over
+ * the bytes, without reading the geometry into
+ * {@link mil.nga.wkb.geom.Geometry} objects. The text matches the
+ * {@link WktGeometryWriter} text of the read geometry.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WkbWktTranscoder {
+
+	/**
+	 * Transcode the Well-Known Binary geometry to a WKT string
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes
+	 * @return WKT
+	 */
+	public static String transcode(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length);
+		try {
+			transcode(new ByteReader(bytes), builder);
+		} catch (IOException e) {
+			throw new WkbException("Failed to write WKT geometry", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Transcode the Well-Known Binary geometry at the reader position,
+	 * writing the WKT to the appendable
+	 * 
+	 * @param reader
+	 *            byte reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 */
+	public static void transcode(ByteReader reader, Appendable appendable)
+			throws IOException {
+		transcodeGeometry(reader, appendable, new DoubleFormatter(), null);
+	}
+
+	/**
+	 * Transcode a geometry, with the type when written at the top level, in
+	 * a geometry collection or as a curve other than a line string
+	 * 
+	 * @param reader
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param parentType
+	 *            containing geometry type, null at the top level
+	 * @throws IOException
+	 */
+	private static void transcodeGeometry(ByteReader reader,
+			Appendable appendable, DoubleFormatter formatter,
+			GeometryType parentType) throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+
+		GeometryTypeInfo geometryTypeInfo = WkbGeometryReader
+				.readGeometryHeader(reader);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		verifyMemberType(parentType, geometryType);
+
+		boolean tagged;
+		if (parentType == null
+				|| parentType == GeometryType.GEOMETRYCOLLECTION) {
+			tagged = true;
+		} else if (parentType == GeometryType.COMPOUNDCURVE
+				|| parentType == GeometryType.CURVEPOLYGON) {
+			tagged = geometryType != GeometryType.LINESTRING;
+		} else {
+			tagged = false;
+		}
+
+		if (tagged) {
+			appendable.append(geometryType.getName());
+			WktGeometryWriter.writeDimensions(appendable,
+					geometryTypeInfo.hasZ(), geometryTypeInfo.hasM());
+			appendable.append(' ');
+		}
+
+		int dimension = geometryTypeInfo.getCoordinateDimension();
+
+		switch (geometryType) {
+
+		case POINT:
+			transcodePoint(reader, appendable, formatter, dimension);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			transcodeLineString(reader, appendable, formatter, dimension);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = reader.readInt();
+			if (numRings == 0) {
+				appendable.append("EMPTY");
+			} else {
+				appendable.append('(');
+				for (int i = 0; i < numRings; i++) {
+					if (i > 0) {
+						appendable.append(", ");
+					}
+					transcodeLineString(reader, appendable, formatter,
+							dimension);
+				}
+				appendable.append(')');
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numGeometries = reader.readInt();
+			if (numGeometries == 0) {
+				appendable.append("EMPTY");
+			} else {
+				appendable.append('(');
+				for (int i = 0; i < numGeometries; i++) {
+					if (i > 0) {
+						appendable.append(", ");
+					}
+					transcodeGeometry(reader, appendable, formatter,
+							geometryType);
+				}
+				appendable.append(')');
+			}
+			break;
+		default:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+		reader.setByteOrder(originalByteOrder);
+	}
+
+	/**
+	 * Transcode point coordinates, EMPTY for NaN x and y values
+	 * 
+	 * @param reader
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param dimension
+	 *            coordinate dimension
+	 * @throws IOException
+	 */
+	private static void transcodePoint(ByteReader reader,
+			Appendable appendable, DoubleFormatter formatter, int dimension)
+			throws IOException {
+		double x = reader.readDouble();
+		double y = reader.readDouble();
+		if (Double.isNaN(x) && Double.isNaN(y)) {
+			for (int i = 2; i < dimension; i++) {
+				reader.readDouble();
+			}
+			appendable.append("EMPTY");
+		} else {
+			appendable.append('(');
+			WktGeometryWriter.writeNumber(appendable, formatter, x);
+			appendable.append(' ');
+			WktGeometryWriter.writeNumber(appendable, formatter, y);
+			for (int i = 2; i < dimension; i++) {
+				appendable.append(' ');
+				WktGeometryWriter.writeOptionalNumber(appendable,
+						formatter, reader.readDouble());
+			}
+			appendable.append(')');
+		}
+	}
+
+	/**
+	 * Transcode line string or ring points
+	 * 
+	 * @param reader
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param dimension
+	 *            coordinate dimension
+	 * @throws IOException
+	 */
+	private static void transcodeLineString(ByteReader reader,
+			Appendable appendable, DoubleFormatter formatter, int dimension)
+			throws IOException {
+		int numPoints = reader.readInt();
+		if (numPoints == 0) {
+			appendable.append("EMPTY");
+		} else {
+			appendable.append('(');
+			for (int i = 0; i < numPoints; i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				for (int j = 0; j < dimension; j++) {
+					if (j > 0) {
+						appendable.append(' ');
+					}
+					double value = reader.readDouble();
+					if (j < 2) {
+						WktGeometryWriter.writeNumber(appendable, formatter,
+								value);
+					} else {
+						WktGeometryWriter.writeOptionalNumber(appendable,
+								formatter, value);
+					}
+				}
+			}
+			appendable.append(')');
+		}
+	}
+
+	/**
+	 * Verify the geometry type is allowed within the parent geometry type
+	 * 
+	 * @param parentType
+	 *            parent geometry type, null at the top level
+	 * @param geometryType
+	 *            member geometry type
+	 */
+	static void verifyMemberType(GeometryType parentType,
+			GeometryType geometryType) {
+
+		boolean valid;
+		if (parentType == null) {
+			valid = true;
+		} else {
+			switch (parentType) {
+			case MULTIPOINT:
+				valid = geometryType == GeometryType.POINT;
+				break;
+			case MULTILINESTRING:
+			case COMPOUNDCURVE:
+				valid = geometryType == GeometryType.LINESTRING
+						|| geometryType == GeometryType.CIRCULARSTRING;
+				break;
+			case MULTIPOLYGON:
+			case POLYHEDRALSURFACE:
+			case TIN:
+				valid = geometryType == GeometryType.POLYGON
+						|| geometryType == GeometryType.TRIANGLE;
+				break;
+			case CURVEPOLYGON:
+				valid = geometryType == GeometryType.LINESTRING
+						|| geometryType == GeometryType.CIRCULARSTRING
+						|| geometryType == GeometryType.COMPOUNDCURVE;
+				break;
+			default:
+				valid = true;
+			}
+		}
+
+		if (!valid) {
+			throw new WkbException(
+					"Unexpected Geometry Type. Expected: member of "
+							+ parentType.getName() + ", Actual: "
+							+ geometryType.getName());
+		}
+	}
+
+}
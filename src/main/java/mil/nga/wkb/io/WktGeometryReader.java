@@ -0,0 +1,640 @@
+package mil.nga.wkb.io;
+
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.Curve;
+import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.PolyhedralSurface;
+import mil.nga.wkb.geom.TIN;
+import mil.nga.wkb.geom.Triangle;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well-Known Text (WKT and ISO WKT) reader using a hand written scanner.
+ * Reads every geometry type with Z, M and ZM dimension tags. Without a tag,
+ * the z and m values are determined by the number of values of the first
+ * coordinate. MULTICURVE and MULTISURFACE geometries are read as geometry
+ * collections. A leading Extended WKT "SRID=...;" prefix is skipped. An
+ * empty Point is read with NaN x and y values.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WktGeometryReader {
+
+	/**
+	 * Maximum number of significant digits parsed exactly into a long
+	 */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	/**
+	 * Exact powers of 10 for fast number parsing
+	 */
+	private static final double[] POWERS_OF_10 = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * Text being read
+	 */
+	private final CharSequence text;
+
+	/**
+	 * Next character index
+	 */
+	private int index = 0;
+
+	/**
+	 * Read a geometry from the WKT
+	 * 
+	 * @param text
+	 *            WKT
+	 * @return geometry
+	 */
+	public static Geometry readGeometry(CharSequence text) {
+		Geometry geometry = readGeometry(text, null);
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry from the WKT
+	 * 
+	 * @param text
+	 *            WKT
+	 * @param expectedType
+	 * @return geometry
+	 */
+	public static <T extends Geometry> T readGeometry(CharSequence text,
+			Class<T> expectedType) {
+
+		WktGeometryReader reader = new WktGeometryReader(text);
+		reader.skipSrid();
+		Geometry geometry = reader.readGeometry();
+		if (reader.peek() != -1) {
+			throw reader.error("Unexpected text after the geometry");
+		}
+
+		// If there is an expected type, verify the geometry if of that type
+		if (expectedType != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new WkbException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+
+		return result;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param text
+	 *            WKT
+	 */
+	private WktGeometryReader(CharSequence text) {
+		this.text = text;
+	}
+
+	/**
+	 * Skip an Extended WKT SRID prefix
+	 */
+	private void skipSrid() {
+		if (peek() == 'S' || peek() == 's') {
+			int start = index;
+			if (readWord().equalsIgnoreCase("SRID")) {
+				while (index < text.length() && text.charAt(index) != ';') {
+					index++;
+				}
+				expect(';');
+			} else {
+				index = start;
+			}
+		}
+	}
+
+	/**
+	 * Read a tagged geometry
+	 * 
+	 * @return geometry
+	 */
+	private Geometry readGeometry() {
+
+		String name = readWord();
+		GeometryType geometryType;
+		try {
+			geometryType = GeometryType.fromName(name);
+		} catch (IllegalArgumentException e) {
+			throw error("Unknown geometry type: " + name);
+		}
+
+		// Read the dimension tag, or determine from the first coordinate
+		boolean hasZ = false;
+		boolean hasM = false;
+		int start = index;
+		String word = peek() != '(' ? readWord() : "";
+		if (word.equalsIgnoreCase("Z")) {
+			hasZ = true;
+		} else if (word.equalsIgnoreCase("M")) {
+			hasM = true;
+		} else if (word.equalsIgnoreCase("ZM")) {
+			hasZ = true;
+			hasM = true;
+		} else {
+			index = start;
+			int values = countFirstCoordinateValues();
+			hasZ = values >= 3;
+			hasM = values >= 4;
+		}
+
+		boolean empty = readEmpty();
+
+		Geometry geometry;
+
+		switch (geometryType) {
+
+		case POINT:
+			if (empty) {
+				geometry = new Point(hasZ, hasM, Double.NaN, Double.NaN);
+			} else {
+				expect('(');
+				geometry = readCoordinates(hasZ, hasM);
+				expect(')');
+			}
+			break;
+		case LINESTRING:
+			geometry = empty ? new LineString(hasZ, hasM) : readLineString(
+					new LineString(hasZ, hasM));
+			break;
+		case CIRCULARSTRING:
+			geometry = empty ? new CircularString(hasZ, hasM)
+					: readLineString(new CircularString(hasZ, hasM));
+			break;
+		case POLYGON:
+			geometry = empty ? new Polygon(hasZ, hasM)
+					: readPolygon(new Polygon(hasZ, hasM));
+			break;
+		case TRIANGLE:
+			geometry = empty ? new Triangle(hasZ, hasM)
+					: readPolygon(new Triangle(hasZ, hasM));
+			break;
+		case MULTIPOINT:
+			MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					if (peek() == '(') {
+						next();
+						multiPoint.addPoint(readCoordinates(hasZ, hasM));
+						expect(')');
+					} else if (readEmpty()) {
+						multiPoint.addPoint(new Point(hasZ, hasM, Double.NaN,
+								Double.NaN));
+					} else {
+						multiPoint.addPoint(readCoordinates(hasZ, hasM));
+					}
+				} while (nextSeparator());
+			}
+			geometry = multiPoint;
+			break;
+		case MULTILINESTRING:
+			MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					LineString lineString = new LineString(hasZ, hasM);
+					if (!readEmpty()) {
+						readLineString(lineString);
+					}
+					multiLineString.addLineString(lineString);
+				} while (nextSeparator());
+			}
+			geometry = multiLineString;
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					multiPolygon.addPolygon(readPolygonOrEmpty(new Polygon(
+							hasZ, hasM)));
+				} while (nextSeparator());
+			}
+			geometry = multiPolygon;
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			boolean tin = geometryType == GeometryType.TIN;
+			PolyhedralSurface surface = tin ? new TIN(hasZ, hasM)
+					: new PolyhedralSurface(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					Polygon polygon = tin ? new Triangle(hasZ, hasM)
+							: new Polygon(hasZ, hasM);
+					surface.addPolygon(readPolygonOrEmpty(polygon));
+				} while (nextSeparator());
+			}
+			geometry = surface;
+			break;
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			GeometryCollection<Geometry> collection =
+					new GeometryCollection<Geometry>(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					if (geometryType == GeometryType.GEOMETRYCOLLECTION
+							|| isWord()) {
+						collection.addGeometry(readGeometry());
+					} else if (geometryType == GeometryType.MULTICURVE) {
+						collection.addGeometry(readLineString(new LineString(
+								hasZ, hasM)));
+					} else {
+						collection.addGeometry(readPolygon(new Polygon(hasZ,
+								hasM)));
+					}
+				} while (nextSeparator());
+			}
+			geometry = collection;
+			break;
+		case COMPOUNDCURVE:
+			CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					compoundCurve.addLineString((LineString) readCurve(hasZ,
+							hasM, false));
+				} while (nextSeparator());
+			}
+			geometry = compoundCurve;
+			break;
+		case CURVEPOLYGON:
+			CurvePolygon<Curve> curvePolygon = new CurvePolygon<Curve>(hasZ,
+					hasM);
+			if (!empty) {
+				expect('(');
+				do {
+					curvePolygon.addRing(readCurve(hasZ, hasM, true));
+				} while (nextSeparator());
+			}
+			geometry = curvePolygon;
+			break;
+		default:
+			throw error("Unexpected Geometry Type of " + geometryType.name()
+					+ " which is abstract");
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Read a compound curve or curve polygon component, an untagged line
+	 * string or a tagged curve
+	 * 
+	 * @param hasZ
+	 * @param hasM
+	 * @param allowCompound
+	 *            true to allow a compound curve
+	 * @return curve
+	 */
+	private Curve readCurve(boolean hasZ, boolean hasM, boolean allowCompound) {
+		Curve curve;
+		if (isWord()) {
+			Geometry geometry = readGeometry();
+			GeometryType type = geometry.getGeometryType();
+			if (type != GeometryType.LINESTRING
+					&& type != GeometryType.CIRCULARSTRING
+					&& (!allowCompound || type != GeometryType.COMPOUNDCURVE)) {
+				throw error("Unexpected curve type: " + type);
+			}
+			curve = (Curve) geometry;
+		} else {
+			curve = readLineString(new LineString(hasZ, hasM));
+		}
+		return curve;
+	}
+
+	/**
+	 * Read the line string points
+	 * 
+	 * @param lineString
+	 *            line string to add points to
+	 * @return line string
+	 */
+	private <T extends LineString> T readLineString(T lineString) {
+		expect('(');
+		do {
+			lineString.addPoint(readCoordinates(lineString.hasZ(),
+					lineString.hasM()));
+		} while (nextSeparator());
+		return lineString;
+	}
+
+	/**
+	 * Read the polygon rings
+	 * 
+	 * @param polygon
+	 *            polygon to add rings to
+	 * @return polygon
+	 */
+	private <T extends Polygon> T readPolygon(T polygon) {
+		expect('(');
+		do {
+			LineString ring = new LineString(polygon.hasZ(), polygon.hasM());
+			if (!readEmpty()) {
+				readLineString(ring);
+			}
+			polygon.addRing(ring);
+		} while (nextSeparator());
+		return polygon;
+	}
+
+	/**
+	 * Read the polygon rings, or an empty polygon
+	 * 
+	 * @param polygon
+	 *            polygon to add rings to
+	 * @return polygon
+	 */
+	private <T extends Polygon> T readPolygonOrEmpty(T polygon) {
+		if (!readEmpty()) {
+			readPolygon(polygon);
+		}
+		return polygon;
+	}
+
+	/**
+	 * Read the coordinate values of a point
+	 * 
+	 * @param hasZ
+	 * @param hasM
+	 * @return point
+	 */
+	private Point readCoordinates(boolean hasZ, boolean hasM) {
+		double x = readNumber();
+		double y = readNumber();
+		Point point = new Point(hasZ, hasM, x, y);
+		if (hasZ) {
+			point.setZValue(readNumber());
+		}
+		if (hasM) {
+			point.setMValue(readNumber());
+		}
+		return point;
+	}
+
+	/**
+	 * Count the number of values of the first coordinate following the
+	 * current position, without consuming them
+	 * 
+	 * @return number of values, 0 when empty
+	 */
+	private int countFirstCoordinateValues() {
+		int i = index;
+		int length = text.length();
+		while (i < length && !isNumberStart(text.charAt(i))) {
+			char c = text.charAt(i);
+			if (Character.isLetter(c) || c == ')') {
+				return 0;
+			}
+			i++;
+		}
+		int values = 0;
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c == ',' || c == ')') {
+				break;
+			}
+			if (isNumberStart(c)) {
+				values++;
+				while (i < length && !Character.isWhitespace(text.charAt(i))
+						&& text.charAt(i) != ',' && text.charAt(i) != ')') {
+					i++;
+				}
+			} else {
+				i++;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Read an EMPTY keyword if next
+	 * 
+	 * @return true if EMPTY was read
+	 */
+	private boolean readEmpty() {
+		boolean empty = false;
+		if (isWord()) {
+			int start = index;
+			if (readWord().equalsIgnoreCase("EMPTY")) {
+				empty = true;
+			} else {
+				index = start;
+			}
+		}
+		return empty;
+	}
+
+	/**
+	 * Read a comma or closing parenthesis
+	 * 
+	 * @return true if a comma was read and another value follows
+	 */
+	private boolean nextSeparator() {
+		int c = next();
+		if (c == ',') {
+			return true;
+		}
+		if (c != ')') {
+			throw error("Expected ',' or ')'");
+		}
+		return false;
+	}
+
+	/**
+	 * Read the expected character
+	 * 
+	 * @param expected
+	 *            expected character
+	 */
+	private void expect(char expected) {
+		if (next() != expected) {
+			index = Math.max(0, index - 1);
+			throw error("Expected '" + expected + "'");
+		}
+	}
+
+	/**
+	 * Determine if a word is next
+	 * 
+	 * @return true if a word is next
+	 */
+	private boolean isWord() {
+		int c = peek();
+		return c != -1 && Character.isLetter(c);
+	}
+
+	/**
+	 * Read a word of letters
+	 * 
+	 * @return word
+	 */
+	private String readWord() {
+		peek();
+		int start = index;
+		int length = text.length();
+		while (index < length && Character.isLetter(text.charAt(index))) {
+			index++;
+		}
+		if (start == index) {
+			throw error("Expected a word");
+		}
+		return text.subSequence(start, index).toString();
+	}
+
+	/**
+	 * Read a number
+	 * 
+	 * @return number
+	 */
+	private double readNumber() {
+		peek();
+		int start = index;
+		int length = text.length();
+		while (index < length) {
+			char c = text.charAt(index);
+			if (Character.isWhitespace(c) || c == ',' || c == ')'
+					|| c == '(') {
+				break;
+			}
+			index++;
+		}
+		if (start == index) {
+			throw error("Expected a number");
+		}
+		double value = parseDecimal(start, index);
+		if (Double.isNaN(value)) {
+			try {
+				value = Double.parseDouble(text.subSequence(start, index)
+						.toString());
+			} catch (NumberFormatException e) {
+				index = start;
+				throw error("Invalid number");
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Parse a plain decimal number of up to 15 significant digits exactly
+	 * from a long and a power of 10, without creating a string
+	 * 
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 * @return number, or NaN when not a plain decimal number of up to 15
+	 *         significant digits
+	 */
+	private double parseDecimal(int start, int end) {
+		int i = start;
+		boolean negative = false;
+		char c = text.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean fraction = false;
+		boolean anyDigits = false;
+		for (; i < end; i++) {
+			c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				anyDigits = true;
+				if (mantissa != 0 || c != '0') {
+					if (++digits > MAX_FAST_DIGITS) {
+						return Double.NaN;
+					}
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (fraction) {
+					fractionDigits++;
+				}
+			} else if (c == '.' && !fraction) {
+				fraction = true;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (!anyDigits || fractionDigits >= POWERS_OF_10.length) {
+			return Double.NaN;
+		}
+		double value = mantissa / POWERS_OF_10[fractionDigits];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Determine if the character starts a number
+	 * 
+	 * @param c
+	 *            character
+	 * @return true if a number start
+	 */
+	private static boolean isNumberStart(char c) {
+		return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+	}
+
+	/**
+	 * Peek the next non whitespace character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int peek() {
+		int length = text.length();
+		while (index < length && Character.isWhitespace(text.charAt(index))) {
+			index++;
+		}
+		return index < length ? text.charAt(index) : -1;
+	}
+
+	/**
+	 * Read the next non whitespace character
+	 * 
+	 * @return character, or -1 at the end
+	 */
+	private int next() {
+		int c = peek();
+		if (c != -1) {
+			index++;
+		}
+		return c;
+	}
+
+	/**
+	 * Create a parse error at the current position
+	 * 
+	 * @param message
+	 *            error message
+	 * @return exception
+	 */
+	private WkbException error(String message) {
+		return new WkbException(message + " at WKT index " + index);
+	}
+
+}
@@ -0,0 +1,397 @@
+package mil.nga.wkb.io;
+
+import java.io.IOException;
+import java.util.List;
+
+import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.Curve;
+import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiLineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.PolyhedralSurface;
+import mil.nga.wkb.util.WkbException;
+
+/**
+ * Well-Known Text (ISO WKT) writer. Geometries of every type are written
+ * directly to an {@link Appendable} with Z, M and ZM dimension tags.
+ * Coordinates are written with the shortest digits that read back to the
+ * same double, integral values without a fraction, negative zero as -0 and
+ * exponents only for magnitudes below 1e-7 or from 1e21. Points with NaN x
+ * and y values are written as empty, other NaN or infinite x and y values
+ * are rejected and NaN z and m values are written as 0.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class WktGeometryWriter {
+
+	/**
+	 * Write the geometry as a WKT string
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return WKT
+	 */
+	public static String writeGeometry(Geometry geometry) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			writeGeometry(builder, geometry);
+		} catch (IOException e) {
+			throw new WkbException("Failed to write WKT geometry", e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Write the geometry as WKT to the appendable
+	 * 
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 */
+	public static void writeGeometry(Appendable appendable, Geometry geometry)
+			throws IOException {
+		writeGeometry(appendable, new DoubleFormatter(), geometry);
+	}
+
+	/**
+	 * Write the geometry as WKT to the appendable
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param geometry
+	 * @throws IOException
+	 */
+	private static void writeGeometry(Appendable appendable,
+			DoubleFormatter formatter, Geometry geometry) throws IOException {
+		appendable.append(geometry.getGeometryType().getName());
+		writeDimensions(appendable, geometry.hasZ(), geometry.hasM());
+		appendable.append(' ');
+		writeBody(appendable, formatter, geometry);
+	}
+
+	/**
+	 * Write the dimension tag
+	 * 
+	 * @param appendable
+	 * @param hasZ
+	 * @param hasM
+	 * @throws IOException
+	 */
+	static void writeDimensions(Appendable appendable, boolean hasZ,
+			boolean hasM) throws IOException {
+		if (hasZ && hasM) {
+			appendable.append(" ZM");
+		} else if (hasZ) {
+			appendable.append(" Z");
+		} else if (hasM) {
+			appendable.append(" M");
+		}
+	}
+
+	/**
+	 * Write the geometry text following the type, EMPTY for empty
+	 * geometries
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param geometry
+	 * @throws IOException
+	 */
+	private static void writeBody(Appendable appendable,
+			DoubleFormatter formatter, Geometry geometry) throws IOException {
+
+		if (isEmpty(geometry)) {
+			appendable.append("EMPTY");
+			return;
+		}
+
+		GeometryType geometryType = geometry.getGeometryType();
+
+		switch (geometryType) {
+
+		case POINT:
+			appendable.append('(');
+			writeCoordinates(appendable, formatter, (Point) geometry);
+			appendable.append(')');
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			writeLineString(appendable, formatter, (LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			writePolygon(appendable, formatter, (Polygon) geometry);
+			break;
+		case MULTIPOINT:
+			appendable.append('(');
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				writeBody(appendable, formatter,
+						PointView.getPoint(points, i, view));
+			}
+			appendable.append(')');
+			break;
+		case MULTILINESTRING:
+			appendable.append('(');
+			List<LineString> lineStrings = ((MultiLineString) geometry)
+					.getLineStrings();
+			for (int i = 0; i < lineStrings.size(); i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				writeBody(appendable, formatter, lineStrings.get(i));
+			}
+			appendable.append(')');
+			break;
+		case MULTIPOLYGON:
+			writePolygons(appendable, formatter,
+					((MultiPolygon) geometry).getPolygons());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			writePolygons(appendable, formatter,
+					((PolyhedralSurface) geometry).getPolygons());
+			break;
+		case GEOMETRYCOLLECTION:
+			appendable.append('(');
+			List<? extends Geometry> geometries =
+					((GeometryCollection<?>) geometry).getGeometries();
+			for (int i = 0; i < geometries.size(); i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				writeGeometry(appendable, formatter, geometries.get(i));
+			}
+			appendable.append(')');
+			break;
+		case COMPOUNDCURVE:
+			appendable.append('(');
+			List<LineString> curves = ((CompoundCurve) geometry)
+					.getLineStrings();
+			for (int i = 0; i < curves.size(); i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				writeCurve(appendable, formatter, curves.get(i));
+			}
+			appendable.append(')');
+			break;
+		case CURVEPOLYGON:
+			appendable.append('(');
+			List<?> rings = ((CurvePolygon<?>) geometry).getRings();
+			for (int i = 0; i < rings.size(); i++) {
+				if (i > 0) {
+					appendable.append(", ");
+				}
+				writeCurve(appendable, formatter, (Curve) rings.get(i));
+			}
+			appendable.append(')');
+			break;
+		default:
+			throw new WkbException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+	}
+
+	/**
+	 * Write a compound curve or curve polygon component, with the type for
+	 * curves other than line strings
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param curve
+	 * @throws IOException
+	 */
+	private static void writeCurve(Appendable appendable,
+			DoubleFormatter formatter, Curve curve) throws IOException {
+		if (curve.getGeometryType() == GeometryType.LINESTRING) {
+			writeBody(appendable, formatter, curve);
+		} else {
+			writeGeometry(appendable, formatter, curve);
+		}
+	}
+
+	/**
+	 * Write the line string points
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param lineString
+	 * @throws IOException
+	 */
+	private static void writeLineString(Appendable appendable,
+			DoubleFormatter formatter, LineString lineString)
+			throws IOException {
+		appendable.append('(');
+		List<Point> points = lineString.getPoints();
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			if (i > 0) {
+				appendable.append(", ");
+			}
+			writeCoordinates(appendable, formatter,
+					PointView.getPoint(points, i, view));
+		}
+		appendable.append(')');
+	}
+
+	/**
+	 * Write the polygon rings
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param polygon
+	 * @throws IOException
+	 */
+	private static void writePolygon(Appendable appendable,
+			DoubleFormatter formatter, Polygon polygon) throws IOException {
+		appendable.append('(');
+		List<LineString> rings = polygon.getRings();
+		for (int i = 0; i < rings.size(); i++) {
+			if (i > 0) {
+				appendable.append(", ");
+			}
+			writeBody(appendable, formatter, rings.get(i));
+		}
+		appendable.append(')');
+	}
+
+	/**
+	 * Write the polygons
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param polygons
+	 * @throws IOException
+	 */
+	private static void writePolygons(Appendable appendable,
+			DoubleFormatter formatter, List<? extends Polygon> polygons)
+			throws IOException {
+		appendable.append('(');
+		for (int i = 0; i < polygons.size(); i++) {
+			if (i > 0) {
+				appendable.append(", ");
+			}
+			writeBody(appendable, formatter, polygons.get(i));
+		}
+		appendable.append(')');
+	}
+
+	/**
+	 * Write the point coordinate values separated by spaces
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 * @param point
+	 * @throws IOException
+	 */
+	private static void writeCoordinates(Appendable appendable,
+			DoubleFormatter formatter, Point point) throws IOException {
+		writeNumber(appendable, formatter, point.getX());
+		appendable.append(' ');
+		writeNumber(appendable, formatter, point.getY());
+		if (point.hasZ()) {
+			appendable.append(' ');
+			writeOptionalNumber(appendable, formatter, point.getZValue());
+		}
+		if (point.hasM()) {
+			appendable.append(' ');
+			writeOptionalNumber(appendable, formatter, point.getMValue());
+		}
+	}
+
+	/**
+	 * Write a coordinate number
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param value
+	 *            coordinate value
+	 * @throws IOException
+	 * @throws WkbException
+	 *             when the value is NaN or infinite
+	 */
+	static void writeNumber(Appendable appendable, DoubleFormatter formatter,
+			double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new WkbException("WKT coordinates must be finite numbers: "
+					+ value);
+		}
+		formatter.write(appendable, value);
+	}
+
+	/**
+	 * Write a z or m coordinate number, NaN values as 0
+	 * 
+	 * @param appendable
+	 * @param formatter
+	 *            number formatter
+	 * @param value
+	 *            z or m value
+	 * @throws IOException
+	 */
+	static void writeOptionalNumber(Appendable appendable,
+			DoubleFormatter formatter, double value) throws IOException {
+		writeNumber(appendable, formatter, Double.isNaN(value) ? 0.0 : value);
+	}
+
+	/**
+	 * Determine if the geometry is written as EMPTY
+	 * 
+	 * @param geometry
+	 * @return true if empty
+	 */
+	static boolean isEmpty(Geometry geometry) {
+		boolean empty;
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			Point point = (Point) geometry;
+			empty = Double.isNaN(point.getX()) && Double.isNaN(point.getY());
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			empty = ((LineString) geometry).numPoints() == 0;
+			break;
+		case POLYGON:
+		case TRIANGLE:
+		case CURVEPOLYGON:
+			empty = ((CurvePolygon<?>) geometry).numRings() == 0;
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			empty = ((GeometryCollection<?>) geometry).numGeometries() == 0;
+			break;
+		case COMPOUNDCURVE:
+			empty = ((CompoundCurve) geometry).numLineStrings() == 0;
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			empty = ((PolyhedralSurface) geometry).numPolygons() == 0;
+			break;
+		default:
+			empty = false;
+		}
+		return empty;
+	}
+
+}
@@ -0,0 +1,554 @@
+package mil.nga.wkb.util;
+
+import mil.nga.wkb.geom.GeometryBatch;
+import mil.nga.wkb.geom.GeometryEnvelope;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.Point;
+
+/**
+ * Kernels over whole {@link GeometryBatch} columns. Each kernel loops over
+ * the primitive offset and coordinate arrays without creating geometry
+ * objects or dispatching per geometry, with results matching the object
+ * based {@link GeometryUtils} and {@link GeometryEnvelopeBuilder}
+ * calculations.
+ * 
+ * @author osbornb
+ * @since 1.0.7
+ */
+public class GeometryBatchUtils {
+
+	/**
+	 * Get the dimension of a batch geometry type, 0 for points, 1 for curves,
+	 * 2 for surfaces
+	 * 
+	 * @param geometryType
+	 *            geometry type
+	 * @return dimension (0, 1, or 2)
+	 */
+	public static int getDimension(GeometryType geometryType) {
+
+		int dimension;
+
+		switch (geometryType) {
+		case POINT:
+		case MULTIPOINT:
+			dimension = 0;
+			break;
+		case LINESTRING:
+		case MULTILINESTRING:
+		case CIRCULARSTRING:
+			dimension = 1;
+			break;
+		case POLYGON:
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+		case TRIANGLE:
+			dimension = 2;
+			break;
+		default:
+			throw new WkbException("Unsupported Geometry Batch Type: "
+					+ geometryType);
+		}
+
+		return dimension;
+	}
+
+	/**
+	 * Build the x and y envelopes of all batch geometries. As in
+	 * {@link GeometryEnvelopeBuilder}, NaN coordinates such as of an empty
+	 * point are skipped. An empty geometry keeps the max value minimums and
+	 * negative max value maximums of
+	 * {@link GeometryEnvelopeBuilder#createEnvelope()}.
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @return min x, min y, max x and max y of each geometry
+	 */
+	public static double[] buildEnvelopes(GeometryBatch batch) {
+
+		int size = batch.size();
+		int[] geometryOffsets = batch.getGeometryOffsets();
+		int[] partOffsets = batch.getPartOffsets();
+		int[] ringOffsets = batch.getRingOffsets();
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+
+		double[] envelopes = new double[size * 4];
+
+		int start = ringOffsets[partOffsets[geometryOffsets[0]]];
+		for (int i = 0; i < size; i++) {
+			int end = ringOffsets[partOffsets[geometryOffsets[i + 1]]];
+			double minX = Double.MAX_VALUE;
+			double minY = Double.MAX_VALUE;
+			double maxX = -Double.MAX_VALUE;
+			double maxY = -Double.MAX_VALUE;
+			for (int c = start; c < end; c++) {
+				double pointX = x[c];
+				double pointY = y[c];
+				if (pointX < minX) {
+					minX = pointX;
+				}
+				if (pointX > maxX) {
+					maxX = pointX;
+				}
+				if (pointY < minY) {
+					minY = pointY;
+				}
+				if (pointY > maxY) {
+					maxY = pointY;
+				}
+			}
+			int offset = i * 4;
+			envelopes[offset] = minX;
+			envelopes[offset + 1] = minY;
+			envelopes[offset + 2] = maxX;
+			envelopes[offset + 3] = maxY;
+			start = end;
+		}
+
+		return envelopes;
+	}
+
+	/**
+	 * Build the envelope of a batch geometry, including z and m ranges. NaN
+	 * coordinates are skipped as in {@link #buildEnvelopes(GeometryBatch)}.
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param index
+	 *            geometry index
+	 * @return geometry envelope
+	 */
+	public static GeometryEnvelope buildEnvelope(GeometryBatch batch,
+			int index) {
+
+		GeometryEnvelope envelope = GeometryEnvelopeBuilder.createEnvelope();
+		envelope.setHasZ(batch.hasZ());
+		envelope.setHasM(batch.hasM());
+
+		int start = batch.getCoordinateStart(index);
+		int end = batch.getCoordinateEnd(index);
+
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+		double minX = envelope.getMinX();
+		double minY = envelope.getMinY();
+		double maxX = envelope.getMaxX();
+		double maxY = envelope.getMaxY();
+		for (int c = start; c < end; c++) {
+			double pointX = x[c];
+			double pointY = y[c];
+			if (pointX < minX) {
+				minX = pointX;
+			}
+			if (pointX > maxX) {
+				maxX = pointX;
+			}
+			if (pointY < minY) {
+				minY = pointY;
+			}
+			if (pointY > maxY) {
+				maxY = pointY;
+			}
+		}
+		envelope.setMinX(minX);
+		envelope.setMinY(minY);
+		envelope.setMaxX(maxX);
+		envelope.setMaxY(maxY);
+
+		if (batch.hasZ()) {
+			double[] range = range(batch.getZ(), start, end);
+			if (range != null) {
+				envelope.setMinZ(range[0]);
+				envelope.setMaxZ(range[1]);
+			}
+		}
+		if (batch.hasM()) {
+			double[] range = range(batch.getM(), start, end);
+			if (range != null) {
+				envelope.setMinM(range[0]);
+				envelope.setMaxM(range[1]);
+			}
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Get the range of the non NaN values
+	 * 
+	 * @param values
+	 *            values
+	 * @param start
+	 *            first value index
+	 * @param end
+	 *            value index following the last value
+	 * @return min and max, null when all values are NaN
+	 */
+	private static double[] range(double[] values, int start, int end) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		boolean found = false;
+		for (int c = start; c < end; c++) {
+			double value = values[c];
+			if (!Double.isNaN(value)) {
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+				found = true;
+			}
+		}
+		return found ? new double[] { min, max } : null;
+	}
+
+	/**
+	 * Get the centroids of all batch geometries, calculated by the geometry
+	 * dimension as in {@link GeometryUtils#getCentroid}
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @return x and y of each centroid
+	 */
+	public static double[] getCentroids(GeometryBatch batch) {
+		double[] centroids = new double[batch.size() * 2];
+		for (int i = 0; i < batch.size(); i++) {
+			getCentroid(batch, i, centroids, i * 2);
+		}
+		return centroids;
+	}
+
+	/**
+	 * Get the centroid of a batch geometry, calculated by the geometry
+	 * dimension as in {@link GeometryUtils#getCentroid}
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param index
+	 *            geometry index
+	 * @return centroid point
+	 */
+	public static Point getCentroid(GeometryBatch batch, int index) {
+		double[] centroid = new double[2];
+		getCentroid(batch, index, centroid, 0);
+		return new Point(centroid[0], centroid[1]);
+	}
+
+	/**
+	 * Calculate the centroid of a batch geometry into the array
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param index
+	 *            geometry index
+	 * @param centroid
+	 *            centroid array
+	 * @param offset
+	 *            centroid x index
+	 */
+	private static void getCentroid(GeometryBatch batch, int index,
+			double[] centroid, int offset) {
+
+		int[] geometryOffsets = batch.getGeometryOffsets();
+		int[] partOffsets = batch.getPartOffsets();
+		int[] ringOffsets = batch.getRingOffsets();
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+
+		int ringStart = partOffsets[geometryOffsets[index]];
+		int ringEnd = partOffsets[geometryOffsets[index + 1]];
+		int start = ringOffsets[ringStart];
+		int end = ringOffsets[ringEnd];
+
+		double sumX = 0;
+		double sumY = 0;
+		double total = 0;
+
+		switch (getDimension(batch.getGeometryType(index))) {
+		case 0:
+			for (int c = start; c < end; c++) {
+				sumX += x[c];
+				sumY += y[c];
+			}
+			total = end - start;
+			break;
+		case 1:
+			for (int ring = ringStart; ring < ringEnd; ring++) {
+				int last = ringOffsets[ring + 1] - 1;
+				for (int c = ringOffsets[ring]; c < last; c++) {
+					double diffX = x[c + 1] - x[c];
+					double diffY = y[c + 1] - y[c];
+					double length = Math.sqrt(diffX * diffX + diffY * diffY);
+					total += length;
+					sumX += length * ((x[c] + x[c + 1]) / 2);
+					sumY += length * ((y[c] + y[c + 1]) / 2);
+				}
+			}
+			break;
+		case 2:
+			double baseX = end > start ? x[start] : 0;
+			double baseY = end > start ? y[start] : 0;
+			int part = geometryOffsets[index];
+			for (int ring = ringStart; ring < ringEnd; ring++) {
+				while (ring == partOffsets[part + 1]) {
+					part++;
+				}
+				double sign = ring == partOffsets[part] ? 1.0 : -1.0;
+				int first = ringOffsets[ring];
+				int last = ringOffsets[ring + 1] - 1;
+				for (int c = first; c < last; c++) {
+					double area2 = area2(baseX, baseY, x[c], y[c], x[c + 1],
+							y[c + 1]);
+					sumX += sign * area2 * (baseX + x[c] + x[c + 1]);
+					sumY += sign * area2 * (baseY + y[c] + y[c + 1]);
+					total += sign * area2;
+				}
+				if (last > first
+						&& (x[first] != x[last] || y[first] != y[last])) {
+					double area2 = area2(baseX, baseY, x[last], y[last],
+							x[first], y[first]);
+					sumX += sign * area2 * (baseX + x[last] + x[first]);
+					sumY += sign * area2 * (baseY + y[last] + y[first]);
+					total += sign * area2;
+				}
+			}
+			sumX /= 3;
+			sumY /= 3;
+			break;
+		}
+
+		centroid[offset] = sumX / total;
+		centroid[offset + 1] = sumY / total;
+	}
+
+	/**
+	 * Calculate twice the area of the coordinate triangle
+	 * 
+	 * @param x1
+	 *            x 1
+	 * @param y1
+	 *            y 1
+	 * @param x2
+	 *            x 2
+	 * @param y2
+	 *            y 2
+	 * @param x3
+	 *            x 3
+	 * @param y3
+	 *            y 3
+	 * @return 2 times triangle area
+	 */
+	private static double area2(double x1, double y1, double x2, double y2,
+			double x3, double y3) {
+		return (x2 - x1) * (y3 - y1) - (x3 - x1) * (y2 - y1);
+	}
+
+	/**
+	 * Check which batch geometries contain the point, using the
+	 * {@link GeometryUtils#DEFAULT_EPSILON}
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param x
+	 *            point x
+	 * @param y
+	 *            point y
+	 * @return true for each geometry containing the point
+	 */
+	public static boolean[] pointInPolygons(GeometryBatch batch, double x,
+			double y) {
+		return pointInPolygons(batch, x, y, GeometryUtils.DEFAULT_EPSILON);
+	}
+
+	/**
+	 * Check which batch geometries contain the point. A Polygon, Triangle or
+	 * Multi Polygon contains the point when any of its polygons do, as
+	 * checked by {@link GeometryUtils#pointInPolygon}. Other geometry types
+	 * never contain the point.
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param x
+	 *            point x
+	 * @param y
+	 *            point y
+	 * @param epsilon
+	 *            epsilon line tolerance
+	 * @return true for each geometry containing the point
+	 */
+	public static boolean[] pointInPolygons(GeometryBatch batch, double x,
+			double y, double epsilon) {
+
+		int[] geometryOffsets = batch.getGeometryOffsets();
+		int[] partOffsets = batch.getPartOffsets();
+
+		boolean[] contains = new boolean[batch.size()];
+
+		for (int i = 0; i < contains.length; i++) {
+			switch (batch.getGeometryType(i)) {
+			case POLYGON:
+			case TRIANGLE:
+			case MULTIPOLYGON:
+				for (int part = geometryOffsets[i]; !contains[i]
+						&& part < geometryOffsets[i + 1]; part++) {
+					int ring = partOffsets[part];
+					int ringEnd = partOffsets[part + 1];
+					boolean inPart = ring < ringEnd
+							&& pointInRing(batch, ring, x, y, epsilon);
+					for (ring++; inPart && ring < ringEnd; ring++) {
+						inPart = !pointInRing(batch, ring, x, y, epsilon);
+					}
+					contains[i] = inPart;
+				}
+				break;
+			default:
+			}
+		}
+
+		return contains;
+	}
+
+	/**
+	 * Check if the point is in the batch ring, as checked by
+	 * {@link GeometryUtils#pointInPolygon}
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param ring
+	 *            ring index
+	 * @param px
+	 *            point x
+	 * @param py
+	 *            point y
+	 * @param epsilon
+	 *            epsilon line tolerance
+	 * @return true if in the ring
+	 */
+	private static boolean pointInRing(GeometryBatch batch, int ring,
+			double px, double py, double epsilon) {
+
+		int[] ringOffsets = batch.getRingOffsets();
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+
+		int start = ringOffsets[ring];
+		int end = ringOffsets[ring + 1];
+		boolean closed = end > start && x[start] == x[end - 1]
+				&& y[start] == y[end - 1];
+
+		boolean contains = false;
+
+		int i = start;
+		int j = end - 1;
+		if (closed) {
+			j = i++;
+		}
+
+		for (; i < end; j = i++) {
+
+			// Shortcut check if polygon contains the point within tolerance
+			if (Math.abs(x[i] - px) <= epsilon
+					&& Math.abs(y[i] - py) <= epsilon) {
+				contains = true;
+				break;
+			}
+
+			if (((y[i] > py) != (y[j] > py))
+					&& (px < (x[j] - x[i]) * (py - y[i]) / (y[j] - y[i])
+							+ x[i])) {
+				contains = !contains;
+			}
+		}
+
+		if (!contains) {
+			// Check the polygon edges
+			i = start;
+			j = end - 1;
+			if (closed) {
+				j = i++;
+			}
+			for (; !contains && i < end; j = i++) {
+				contains = pointOnPath(px, py, x[i], y[i], x[j], y[j],
+						GeometryUtils.DEFAULT_EPSILON);
+			}
+		}
+
+		return contains;
+	}
+
+	/**
+	 * Check if the point is on the path between point 1 and point 2, as
+	 * checked by {@link GeometryUtils#pointOnPath(Point, Point, Point, double)}
+	 * 
+	 * @param px
+	 *            point x
+	 * @param py
+	 *            point y
+	 * @param x1
+	 *            path point 1 x
+	 * @param y1
+	 *            path point 1 y
+	 * @param x2
+	 *            path point 2 x
+	 * @param y2
+	 *            path point 2 y
+	 * @param epsilon
+	 *            epsilon line tolerance
+	 * @return true if on the path
+	 */
+	private static boolean pointOnPath(double px, double py, double x1,
+			double y1, double x2, double y2, double epsilon) {
+
+		boolean contains = false;
+
+		double x21 = x2 - x1;
+		double y21 = y2 - y1;
+		double xP1 = px - x1;
+		double yP1 = py - y1;
+
+		double dp = xP1 * x21 + yP1 * y21;
+		if (dp >= 0.0) {
+
+			double lengthP1 = xP1 * xP1 + yP1 * yP1;
+			double length21 = x21 * x21 + y21 * y21;
+
+			if (lengthP1 <= length21) {
+				contains = Math.abs(dp * dp - lengthP1 * length21) <= epsilon;
+			}
+		}
+
+		return contains;
+	}
+
+	/**
+	 * Apply an affine transformation to the x and y coordinates of all batch
+	 * geometries in place: x' = a * x + b * y + c, y' = d * x + e * y + f
+	 * 
+	 * @param batch
+	 *            geometry batch
+	 * @param a
+	 *            x scale
+	 * @param b
+	 *            x shear
+	 * @param c
+	 *            x offset
+	 * @param d
+	 *            y shear
+	 * @param e
+	 *            y scale
+	 * @param f
+	 *            y offset
+	 */
+	public static void transform(GeometryBatch batch, double a, double b,
+			double c, double d, double e, double f) {
+		double[] x = batch.getX();
+		double[] y = batch.getY();
+		int numCoordinates = batch.numCoordinates();
+		for (int i = 0; i < numCoordinates; i++) {
+			double xi = x[i];
+			double yi = y[i];
+			x[i] = a * xi + b * yi + c;
+			y[i] = d * xi + e * yi + f;
+		}
+	}
+
+}
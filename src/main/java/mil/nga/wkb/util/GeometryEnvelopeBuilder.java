@@ -6,6 +6,7 @@ import mil.nga.wkb.geom.CircularString;
 import mil.nga.wkb.geom.CompoundCurve;
 import mil.nga.wkb.geom.Curve;
 import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.DerivedValue;
 import mil.nga.wkb.geom.Geometry;
 import mil.nga.wkb.geom.GeometryCollection;
 import mil.nga.wkb.geom.GeometryEnvelope;
@@ -15,6 +16,7 @@ import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.geom.Polygon;
 import mil.nga.wkb.geom.PolyhedralSurface;
 import mil.nga.wkb.geom.TIN;
@@ -28,7 +30,25 @@ import mil.nga.wkb.geom.Triangle;
 public class GeometryEnvelopeBuilder {
 
 	/**
-	 * Build Geometry Envelope
+	 * Envelope derived value, cached on frozen geometries
+	 */
+	private static final DerivedValue<GeometryEnvelope> ENVELOPE = new DerivedValue<GeometryEnvelope>() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public GeometryEnvelope compute(Geometry geometry) {
+			GeometryEnvelope envelope = createEnvelope();
+			buildEnvelope(geometry, envelope);
+			return envelope;
+		}
+
+	};
+
+	/**
+	 * Build Geometry Envelope. The envelope of a frozen geometry is built
+	 * once and cached on the geometry.
 	 * 
 	 * @param geometry
 	 *            geometry to build envelope from
@@ -36,6 +56,24 @@ public class GeometryEnvelopeBuilder {
 	 */
 	public static GeometryEnvelope buildEnvelope(Geometry geometry) {
 
+		GeometryEnvelope envelope = geometry.getDerivedValue(ENVELOPE);
+
+		// Copy the envelope cached on a frozen geometry
+		if (geometry.isFrozen()) {
+			envelope = envelope.copy();
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Create an empty Geometry Envelope ready to be expanded
+	 * 
+	 * @return geometry envelope
+	 * @since 1.0.7
+	 */
+	public static GeometryEnvelope createEnvelope() {
+
 		GeometryEnvelope envelope = new GeometryEnvelope();
 
 		envelope.setMinX(Double.MAX_VALUE);
@@ -43,8 +81,6 @@ public class GeometryEnvelopeBuilder {
 		envelope.setMinY(Double.MAX_VALUE);
 		envelope.setMaxY(-Double.MAX_VALUE);
 
-		buildEnvelope(geometry, envelope);
-
 		return envelope;
 	}
 
@@ -120,8 +156,9 @@ public class GeometryEnvelopeBuilder {
 	 *            geometry envelope
 	 * @param geometry
 	 *            geometry
+	 * @since 1.0.7
 	 */
-	private static void updateHasZandM(GeometryEnvelope envelope,
+	public static void updateHasZandM(GeometryEnvelope envelope,
 			Geometry geometry) {
 		if (!envelope.hasZ() && geometry.hasZ()) {
 			envelope.setHasZ(true);
@@ -138,8 +175,9 @@ public class GeometryEnvelopeBuilder {
 	 *            geometry envelope
 	 * @param point
 	 *            point
+	 * @since 1.0.7
 	 */
-	private static void addPoint(GeometryEnvelope envelope, Point point) {
+	public static void addPoint(GeometryEnvelope envelope, Point point) {
 
 		updateHasZandM(envelope, point);
 
@@ -158,8 +196,8 @@ public class GeometryEnvelopeBuilder {
 			envelope.setMaxY(y);
 		}
 		if (point.hasZ()) {
-			Double z = point.getZ();
-			if (z != null) {
+			double z = point.getZValue();
+			if (!Double.isNaN(z)) {
 				if (envelope.getMinZ() == null || z < envelope.getMinZ()) {
 					envelope.setMinZ(z);
 				}
@@ -169,8 +207,8 @@ public class GeometryEnvelopeBuilder {
 			}
 		}
 		if (point.hasM()) {
-			Double m = point.getM();
-			if (m != null) {
+			double m = point.getMValue();
+			if (!Double.isNaN(m)) {
 				if (envelope.getMinM() == null || m < envelope.getMinM()) {
 					envelope.setMinM(m);
 				}
@@ -194,10 +232,7 @@ public class GeometryEnvelopeBuilder {
 
 		updateHasZandM(envelope, multiPoint);
 
-		List<Point> points = multiPoint.getPoints();
-		for (Point point : points) {
-			addPoint(envelope, point);
-		}
+		addPoints(envelope, multiPoint.getPoints());
 	}
 
 	/**
@@ -213,8 +248,23 @@ public class GeometryEnvelopeBuilder {
 
 		updateHasZandM(envelope, lineString);
 
-		for (Point point : lineString.getPoints()) {
-			addPoint(envelope, point);
+		addPoints(envelope, lineString.getPoints());
+	}
+
+	/**
+	 * Add the points, through a point view of packed coordinates
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @param points
+	 *            points
+	 */
+	private static void addPoints(GeometryEnvelope envelope,
+			List<Point> points) {
+
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			addPoint(envelope, PointView.getPoint(points, i, view));
 		}
 	}
 
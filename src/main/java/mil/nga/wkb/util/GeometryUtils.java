@@ -5,8 +5,11 @@ import java.util.List;
 
 import mil.nga.wkb.geom.CircularString;
 import mil.nga.wkb.geom.CompoundCurve;
+import mil.nga.wkb.geom.CoordinateSequenceFactory;
 import mil.nga.wkb.geom.Curve;
 import mil.nga.wkb.geom.CurvePolygon;
+import mil.nga.wkb.geom.DerivedValue;
+import mil.nga.wkb.geom.DoubleCoordinateSequence;
 import mil.nga.wkb.geom.Geometry;
 import mil.nga.wkb.geom.GeometryCollection;
 import mil.nga.wkb.geom.GeometryType;
@@ -15,6 +18,7 @@ import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.geom.Polygon;
 import mil.nga.wkb.geom.PolyhedralSurface;
 import mil.nga.wkb.geom.TIN;
@@ -38,9 +42,47 @@ public class GeometryUtils {
 	 */
 	public static final double DEFAULT_EPSILON = 0.000000000000001;
 
+	/**
+	 * Collection dimension derived value, cached on frozen collections
+	 */
+	private static final DerivedValue<Integer> COLLECTION_DIMENSION = new DerivedValue<Integer>() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Integer compute(Geometry geometry) {
+			int dimension = -1;
+			@SuppressWarnings("unchecked")
+			GeometryCollection<Geometry> geomCollection = (GeometryCollection<Geometry>) geometry;
+			List<Geometry> geometries = geomCollection.getGeometries();
+			for (Geometry subGeometry : geometries) {
+				dimension = Math.max(dimension, getDimension(subGeometry));
+			}
+			return dimension;
+		}
+
+	};
+
+	/**
+	 * Centroid derived value, cached on frozen geometries
+	 */
+	private static final DerivedValue<Point> CENTROID = new DerivedValue<Point>() {
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Point compute(Geometry geometry) {
+			return computeCentroid(geometry);
+		}
+
+	};
+
 	/**
 	 * Get the dimension of the Geometry, 0 for points, 1 for curves, 2 for
-	 * surfaces. If a collection, the largest dimension is returned.
+	 * surfaces. If a collection, the largest dimension is returned. The
+	 * dimension of a frozen collection is cached on the collection.
 	 * 
 	 * @param geometry
 	 *            geometry object
@@ -71,12 +113,7 @@ public class GeometryUtils {
 			dimension = 2;
 			break;
 		case GEOMETRYCOLLECTION:
-			@SuppressWarnings("unchecked")
-			GeometryCollection<Geometry> geomCollection = (GeometryCollection<Geometry>) geometry;
-			List<Geometry> geometries = geomCollection.getGeometries();
-			for (Geometry subGeometry : geometries) {
-				dimension = Math.max(dimension, getDimension(subGeometry));
-			}
+			dimension = geometry.getDerivedValue(COLLECTION_DIMENSION);
 			break;
 		default:
 			throw new WkbException("Unsupported Geometry Type: " + geometryType);
@@ -104,13 +141,32 @@ public class GeometryUtils {
 	}
 
 	/**
-	 * Get the centroid point of the Geometry
+	 * Get the centroid point of the Geometry. The centroid of a frozen
+	 * geometry is calculated once and cached on the geometry.
 	 * 
 	 * @param geometry
 	 *            geometry object
 	 * @return centroid point
 	 */
 	public static Point getCentroid(Geometry geometry) {
+		Point centroid = geometry.getDerivedValue(CENTROID);
+
+		// Copy the centroid cached on a frozen geometry
+		if (centroid != null && geometry.isFrozen()) {
+			centroid = (Point) centroid.copy();
+		}
+
+		return centroid;
+	}
+
+	/**
+	 * Calculate the centroid point of the Geometry
+	 * 
+	 * @param geometry
+	 *            geometry object
+	 * @return centroid point
+	 */
+	private static Point computeCentroid(Geometry geometry) {
 		Point centroid = null;
 		int dimension = getDimension(geometry);
 		switch (dimension) {
@@ -208,9 +264,11 @@ public class GeometryUtils {
 
 		List<Point> points = lineString.getPoints();
 		if (points.size() > 1) {
-			Point point = points.get(0);
+			Point point = PointView.getPoint(points, 0,
+					PointView.createView(points));
+			PointView view = PointView.createView(points);
 			for (int i = 1; i < points.size(); i++) {
-				Point nextPoint = points.get(i);
+				Point nextPoint = PointView.getPoint(points, i, view);
 				if (point.getX() < nextPoint.getX()) {
 					if (nextPoint.getX() - point.getX() > point.getX()
 							- nextPoint.getX() + (maxX * 2.0)) {
@@ -418,10 +476,7 @@ public class GeometryUtils {
 	 */
 	private static void normalize(MultiPoint multiPoint, double maxX) {
 
-		List<Point> points = multiPoint.getPoints();
-		for (Point point : points) {
-			normalize(point, maxX);
-		}
+		normalize(multiPoint.getPoints(), maxX);
 	}
 
 	/**
@@ -434,8 +489,22 @@ public class GeometryUtils {
 	 */
 	private static void normalize(LineString lineString, double maxX) {
 
-		for (Point point : lineString.getPoints()) {
-			normalize(point, maxX);
+		normalize(lineString.getPoints(), maxX);
+	}
+
+	/**
+	 * Normalize the points, through a point view of packed coordinates
+	 * 
+	 * @param points
+	 *            points
+	 * @param maxX
+	 *            max positive x value in the geometry projection
+	 */
+	private static void normalize(List<Point> points, double maxX) {
+
+		PointView view = PointView.createView(points);
+		for (int i = 0; i < points.size(); i++) {
+			normalize(PointView.getPoint(points, i, view), maxX);
 		}
 	}
 
@@ -532,6 +601,73 @@ public class GeometryUtils {
 		}
 	}
 
+	/**
+	 * Pack the points of the geometry line strings, rings and multi points
+	 * into double coordinate sequences
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @since 1.0.7
+	 */
+	public static void packGeometry(Geometry geometry) {
+		packGeometry(geometry, DoubleCoordinateSequence.FACTORY);
+	}
+
+	/**
+	 * Pack the points of the geometry line strings, rings and multi points
+	 * into coordinate sequences created by the factory
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param factory
+	 *            coordinate sequence factory
+	 * @since 1.0.7
+	 */
+	public static void packGeometry(Geometry geometry,
+			CoordinateSequenceFactory factory) {
+
+		GeometryType geometryType = geometry.getGeometryType();
+		switch (geometryType) {
+		case LINESTRING:
+		case CIRCULARSTRING:
+			((LineString) geometry).pack(factory);
+			break;
+		case MULTIPOINT:
+			((MultiPoint) geometry).pack(factory);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+		case CURVEPOLYGON:
+			for (Curve ring : ((CurvePolygon<?>) geometry).getRings()) {
+				packGeometry(ring, factory);
+			}
+			break;
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			for (Geometry subGeometry : ((GeometryCollection<?>) geometry)
+					.getGeometries()) {
+				packGeometry(subGeometry, factory);
+			}
+			break;
+		case COMPOUNDCURVE:
+			for (LineString lineString : ((CompoundCurve) geometry)
+					.getLineStrings()) {
+				lineString.pack(factory);
+			}
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			for (Polygon polygon : ((PolyhedralSurface) geometry)
+					.getPolygons()) {
+				packGeometry(polygon, factory);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
 	/**
 	 * Simplify the ordered points (representing a line, polygon, etc) using the
 	 * Douglas Peucker algorithm to create a similar curve with fewer points.
@@ -772,9 +908,11 @@ public class GeometryUtils {
 			j = i++;
 		}
 
+		PointView view1 = PointView.createView(points);
+		PointView view2 = PointView.createView(points);
 		for (; i < points.size(); j = i++) {
-			Point point1 = points.get(i);
-			Point point2 = points.get(j);
+			Point point1 = PointView.getPoint(points, i, view1);
+			Point point2 = PointView.getPoint(points, j, view2);
 
 			// Shortcut check if polygon contains the point within tolerance
 			if (Math.abs(point1.getX() - point.getX()) <= epsilon
@@ -933,8 +1071,10 @@ public class GeometryUtils {
 	public static boolean closedPolygon(List<Point> points) {
 		boolean closed = false;
 		if (!points.isEmpty()) {
-			Point first = points.get(0);
-			Point last = points.get(points.size() - 1);
+			Point first = PointView.getPoint(points, 0,
+					PointView.createView(points));
+			Point last = PointView.getPoint(points, points.size() - 1,
+					PointView.createView(points));
 			closed = first.getX() == last.getX() && first.getY() == last.getY();
 		}
 		return closed;
@@ -1081,9 +1221,11 @@ public class GeometryUtils {
 			j = i++;
 		}
 
+		PointView view1 = PointView.createView(points);
+		PointView view2 = PointView.createView(points);
 		for (; i < points.size(); j = i++) {
-			Point point1 = points.get(i);
-			Point point2 = points.get(j);
+			Point point1 = PointView.getPoint(points, i, view1);
+			Point point2 = PointView.getPoint(points, j, view2);
 			if (pointOnPath(point, point1, point2, epsilon)) {
 				onPath = true;
 				break;
@@ -9,6 +9,7 @@ import mil.nga.wkb.geom.GeometryType;
 import mil.nga.wkb.geom.LineString;
 import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.util.GeometryUtils;
 import mil.nga.wkb.util.WkbException;
 
@@ -119,9 +120,11 @@ public class CentroidCurve {
 	 *            points
 	 */
 	private void add(List<Point> points) {
+		PointView view = PointView.createView(points);
+		PointView nextView = PointView.createView(points);
 		for (int i = 0; i < points.size() - 1; i++) {
-			Point point = points.get(i);
-			Point nextPoint = points.get(i + 1);
+			Point point = PointView.getPoint(points, i, view);
+			Point nextPoint = PointView.getPoint(points, i + 1, nextView);
 
 			double length = GeometryUtils.distance(point, nextPoint);
 			totalLength += length;
@@ -7,6 +7,7 @@ import mil.nga.wkb.geom.GeometryCollection;
 import mil.nga.wkb.geom.GeometryType;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.util.WkbException;
 
 /**
@@ -58,9 +59,10 @@ public class CentroidPoint {
 			add((Point) geometry);
 			break;
 		case MULTIPOINT:
-			MultiPoint multiPoint = (MultiPoint) geometry;
-			for (Point point : multiPoint.getPoints()) {
-				add(point);
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			PointView view = PointView.createView(points);
+			for (int i = 0; i < points.size(); i++) {
+				add(PointView.getPoint(points, i, view));
 			}
 			break;
 		case GEOMETRYCOLLECTION:
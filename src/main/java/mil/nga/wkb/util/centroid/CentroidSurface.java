@@ -11,6 +11,7 @@ import mil.nga.wkb.geom.GeometryType;
 import mil.nga.wkb.geom.LineString;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.geom.Polygon;
 import mil.nga.wkb.geom.PolyhedralSurface;
 import mil.nga.wkb.util.WkbException;
@@ -214,16 +215,20 @@ public class CentroidSurface {
 	 */
 	private void add(boolean positive, LineString lineString) {
 		List<Point> points = lineString.getPoints();
-		Point firstPoint = points.get(0);
+		PointView view = PointView.createView(points);
+		PointView nextView = PointView.createView(points);
+		Point firstPoint = PointView.getPoint(points, 0,
+				PointView.createView(points));
 		if (base == null) {
-			base = firstPoint;
+			base = view != null ? (Point) firstPoint.copy() : firstPoint;
 		}
 		for (int i = 0; i < points.size() - 1; i++) {
-			Point point = points.get(i);
-			Point nextPoint = points.get(i + 1);
+			Point point = PointView.getPoint(points, i, view);
+			Point nextPoint = PointView.getPoint(points, i + 1, nextView);
 			addTriangle(positive, base, point, nextPoint);
 		}
-		Point lastPoint = points.get(points.size() - 1);
+		Point lastPoint = PointView.getPoint(points, points.size() - 1,
+				view);
 		if (firstPoint.getX() != lastPoint.getX()
 				|| firstPoint.getY() != lastPoint.getY()) {
 			addTriangle(positive, base, lastPoint, firstPoint);
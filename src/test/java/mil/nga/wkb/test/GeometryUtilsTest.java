@@ -2,11 +2,15 @@ package mil.nga.wkb.test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
+import mil.nga.wkb.geom.DerivedValue;
+import mil.nga.wkb.geom.DoubleCoordinateSequence;
 import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryBatch;
 import mil.nga.wkb.geom.GeometryCollection;
 import mil.nga.wkb.geom.GeometryEnvelope;
 import mil.nga.wkb.geom.GeometryType;
@@ -15,7 +19,15 @@ import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.PointView;
 import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.GeoJsonGeometryWriter;
+import mil.nga.wkb.io.PolylineCodec;
+import mil.nga.wkb.io.TwkbGeometryWriter;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.io.WktGeometryWriter;
+import mil.nga.wkb.util.GeometryBatchUtils;
 import mil.nga.wkb.util.GeometryEnvelopeBuilder;
 import mil.nga.wkb.util.GeometryUtils;
 
@@ -537,4 +549,298 @@ public class GeometryUtilsTest {
 
 	}
 
+	/**
+	 * Test packed point views
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testPackedPointViews() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			// Packed geometries give the same centroid, envelope and results
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			Geometry packed = geometry.copy();
+			GeometryUtils.packGeometry(packed);
+			WKBTestUtils.comparePoint(GeometryUtils.getCentroid(geometry),
+					GeometryUtils.getCentroid(packed));
+			WKBTestUtils.compareEnvelopes(
+					GeometryEnvelopeBuilder.buildEnvelope(geometry),
+					GeometryEnvelopeBuilder.buildEnvelope(packed));
+
+			Polygon polygon = WKBTestUtils.createPolygon(false, false);
+			Polygon packedPolygon = (Polygon) polygon.copy();
+			GeometryUtils.packGeometry(packedPolygon);
+			Point point = WKBTestUtils.createPoint(false, false);
+			TestCase.assertEquals(
+					GeometryUtils.pointInPolygon(point, polygon),
+					GeometryUtils.pointInPolygon(point, packedPolygon));
+			LineString ring = polygon.getRings().get(0);
+			LineString packedRing = packedPolygon.getRings().get(0);
+			Point vertex = ring.getPoints().get(1);
+			TestCase.assertTrue(GeometryUtils.pointOnLine(vertex, packedRing));
+			TestCase.assertEquals(GeometryUtils.closedPolygon(ring),
+					GeometryUtils.closedPolygon(packedRing));
+		}
+
+		// Packed geometries are written the same through the views
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			Geometry packed = geometry.copy();
+			GeometryUtils.packGeometry(packed);
+			TestCase.assertEquals(WkbGeometryWriter.sizeOf(geometry),
+					WkbGeometryWriter.sizeOf(packed));
+			TestCase.assertTrue(Arrays.equals(writeEnvelopeBytes(geometry),
+					writeEnvelopeBytes(packed)));
+			TestCase.assertEquals(GeoJsonGeometryWriter.writeGeometry(geometry),
+					GeoJsonGeometryWriter.writeGeometry(packed));
+			TestCase.assertEquals(WktGeometryWriter.writeGeometry(geometry),
+					WktGeometryWriter.writeGeometry(packed));
+			TestCase.assertTrue(Arrays.equals(writeTwkbBytes(geometry),
+					writeTwkbBytes(packed)));
+			LineString lineString = WKBTestUtils.createLineString(false,
+					false);
+			LineString packedLineString = (LineString) lineString.copy();
+			GeometryUtils.packGeometry(packedLineString);
+			TestCase.assertEquals(PolylineCodec.encode(lineString),
+					PolylineCodec.encode(packedLineString));
+		}
+
+		// Views read and write the packed coordinates
+		DoubleCoordinateSequence coordinates = new DoubleCoordinateSequence(
+				true, false, new double[] { 1, 2, 3, 4, 5, 6 });
+		PointView view = new PointView(coordinates);
+		TestCase.assertEquals(3.0, view.getZ());
+		view.setIndex(1).setY(10);
+		TestCase.assertEquals(10.0, coordinates.getY(1));
+		TestCase.assertEquals(6.0, view.getZValue());
+		Point copy = (Point) view.copy();
+		view.setIndex(0);
+		TestCase.assertEquals(4.0, copy.getX());
+		TestCase.assertFalse(copy instanceof PointView);
+	}
+
+	/**
+	 * Test the envelope, centroid and dimension are cached on frozen
+	 * geometries only
+	 */
+	@Test
+	public void testCachedDerivedValues() {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			GeometryEnvelope envelope = GeometryEnvelopeBuilder
+					.buildEnvelope(geometry);
+			Point centroid = GeometryUtils.getCentroid(geometry);
+			TestCase.assertNotSame(envelope,
+					GeometryEnvelopeBuilder.buildEnvelope(geometry));
+
+			Geometry frozen = geometry.freeze();
+			GeometryEnvelope frozenEnvelope = GeometryEnvelopeBuilder
+					.buildEnvelope(frozen);
+			WKBTestUtils.compareEnvelopes(envelope, frozenEnvelope);
+			WKBTestUtils.comparePoint(centroid,
+					GeometryUtils.getCentroid(frozen));
+			TestCase.assertEquals(GeometryUtils.getDimension(geometry),
+					GeometryUtils.getDimension(frozen));
+
+			// Cached values are copies that can not change the cache
+			frozenEnvelope.setMinX(frozenEnvelope.getMinX() - 1);
+			GeometryUtils.getCentroid(frozen).setX(centroid.getX() + 1);
+			WKBTestUtils.compareEnvelopes(envelope,
+					GeometryEnvelopeBuilder.buildEnvelope(frozen));
+			WKBTestUtils.comparePoint(centroid,
+					GeometryUtils.getCentroid(frozen));
+			TestCase.assertNotSame(GeometryEnvelopeBuilder.buildEnvelope(frozen),
+					GeometryEnvelopeBuilder.buildEnvelope(frozen));
+		}
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(0, 0));
+		lineString.addPoint(new Point(2, 2));
+		TestCase.assertEquals(1.0, GeometryUtils.getCentroid(lineString)
+				.getX());
+		lineString.addPoint(new Point(4, 4));
+		TestCase.assertEquals(2.0, GeometryUtils.getCentroid(lineString)
+				.getX());
+		TestCase.assertEquals(4.0,
+				GeometryEnvelopeBuilder.buildEnvelope(lineString).getMaxX());
+
+		// Derived values are computed once per frozen geometry and key
+		final int[] computed = new int[1];
+		DerivedValue<Integer> numPoints = new DerivedValue<Integer>() {
+			@Override
+			public Integer compute(Geometry geometry) {
+				computed[0]++;
+				return ((LineString) geometry).numPoints();
+			}
+		};
+		TestCase.assertEquals(3, (int) lineString.getDerivedValue(numPoints));
+		TestCase.assertEquals(3, (int) lineString.getDerivedValue(numPoints));
+		TestCase.assertEquals(2, computed[0]);
+		Geometry frozen = lineString.freeze();
+		TestCase.assertEquals(3, (int) frozen.getDerivedValue(numPoints));
+		TestCase.assertEquals(3, (int) frozen.getDerivedValue(numPoints));
+		TestCase.assertEquals(3, computed[0]);
+		TestCase.assertEquals(4.0,
+				GeometryEnvelopeBuilder.buildEnvelope(frozen).getMaxX());
+	}
+
+	@Test
+	public void testGeometryBatchKernels() {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			List<Geometry> geometries = new ArrayList<>();
+			geometries.add(WKBTestUtils.createPoint(hasZ, hasM));
+			geometries.add(WKBTestUtils.createLineString(hasZ, hasM));
+			geometries.add(WKBTestUtils.createPolygon(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+			geometries.add(createPolygon());
+			int nonEmpty = geometries.size();
+			geometries.add(new Point(hasZ, hasM, Double.NaN, Double.NaN));
+			geometries.add(new LineString(hasZ, hasM));
+			geometries.add(new Polygon(hasZ, hasM));
+
+			GeometryBatch batch = new GeometryBatch(hasZ, hasM);
+			for (Geometry geometry : geometries) {
+				batch.add(geometry);
+			}
+
+			double[] envelopes = GeometryBatchUtils.buildEnvelopes(batch);
+			double[] centroids = GeometryBatchUtils.getCentroids(batch);
+			for (int j = 0; j < geometries.size(); j++) {
+				Geometry geometry = geometries.get(j);
+				GeometryEnvelope envelope = GeometryEnvelopeBuilder
+						.buildEnvelope(geometry);
+				TestCase.assertEquals(envelope.getMinX(), envelopes[j * 4]);
+				TestCase.assertEquals(envelope.getMinY(),
+						envelopes[j * 4 + 1]);
+				TestCase.assertEquals(envelope.getMaxX(),
+						envelopes[j * 4 + 2]);
+				TestCase.assertEquals(envelope.getMaxY(),
+						envelopes[j * 4 + 3]);
+				WKBTestUtils.compareEnvelopes(GeometryEnvelopeBuilder
+						.buildEnvelope(batch.getGeometry(j)),
+						GeometryBatchUtils.buildEnvelope(batch, j));
+
+				if (j < nonEmpty) {
+					Point centroid = GeometryUtils.getCentroid(geometry);
+					TestCase.assertEquals(centroid.getX(), centroids[j * 2]);
+					TestCase.assertEquals(centroid.getY(),
+							centroids[j * 2 + 1]);
+					WKBTestUtils.comparePoint(centroid,
+							GeometryBatchUtils.getCentroid(batch, j));
+				}
+			}
+
+			for (int j = 0; j < GEOMETRIES_PER_TEST; j++) {
+				Point point = createPoint(-10, -10, 80, 80);
+				boolean[] contains = GeometryBatchUtils.pointInPolygons(batch,
+						point.getX(), point.getY());
+				for (int k = 0; k < nonEmpty; k++) {
+					Geometry geometry = geometries.get(k);
+					boolean expected = false;
+					if (geometry instanceof Polygon) {
+						expected = GeometryUtils.pointInPolygon(point,
+								(Polygon) geometry);
+					} else if (geometry instanceof MultiPolygon) {
+						for (Polygon polygon : ((MultiPolygon) geometry)
+								.getPolygons()) {
+							expected = expected
+									|| GeometryUtils.pointInPolygon(point,
+											polygon);
+						}
+					}
+					TestCase.assertEquals(expected, contains[k]);
+				}
+			}
+
+			GeometryBatchUtils.transform(batch, 2, 0, 10, 0, 3, -5);
+			for (int j = 0; j < nonEmpty; j++) {
+				GeometryEnvelope envelope = GeometryEnvelopeBuilder
+						.buildEnvelope(geometries.get(j));
+				GeometryEnvelope transformed = GeometryEnvelopeBuilder
+						.buildEnvelope(batch.getGeometry(j));
+				TestCase.assertEquals(2 * envelope.getMinX() + 10,
+						transformed.getMinX());
+				TestCase.assertEquals(3 * envelope.getMaxY() - 5,
+						transformed.getMaxY());
+			}
+		}
+
+		// Square with a square hole, the hole and its edge excluded
+		Polygon polygon = new Polygon();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(10, 0));
+		ring.addPoint(new Point(10, 10));
+		ring.addPoint(new Point(0, 10));
+		polygon.addRing(ring);
+		LineString hole = new LineString();
+		hole.addPoint(new Point(4, 4));
+		hole.addPoint(new Point(6, 4));
+		hole.addPoint(new Point(6, 6));
+		hole.addPoint(new Point(4, 6));
+		polygon.addRing(hole);
+		GeometryBatch batch = new GeometryBatch(false, false);
+		batch.add(polygon);
+		TestCase.assertTrue(GeometryBatchUtils
+				.pointInPolygons(batch, 2, 2)[0]);
+		TestCase.assertTrue(GeometryBatchUtils
+				.pointInPolygons(batch, 10, 5)[0]);
+		TestCase.assertFalse(GeometryBatchUtils
+				.pointInPolygons(batch, 5, 5)[0]);
+		TestCase.assertFalse(GeometryBatchUtils
+				.pointInPolygons(batch, 4, 5)[0]);
+		TestCase.assertFalse(GeometryBatchUtils
+				.pointInPolygons(batch, 11, 5)[0]);
+		WKBTestUtils.comparePoint(GeometryUtils.getCentroid(polygon),
+				GeometryBatchUtils.getCentroid(batch, 0));
+	}
+
+	/**
+	 * Write the geometry as Well-Known Binary while building the envelope
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return bytes
+	 * @throws IOException
+	 */
+	private static byte[] writeEnvelopeBytes(Geometry geometry)
+			throws IOException {
+		ByteWriter writer = new ByteWriter();
+		WkbGeometryWriter.writeGeometryAndBuildEnvelope(writer, geometry);
+		byte[] bytes = writer.getBytes();
+		writer.close();
+		return bytes;
+	}
+
+	/**
+	 * Write the geometry as TWKB with a bounding box
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return bytes
+	 * @throws IOException
+	 */
+	private static byte[] writeTwkbBytes(Geometry geometry)
+			throws IOException {
+		ByteWriter writer = new ByteWriter();
+		TwkbGeometryWriter.writeGeometry(writer, geometry, 6, 3, 3, true,
+				true);
+		byte[] bytes = writer.getBytes();
+		writer.close();
+		return bytes;
+	}
+
 }
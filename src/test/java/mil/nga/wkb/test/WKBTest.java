@@ -6,12 +6,16 @@ import java.nio.ByteOrder;
 import junit.framework.TestCase;
 import mil.nga.wkb.geom.Geometry;
 import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.GeometryEnvelope;
 import mil.nga.wkb.geom.LineString;
 import mil.nga.wkb.geom.MultiLineString;
 import mil.nga.wkb.geom.MultiPoint;
 import mil.nga.wkb.geom.MultiPolygon;
 import mil.nga.wkb.geom.Point;
 import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.util.GeometryEnvelopeBuilder;
 
 import org.junit.Test;
 
@@ -134,6 +138,17 @@ public class WKBTest {
 				ByteOrder.LITTLE_ENDIAN);
 
 		TestCase.assertFalse(WKBTestUtils.equalByteArrays(bytes1, bytes2));
+		TestCase.assertEquals(bytes1.length,
+				WkbGeometryWriter.sizeOf(geometry));
+
+		// Test the envelope built while writing
+		ByteWriter writer = new ByteWriter();
+		GeometryEnvelope envelope = WkbGeometryWriter
+				.writeGeometryAndBuildEnvelope(writer, geometry);
+		WKBTestUtils.compareByteArrays(bytes1, writer.getBytes());
+		writer.close();
+		WKBTestUtils.compareEnvelopes(
+				GeometryEnvelopeBuilder.buildEnvelope(geometry), envelope);
 
 		// Test that the bytes are read using their written byte order, not
 		// the specified
@@ -1,6 +1,9 @@
 package mil.nga.wkb.test;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.nio.ByteOrder;
 
 import junit.framework.TestCase;
@@ -717,4 +720,59 @@ public class WKBTestUtils {
 		return Math.random() < 0.5;
 	}
 
+	/**
+	 * Compare a formatted number to the value, verifying it reads back to the
+	 * same double and that no number with fewer significant digits does
+	 * 
+	 * @param value
+	 *            number value
+	 * @param number
+	 *            formatted number
+	 */
+	public static void compareShortestNumber(double value, String number) {
+
+		TestCase.assertEquals(number, Double.doubleToLongBits(value),
+				Double.doubleToLongBits(Double.parseDouble(number)));
+
+		if (value != 0) {
+			int digits = new BigDecimal(number).stripTrailingZeros()
+					.precision();
+			if (digits > 1) {
+				BigDecimal exact = new BigDecimal(value);
+				for (RoundingMode roundingMode : new RoundingMode[] {
+						RoundingMode.FLOOR, RoundingMode.CEILING }) {
+					BigDecimal shorter = exact.round(new MathContext(
+							digits - 1, roundingMode));
+					TestCase.assertFalse(number + " is not shortest, "
+							+ shorter + " reads back to the same value",
+							Double.parseDouble(shorter.toString()) == value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a random finite double, alternating between any bit pattern and
+	 * values of a common magnitude
+	 * 
+	 * @param index
+	 *            index of the value
+	 * @return finite value
+	 */
+	public static double createFiniteDouble(int index) {
+		double value;
+		do {
+			if (index % 2 == 0) {
+				value = (Math.random() - .5) * Math.pow(10, index % 40 - 20);
+			} else {
+				long bits = (long) (Math.random() * Long.MAX_VALUE);
+				if (coinFlip()) {
+					bits |= Long.MIN_VALUE;
+				}
+				value = Double.longBitsToDouble(bits);
+			}
+		} while (Double.isNaN(value) || Double.isInfinite(value));
+		return value;
+	}
+
 }
@@ -0,0 +1,193 @@
+package mil.nga.wkb.test.geom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.CoordinateSequenceFactory;
+import mil.nga.wkb.geom.DoubleCoordinateSequence;
+import mil.nga.wkb.geom.FloatCoordinateSequence;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GridCoordinateSequence;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.GeometryUtils;
+
+import org.junit.Test;
+
+/**
+ * Test coordinate sequences
+ * 
+ * @author osbornb
+ */
+public class CoordinateSequenceTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public CoordinateSequenceTest() {
+
+	}
+
+	/**
+	 * Test packed coordinate sequences as line string and multi point points
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testCoordinateSequence() throws IOException {
+
+		DoubleCoordinateSequence coordinates = new DoubleCoordinateSequence(
+				true, true, 1);
+		coordinates.addCoordinate(1, 2, 3, 4);
+		coordinates.addCoordinate(5, 6, 7, 8);
+		Point inserted = new Point(true, true, 9, 10);
+		inserted.setZ(11.0);
+		inserted.setM(12.0);
+		coordinates.add(1, inserted);
+		TestCase.assertEquals(3, coordinates.size());
+		TestCase.assertEquals(4, coordinates.getDimension());
+		TestCase.assertEquals(11.0, coordinates.getZ(1));
+		TestCase.assertEquals(7.0, coordinates.get(2).getZ());
+		TestCase.assertEquals(8.0, coordinates.remove(2).getM());
+		TestCase.assertEquals(2, coordinates.size());
+
+		// Packed line strings write the same bytes and copy independently
+		LineString lineString = new LineString(coordinates);
+		TestCase.assertTrue(lineString.hasZ());
+		TestCase.assertSame(coordinates, lineString.getCoordinateSequence());
+		LineString unpacked = new LineString(true, true);
+		unpacked.setPoints(new ArrayList<Point>(coordinates));
+		WKBTestUtils.compareGeometryBytes(unpacked, lineString);
+		LineString copy = (LineString) lineString.copy();
+		coordinates.setCoordinate(0, 0, 0, 0, 0);
+		TestCase.assertEquals(1.0, copy.getCoordinateSequence().getX(0));
+
+		// Packed geometries write the same bytes and normalize in place
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			Geometry packed = geometry.copy();
+			GeometryUtils.packGeometry(packed);
+			WKBTestUtils.compareGeometryBytes(geometry, packed);
+			WKBTestUtils.compareGeometryBytes(geometry, packed.copy());
+			WKBTestUtils.compareGeometries(geometry, packed);
+		}
+
+		MultiPoint multiPoint = new MultiPoint(new DoubleCoordinateSequence(
+				false, false, new double[] { 190, 0, -185, 1 }));
+		GeometryUtils.normalizeGeometry(multiPoint, 180);
+		TestCase.assertEquals(-170.0, multiPoint.getPoints().get(0).getX());
+		TestCase.assertEquals(175.0, multiPoint.getPoints().get(1).getX());
+	}
+
+	/**
+	 * Test reduced precision float and grid coordinate sequences round trip
+	 * through Well-Known Binary without further loss
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testReducedPrecisionCoordinateSequences() throws IOException {
+
+		List<CoordinateSequenceFactory> factories =
+				new ArrayList<CoordinateSequenceFactory>();
+		factories.add(FloatCoordinateSequence.FACTORY);
+		factories.add(GridCoordinateSequence.factory(-180, -90, 0.000001));
+		factories.add(GridCoordinateSequence.factory(0, 0, 0.0000001, -500,
+				0.001, 0, 0.001));
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			for (CoordinateSequenceFactory factory : factories) {
+				Geometry packed = geometry.copy();
+				GeometryUtils.packGeometry(packed, factory);
+				TestCase.assertTrue(packed.equalsExact(geometry, 0.001));
+				byte[] bytes = WKBTestUtils.writeBytes(packed);
+				Geometry read = WKBTestUtils.readGeometry(bytes);
+				GeometryUtils.packGeometry(read, factory);
+				TestCase.assertEquals(packed, read);
+				WKBTestUtils.compareByteArrays(bytes,
+						WKBTestUtils.writeBytes(read));
+				TestCase.assertEquals(packed, packed.copy());
+				TestCase.assertEquals(packed, packed.freeze());
+			}
+		}
+
+		GridCoordinateSequence grid = new GridCoordinateSequence(true, false,
+				10, 20, 0.5);
+		grid.addCoordinate(10.2, 21.3, Double.NaN, 7);
+		grid.addCoordinate(-0.5, 20, 1.5, 7);
+		TestCase.assertEquals(10.0, grid.getX(0));
+		TestCase.assertEquals(21.5, grid.getY(0));
+		TestCase.assertTrue(Double.isNaN(grid.getZ(0)));
+		TestCase.assertTrue(Double.isNaN(grid.getM(0)));
+		TestCase.assertEquals(1.5, grid.getZ(1));
+		TestCase.assertEquals(-21, grid.getCoordinates()[3]);
+		try {
+			grid.addCoordinate(1.0e10, 0);
+			TestCase.fail("Value outside of the grid was added");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		TestCase.assertEquals(2, grid.size());
+
+		// Z and m values beyond the x and y grid use their own grids
+		GridCoordinateSequence xyGrid = new GridCoordinateSequence(true, true,
+				0, 0, 0.0000001);
+		try {
+			xyGrid.addCoordinate(1, 2, 8848.86, 0);
+			TestCase.fail("Z value outside of the grid was added");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		GridCoordinateSequence zmGrid = new GridCoordinateSequence(true, true,
+				0, 0, 0.0000001, -500, 0.01, 1000000, 0.5, 0);
+		zmGrid.addCoordinate(1, 2, 8848.86, 1000000.5);
+		TestCase.assertEquals(2.0, zmGrid.getY(0));
+		TestCase.assertEquals(8848.86, zmGrid.getZ(0), 0.000001);
+		TestCase.assertEquals(1000000.5, zmGrid.getM(0));
+		TestCase.assertEquals(934886, zmGrid.getCoordinates()[2]);
+		TestCase.assertEquals(1, zmGrid.getCoordinates()[3]);
+		GridCoordinateSequence zmCopy = (GridCoordinateSequence) zmGrid
+				.copy();
+		TestCase.assertEquals(0.01, zmCopy.getZResolution());
+		TestCase.assertEquals(1000000.0, zmCopy.getOriginM());
+		TestCase.assertEquals(zmGrid, zmCopy);
+
+		FloatCoordinateSequence floats = new FloatCoordinateSequence(false,
+				false, new float[] { 0.1f, 0.2f });
+		TestCase.assertEquals((double) 0.1f, floats.getX(0));
+		LineString lineString = new LineString(floats);
+		lineString.addPoint(new Point(0.3, 0.4));
+		TestCase.assertEquals((double) 0.3f, lineString.getPoints().get(1)
+				.getX());
+		try {
+			floats.addCoordinate(0, 1.0e40);
+			TestCase.fail("Value outside of the float range was added");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			floats.setCoordinate(0, -1.0e40, 0, Double.NaN, Double.NaN);
+			TestCase.fail("Value outside of the float range was set");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		TestCase.assertEquals(2, floats.size());
+		TestCase.assertEquals((double) 0.1f, floats.getX(0));
+		floats.addCoordinate(Double.POSITIVE_INFINITY, Float.MAX_VALUE);
+		TestCase.assertEquals(Double.POSITIVE_INFINITY, floats.getX(2));
+		TestCase.assertEquals((double) Float.MAX_VALUE, floats.getY(2));
+	}
+
+}
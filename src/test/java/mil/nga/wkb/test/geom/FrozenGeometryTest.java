@@ -0,0 +1,127 @@
+package mil.nga.wkb.test.geom;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Triangle;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.GeometryUtils;
+
+import org.junit.Test;
+
+/**
+ * Test frozen geometries
+ * 
+ * @author osbornb
+ */
+public class FrozenGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public FrozenGeometryTest() {
+
+	}
+
+	/**
+	 * Test frozen geometries are immutable copies shareable between threads
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testFreeze() throws Exception {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			final Geometry frozen = geometry.freeze();
+			TestCase.assertFalse(geometry.isFrozen());
+			TestCase.assertTrue(frozen.isFrozen());
+			TestCase.assertSame(frozen, frozen.freeze());
+			WKBTestUtils.compareGeometries(geometry, frozen);
+			final byte[] expected = WKBTestUtils.writeBytes(geometry);
+			WKBTestUtils.compareGeometryBytes(geometry, frozen);
+
+			Geometry copy = frozen.copy();
+			TestCase.assertFalse(copy.isFrozen());
+			GeometryUtils.minimizeGeometry(copy, 180);
+			WKBTestUtils.compareGeometryBytes(geometry, frozen);
+
+			// Read the frozen geometry from other threads
+			final boolean[] matches = new boolean[4];
+			Thread[] threads = new Thread[matches.length];
+			for (int j = 0; j < threads.length; j++) {
+				final int index = j;
+				threads[j] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							matches[index] = Arrays.equals(expected,
+									WKBTestUtils.writeBytes(frozen));
+						} catch (IOException e) {
+							matches[index] = false;
+						}
+					}
+				});
+				threads[j].start();
+			}
+			for (int j = 0; j < threads.length; j++) {
+				threads[j].join();
+				TestCase.assertTrue(matches[j]);
+			}
+		}
+
+		Triangle triangle = new Triangle();
+		triangle.addRing(WKBTestUtils.createLineString(false, false, true));
+		Triangle frozenTriangle = (Triangle) triangle.freeze();
+		LineString ring = frozenTriangle.getRings().get(0);
+		TestCase.assertTrue(ring.isFrozen());
+		TestCase.assertTrue(ring.getCoordinateSequence().isFrozen());
+		CircularString circularString = (CircularString) new CircularString(
+				true, false).freeze();
+		TestCase.assertTrue(circularString.hasZ());
+		TestCase.assertEquals(0, circularString.numPoints());
+
+		try {
+			frozenTriangle.addRing(ring);
+			TestCase.fail("Frozen polygon was modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			ring.getPoints().get(0).setX(1);
+			ring.addPoint(new Point());
+			TestCase.fail("Frozen line string was modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			ring.getCoordinateSequence().setCoordinate(0, 1, 1, 0, 0);
+			TestCase.fail("Frozen coordinates were modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		Point point = (Point) new Point(1, 2).freeze();
+		try {
+			point.setX(3);
+			TestCase.fail("Frozen point was modified");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		TestCase.assertEquals(1.0, point.getX());
+		Point pointCopy = (Point) point.copy();
+		pointCopy.setX(3);
+		TestCase.assertEquals(3.0, pointCopy.getX());
+	}
+
+}
@@ -0,0 +1,162 @@
+package mil.nga.wkb.test.geom;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryBatch;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.TIN;
+import mil.nga.wkb.geom.Triangle;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryBatchCodec;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test columnar geometry batches
+ * 
+ * @author osbornb
+ */
+public class GeometryBatchTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public GeometryBatchTest() {
+
+	}
+
+	/**
+	 * Test reading and writing geometries through a columnar geometry batch
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeometryBatch() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			List<Geometry> geometries = new ArrayList<Geometry>();
+			geometries.add(WKBTestUtils.createPoint(hasZ, hasM));
+			geometries.add(WKBTestUtils.createLineString(hasZ, hasM));
+			geometries.add(WKBTestUtils.createPolygon(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			geometries.add(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+
+			GeometryBatch batch = new GeometryBatch(hasZ, hasM, 1, 1);
+			for (Geometry geometry : geometries) {
+				batch.add(geometry);
+				ByteReader reader = new ByteReader(
+						WKBTestUtils.writeBytes(geometry));
+				WkbGeometryBatchCodec.readGeometry(reader, batch);
+				TestCase.assertEquals(0, reader.remaining());
+			}
+			TestCase.assertEquals(2 * geometries.size(), batch.size());
+
+			for (int j = 0; j < batch.size(); j++) {
+				Geometry geometry = geometries.get(j / 2);
+				TestCase.assertEquals(geometry.getGeometryType(),
+						batch.getGeometryType(j));
+				TestCase.assertEquals(geometry, batch.getGeometry(j));
+				ByteWriter writer = new ByteWriter();
+				WkbGeometryBatchCodec.writeGeometry(writer, batch, j);
+				WKBTestUtils.compareByteArrays(
+						WKBTestUtils.writeBytes(geometry), writer.getBytes());
+				writer.close();
+			}
+		}
+
+		// Triangles are kept within a TIN
+		TIN tin = new TIN();
+		Triangle triangle = new Triangle();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(1, 0));
+		ring.addPoint(new Point(0, 1));
+		ring.addPoint(new Point(0, 0));
+		triangle.addRing(ring);
+		tin.addPolygon(triangle);
+		GeometryBatch batch = new GeometryBatch(false, false);
+		TestCase.assertEquals(0, batch.add(tin));
+		TestCase.assertEquals(tin, batch.getGeometry(0));
+		TestCase.assertEquals(1, WkbGeometryBatchCodec.readGeometry(
+				new ByteReader(WKBTestUtils.writeBytes(tin)), batch));
+		TestCase.assertEquals(tin, batch.getGeometry(1));
+		TestCase.assertEquals(2, batch.numParts());
+		TestCase.assertEquals(2, batch.numRings());
+		TestCase.assertEquals(8, batch.numCoordinates());
+
+		try {
+			WkbGeometryBatchCodec.readGeometry(
+					new ByteReader(WKBTestUtils.writeBytes(WKBTestUtils
+							.createGeometryCollection(false, false))), batch);
+			TestCase.fail("Geometry collection was read into a batch");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(2, batch.size());
+
+		// Z and m values without a batch column are rejected
+		Point zPoint = new Point(true, false, 1, 2);
+		zPoint.setZ(3.0);
+		try {
+			batch.add(zPoint);
+			TestCase.fail("Z point was added to a batch without z");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			WkbGeometryBatchCodec.readGeometry(
+					new ByteReader(WKBTestUtils.writeBytes(zPoint)), batch);
+			TestCase.fail("Z point was read into a batch without z");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(2, batch.size());
+
+		// Geometries failing part way through reading are removed
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(false,
+				false);
+		byte[] bytes = WKBTestUtils.writeBytes(multiPolygon);
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length - 8);
+		try {
+			WkbGeometryBatchCodec.readGeometry(new ByteReader(truncated),
+					batch);
+			TestCase.fail("Truncated geometry was read into a batch");
+		} catch (RuntimeException e) {
+			// Expected
+		}
+		TestCase.assertEquals(2, batch.size());
+		TestCase.assertEquals(2, batch.numParts());
+		TestCase.assertEquals(2, batch.numRings());
+		TestCase.assertEquals(8, batch.numCoordinates());
+		TestCase.assertEquals(2, WkbGeometryBatchCodec.readGeometry(
+				new ByteReader(bytes), batch));
+		TestCase.assertEquals(multiPolygon, batch.getGeometry(2));
+		TestCase.assertEquals(tin, batch.getGeometry(1));
+
+		batch.truncate(1);
+		TestCase.assertEquals(1, batch.size());
+		TestCase.assertEquals(4, batch.numCoordinates());
+		TestCase.assertEquals(1, batch.add(tin));
+		TestCase.assertEquals(tin, batch.getGeometry(1));
+	}
+
+}
@@ -0,0 +1,96 @@
+package mil.nga.wkb.test.geom;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.GeometryUtils;
+
+import org.junit.Test;
+
+/**
+ * Test geometry value equality
+ * 
+ * @author osbornb
+ */
+public class GeometryEqualsTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public GeometryEqualsTest() {
+
+	}
+
+	/**
+	 * Test value equality and hash codes of geometries
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testEquals() throws IOException {
+
+		Set<Geometry> unique = new HashSet<Geometry>();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			Geometry packed = geometry.copy();
+			GeometryUtils.packGeometry(packed);
+			Geometry frozen = geometry.freeze();
+			Geometry read = WKBTestUtils.readGeometry(WKBTestUtils
+					.writeBytes(geometry));
+			for (Geometry equal : new Geometry[] { geometry.copy(), packed,
+					frozen, frozen.copy(), read }) {
+				TestCase.assertEquals(geometry, equal);
+				TestCase.assertEquals(equal, geometry);
+				TestCase.assertEquals(geometry.hashCode(), equal.hashCode());
+				TestCase.assertTrue(geometry.equalsExact(equal, 0));
+			}
+			TestCase.assertEquals(frozen.hashCode(), frozen.hashCode());
+			unique.add(geometry);
+			unique.add(packed);
+			unique.add(frozen);
+			TestCase.assertEquals(i + 1, unique.size());
+		}
+
+		Point point = new Point(true, true, 1, 2);
+		point.setZ(3.0);
+		Point other = (Point) point.copy();
+		TestCase.assertEquals(point, other);
+		other.setM(4.0);
+		TestCase.assertFalse(point.equals(other));
+		point.setM(4.0 + 1.0e-9);
+		TestCase.assertFalse(point.equals(other));
+		TestCase.assertTrue(point.equalsExact(other, 1.0e-6));
+		TestCase.assertFalse(point.equalsExact(other, 1.0e-12));
+		TestCase.assertFalse(point.equals(new Point(1, 2)));
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 2));
+		lineString.addPoint(new Point(3, 4));
+		LineString circular = new CircularString();
+		circular.setPoints(lineString.getPoints());
+		TestCase.assertFalse(lineString.equals(circular));
+		Polygon polygon = new Polygon();
+		polygon.addRing(lineString);
+		Polygon otherPolygon = (Polygon) polygon.copy();
+		TestCase.assertEquals(polygon, otherPolygon);
+		otherPolygon.getRings().get(0).getPoints().get(1).setY(4.5);
+		TestCase.assertFalse(polygon.equals(otherPolygon));
+		TestCase.assertTrue(polygon.equalsExact(otherPolygon, 0.5));
+		TestCase.assertFalse(polygon.equalsExact(otherPolygon, 0.25));
+	}
+
+}
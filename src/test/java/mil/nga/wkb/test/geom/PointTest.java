@@ -0,0 +1,54 @@
+package mil.nga.wkb.test.geom;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.test.WKBTestUtils;
+
+import org.junit.Test;
+
+/**
+ * Test point values
+ * 
+ * @author osbornb
+ */
+public class PointTest {
+
+	/**
+	 * Constructor
+	 */
+	public PointTest() {
+
+	}
+
+	/**
+	 * Test the unboxed point z and m values
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testPointValues() throws IOException {
+
+		Point point = new Point(true, true, 1, 2);
+		TestCase.assertNull(point.getZ());
+		TestCase.assertTrue(Double.isNaN(point.getMValue()));
+		point.setZValue(3);
+		point.setM(4.0);
+		TestCase.assertEquals(3.0, point.getZ());
+		TestCase.assertEquals(4.0, point.getMValue());
+
+		Point copy = (Point) point.copy();
+		TestCase.assertEquals(3.0, copy.getZValue());
+		TestCase.assertEquals(4.0, copy.getMValue());
+		point.setZ(null);
+		TestCase.assertTrue(Double.isNaN(point.getZValue()));
+		TestCase.assertEquals(3.0, copy.getZValue());
+
+		Point read = (Point) WKBTestUtils.readGeometry(WKBTestUtils
+				.writeBytes(copy));
+		TestCase.assertEquals(3.0, read.getZValue());
+		TestCase.assertEquals(4.0, read.getMValue());
+	}
+
+}
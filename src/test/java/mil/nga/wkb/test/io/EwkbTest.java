@@ -0,0 +1,97 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.EwkbGeometry;
+import mil.nga.wkb.io.EwkbGeometryReader;
+import mil.nga.wkb.io.EwkbGeometryWriter;
+import mil.nga.wkb.io.WkbByteOrderTranscoder;
+import mil.nga.wkb.io.WkbDimensionTranscoder;
+import mil.nga.wkb.test.WKBTestUtils;
+
+import org.junit.Test;
+
+/**
+ * Test Extended Well Known Binary
+ * 
+ * @author osbornb
+ */
+public class EwkbTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public EwkbTest() {
+
+	}
+
+	@Test
+	public void testEwkb() throws IOException {
+
+		// PostGIS EWKB of SRID=4326;POINT(1 2)
+		byte[] pointBytes = new byte[] { 0x01, 0x01, 0x00, 0x00, 0x20,
+				(byte) 0xE6, 0x10, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, (byte) 0xF0, 0x3F, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x40 };
+		EwkbGeometry ewkbPoint = EwkbGeometryReader
+				.readGeometry(new ByteReader(pointBytes));
+		TestCase.assertEquals(Integer.valueOf(4326), ewkbPoint.getSrid());
+		WKBTestUtils.compareGeometries(new Point(1, 2),
+				ewkbPoint.getGeometry());
+		ByteWriter pointWriter = new ByteWriter();
+		pointWriter.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+		EwkbGeometryWriter.writeGeometry(pointWriter,
+				ewkbPoint.getGeometry(), 4326);
+		WKBTestUtils.compareByteArrays(pointBytes, pointWriter.getBytes());
+		pointWriter.close();
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			Geometry geometry = WKBTestUtils.createGeometryCollection(hasZ,
+					hasM);
+			Integer srid = WKBTestUtils.coinFlip() ? 3857 : null;
+
+			ByteWriter writer = new ByteWriter();
+			EwkbGeometryWriter.writeGeometry(writer, geometry, srid);
+			byte[] bytes = writer.getBytes();
+			writer.close();
+
+			EwkbGeometry ewkbGeometry = EwkbGeometryReader
+					.readGeometry(new ByteReader(bytes));
+			TestCase.assertEquals(srid, ewkbGeometry.getSrid());
+			WKBTestUtils.compareGeometries(geometry,
+					ewkbGeometry.getGeometry());
+			WKBTestUtils.compareGeometries(geometry,
+					WKBTestUtils.readGeometry(bytes));
+
+			// Transcode the byte order and dimensions
+			byte[] littleEndian = WkbByteOrderTranscoder.transcode(bytes,
+					ByteOrder.LITTLE_ENDIAN);
+			ewkbGeometry = EwkbGeometryReader.readGeometry(new ByteReader(
+					littleEndian));
+			TestCase.assertEquals(srid, ewkbGeometry.getSrid());
+			WKBTestUtils.compareGeometries(geometry,
+					ewkbGeometry.getGeometry());
+			ewkbGeometry = EwkbGeometryReader.readGeometry(new ByteReader(
+					WkbDimensionTranscoder.transcode(bytes)));
+			TestCase.assertEquals(srid, ewkbGeometry.getSrid());
+			TestCase.assertFalse(ewkbGeometry.getGeometry().hasZ());
+			TestCase.assertFalse(ewkbGeometry.getGeometry().hasM());
+		}
+
+	}
+
+}
@@ -0,0 +1,386 @@
+package mil.nga.wkb.test.io;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.TIN;
+import mil.nga.wkb.io.GeoJsonGeometryReader;
+import mil.nga.wkb.io.GeoJsonGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test GeoJSON geometries
+ * 
+ * @author osbornb
+ */
+public class GeoJsonTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public GeoJsonTest() {
+
+	}
+
+	/**
+	 * Test the streaming GeoJSON writer
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeoJsonWriter() throws IOException {
+
+		TestCase.assertEquals("{\"type\":\"Point\",\"coordinates\":[1,2]}",
+				GeoJsonGeometryWriter.writeGeometry(new Point(1, 2)));
+
+		// Rounded decimals without trailing zeros, z kept and m dropped
+		Point point = new Point(true, true, 1.23456, -0.0004);
+		point.setZ(-7.5);
+		point.setM(100.0);
+		TestCase.assertEquals(
+				"{\"type\":\"Point\",\"coordinates\":[1.235,0,-7.5]}",
+				GeoJsonGeometryWriter.writeGeometry(point, 3));
+		TestCase.assertEquals(
+				"{\"type\":\"Point\",\"coordinates\":[-12,1]}",
+				GeoJsonGeometryWriter.writeGeometry(new Point(-12.4, 0.5), 0));
+
+		// Empty point
+		TestCase.assertEquals("{\"type\":\"Point\",\"coordinates\":[]}",
+				GeoJsonGeometryWriter.writeGeometry(new Point(Double.NaN,
+						Double.NaN)));
+
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(1, 0));
+		ring.addPoint(new Point(0, 1));
+		ring.addPoint(new Point(0, 0));
+		Polygon polygon = new Polygon();
+		polygon.addRing(ring);
+		TIN tin = new TIN();
+		tin.addPolygon(polygon);
+		GeometryCollection<Geometry> collection = new GeometryCollection<Geometry>();
+		collection.addGeometry(polygon);
+		collection.addGeometry(tin);
+		String polygonCoordinates = "[[[0,0],[1,0],[0,1],[0,0]]]";
+		TestCase.assertEquals("{\"type\":\"GeometryCollection\",\"geometries\":["
+				+ "{\"type\":\"Polygon\",\"coordinates\":" + polygonCoordinates
+				+ "},{\"type\":\"MultiPolygon\",\"coordinates\":["
+				+ polygonCoordinates + "]}]}",
+				GeoJsonGeometryWriter.writeGeometry(collection, 2));
+
+		// Random geometries match in full precision through a stream
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			StringBuilder builder = new StringBuilder();
+			GeoJsonGeometryWriter.writeGeometry(builder, geometry);
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			GeoJsonGeometryWriter.writeGeometry(outputStream, geometry,
+					GeoJsonGeometryWriter.FULL_PRECISION);
+			TestCase.assertEquals(builder.toString(),
+					outputStream.toString("UTF-8"));
+			Point first = WKBTestUtils.createPoint(false, false);
+			Point read = GeoJsonGeometryReader.readGeometry(
+					GeoJsonGeometryWriter.writeGeometry(first), Point.class);
+			TestCase.assertEquals(first.getX(), read.getX());
+			TestCase.assertEquals(first.getY(), read.getY());
+		}
+
+		try {
+			GeoJsonGeometryWriter.writeGeometry(new CircularString());
+			TestCase.fail("Curve geometry was written as GeoJSON");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Test the formatting of full precision GeoJSON numbers
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeoJsonNumbers() throws IOException {
+
+		double[] values = new double[] { 0.0, -0.0, 1.0, -1.5, 0.1, 100.0,
+				1.0E20, 1.0E21, 1.5E-7, 1.0E-8, 123456.789, 0.3,
+				Double.MAX_VALUE, Double.MIN_VALUE, Double.MIN_NORMAL,
+				9007199254740993.0, 9.7601110517731008E16,
+				-5.214957255182806E-307 };
+		String[] expected = new String[] { "0", "-0", "1", "-1.5", "0.1",
+				"100", "100000000000000000000", "1E21", "0.00000015", "1E-8",
+				"123456.789", "0.3", "1.7976931348623157E308", "5E-324",
+				"2.2250738585072014E-308", "9007199254740992",
+				"97601110517731000", "-5.214957255182806E-307" };
+		for (int i = 0; i < values.length; i++) {
+			TestCase.assertEquals(expected[i], writeNumber(values[i]));
+			WKBTestUtils.compareShortestNumber(values[i], expected[i]);
+		}
+
+		// Random values are written with the shortest digits reading back to
+		// the same double
+		for (int i = 0; i < 100000; i++) {
+			double value = WKBTestUtils.createFiniteDouble(i);
+			String number = writeNumber(value);
+			WKBTestUtils.compareShortestNumber(value, number);
+			TestCase.assertFalse(number, number.endsWith(".0")
+					|| number.contains(".0E"));
+		}
+
+		try {
+			writeNumber(Double.NaN);
+			TestCase.fail("NaN was written as GeoJSON");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Write a full precision number as the x of a GeoJSON point
+	 * 
+	 * @param value
+	 *            number value
+	 * @return number text
+	 */
+	private static String writeNumber(double value) {
+		String json = GeoJsonGeometryWriter.writeGeometry(new Point(value, 0));
+		int start = json.indexOf('[') + 1;
+		return json.substring(start, json.indexOf(',', start));
+	}
+
+	/**
+	 * Test the streaming GeoJSON reader
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeoJsonReader() throws IOException {
+
+		// Members in any order with skipped members and whitespace
+		Polygon polygon = GeoJsonGeometryReader.readGeometry(
+				"{ \"bbox\": [0, 0, 1, 1], \"coordinates\": [[[0, 0], [1, 0],"
+						+ " [0, 1.5e0, 2], [0, 0]]],\n\"crs\": {\"a\": [true,"
+						+ " null, \"b\\\"\"]}, \"type\": \"Polygon\" }",
+				Polygon.class);
+		TestCase.assertTrue(polygon.hasZ());
+		TestCase.assertEquals(4, polygon.getRings().get(0).numPoints());
+		Point point = polygon.getRings().get(0).getPoints().get(2);
+		TestCase.assertEquals(1.5, point.getY());
+		TestCase.assertEquals(2.0, point.getZ());
+		TestCase.assertNull(polygon.getRings().get(0).getPoints().get(0)
+				.getZ());
+
+		Point emptyPoint = GeoJsonGeometryReader.readGeometry(
+				"{\"type\":\"Point\",\"coordinates\":[]}", Point.class);
+		TestCase.assertTrue(Double.isNaN(emptyPoint.getX()));
+
+		// Random geometries written and read through each input
+		GeoJsonGeometryReader reader = new GeoJsonGeometryReader();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), false);
+			String json = GeoJsonGeometryWriter.writeGeometry(geometry);
+			WKBTestUtils.compareGeometries(geometry,
+					GeoJsonGeometryReader.readGeometry(json));
+			WKBTestUtils.compareGeometries(geometry,
+					reader.read(json.getBytes("UTF-8")));
+			WKBTestUtils.compareGeometries(geometry,
+					reader.read(new StringReader(json)));
+		}
+
+		try {
+			GeoJsonGeometryReader.readGeometry(
+					"{\"type\":\"LineString\",\"coordinates\":[[1,2],[3]]}");
+			TestCase.fail("Invalid position was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Test reading consecutive GeoJSON geometries from a character reader
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeoJsonReaderStream() throws IOException {
+
+		StringBuilder json = new StringBuilder();
+		Geometry[] geometries = new Geometry[GEOMETRIES_PER_TEST];
+		for (int i = 0; i < geometries.length; i++) {
+			geometries[i] = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), false);
+			json.append(GeoJsonGeometryWriter.writeGeometry(geometries[i]));
+			if (i % 2 == 0) {
+				json.append("\n");
+			}
+		}
+		json.append(" trailing");
+
+		// The reader is left at the character after each geometry object
+		StringReader stringReader = new StringReader(json.toString());
+		GeoJsonGeometryReader reader = new GeoJsonGeometryReader();
+		for (int i = 0; i < geometries.length; i++) {
+			Geometry geometry = i % 2 == 0 ? reader.read(stringReader)
+					: GeoJsonGeometryReader.readGeometry(stringReader);
+			WKBTestUtils.compareGeometries(geometries[i], geometry);
+		}
+		char[] remaining = new char[16];
+		int count = stringReader.read(remaining);
+		TestCase.assertEquals(" trailing", new String(remaining, 0, count));
+
+		// Buffered readers are read in blocks and left after each object
+		CountingReader countingReader = new CountingReader(new StringReader(
+				json.toString()));
+		BufferedReader bufferedReader = new BufferedReader(countingReader, 64);
+		for (int i = 0; i < geometries.length; i++) {
+			WKBTestUtils.compareGeometries(geometries[i],
+					reader.read(bufferedReader));
+		}
+		TestCase.assertEquals(" trailing", bufferedReader.readLine());
+		TestCase.assertTrue(countingReader.reads < json.length() / 32);
+
+		try {
+			reader.read(new StringReader("{\"type\":\"Point\""));
+			TestCase.fail("Unterminated geometry object was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Test reading malformed GeoJSON
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testMalformedGeoJson() throws IOException {
+
+		String[] jsons = new String[] { "", "[]",
+				"{\"type\":\"Point\"}",
+				"{\"coordinates\":[1,2]}",
+				"{\"type\":\"Unknown\",\"coordinates\":[1,2]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2]",
+				"{\"type\":\"Point\",\"coordinates\":[1,\"2\"]}",
+				"{\"type\":\"Point\" \"coordinates\":[1,2]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2]} x",
+				"{\"type\":\"Polygon\",\"coordinates\":[1,2]}",
+				"{\"type\":\"GeometryCollection\"}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2],\"a\":tru}",
+				"{\"type\":\"Point\",\"coordinates\":[1e99999,2]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,-1E400]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2],\"a\":"
+						+ nest("[", "]", 200) + "}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2],\"a\":"
+						+ nest("{\"b\":", "}", 200) + "}",
+				"{\"type\":\"Point\",\"coordinates\":"
+						+ nest("[", "]", 200) + "}",
+				"{\"type\":\"GeometryCollection\",\"geometries\":"
+						+ nest("[{\"type\":\"GeometryCollection\","
+								+ "\"geometries\":", "}]", 100) + "}" };
+		for (String json : jsons) {
+			try {
+				GeoJsonGeometryReader.readGeometry(json);
+				TestCase.fail("Malformed GeoJSON was read: " + json);
+			} catch (WkbException e) {
+				// Expected
+			}
+		}
+
+		// Nesting within the limit and skipped large numbers are read
+		Point point = GeoJsonGeometryReader.readGeometry(
+				"{\"type\":\"Point\",\"coordinates\":[1,2],\"a\":"
+						+ nest("[", "]", 100) + "}", Point.class);
+		TestCase.assertEquals(2.0, point.getY());
+		point = GeoJsonGeometryReader.readGeometry(
+				"{\"type\":\"Point\",\"coordinates\":[1.7976931348623157e308,"
+						+ "-4.9e-324]}", Point.class);
+		TestCase.assertEquals(Double.MAX_VALUE, point.getX());
+		TestCase.assertEquals(-Double.MIN_VALUE, point.getY());
+
+		try {
+			GeoJsonGeometryReader.readGeometry(
+					"{\"type\":\"Point\",\"coordinates\":[1,2]}",
+					LineString.class);
+			TestCase.fail("Unexpected geometry type was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Nest the value within the open and close text
+	 * 
+	 * @param open
+	 *            open text
+	 * @param close
+	 *            close text
+	 * @param depth
+	 *            nesting depth
+	 * @return nested text
+	 */
+	private static String nest(String open, String close, int depth) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			text.append(open);
+		}
+		text.append("1");
+		for (int i = 0; i < depth; i++) {
+			text.append(close);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Reader counting the block reads of the wrapped reader
+	 */
+	private static class CountingReader extends FilterReader {
+
+		/**
+		 * Number of block reads
+		 */
+		private int reads = 0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param reader
+		 *            wrapped reader
+		 */
+		private CountingReader(Reader reader) {
+			super(reader);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read(char[] buffer, int offset, int length)
+				throws IOException {
+			reads++;
+			return super.read(buffer, offset, length);
+		}
+
+	}
+
+}
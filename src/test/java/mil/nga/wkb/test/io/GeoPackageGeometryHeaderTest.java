@@ -0,0 +1,107 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryEnvelope;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.GeoPackageGeometryHeader;
+import mil.nga.wkb.io.WkbGeometryReader;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.GeometryEnvelopeBuilder;
+
+import org.junit.Test;
+
+/**
+ * Test GeoPackage geometry headers
+ * 
+ * @author osbornb
+ */
+public class GeoPackageGeometryHeaderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public GeoPackageGeometryHeaderTest() {
+
+	}
+
+	@Test
+	public void testGeoPackageHeader() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			Geometry geometry = WKBTestUtils.createGeometryCollection(hasZ,
+					hasM);
+			GeometryEnvelope envelope = GeometryEnvelopeBuilder
+					.buildEnvelope(geometry);
+
+			for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+					ByteOrder.LITTLE_ENDIAN }) {
+
+				ByteWriter writer = new ByteWriter();
+				writer.setByteOrder(byteOrder);
+				GeoPackageGeometryHeader written = GeoPackageGeometryHeader
+						.writeGeometry(writer, 4326, geometry, true);
+				byte[] bytes = writer.getBytes();
+				writer.close();
+
+				GeoPackageGeometryHeader header = GeoPackageGeometryHeader
+						.readHeader(bytes);
+				TestCase.assertEquals(4326, header.getSrsId());
+				TestCase.assertEquals(byteOrder, header.getByteOrder());
+				TestCase.assertFalse(header.isEmpty());
+				TestCase.assertEquals(written.size(), header.size());
+				WKBTestUtils.compareEnvelopes(written.getEnvelope(),
+						header.getEnvelope());
+				TestCase.assertEquals(envelope.getMinX(), header
+						.getEnvelope().getMinX());
+				TestCase.assertEquals(envelope.getMaxY(), header
+						.getEnvelope().getMaxY());
+				if (hasZ) {
+					TestCase.assertEquals(envelope.getMinZ(), header
+							.getEnvelope().getMinZ());
+				}
+
+				WKBTestUtils.compareGeometries(geometry,
+						GeoPackageGeometryHeader.readGeometry(bytes));
+				WKBTestUtils.compareGeometries(geometry, WkbGeometryReader
+						.readGeometry(new ByteReader(bytes, header.size(),
+								bytes.length - header.size())));
+
+				// Reject by the stored envelope
+				GeometryEnvelope outside = new GeometryEnvelope();
+				outside.setMinX(envelope.getMaxX() + 1);
+				outside.setMaxX(envelope.getMaxX() + 2);
+				outside.setMinY(envelope.getMinY());
+				outside.setMaxY(envelope.getMaxY());
+				TestCase.assertNull(GeoPackageGeometryHeader.readGeometry(
+						bytes, outside));
+				TestCase.assertNotNull(GeoPackageGeometryHeader.readGeometry(
+						bytes, envelope));
+			}
+		}
+
+		// Empty geometry
+		ByteWriter writer = new ByteWriter();
+		GeoPackageGeometryHeader.writeGeometry(writer, 0, new MultiPolygon(),
+				true);
+		GeoPackageGeometryHeader header = GeoPackageGeometryHeader
+				.readHeader(writer.getBytes());
+		writer.close();
+		TestCase.assertTrue(header.isEmpty());
+		TestCase.assertTrue(Double.isNaN(header.getEnvelope().getMinX()));
+	}
+
+}
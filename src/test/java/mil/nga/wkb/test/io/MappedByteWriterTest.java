@@ -0,0 +1,137 @@
+package mil.nga.wkb.test.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.MappedByteWriter;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test memory mapped Well Known Binary byte writing
+ * 
+ * @author osbornb
+ */
+public class MappedByteWriterTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public MappedByteWriterTest() {
+
+	}
+
+	@Test
+	public void testMappedWrite() throws IOException {
+
+		File file = File.createTempFile("wkb", ".bin");
+		file.deleteOnExit();
+
+		ByteWriter expectedWriter = new ByteWriter();
+		MappedByteWriter writer = new MappedByteWriter(file, 128);
+		try {
+			for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+				Geometry geometry = WKBTestUtils.createGeometryCollection(
+						WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+				WkbGeometryWriter.writeGeometry(expectedWriter, geometry);
+				WkbGeometryWriter.writeGeometry(writer, geometry);
+			}
+			TestCase.assertEquals(expectedWriter.size(), writer.length());
+
+			// Overwrites in earlier regions are forced with the file
+			for (long position = 0; position + 8 <= writer.length();
+					position += 200) {
+				expectedWriter.writeDouble(position, position);
+				writer.writeDouble(position, position);
+				expectedWriter.writeInt(position + 4, (int) position);
+				writer.writeInt(position + 4, (int) position);
+			}
+		} finally {
+			writer.close();
+		}
+
+		byte[] expected = expectedWriter.getBytes();
+		expectedWriter.close();
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		byte[] bytes = new byte[(int) randomAccessFile.length()];
+		randomAccessFile.readFully(bytes);
+		randomAccessFile.close();
+
+		WKBTestUtils.compareByteArrays(expected, bytes);
+	}
+
+	/**
+	 * Test writing to a closed mapped byte writer
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testClosedMappedWrite() throws IOException {
+
+		File file = File.createTempFile("wkb", ".bin");
+		file.deleteOnExit();
+
+		Point point = new Point(1, 2);
+		MappedByteWriter writer = new MappedByteWriter(file, 1024);
+		WkbGeometryWriter.writeGeometry(writer, point);
+		long length = writer.length();
+		writer.close();
+		TestCase.assertEquals(length, writer.length());
+		TestCase.assertEquals(length, file.length());
+
+		// Writes that fit in the previously mapped region are rejected
+		try {
+			WkbGeometryWriter.writeGeometry(writer, point);
+			TestCase.fail("Geometry was written to a closed writer");
+		} catch (WkbException e) {
+			// Expected
+		}
+		try {
+			writer.writeInt(0, 1);
+			TestCase.fail("Integer was written to a closed writer");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(length, writer.length());
+		TestCase.assertEquals(length, file.length());
+
+		// Closing again has no effect
+		writer.close();
+	}
+
+	/**
+	 * Test a mapped byte writer with an invalid region size
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testInvalidRegionSize() throws IOException {
+
+		File file = File.createTempFile("wkb", ".bin");
+		file.deleteOnExit();
+
+		// The file opened for the writer is closed when mapping fails
+		try {
+			new MappedByteWriter(file, -1);
+			TestCase.fail("Negative region size was mapped");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		TestCase.assertTrue(file.delete());
+	}
+
+}
@@ -0,0 +1,81 @@
+package mil.nga.wkb.test.io;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.PolylineCodec;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test encoded polylines
+ * 
+ * @author osbornb
+ */
+public class PolylineCodecTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public PolylineCodecTest() {
+
+	}
+
+	/**
+	 * Test encoded polyline encoding and decoding
+	 */
+	@Test
+	public void testPolylineCodec() {
+
+		String encoded = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(-120.2, 38.5));
+		lineString.addPoint(new Point(-120.95, 40.7));
+		lineString.addPoint(new Point(-126.453, 43.252));
+
+		TestCase.assertEquals(encoded, PolylineCodec.encode(lineString));
+		WKBTestUtils.compareGeometries(lineString,
+				PolylineCodec.decodeLineString(encoded));
+
+		double[] coordinates = PolylineCodec.decodeCoordinates(encoded,
+				PolylineCodec.DEFAULT_PRECISION);
+		TestCase.assertEquals(6, coordinates.length);
+		TestCase.assertEquals(-126.453, coordinates[4]);
+		TestCase.assertEquals(43.252, coordinates[5]);
+		StringBuilder builder = new StringBuilder("prefix");
+		PolylineCodec.encode(coordinates, 0, 3,
+				PolylineCodec.DEFAULT_PRECISION, builder);
+		TestCase.assertEquals("prefix" + encoded, builder.toString());
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			LineString random = WKBTestUtils.createLineString(false, false);
+			String randomEncoded = PolylineCodec.encode(random, 6);
+			LineString decoded = PolylineCodec.decodeLineString(
+					randomEncoded, 6);
+			TestCase.assertEquals(random.numPoints(), decoded.numPoints());
+			for (int j = 0; j < random.numPoints(); j++) {
+				TestCase.assertEquals(random.getPoints().get(j).getX(),
+						decoded.getPoints().get(j).getX(), .000001);
+				TestCase.assertEquals(random.getPoints().get(j).getY(),
+						decoded.getPoints().get(j).getY(), .000001);
+			}
+			TestCase.assertEquals(randomEncoded,
+					PolylineCodec.encode(decoded, 6));
+		}
+
+		try {
+			PolylineCodec.decodeLineString("_p~iF~ps|U_");
+			TestCase.fail("Incomplete polyline was decoded");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+}
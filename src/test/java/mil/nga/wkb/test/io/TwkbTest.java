@@ -0,0 +1,156 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.CircularString;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryEnvelope;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.TwkbGeometryReader;
+import mil.nga.wkb.io.TwkbGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.GeometryEnvelopeBuilder;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Tiny Well Known Binary
+ * 
+ * @author osbornb
+ */
+public class TwkbTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public TwkbTest() {
+
+	}
+
+	/**
+	 * Test Tiny Well-Known Binary reading and writing
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTwkb() throws IOException {
+
+		// POINT(1 2) with a precision of 0
+		ByteWriter pointWriter = new ByteWriter();
+		TwkbGeometryWriter.writeGeometry(pointWriter, new Point(1, 2), 0);
+		byte[] pointBytes = pointWriter.getBytes();
+		pointWriter.close();
+		WKBTestUtils.compareByteArrays(new byte[] { 0x01, 0x00, 0x02, 0x04 },
+				pointBytes);
+		WKBTestUtils.compareGeometries(new Point(1, 2),
+				TwkbGeometryReader.readGeometry(new ByteReader(pointBytes)));
+
+		// Multi point with an id list, which is read past
+		MultiPoint multiPoint = TwkbGeometryReader.readGeometry(
+				new ByteReader(new byte[] { 0x04, 0x04, 0x02, 0x02, 0x04,
+						0x02, 0x04, 0x00, 0x00 }), MultiPoint.class);
+		TestCase.assertEquals(2, multiPoint.numPoints());
+		WKBTestUtils.compareGeometries(new Point(1, 2), multiPoint
+				.getPoints().get(1));
+
+		// Empty geometries
+		ByteWriter emptyWriter = new ByteWriter();
+		TwkbGeometryWriter.writeGeometry(emptyWriter, new Point(Double.NaN,
+				Double.NaN), 0, 0, 0, true, true);
+		TwkbGeometryWriter.writeGeometry(emptyWriter, new LineString(), 0, 0,
+				0, true, true);
+		ByteReader emptyReader = new ByteReader(emptyWriter.getBytes());
+		emptyWriter.close();
+		Point emptyPoint = TwkbGeometryReader.readGeometry(emptyReader,
+				Point.class);
+		TestCase.assertTrue(Double.isNaN(emptyPoint.getX()));
+		TestCase.assertEquals(0, TwkbGeometryReader
+				.readGeometry(emptyReader, LineString.class).numPoints());
+		TestCase.assertEquals(0, emptyReader.remaining());
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			boolean includeSize = WKBTestUtils.coinFlip();
+			boolean includeBbox = WKBTestUtils.coinFlip();
+
+			ByteWriter writer = new ByteWriter();
+			TwkbGeometryWriter.writeGeometry(writer, geometry, 7, 3, 3,
+					includeSize, includeBbox);
+			byte[] bytes = writer.getBytes();
+			writer.close();
+
+			// Coordinates are rounded to the precision
+			Geometry twkbGeometry = TwkbGeometryReader
+					.readGeometry(new ByteReader(bytes));
+			TestCase.assertEquals(geometry.getGeometryType(),
+					twkbGeometry.getGeometryType());
+			GeometryEnvelope envelope = GeometryEnvelopeBuilder
+					.buildEnvelope(geometry);
+			GeometryEnvelope twkbEnvelope = GeometryEnvelopeBuilder
+					.buildEnvelope(twkbGeometry);
+			TestCase.assertEquals(envelope.getMinX(), twkbEnvelope.getMinX(),
+					.0000001);
+			TestCase.assertEquals(envelope.getMaxY(), twkbEnvelope.getMaxY(),
+					.0000001);
+
+			// Rounded coordinates are written to the same bytes
+			ByteWriter twkbWriter = new ByteWriter();
+			TwkbGeometryWriter.writeGeometry(twkbWriter, twkbGeometry, 7, 3,
+					3, includeSize, includeBbox);
+			WKBTestUtils.compareByteArrays(bytes, twkbWriter.getBytes());
+			twkbWriter.close();
+
+			if (!includeBbox) {
+				TestCase.assertTrue(bytes.length < WKBTestUtils
+						.writeBytes(geometry).length);
+			}
+		}
+
+		try {
+			TwkbGeometryWriter.writeGeometry(new ByteWriter(),
+					new CircularString(), 0);
+			TestCase.fail("Unsupported geometry type was written");
+		} catch (WkbException e) {
+			// Expected
+		}
+
+		// Non finite and out of range x and y values are rejected
+		double[] invalid = new double[] { Double.NaN,
+				Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.0e300 };
+		for (double value : invalid) {
+			LineString lineString = new LineString();
+			lineString.addPoint(new Point(1, 2));
+			lineString.addPoint(new Point(value, 2));
+			MultiPoint invalidPoints = new MultiPoint();
+			invalidPoints.addPoint(new Point(1, value));
+			Geometry[] geometries = new Geometry[] { new Point(value, 2),
+					lineString, invalidPoints };
+			for (Geometry geometry : geometries) {
+				if (geometry instanceof Point && Double.isNaN(value)) {
+					continue;
+				}
+				try {
+					TwkbGeometryWriter.writeGeometry(new ByteWriter(),
+							geometry, 0);
+					TestCase.fail("Invalid coordinate was written: " + value);
+				} catch (WkbException e) {
+					// Expected
+				}
+			}
+		}
+	}
+
+}
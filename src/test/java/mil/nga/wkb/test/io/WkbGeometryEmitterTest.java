@@ -0,0 +1,160 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryEmitter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Binary streaming geometry emitting
+ * 
+ * @author osbornb
+ */
+public class WkbGeometryEmitterTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbGeometryEmitterTest() {
+
+	}
+
+	@Test
+	public void testEmitter() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(hasZ,
+					hasM);
+			byte[] expected = WKBTestUtils.writeBytes(multiPolygon);
+
+			// Emit with counts written up front and with back patched counts
+			for (boolean knownCounts : new boolean[] { true, false }) {
+
+				ByteWriter writer = new ByteWriter();
+				WkbGeometryEmitter emitter = new WkbGeometryEmitter(writer,
+						hasZ, hasM);
+				if (knownCounts) {
+					emitter.begin(GeometryType.MULTIPOLYGON,
+							multiPolygon.numPolygons());
+				} else {
+					emitter.beginMultiPolygon();
+				}
+				for (Polygon polygon : multiPolygon.getPolygons()) {
+					if (knownCounts) {
+						emitter.beginPolygon(polygon.numRings());
+					} else {
+						emitter.beginPolygon();
+					}
+					for (LineString ring : polygon.getRings()) {
+						if (knownCounts) {
+							emitter.beginRing(ring.numPoints());
+						} else {
+							emitter.beginRing();
+						}
+						for (Point point : ring.getPoints()) {
+							if (hasZ && hasM) {
+								emitter.coordinate(point.getX(), point.getY(),
+										point.getZ(), point.getM());
+							} else if (hasZ) {
+								emitter.coordinate(point.getX(), point.getY(),
+										point.getZ());
+							} else if (hasM) {
+								emitter.coordinate(point.getX(), point.getY(),
+										point.getM());
+							} else {
+								emitter.coordinate(point.getX(), point.getY());
+							}
+						}
+						emitter.end();
+					}
+					emitter.end();
+				}
+				emitter.end();
+				TestCase.assertEquals(0, emitter.getDepth());
+
+				byte[] bytes = writer.getBytes();
+				writer.close();
+				WKBTestUtils.compareByteArrays(expected, bytes);
+			}
+		}
+
+		// Mismatched structure and counts are rejected
+		WkbGeometryEmitter emitter = new WkbGeometryEmitter(new ByteWriter());
+		try {
+			emitter.beginRing();
+			TestCase.fail("Ring outside of a polygon was emitted");
+		} catch (WkbException e) {
+			// Expected
+		}
+		emitter.beginLineString(2);
+		emitter.coordinate(1, 2);
+		try {
+			emitter.end();
+			TestCase.fail("Line string with too few points was ended");
+		} catch (WkbException e) {
+			// Expected
+		}
+
+		// Circular strings are only allowed within compound curves
+		emitter = new WkbGeometryEmitter(new ByteWriter());
+		emitter.beginMultiLineString();
+		try {
+			emitter.begin(GeometryType.CIRCULARSTRING);
+			TestCase.fail("Circular string was emitted in a multi line string");
+		} catch (WkbException e) {
+			// Expected
+		}
+		emitter = new WkbGeometryEmitter(new ByteWriter());
+		emitter.begin(GeometryType.COMPOUNDCURVE);
+		emitter.begin(GeometryType.CIRCULARSTRING);
+		TestCase.assertEquals(2, emitter.getDepth());
+
+		// Invalid counts are rejected before anything is written
+		ByteWriter writer = new ByteWriter();
+		emitter = new WkbGeometryEmitter(writer);
+		emitter.beginMultiLineString();
+		long length = writer.length();
+		try {
+			emitter.beginLineString(-2);
+			TestCase.fail("Line string with a negative count was begun");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(length, writer.length());
+		TestCase.assertEquals(1, emitter.getDepth());
+
+		// Complete geometries must match the emitter dimensions
+		Point zPoint = new Point(true, false, 1, 2);
+		zPoint.setZ(3.0);
+		try {
+			emitter.geometry(zPoint);
+			TestCase.fail("Z geometry was emitted without z values");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(length, writer.length());
+		emitter.geometry(WKBTestUtils.createLineString(false, false));
+		emitter.end();
+		TestCase.assertEquals(0, emitter.getDepth());
+		writer.close();
+	}
+
+}
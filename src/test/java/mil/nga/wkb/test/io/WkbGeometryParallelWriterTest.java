@@ -0,0 +1,83 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryParallelWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Binary parallel geometry writing
+ * 
+ * @author osbornb
+ */
+public class WkbGeometryParallelWriterTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbGeometryParallelWriterTest() {
+
+	}
+
+	@Test
+	public void testParallelWrite() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+
+			// Create a multi polygon and geometry collection with many parts
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			GeometryCollection<Geometry> geometryCollection = new GeometryCollection<Geometry>(
+					hasZ, hasM);
+			for (int j = 0; j < 300; j++) {
+				multiPolygon.addPolygon(WKBTestUtils
+						.createPolygon(hasZ, hasM));
+				geometryCollection.addGeometry(WKBTestUtils
+						.createGeometryCollection(hasZ, hasM));
+			}
+
+			parallelWriteTester(multiPolygon);
+			parallelWriteTester(geometryCollection);
+		}
+
+	}
+
+	/**
+	 * Test the geometry writing in parallel matches the sequential bytes
+	 * 
+	 * @param geometry
+	 * @throws IOException
+	 */
+	private void parallelWriteTester(Geometry geometry) throws IOException {
+
+		for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN,
+				ByteOrder.LITTLE_ENDIAN }) {
+
+			byte[] expected = WKBTestUtils.writeBytes(geometry, byteOrder);
+
+			ByteWriter writer = new ByteWriter();
+			writer.setByteOrder(byteOrder);
+			WkbGeometryParallelWriter.writeGeometry(writer, geometry, 1);
+			byte[] bytes = writer.getBytes();
+			writer.close();
+
+			WKBTestUtils.compareByteArrays(expected, bytes);
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryPool;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Binary geometry pools
+ * 
+ * @author osbornb
+ */
+public class WkbGeometryPoolTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbGeometryPoolTest() {
+
+	}
+
+	/**
+	 * Test interning geometries read through a pool
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeometryPool() throws IOException {
+
+		WkbGeometryPool pool = new WkbGeometryPool();
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			byte[] bytes = WKBTestUtils.writeBytes(geometry);
+			Geometry interned = pool.intern(bytes);
+			TestCase.assertTrue(interned.isFrozen());
+			TestCase.assertEquals(geometry, interned);
+			TestCase.assertSame(interned, pool.intern(bytes.clone()));
+			TestCase.assertEquals(i + 1, pool.size());
+		}
+
+		// Consecutive geometries read through the pool advance the reader
+		Point point = new Point(1, 2);
+		LineString lineString = WKBTestUtils.createLineString(false, false);
+		ByteWriter writer = new ByteWriter();
+		WkbGeometryWriter.writeGeometry(writer, point);
+		WkbGeometryWriter.writeGeometry(writer, lineString);
+		WkbGeometryWriter.writeGeometry(writer, point);
+		ByteReader reader = new ByteReader(writer.getBytes());
+		writer.close();
+		Point first = pool.readGeometry(reader, Point.class);
+		TestCase.assertEquals(lineString,
+				pool.readGeometry(reader, LineString.class));
+		TestCase.assertSame(first, pool.readGeometry(reader));
+		TestCase.assertEquals(0, reader.remaining());
+		TestCase.assertEquals(point, first);
+
+		try {
+			pool.readGeometry(new ByteReader(WKBTestUtils.writeBytes(point)),
+					LineString.class);
+			TestCase.fail("Unexpected geometry type was read");
+		} catch (WkbException e) {
+			// expected
+		}
+
+		pool.clear();
+		TestCase.assertEquals(0, pool.size());
+		TestCase.assertNotSame(first,
+				pool.intern(WKBTestUtils.writeBytes(point)));
+	}
+
+	/**
+	 * Test interning truncated Well-Known Binary
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTruncatedGeometry() throws IOException {
+
+		WkbGeometryPool pool = new WkbGeometryPool();
+		byte[] bytes = WKBTestUtils.writeBytes(WKBTestUtils.createPolygon(
+				WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip()));
+		for (int length = 0; length < bytes.length; length += 3) {
+			try {
+				pool.intern(Arrays.copyOf(bytes, length));
+				TestCase.fail("Truncated geometry was interned. Length: "
+						+ length);
+			} catch (WkbException e) {
+				// Expected
+			}
+		}
+		TestCase.assertEquals(0, pool.size());
+
+		// A truncated geometry does not advance the reader
+		ByteReader reader = new ByteReader(Arrays.copyOf(bytes,
+				bytes.length - 1));
+		try {
+			pool.readGeometry(reader);
+			TestCase.fail("Truncated geometry was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(bytes.length - 1, reader.remaining());
+	}
+
+}
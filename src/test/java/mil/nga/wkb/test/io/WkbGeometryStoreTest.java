@@ -0,0 +1,147 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryHandle;
+import mil.nga.wkb.io.WkbGeometryPool;
+import mil.nga.wkb.io.WkbGeometryStore;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.io.WkbWktTranscoder;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test off heap Well Known Binary geometry stores
+ * 
+ * @author osbornb
+ */
+public class WkbGeometryStoreTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbGeometryStoreTest() {
+
+	}
+
+	/**
+	 * Test storing geometries off heap and reading them through handles
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testGeometryStore() throws IOException {
+
+		WkbGeometryStore store = new WkbGeometryStore(256);
+		List<Geometry> geometries = new ArrayList<Geometry>();
+		long byteSize = 0;
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			byte[] bytes = WKBTestUtils.writeBytes(geometry);
+			TestCase.assertEquals(2 * i, store.add(geometry));
+			TestCase.assertEquals(2 * i + 1, store.add(bytes));
+			geometries.add(geometry);
+			byteSize += 2 * bytes.length;
+		}
+		TestCase.assertEquals(2 * GEOMETRIES_PER_TEST, store.size());
+		TestCase.assertEquals(byteSize, store.getByteSize());
+
+		WkbGeometryPool pool = new WkbGeometryPool();
+		for (int i = 0; i < store.size(); i++) {
+			Geometry geometry = geometries.get(i / 2);
+			byte[] bytes = WKBTestUtils.writeBytes(geometry);
+			WkbGeometryHandle handle = store.getHandle(i);
+			TestCase.assertEquals(bytes.length, handle.getLength());
+			TestCase.assertEquals(ByteBuffer.wrap(bytes), handle.getBytes());
+			TestCase.assertTrue(handle.getBytes().isReadOnly());
+			TestCase.assertEquals(GeometryType.GEOMETRYCOLLECTION, handle
+					.getGeometryTypeInfo().getGeometryType());
+			TestCase.assertEquals(geometry, handle.getGeometry());
+			TestCase.assertEquals(geometry, store.getGeometry(i));
+			StringBuilder wkt = new StringBuilder();
+			WkbWktTranscoder.transcode(handle.getReader(), wkt);
+			TestCase.assertEquals(WkbWktTranscoder.transcode(bytes),
+					wkt.toString());
+			TestCase.assertSame(handle.internGeometry(pool),
+					store.getHandle(i - i % 2).internGeometry(pool));
+		}
+
+		// Consecutive geometries are added from a reader
+		ByteWriter writer = new ByteWriter();
+		WkbGeometryWriter.writeGeometry(writer, new Point(1, 2));
+		WkbGeometryWriter.writeGeometry(writer, new Point(3, 4));
+		ByteReader reader = new ByteReader(writer.getBytes());
+		writer.close();
+		int index = store.add(reader);
+		store.add(reader);
+		TestCase.assertEquals(0, reader.remaining());
+		TestCase.assertEquals(new Point(1, 2),
+				store.getHandle(index).getGeometry(Point.class));
+		TestCase.assertEquals(new Point(3, 4), store.getGeometry(index + 1));
+
+		try {
+			store.getHandle(store.size());
+			TestCase.fail("Handle created beyond the stored geometries");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test storing truncated Well-Known Binary
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTruncatedGeometry() throws IOException {
+
+		WkbGeometryStore store = new WkbGeometryStore(256);
+		byte[] bytes = WKBTestUtils.writeBytes(WKBTestUtils.createPolygon(
+				WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip()));
+		for (int length = 0; length < bytes.length; length += 3) {
+			try {
+				store.add(Arrays.copyOf(bytes, length));
+				TestCase.fail("Truncated geometry was stored. Length: "
+						+ length);
+			} catch (WkbException e) {
+				// Expected
+			}
+		}
+		TestCase.assertEquals(0, store.size());
+		TestCase.assertEquals(0, store.getByteSize());
+
+		try {
+			store.add(new byte[] { 1, (byte) 0xFF, 0, 0, 0, 0 });
+			TestCase.fail("Unknown geometry type was stored");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(0, store.size());
+
+		try {
+			store.getGeometry(-1);
+			TestCase.fail("Geometry read before the stored geometries");
+		} catch (IndexOutOfBoundsException e) {
+			// Expected
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.io.ByteReader;
+import mil.nga.wkb.io.ByteWriter;
+import mil.nga.wkb.io.WkbGeometryReader;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.io.WkbTextCodec;
+import mil.nga.wkb.io.WkbTextReader;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Binary text encoding
+ * 
+ * @author osbornb
+ */
+public class WkbTextCodecTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbTextCodecTest() {
+
+	}
+
+	@Test
+	public void testTextCodec() throws IOException {
+
+		// Little endian POINT(1 2)
+		String hex = "0101000000000000000000F03F0000000000000040";
+		String base64 = "AQEAAAAAAAAAAADwPwAAAAAAAABA";
+		WkbTextCodec hexCodec = new WkbTextCodec(WkbTextCodec.Encoding.HEX);
+		WkbTextCodec base64Codec = new WkbTextCodec(
+				WkbTextCodec.Encoding.BASE64);
+		WKBTestUtils.compareGeometries(new Point(1, 2),
+				WkbGeometryReader.readGeometry(hexCodec.decode(hex)));
+		WKBTestUtils.compareGeometries(new Point(1, 2), WkbGeometryReader
+				.readGeometry(hexCodec.decode(hex.toLowerCase())));
+		WKBTestUtils.compareGeometries(new Point(1, 2),
+				WkbGeometryReader.readGeometry(base64Codec.decode(base64)));
+		ByteWriter pointWriter = new ByteWriter();
+		pointWriter.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+		WkbGeometryWriter.writeGeometry(pointWriter, new Point(1, 2));
+		TestCase.assertEquals(hex,
+				WkbTextCodec.encode(pointWriter, WkbTextCodec.Encoding.HEX));
+		TestCase.assertEquals(base64, WkbTextCodec.encode(pointWriter,
+				WkbTextCodec.Encoding.BASE64));
+		pointWriter.close();
+
+		// Base64 padding
+		byte[] pointBytes = WKBTestUtils.writeBytes(new Point(1, 2));
+		for (int length = pointBytes.length - 2; length <= pointBytes.length;
+				length++) {
+			byte[] bytes = new byte[length];
+			System.arraycopy(pointBytes, 0, bytes, 0, length);
+			String encoded = WkbTextCodec.encode(bytes,
+					WkbTextCodec.Encoding.BASE64);
+			ByteReader reader = base64Codec.decode(encoded);
+			TestCase.assertEquals(length, reader.remaining());
+		}
+
+		// Stream values separated by whitespace
+		StringBuilder text = new StringBuilder();
+		Geometry[] geometries = new Geometry[GEOMETRIES_PER_TEST];
+		for (int i = 0; i < geometries.length; i++) {
+			geometries[i] = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			text.append(WkbTextCodec.encode(
+					WKBTestUtils.writeBytes(geometries[i]),
+					WkbTextCodec.Encoding.HEX));
+			text.append(i % 2 == 0 ? "\r\n" : " \t");
+		}
+		WkbTextReader textReader = new WkbTextReader(new StringReader(
+				text.toString()), WkbTextCodec.Encoding.HEX);
+		for (Geometry geometry : geometries) {
+			WKBTestUtils.compareGeometries(geometry,
+					textReader.nextGeometry());
+		}
+		TestCase.assertNull(textReader.next());
+		textReader.close();
+	}
+
+	/**
+	 * Test streaming values that are not separated by whitespace
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTextReaderDelimited() throws IOException {
+
+		String hex = WkbTextCodec.encode(
+				WKBTestUtils.writeBytes(new Point(1, 2)),
+				WkbTextCodec.Encoding.HEX);
+		String base64 = WkbTextCodec.encode(
+				WKBTestUtils.writeBytes(new Point(1, 2)),
+				WkbTextCodec.Encoding.BASE64);
+
+		// CSV columns, quotes and header names are not treated as separators
+		String[][] texts = new String[][] {
+				{ "id,name,wkb\n1,face,\"" + hex + "\"\n", "HEX" },
+				{ hex + ",\n", "HEX" }, { "\"" + hex + "\"", "HEX" },
+				{ "name,geom\n" + base64, "BASE64" },
+				{ base64 + ";" + base64, "BASE64" } };
+		for (String[] text : texts) {
+			WkbTextReader textReader = new WkbTextReader(new StringReader(
+					text[0]), WkbTextCodec.Encoding.valueOf(text[1]));
+			try {
+				textReader.next();
+				TestCase.fail("Delimited text was read: " + text[0]);
+			} catch (WkbException e) {
+				// Expected
+			} finally {
+				textReader.close();
+			}
+		}
+	}
+
+	/**
+	 * Test streaming values from a column of CSV records
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTextReaderCsv() throws IOException {
+
+		Geometry[] geometries = new Geometry[GEOMETRIES_PER_TEST];
+		for (int i = 0; i < geometries.length; i++) {
+			geometries[i] = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+		}
+
+		// Hex export with a header, quoted fields containing delimiters,
+		// quotes and line breaks, 0x and \x prefixes and a NULL geometry
+		StringBuilder text = new StringBuilder("id,name,geom,notes\r\n");
+		for (int i = 0; i < geometries.length; i++) {
+			String hex = WkbTextCodec.encode(
+					WKBTestUtils.writeBytes(geometries[i]),
+					WkbTextCodec.Encoding.HEX);
+			text.append(i).append(",\"name, \"\"").append(i)
+					.append("\"\"\nline\",");
+			if (i % 3 == 0) {
+				text.append("0x").append(hex);
+			} else if (i % 3 == 1) {
+				text.append("\"\\x").append(hex.toLowerCase()).append('"');
+			} else {
+				text.append(hex);
+			}
+			text.append(",\"a,b\"\r\n");
+			if (i == 0) {
+				text.append("nil,\"null geometry\",,\r\n\r\n");
+			}
+		}
+		WkbTextReader textReader = new WkbTextReader(new StringReader(
+				text.toString()), WkbTextCodec.Encoding.HEX, ',', '"', 2,
+				true);
+		for (Geometry geometry : geometries) {
+			WKBTestUtils.compareGeometries(geometry,
+					textReader.nextGeometry());
+		}
+		TestCase.assertNull(textReader.next());
+		textReader.close();
+
+		// Base64 first column with another delimiter and quote, no header
+		text = new StringBuilder();
+		for (Geometry geometry : geometries) {
+			text.append('\'')
+					.append(WkbTextCodec.encode(
+							WKBTestUtils.writeBytes(geometry),
+							WkbTextCodec.Encoding.BASE64)).append("';x;y\n");
+		}
+		textReader = new WkbTextReader(new StringReader(text.toString()),
+				WkbTextCodec.Encoding.BASE64, ';', '\'', 0, false);
+		for (Geometry geometry : geometries) {
+			WKBTestUtils.compareGeometries(geometry,
+					textReader.nextGeometry());
+		}
+		TestCase.assertNull(textReader.next());
+		textReader.close();
+
+		// Malformed records
+		String hex = WkbTextCodec.encode(
+				WKBTestUtils.writeBytes(new Point(1, 2)),
+				WkbTextCodec.Encoding.HEX);
+		String[] texts = new String[] { "1,2\n", "1,\"name,2\n",
+				"1,name,\"" + hex + "\n", "1,name," + hex + "x\n",
+				"1,name,\\y" + hex + "\n" };
+		for (String malformed : texts) {
+			textReader = new WkbTextReader(new StringReader(malformed),
+					WkbTextCodec.Encoding.HEX, ',', '"', 2, false);
+			try {
+				textReader.next();
+				TestCase.fail("Malformed CSV was read: " + malformed);
+			} catch (WkbException e) {
+				// Expected
+			} finally {
+				textReader.close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,212 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryCollection;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.MultiPoint;
+import mil.nga.wkb.geom.MultiPolygon;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.Polygon;
+import mil.nga.wkb.geom.TIN;
+import mil.nga.wkb.io.GeoJsonGeometryWriter;
+import mil.nga.wkb.io.WkbByteOrderTranscoder;
+import mil.nga.wkb.io.WkbDimensionTranscoder;
+import mil.nga.wkb.io.WkbGeoJsonTranscoder;
+import mil.nga.wkb.io.WkbGeometryWriter;
+import mil.nga.wkb.io.WkbWktTranscoder;
+import mil.nga.wkb.io.WktGeometryReader;
+import mil.nga.wkb.io.WktGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Binary transcoding
+ * 
+ * @author osbornb
+ */
+public class WkbTranscoderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WkbTranscoderTest() {
+
+	}
+
+	@Test
+	public void testByteOrderTranscode() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			byte[] bigEndian = WKBTestUtils.writeBytes(geometry,
+					ByteOrder.BIG_ENDIAN);
+			byte[] littleEndian = WKBTestUtils.writeBytes(geometry,
+					ByteOrder.LITTLE_ENDIAN);
+
+			WKBTestUtils.compareByteArrays(littleEndian, WkbByteOrderTranscoder
+					.transcode(bigEndian, ByteOrder.LITTLE_ENDIAN));
+			WKBTestUtils.compareByteArrays(bigEndian, WkbByteOrderTranscoder
+					.transcode(littleEndian, ByteOrder.BIG_ENDIAN));
+			WKBTestUtils.compareByteArrays(bigEndian, WkbByteOrderTranscoder
+					.transcode(bigEndian, ByteOrder.BIG_ENDIAN));
+
+			byte[] bytes = bigEndian.clone();
+			WkbByteOrderTranscoder.transcodeInPlace(bytes,
+					ByteOrder.LITTLE_ENDIAN);
+			WKBTestUtils.compareByteArrays(littleEndian, bytes);
+			WkbByteOrderTranscoder.transcodeInPlace(bytes,
+					ByteOrder.BIG_ENDIAN);
+			WKBTestUtils.compareByteArrays(bigEndian, bytes);
+		}
+
+		// Truncated bytes are rejected without modification
+		Geometry geometry = WKBTestUtils.createMultiPolygon(false, false);
+		byte[] bytes = WKBTestUtils.writeBytes(geometry);
+		byte[] truncated = new byte[bytes.length - 1];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		try {
+			WkbByteOrderTranscoder.transcodeInPlace(truncated,
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.fail("Truncated geometry was transcoded");
+		} catch (WkbException e) {
+			// Expected
+		}
+		TestCase.assertEquals(0, truncated[0]);
+	}
+
+	@Test
+	public void testDimensionTranscode() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(true,
+					true);
+			byte[] bytes = WKBTestUtils.writeBytes(multiPolygon,
+					WKBTestUtils.coinFlip() ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN);
+
+			for (boolean hasZ : new boolean[] { true, false }) {
+				for (boolean hasM : new boolean[] { true, false }) {
+
+					// Project the geometry by rebuilding it
+					MultiPolygon projected = new MultiPolygon(hasZ, hasM);
+					for (Polygon polygon : multiPolygon.getPolygons()) {
+						Polygon projectedPolygon = new Polygon(hasZ, hasM);
+						for (LineString ring : polygon.getRings()) {
+							LineString projectedRing = new LineString(hasZ,
+									hasM);
+							for (Point point : ring.getPoints()) {
+								Point projectedPoint = new Point(hasZ, hasM,
+										point.getX(), point.getY());
+								if (hasZ) {
+									projectedPoint.setZ(point.getZ());
+								}
+								if (hasM) {
+									projectedPoint.setM(point.getM());
+								}
+								projectedRing.addPoint(projectedPoint);
+							}
+							projectedPolygon.addRing(projectedRing);
+						}
+						projected.addPolygon(projectedPolygon);
+					}
+
+					byte[] transcoded = WkbDimensionTranscoder.transcode(
+							bytes, hasZ, hasM);
+					WKBTestUtils.compareGeometries(projected,
+							WKBTestUtils.readGeometry(transcoded));
+					TestCase.assertEquals(
+							WkbGeometryWriter.sizeOf(projected),
+							transcoded.length);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test transcoding Well-Known Binary directly to GeoJSON and WKT text
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testTextTranscode() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip() ? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = WKBTestUtils.writeBytes(geometry, byteOrder);
+			TestCase.assertEquals(WktGeometryWriter.writeGeometry(geometry),
+					WkbWktTranscoder.transcode(bytes));
+			TestCase.assertEquals(GeoJsonGeometryWriter.writeGeometry(geometry),
+					WkbGeoJsonTranscoder.transcode(bytes));
+			TestCase.assertEquals(
+					GeoJsonGeometryWriter.writeGeometry(geometry, 3),
+					WkbGeoJsonTranscoder.transcode(bytes, 3));
+		}
+
+		// Unset z values are written as by the geometry writers
+		LineString lineString = new LineString(true, false);
+		lineString.addPoint(new Point(true, false, 1, 2));
+		Point point = new Point(true, false, 3, 4);
+		point.setZ(5.0);
+		lineString.addPoint(point);
+		MultiPoint multiPoint = new MultiPoint(true, false);
+		multiPoint.addPoint(new Point(true, false, 6, 7));
+		multiPoint.addPoint(point);
+		GeometryCollection<Geometry> collection = new GeometryCollection<Geometry>(
+				true, false);
+		collection.addGeometry(new Point(true, false, 8, 9));
+		collection.addGeometry(lineString);
+		collection.addGeometry(multiPoint);
+		byte[] unsetZBytes = WKBTestUtils.writeBytes(collection);
+		TestCase.assertEquals(GeoJsonGeometryWriter.writeGeometry(collection),
+				WkbGeoJsonTranscoder.transcode(unsetZBytes));
+		TestCase.assertEquals(WktGeometryWriter.writeGeometry(collection),
+				WkbWktTranscoder.transcode(unsetZBytes));
+		TestCase.assertEquals("{\"type\":\"LineString\",\"coordinates\":"
+				+ "[[1,2],[3,4,5]]}", WkbGeoJsonTranscoder
+				.transcode(WKBTestUtils.writeBytes(lineString)));
+
+		// Curves, surfaces and empty geometries
+		String[] wkts = new String[] { "POINT EMPTY",
+				"COMPOUNDCURVE ((0 0, 1 1), CIRCULARSTRING (1 1, 2 2, 3 1))",
+				"CURVEPOLYGON (CIRCULARSTRING (0 0, 1 1, 0 0), (0 0, 1 0, 0 0))",
+				"TIN Z (((0 0 0, 1 0 0, 0 1 0, 0 0 0)))",
+				"GEOMETRYCOLLECTION (POINT M (1 2 3), MULTIPOINT EMPTY)" };
+		for (String wkt : wkts) {
+			byte[] bytes = WKBTestUtils.writeBytes(WktGeometryReader
+					.readGeometry(wkt));
+			TestCase.assertEquals(wkt, WkbWktTranscoder.transcode(bytes));
+		}
+		TestCase.assertEquals(
+				"{\"type\":\"MultiPolygon\",\"coordinates\":"
+						+ "[[[[0,0,0],[1,0,0],[0,1,0],[0,0,0]]]]}",
+				WkbGeoJsonTranscoder.transcode(WKBTestUtils
+						.writeBytes(WktGeometryReader.readGeometry(wkts[3])), 0));
+
+		try {
+			WkbGeoJsonTranscoder.transcode(WKBTestUtils
+					.writeBytes(WktGeometryReader.readGeometry(wkts[1])));
+			TestCase.fail("Curve was transcoded to GeoJSON");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+}
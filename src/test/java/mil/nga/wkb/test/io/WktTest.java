@@ -0,0 +1,191 @@
+package mil.nga.wkb.test.io;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+import mil.nga.wkb.geom.Geometry;
+import mil.nga.wkb.geom.GeometryType;
+import mil.nga.wkb.geom.LineString;
+import mil.nga.wkb.geom.Point;
+import mil.nga.wkb.geom.TIN;
+import mil.nga.wkb.io.GeoJsonGeometryWriter;
+import mil.nga.wkb.io.WkbWktTranscoder;
+import mil.nga.wkb.io.WktGeometryReader;
+import mil.nga.wkb.io.WktGeometryWriter;
+import mil.nga.wkb.test.WKBTestUtils;
+import mil.nga.wkb.util.WkbException;
+
+import org.junit.Test;
+
+/**
+ * Test Well Known Text geometries
+ * 
+ * @author osbornb
+ */
+public class WktTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Constructor
+	 */
+	public WktTest() {
+
+	}
+
+	/**
+	 * Test reading and writing Well-Known Text
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWkt() throws IOException {
+
+		String[] wkts = new String[] { "POINT (1 2)", "POINT Z (1 2 3)",
+				"POINT EMPTY", "LINESTRING ZM (0 0 1 2, 1.5 -2.25 3 4)",
+				"POLYGON ((0 0, 1 0, 0 1, 0 0), (0.1 0.1, 0.2 0.1, 0.1 0.1))",
+				"MULTIPOINT ((1 2), (3 4))",
+				"MULTILINESTRING M ((0 0 1, 1 1 2))",
+				"MULTIPOLYGON (((0 0, 1 0, 0 1, 0 0)))",
+				"GEOMETRYCOLLECTION (POINT (1 2), LINESTRING EMPTY)",
+				"CIRCULARSTRING (0 0, 1 1, 2 0)",
+				"COMPOUNDCURVE ((0 0, 1 1), CIRCULARSTRING (1 1, 2 2, 3 1))",
+				"CURVEPOLYGON (CIRCULARSTRING (0 0, 1 1, 0 0), (0 0, 1 0, 0 0))",
+				"TRIANGLE Z ((0 0 0, 1 0 0, 0 1 0, 0 0 0))",
+				"TIN Z (((0 0 0, 1 0 0, 0 1 0, 0 0 0)))",
+				"POLYHEDRALSURFACE (((0 0, 1 0, 0 1, 0 0)))",
+				"POINT (0.000001 123456789012345680000)" };
+		for (String wkt : wkts) {
+			Geometry geometry = WktGeometryReader.readGeometry(wkt);
+			TestCase.assertEquals(wkt, WktGeometryWriter.writeGeometry(geometry));
+		}
+
+		// Case, whitespace, SRID prefix and untagged dimensions
+		Point point = WktGeometryReader.readGeometry(
+				"SRID=4326; point(1  2.5e1   3)", Point.class);
+		TestCase.assertTrue(point.hasZ());
+		TestCase.assertFalse(point.hasM());
+		TestCase.assertEquals(25.0, point.getY());
+		TestCase.assertEquals(3.0, point.getZ());
+		TestCase.assertEquals("MULTIPOINT ((1 2), (3 4))",
+				WktGeometryWriter.writeGeometry(WktGeometryReader
+						.readGeometry("MULTIPOINT (1 2, 3 4)")));
+		TIN tin = WktGeometryReader.readGeometry(
+				"TIN Z (((0 0 0, 1 0 0, 0 1 0, 0 0 0)))", TIN.class);
+		TestCase.assertEquals(GeometryType.TRIANGLE, tin.getPolygons().get(0)
+				.getGeometryType());
+
+		// Random geometries written and read
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			Geometry geometry = WKBTestUtils.createGeometryCollection(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			String wkt = WktGeometryWriter.writeGeometry(geometry);
+			WKBTestUtils.compareGeometries(geometry,
+					WktGeometryReader.readGeometry(wkt));
+		}
+
+		try {
+			WktGeometryReader.readGeometry("LINESTRING (1 2, 3)");
+			TestCase.fail("Invalid coordinate was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Test writing Well-Known Text numbers
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testWktNumbers() throws IOException {
+
+		double[] values = new double[] { -0.0, 0.1, -1.5, 1.0e-7, 1.0e-8,
+				1.0e20, 1.0e21, 1.0e15, 123456789.125, Double.MAX_VALUE,
+				-Double.MAX_VALUE, Double.MIN_VALUE, Double.MIN_NORMAL };
+		String[] expected = new String[] { "-0", "0.1", "-1.5", "0.0000001",
+				"1E-8", "100000000000000000000", "1E21", "1000000000000000",
+				"123456789.125", "1.7976931348623157E308",
+				"-1.7976931348623157E308", "5E-324",
+				"2.2250738585072014E-308" };
+		for (int i = 0; i < values.length; i++) {
+			Point point = new Point(values[i], 1);
+			String wkt = WktGeometryWriter.writeGeometry(point);
+			TestCase.assertEquals("POINT (" + expected[i] + " 1)", wkt);
+			Point read = WktGeometryReader.readGeometry(wkt, Point.class);
+			TestCase.assertEquals(Double.doubleToLongBits(values[i]),
+					Double.doubleToLongBits(read.getX()));
+			TestCase.assertEquals(point, read);
+			TestCase.assertEquals(wkt, WkbWktTranscoder
+					.transcode(WKBTestUtils.writeBytes(point)));
+		}
+
+		// Random values are written with the shortest digits, the same as
+		// GeoJSON
+		for (int i = 0; i < 10000; i++) {
+			double value = WKBTestUtils.createFiniteDouble(i);
+			Point point = new Point(value, 1);
+			String wkt = WktGeometryWriter.writeGeometry(point);
+			String number = wkt.substring("POINT (".length(),
+					wkt.indexOf(' ', "POINT (".length()));
+			WKBTestUtils.compareShortestNumber(value, number);
+			TestCase.assertEquals("{\"type\":\"Point\",\"coordinates\":["
+					+ number + ",1]}",
+					GeoJsonGeometryWriter.writeGeometry(point));
+			TestCase.assertEquals(wkt, WkbWktTranscoder
+					.transcode(WKBTestUtils.writeBytes(point)));
+		}
+
+		double[] invalid = new double[] { Double.NaN,
+				Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		for (double value : invalid) {
+			try {
+				WktGeometryWriter.writeGeometry(new Point(1, value));
+				TestCase.fail("Non finite coordinate was written: " + value);
+			} catch (WkbException e) {
+				// Expected
+			}
+			LineString lineString = new LineString();
+			lineString.addPoint(new Point(value, 1));
+			try {
+				WkbWktTranscoder.transcode(WKBTestUtils.writeBytes(lineString));
+				TestCase.fail("Non finite coordinate was transcoded: "
+						+ value);
+			} catch (WkbException e) {
+				// Expected
+			}
+		}
+	}
+
+	/**
+	 * Test reading malformed Well-Known Text
+	 */
+	@Test
+	public void testMalformedWkt() {
+
+		String[] wkts = new String[] { "", "POINT", "POINT (1 2",
+				"POINT (1 2 3 4 5)", "POINT (1 a)", "POINT (1 2) POINT (3 4)",
+				"POINT ZM (1 2 3)", "LINESTRING (1 2, )", "POLYGON (1 2, 3 4)",
+				"MULTIPOINT ((1 2), (3 4)", "UNKNOWN (1 2)",
+				"GEOMETRYCOLLECTION (POINT (1 2), )", "SRID=4326 POINT (1 2)" };
+		for (String wkt : wkts) {
+			try {
+				WktGeometryReader.readGeometry(wkt);
+				TestCase.fail("Malformed Well-Known Text was read: " + wkt);
+			} catch (WkbException e) {
+				// Expected
+			}
+		}
+
+		try {
+			WktGeometryReader.readGeometry("POINT (1 2)", LineString.class);
+			TestCase.fail("Unexpected geometry type was read");
+		} catch (WkbException e) {
+			// Expected
+		}
+	}
+
+}